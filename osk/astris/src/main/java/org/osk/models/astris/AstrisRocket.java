@@ -96,7 +96,6 @@ public class AstrisRocket  {
 //		initBoundaryConditions();
 		// TODO: fire a CDI event to say that the model is ready for starting the
 		// simulation?
-		registerMBeans();
 	}
 
     @Inject Logger LOG; 
@@ -230,21 +229,6 @@ public class AstrisRocket  {
 //		mesh2.add(junction04);
 	}
     
-    // move this method out of this class (catch an event and then, register? 
-	private void registerMBeans() {
-//		for (Model model : timeStepItems) {
-//			try {
-//				Management.register(model,
-//						"org.osk:type=" + model.getType() + ",name="
-//								+ model.getName());
-//			} catch (InstanceAlreadyExistsException e) {
-//				e.printStackTrace();
-//			} catch (ManagementException e) {
-//				e.printStackTrace();
-//			}
-//		}
-	}
-	 
 //	Use the annotated method to check the instantiation of the rocket model
 //    public void initSim(@Observes ContainerInitialized init) throws IOException {
 //      	Logger log = Logger.getGlobal();
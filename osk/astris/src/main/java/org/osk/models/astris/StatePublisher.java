@@ -0,0 +1,162 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.astris;
+
+import java.io.File;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.deltaspike.core.api.config.ConfigProperty;
+import org.osk.errors.OskException;
+import org.osk.events.ECI;
+import org.osk.events.Fuel;
+import org.osk.events.Oxid;
+import org.osk.events.ECIpv;
+import org.osk.events.StepCompleted;
+import org.osk.events.TimeIter;
+import org.osk.frames.EarthOrientation;
+import org.osk.models.astris.parts.Engine20;
+import org.osk.models.astris.parts.FFV18;
+import org.osk.models.astris.parts.FFV19;
+import org.osk.models.astris.parts.HPBottle00;
+import org.osk.models.astris.parts.HPBottle01;
+import org.osk.models.astris.parts.ScStructure22;
+import org.osk.models.astris.parts.Tank17;
+import org.osk.ports.FluidPort;
+import org.osk.telemetry.StateSegment;
+import org.slf4j.Logger;
+
+/**
+ * Publishes the state of the Astris stage into a {@link StateSegment} at
+ * the end of every time step, for visualizers and other local processes.
+ *
+ * The values are collected from the time step events while the step runs
+ * and written to the segment when the solver reports the step as
+ * completed. Publishing is off unless state.segmentFile names a file.
+ */
+@ApplicationScoped
+public class StatePublisher {
+
+	/** Channels of the segment, in layout order. */
+	static final String[] CHANNELS = {
+		"eci.x", "eci.y", "eci.z", "eci.vx", "eci.vy", "eci.vz",
+		"ecef.x", "ecef.y", "ecef.z", "ecef.vx", "ecef.vy", "ecef.vz",
+		"thrust",
+		"hpbottle00.p", "hpbottle00.t", "hpbottle00.mf",
+		"hpbottle01.p", "hpbottle01.t", "hpbottle01.mf",
+		"tank17.fuel.p", "tank17.fuel.t", "tank17.fuel.mf",
+		"tank17.ox.p", "tank17.ox.t", "tank17.ox.mf",
+		"ffv18.p", "ffv18.t", "ffv18.mf",
+		"ffv19.p", "ffv19.t", "ffv19.mf"
+	};
+	private static final int ECI = 0;
+	private static final int ECEF = 6;
+	private static final int THRUST = 12;
+	private static final int HPBOTTLE00 = 13;
+	private static final int HPBOTTLE01 = 16;
+	private static final int TANK_FUEL = 19;
+	private static final int TANK_OXIDIZER = 22;
+	private static final int FFV18_OUT = 25;
+	private static final int FFV19_OUT = 28;
+
+	@Inject Logger LOG;
+	@Inject EarthOrientation earthOrientation;
+
+	private StateSegment segment;
+	/** Values of the running step. */
+	private final double[] values = new double[CHANNELS.length];
+	private final double[] rEci = new double[3];
+	private final double[] vEci = new double[3];
+	private final double[] rEcef = new double[3];
+	private final double[] vEcef = new double[3];
+
+	@Inject
+	void initSegmentFile(@ConfigProperty(name = "state.segmentFile", defaultValue = "") String value) {
+		if (value == null || value.trim().length() == 0) {
+			return;
+		}
+		try {
+			segment = new StateSegment(new File(value.trim()), CHANNELS);
+			LOG.info("Publishing simulation state to {}", segment.getFile());
+		} catch (OskException e) {
+			LOG.error("State segment disabled: {}", e.getMessage());
+		}
+	}
+
+	public void position(@Observes @Named(ScStructure22.NAME) @ECI @TimeIter ECIpv posVel) {
+		if (segment == null) {
+			return;
+		}
+		for (int i = 0; i < 3; i++) {
+			rEci[i] = posVel.getPosition(i);
+			vEci[i] = posVel.getVelocity(i);
+		}
+	}
+
+	public void thrust(@Observes @Named(Engine20.NAME) @TimeIter Vector3D thrust) {
+		values[THRUST] = thrust.getNorm();
+	}
+
+	public void hpBottle00(@Observes @Named(HPBottle00.NAME) @TimeIter FluidPort port) {
+		copy(port, HPBOTTLE00);
+	}
+
+	public void hpBottle01(@Observes @Named(HPBottle01.NAME) @TimeIter FluidPort port) {
+		copy(port, HPBOTTLE01);
+	}
+
+	public void tankFuel(@Observes @Named(Tank17.NAME) @Fuel @TimeIter FluidPort port) {
+		copy(port, TANK_FUEL);
+	}
+
+	public void tankOxidizer(@Observes @Named(Tank17.NAME) @Oxid @TimeIter FluidPort port) {
+		copy(port, TANK_OXIDIZER);
+	}
+
+	public void ffv18(@Observes @Named(FFV18.NAME) @TimeIter FluidPort port) {
+		copy(port, FFV18_OUT);
+	}
+
+	public void ffv19(@Observes @Named(FFV19.NAME) @TimeIter FluidPort port) {
+		copy(port, FFV19_OUT);
+	}
+
+	private void copy(final FluidPort port, final int channel) {
+		values[channel] = port.getPressure();
+		values[channel + 1] = port.getTemperature();
+		values[channel + 2] = port.getMassflow();
+	}
+
+	public void publish(@Observes StepCompleted step) {
+		if (segment == null) {
+			return;
+		}
+		earthOrientation.toEcef(step.time, rEci, vEci, rEcef, vEcef);
+		for (int i = 0; i < 3; i++) {
+			values[ECI + i] = rEci[i];
+			values[ECI + 3 + i] = vEci[i];
+			values[ECEF + i] = rEcef[i];
+			values[ECEF + 3 + i] = vEcef[i];
+		}
+		segment.begin(step.time, step.step);
+		for (int i = 0; i < values.length; i++) {
+			segment.set(i, values[i]);
+		}
+		segment.end();
+	}
+
+	@PreDestroy
+	void close() {
+		if (segment != null) {
+			segment.close();
+		}
+	}
+}
@@ -7,6 +7,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.deltaspike.core.api.config.ConfigProperty;
 import org.osk.config.NumberConfig;
 import org.osk.errors.OskException;
 import org.osk.events.BackIter;
@@ -16,12 +17,14 @@ import org.osk.events.Fuel;
 import org.osk.events.Iter;
 import org.osk.events.Iteration;
 import org.osk.events.Oxid;
-import org.osk.events.PVCoordinates;
+import org.osk.events.ECIpv;
 import org.osk.events.TimeIter;
 import org.osk.interceptors.Log;
 import org.osk.models.t1.BoundaryUtils;
 import org.osk.models.Engine;
 import org.osk.ports.FluidPort;
+import org.osk.ports.Fluids;
+import org.osk.telemetry.ModelRegistry;
 
 @Log
 @ApplicationScoped
@@ -30,8 +33,11 @@ public class Engine20  {
 	public final static String NAME = "Engine20";
 
 	private static final double EARTH_RADIUS = 6353000;
+	private static final int FUEL = Fluids.id("Fuel");
+	private static final int OXIDIZER = Fluids.id("Oxidizer");
 	
 	@Inject Engine model;
+	@Inject ModelRegistry registry;
 //	@Inject @Named(NAME) @Iter Event<Iteration> event;
 	@Inject @Named(NAME) @TimeIter Event<Vector3D> timerEvent;
 	@Inject @Named(FFV19.NAME) @Oxid @BackIter Event<FluidPort> backOxidEvent;
@@ -39,6 +45,9 @@ public class Engine20  {
 
 	FluidPort inputOxid;
 	FluidPort inputFuel;
+	/** Requested flows, sent upstream in every back iteration. */
+	private final FluidPort boundaryFuel = new FluidPort();
+	private final FluidPort boundaryOxidizer = new FluidPort();
 
 	public void timeIterationFuel(
 			@Observes @Named(FFV18.NAME) @TimeIter FluidPort inputPort) throws OskException {
@@ -58,10 +67,10 @@ public class Engine20  {
 
 	public void backIterate(@Observes @BackIter Iteration backIter) {
 		// Here the engine says how much fuel/oxidizer needs
-        FluidPort inputPortFuel = BoundaryUtils.createBoundaryPort("Fuel", model.getRequestedFuelFlow());
-        FluidPort inputPortOxidizer = BoundaryUtils.createBoundaryPort("Oxidizer", model.getRequestedOxFlow());
-		backFuelEvent.fire(inputPortFuel);
-		backOxidEvent.fire(inputPortOxidizer);
+        BoundaryUtils.setBoundaryPort(boundaryFuel, FUEL, model.getRequestedFuelFlow());
+        BoundaryUtils.setBoundaryPort(boundaryOxidizer, OXIDIZER, model.getRequestedOxFlow());
+		backFuelEvent.fire(boundaryFuel);
+		backOxidEvent.fire(boundaryOxidizer);
 	}
 
 	private void fireTimeIteration() throws OskException {
@@ -70,8 +79,8 @@ public class Engine20  {
 		inputFuel = inputOxid = null; // events processed
 	}
 
-	public void altitudeHandler(@Observes @Named(ScStructure22.NAME) @ECI @Iter PVCoordinates posVel) {
-		final double altitude = posVel.getPosition().getNorm() - EARTH_RADIUS;
+	public void altitudeHandler(@Observes @Named(ScStructure22.NAME) @ECI @Iter ECIpv posVel) {
+		final double altitude = posVel.getRadius() - EARTH_RADIUS;
 		model.setAltitude(altitude);
 	}
 	
@@ -85,6 +94,7 @@ public class Engine20  {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 	
 	@Inject
@@ -97,6 +107,16 @@ public class Engine20  {
 		model.setIgnitionOxidizerFlow(value);
 	}
 
+	@Inject
+	void initUsePerformanceMap(@ConfigProperty(name = "engine20.usePerformanceMap", defaultValue = "false") String value) {
+		model.setUsePerformanceMap(value != null && Boolean.parseBoolean(value.trim()));
+	}
+
+	@Inject
+	void initPerformanceMapResource(@ConfigProperty(name = "engine20.performanceMapResource", defaultValue = "") String value) {
+		model.setPerformanceMapResource(value == null ? null : value.trim());
+	}
+
 //	@Inject
 //	void initAlt(@NumberConfig(name = "engine20.alt", defaultValue = "600000") Double value) {
 //		model.setAlt(value);
@@ -18,6 +18,7 @@ import org.osk.interceptors.Log;
 import org.osk.models.t1.EngineController;
 import org.osk.ports.AnalogPort;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 import org.osk.time.TimeHandler;
 
 @Log
@@ -27,6 +28,7 @@ public class EngineController21   {
 	public final static String NAME = "EngineController21";
 
 	@Inject EngineController model;	
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Fuel @Iter Event<AnalogPort> fuelEvent;
 	@Inject @Named(NAME) @Oxid @Iter Event<AnalogPort> oxidEvent;
 	@Inject @Named(NAME) @Fuel @TimeIter Event<AnalogPort> fuelTimeEvent;
@@ -102,6 +104,7 @@ public class EngineController21   {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 		
 	@Inject
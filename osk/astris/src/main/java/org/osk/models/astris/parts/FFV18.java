@@ -16,6 +16,7 @@ import org.osk.interceptors.Log;
 import org.osk.models.t1.FluidFlowValve;
 import org.osk.ports.AnalogPort;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 import org.osk.time.TimeHandler;
 
 @Log
@@ -25,13 +26,17 @@ public class FFV18  {
 	public final static String NAME = "FFV18";
 
 	@Inject FluidFlowValve model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Iter Event<FluidPort> event;
 	@Inject @Named(NAME) @TimeIter Event<FluidPort> outputEvent;
 	@Inject @Named(NAME) @RegulIter Event<AnalogPort> controlEvent;
 	@Inject @Named(Tank17.NAME) @Fuel @BackIter Event<FluidPort> backEvent;
 	@Inject TimeHandler timeHandler;
+	@Inject IntervalController24 controller;
 
 	FluidPort inputPort;
+	/** Zero control signal used while the controller has not sent one. */
+	private final AnalogPort noControl = new AnalogPort();
 	AnalogPort controlPort;
 	
 	public void iterationFuel(@Observes @Named(Tank17.NAME) @Fuel @Iter FluidPort input) {
@@ -64,13 +69,18 @@ public class FFV18  {
 //	}
 
 	public void backIterate(@Observes @Named(NAME) @BackIter FluidPort outputPort) {
-		// at this stage, do not change boundary conditions requested
-		backEvent.fire(outputPort);
+		// a scheduled or commanded valve sets the flow, otherwise the request passes unchanged
+		AnalogPort schedule = controller.getControlPort(IntervalController24.FUEL);
+		backEvent.fire(schedule == null && !model.isCommanded() ? outputPort
+				: model.controlBoundary(outputPort, schedule));
 	}
 
 	private void fireIteration() {
 		if (controlPort == null) {
-			controlPort = new AnalogPort();
+			controlPort = controller.getControlPort(IntervalController24.FUEL);
+		}
+		if (controlPort == null) {
+			controlPort = noControl;
 		}
 		FluidPort output = model.calculateMassFlow(timeHandler.getSimulatedMissionTime(), inputPort, controlPort);
 		event.fire(output);
@@ -80,7 +90,7 @@ public class FFV18  {
 
 	private void fireTimeIteration() {		
 		if (controlPort == null) {
-			controlPort = new AnalogPort();
+			controlPort = noControl;
 		}
 //		FluidPort output = model.timeStep(inputPort, controlPort);
 //		outputEvent.fire(output);
@@ -94,6 +104,7 @@ public class FFV18  {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 				
 	@Inject
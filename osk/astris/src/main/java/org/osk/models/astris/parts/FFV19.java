@@ -16,6 +16,7 @@ import org.osk.interceptors.Log;
 import org.osk.models.t1.FluidFlowValve;
 import org.osk.ports.AnalogPort;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 import org.osk.time.TimeHandler;
 
 @Log
@@ -25,13 +26,17 @@ public class FFV19 {
 	public final static String NAME = "FFV19";
 
 	@Inject FluidFlowValve model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Iter Event<FluidPort> event;
 	@Inject @Named(NAME) @TimeIter Event<FluidPort> outputEvent;
 	@Inject @Named(NAME) @RegulIter Event<AnalogPort> controlEvent;
 	@Inject @Named(Tank17.NAME) @Oxid @BackIter Event<FluidPort> backEvent;
 	@Inject TimeHandler timeHandler;
+	@Inject IntervalController24 controller;
 
 	FluidPort inputPort;
+	/** Zero control signal used while the controller has not sent one. */
+	private final AnalogPort noControl = new AnalogPort();
 	AnalogPort controlPort;
 	
 	public void iterationOxid(@Observes @Named(Tank17.NAME) @Oxid @Iter FluidPort input) {
@@ -64,8 +69,10 @@ public class FFV19 {
 //	}
 
 	public void backIterate(@Observes @Named(NAME) @BackIter FluidPort outputPort) {
-		// at this stage, do not change boundary conditions requested
-		backEvent.fire(outputPort);
+		// a scheduled or commanded valve sets the flow, otherwise the request passes unchanged
+		AnalogPort schedule = controller.getControlPort(IntervalController24.OXIDIZER);
+		backEvent.fire(schedule == null && !model.isCommanded() ? outputPort
+				: model.controlBoundary(outputPort, schedule));
 	}
 
 //	public void backIterate(@Observes @Named(NAME) @BackIter FluidPort outputPort) {
@@ -78,7 +85,10 @@ public class FFV19 {
 
 	private void fireIteration() {
 		if (controlPort == null) {
-			controlPort = new AnalogPort();
+			controlPort = controller.getControlPort(IntervalController24.OXIDIZER);
+		}
+		if (controlPort == null) {
+			controlPort = noControl;
 		}
 		FluidPort output = model.calculateMassFlow(timeHandler.getSimulatedMissionTime(), inputPort, controlPort);
 		event.fire(output);
@@ -88,7 +98,7 @@ public class FFV19 {
 
 	private void fireTimeIteration() {		
 		if (controlPort == null) {
-			controlPort = new AnalogPort();
+			controlPort = noControl;
 		}
 //		FluidPort output = model.timeStep(inputPort, controlPort);
 //		outputEvent.fire(output);
@@ -102,6 +112,7 @@ public class FFV19 {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 	
 	@Inject
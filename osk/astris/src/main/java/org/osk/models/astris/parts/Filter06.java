@@ -14,6 +14,7 @@ import org.osk.events.TimeStep;
 import org.osk.interceptors.Log;
 import org.osk.models.Filter;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 
 @Log
 @ApplicationScoped
@@ -22,6 +23,7 @@ public class Filter06  {
 	public final static String NAME = "Filter06";
 
 	@Inject Filter model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Iter Event<FluidPort> event;
 	@Inject @Named(NAME) @TimeIter Event<FluidPort> outputEvent;
 	@Inject @Named(Pipe05.NAME) @BackIter Event<FluidPort> backEvent;
@@ -34,7 +36,7 @@ public class Filter06  {
 
 	public void timeIteration(@Observes @Named(Pipe05.NAME) @TimeIter FluidPort input) {
 		model.propagate(tStepSize, input);
-		FluidPort output = model.createOutputPort(input);
+		FluidPort output = model.updateOutputPort(input);
 		outputEvent.fire(output);
 	}
 	
@@ -49,6 +51,7 @@ public class Filter06  {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 
 	@Inject
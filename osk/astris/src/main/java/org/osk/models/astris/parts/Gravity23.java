@@ -2,21 +2,20 @@ package org.osk.models.astris.parts;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
-import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.osk.config.NumberConfig;
 import org.osk.errors.OskException;
 import org.osk.events.ECI;
-import org.osk.events.Gravity;
 import org.osk.events.Iter;
-import org.osk.events.PVCoordinates;
+import org.osk.events.ECIpv;
 import org.osk.events.TimeIter;
 import org.osk.interceptors.Log;
+import org.osk.models.environment.GravityField;
 import org.osk.models.environment.OSKGravityModel;
-import org.osk.time.TimeHandler;
+import org.osk.telemetry.ModelRegistry;
 
 @Log
 @ApplicationScoped
@@ -25,21 +24,25 @@ public class Gravity23 {
 	public final static String NAME = "Gravity23";
 
 	@Inject OSKGravityModel model;
-	@Inject @Named(NAME) @Gravity Event<Vector3D> outputEvent;
-	@Inject TimeHandler timeHandler;
+	@Inject ModelRegistry registry;
     
-	public void iteration(@Observes @Named(ScStructure22.NAME) @ECI @Iter PVCoordinates posVel) {
-		model.setScPositionECI(posVel.getPosition());
-		Vector3D gravity = model.computeEarthGravity(timeHandler.getSimulatedMissionTimeAsDouble());
-		outputEvent.fire(gravity);
+	/*
+	 * ScStructure22 evaluates the gravity field inside every stage of its
+	 * trajectory propagator, so the position is only tracked here for
+	 * monitoring; computing the gravity once more per step is not needed.
+	 */
+	public void iteration(@Observes @Named(ScStructure22.NAME) @ECI @Iter ECIpv posVel) {
+		model.setScPositionECI(posVel);
 	}
 
-	public void timeIteration(@Observes @Named(ScStructure22.NAME) @ECI @TimeIter PVCoordinates posVel) {
-		model.setScPositionECI(posVel.getPosition());
-		Vector3D gravity = model.computeEarthGravity(timeHandler.getSimulatedMissionTimeAsDouble());
-		outputEvent.fire(gravity);
+	public void timeIteration(@Observes @Named(ScStructure22.NAME) @ECI @TimeIter ECIpv posVel) {
+		model.setScPositionECI(posVel);
 	}
 
+	/** The gravity model, for propagators evaluating it within a step. */
+	public GravityField getGravityField() {
+		return model;
+	}
 
 	//---------------------------------------------------------------------------------------
 	// Initialisation values
@@ -47,6 +50,17 @@ public class Gravity23 {
 	@PostConstruct
     void initModel() throws OskException {
     	model.init();
+    	registry.register(NAME, model);
     }
+
+	@Inject
+	void initDegree(@NumberConfig(name = "gravity23.degree", defaultValue = "8") Double value) {
+		model.setDegree(value.intValue());
+	}
+
+	@Inject
+	void initOrder(@NumberConfig(name = "gravity23.order", defaultValue = "8") Double value) {
+		model.setOrder(value.intValue());
+	}
 	
 }
@@ -16,6 +16,7 @@ import org.osk.events.TimeIteration;
 import org.osk.interceptors.Log;
 import org.osk.models.HPBottle;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 import org.osk.time.TimeHandler;
 
 @Log
@@ -24,6 +25,7 @@ public class HPBottle00  {
 
 	public final static String NAME = "HPBottle00"; 
 	@Inject HPBottle model;
+	@Inject ModelRegistry registry;
 	
 	// We produce events marked for this element
 	@Inject	@Named(NAME) @Iter     Event<FluidPort> event;
@@ -55,6 +57,7 @@ public class HPBottle00  {
     @PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
     
 	@Inject
@@ -16,6 +16,7 @@ import org.osk.events.TimeIteration;
 import org.osk.interceptors.Log;
 import org.osk.models.HPBottle;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 import org.osk.time.TimeHandler;
 
 @Log
@@ -25,6 +26,7 @@ public class HPBottle01 {
 	public final static String NAME = "HPBottle01"; 
 
 	@Inject HPBottle model;
+	@Inject ModelRegistry registry;
 	@Inject	@Named(NAME) @Iter     Event<FluidPort> event;
 	@Inject	@Named(NAME) @TimeIter Event<FluidPort> timeEvent;
 	@Inject	@Named(NAME) @BackIter Event<FluidPort> backIterEvent;
@@ -55,6 +57,7 @@ public class HPBottle01 {
     @PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 	
 	@Inject
@@ -0,0 +1,100 @@
+package org.osk.models.astris.parts;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.apache.deltaspike.core.api.config.ConfigProperty;
+import org.osk.config.NumberConfig;
+import org.osk.events.TimeIteration;
+import org.osk.interceptors.Log;
+import org.osk.models.t1.IntervalController;
+import org.osk.numeric.ScheduleTable;
+import org.osk.numeric.ScheduleTable.Interpolation;
+import org.osk.ports.AnalogPort;
+import org.osk.telemetry.ModelRegistry;
+
+/**
+ * Valve control schedules, channel 1 for the fuel valve FFV18 and channel 2
+ * for the oxidizer valve FFV19. A channel without schedule leaves its valve
+ * uncontrolled, so without any schedule the flows follow the engine's
+ * requests as before.
+ */
+@Log
+@ApplicationScoped
+public class IntervalController24 {
+
+	public final static String NAME = "IntervalController24";
+	public final static int FUEL = 0;
+	public final static int OXIDIZER = 1;
+
+	@Inject IntervalController model;
+	@Inject ModelRegistry registry;
+
+	private double[] fuelSchedule;
+	private double[] oxidizerSchedule;
+	private Interpolation interpolation;
+	/** Control port per channel, null for a channel without schedule. */
+	private final AnalogPort[] ports = new AnalogPort[2];
+
+	// The schedules are updated before the valves read them in the back iteration.
+	public void timeIteration(@Observes TimeIteration timeIter) {
+		if (ports[FUEL] != null || ports[OXIDIZER] != null) {
+			model.timeStep(timeIter.time, timeIter.timeStep);
+		}
+	}
+
+	/** Control port of the channel, null if it has no schedule. */
+	public AnalogPort getControlPort(int channel) {
+		return ports[channel];
+	}
+
+	//---------------------------------------------------------------------------------------
+	// Initialisation values
+
+	@PostConstruct
+	void initModel() {
+		model.setSchedules(schedule(fuelSchedule), schedule(oxidizerSchedule));
+		if (fuelSchedule.length > 0) {
+			ports[FUEL] = new AnalogPort();
+			model.setControlPort(FUEL, ports[FUEL]);
+		}
+		if (oxidizerSchedule.length > 0) {
+			ports[OXIDIZER] = new AnalogPort();
+			model.setControlPort(OXIDIZER, ports[OXIDIZER]);
+		}
+		model.init(NAME);
+		model.regulStep();
+		registry.register(NAME, model);
+	}
+
+	/** Schedule of the time/value pairs, a constant 0 if there are none. */
+	private ScheduleTable schedule(double[] pairs) {
+		if (pairs.length == 0) {
+			return new ScheduleTable(new double[] {0.0}, new double[] {0.0}, interpolation);
+		}
+		return ScheduleTable.fromPairs(pairs, interpolation);
+	}
+
+	@Inject
+	void initControlRangeMax(@NumberConfig(name = "icontroller24.controlRangeMax", defaultValue = "1.0") Double value) {
+		model.setControlRangeMax(value);
+	}
+	@Inject
+	void initControlRangeMin(@NumberConfig(name = "icontroller24.controlRangeMin", defaultValue = "0.0") Double value) {
+		model.setControlRangeMin(value);
+	}
+	@Inject
+	void initInterpolation(@ConfigProperty(name = "icontroller24.interpolation", defaultValue = "STEP") String value) {
+		interpolation = value == null || value.trim().length() == 0
+				? Interpolation.STEP : Interpolation.valueOf(value.trim().toUpperCase());
+	}
+	@Inject
+	void initFuelSchedule(@NumberConfig(name = "icontroller24.fuelSchedule", defaultValue = "") double[] values) {
+		fuelSchedule = values;
+	}
+	@Inject
+	void initOxidizerSchedule(@NumberConfig(name = "icontroller24.oxidizerSchedule", defaultValue = "") double[] values) {
+		oxidizerSchedule = values;
+	}
+}
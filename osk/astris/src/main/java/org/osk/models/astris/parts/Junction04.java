@@ -13,6 +13,7 @@ import org.osk.events.TimeIter;
 import org.osk.interceptors.Log;
 import org.osk.models.t1.JunctionT1;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 
 @Log
 @ApplicationScoped
@@ -21,6 +22,7 @@ public class Junction04  {
 	public final static String NAME = "Junction04"; 
 	
 	@Inject JunctionT1 model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Iter Event<FluidPort> event;
 	@Inject @Named(NAME) @TimeIter Event<FluidPort> outputEvent;
 	@Inject @Named(Pipe02.NAME) @BackIter Event<FluidPort> backEvent02;
@@ -69,7 +71,7 @@ public class Junction04  {
 	}
 
 	private void fireTimeIteration() {
-		FluidPort output = model.getOutputPortStatus(left.getFluid());
+		FluidPort output = model.getOutputPortStatus(left.getFluidId());
 		left = right = null; // events processed
 		outputEvent.fire(output);
 	}
@@ -79,6 +81,7 @@ public class Junction04  {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 	
 	
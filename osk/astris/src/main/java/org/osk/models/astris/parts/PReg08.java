@@ -6,9 +6,7 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.apache.deltaspike.core.api.config.ConfigProperty;
 import org.osk.config.NumberConfig;
-import org.osk.config.Util;
 import org.osk.events.BackIter;
 import org.osk.events.Iter;
 import org.osk.events.TimeIter;
@@ -17,6 +15,7 @@ import org.osk.interceptors.Log;
 import org.osk.models.PressureRegulator;
 import org.osk.models.t1.PRegT1;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 
 @Log
 @ApplicationScoped
@@ -25,6 +24,7 @@ public class PReg08  {
 	public final static String NAME = "PReg08";
 
 	@Inject PressureRegulator model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Iter Event<FluidPort> event;
 	@Inject @Named(NAME) @TimeIter Event<FluidPort> outputEvent;
 	@Inject @Named(Pipe07.NAME) @BackIter Event<FluidPort> backEvent;
@@ -37,7 +37,7 @@ public class PReg08  {
 
 	public void timeIteration(@Observes @Named(Pipe07.NAME) @TimeIter FluidPort inputPort) {
 		model.propagate(tStepSize, inputPort);
-		FluidPort output = model.createOutputPort(inputPort);
+		FluidPort output = model.updateOutputPort(inputPort);
 		outputEvent.fire(output);
 	}
 
@@ -53,6 +53,7 @@ public class PReg08  {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 
 	@Inject
@@ -76,9 +77,9 @@ public class PReg08  {
 	}
 
 	@Inject
-	void initPcoeff(@ConfigProperty(name = "preg8.pcoeff", 
-	defaultValue = "24.10245 .4462006 -1.84912E-3 2.580329E-6") String values) {
-	model.setPcoeff(Util.extractDoubleArray(values));
+	void initPcoeff(@NumberConfig(name = "preg8.pcoeff", 
+	defaultValue = "24.10245 .4462006 -1.84912E-3 2.580329E-6") double[] values) {
+	model.setPcoeff(values);
 	}
 		
 	@Inject
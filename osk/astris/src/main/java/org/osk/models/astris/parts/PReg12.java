@@ -6,9 +6,7 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.apache.deltaspike.core.api.config.ConfigProperty;
 import org.osk.config.NumberConfig;
-import org.osk.config.Util;
 import org.osk.events.BackIter;
 import org.osk.events.Iter;
 import org.osk.events.TimeIter;
@@ -16,6 +14,7 @@ import org.osk.events.TimeStep;
 import org.osk.interceptors.Log;
 import org.osk.models.PressureRegulator;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 
 
 @Log
@@ -25,6 +24,7 @@ public class PReg12  {
 	public final static String NAME = "PReg12";
 
 	@Inject PressureRegulator model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Iter Event<FluidPort> event;
 	@Inject @Named(NAME) @TimeIter Event<FluidPort> outputEvent;
 	@Inject @Named(Pipe11.NAME) @BackIter Event<FluidPort> backEvent;
@@ -37,7 +37,7 @@ public class PReg12  {
 
 	public void timeIteration(@Observes @Named(Pipe11.NAME) @TimeIter FluidPort inputPort) {
 		model.propagate(tStepSize, inputPort);
-		FluidPort output = model.createOutputPort(inputPort);
+		FluidPort output = model.updateOutputPort(inputPort);
 		outputEvent.fire(output);
 	}
 
@@ -53,6 +53,7 @@ public class PReg12  {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 
 	@Inject
@@ -76,9 +77,9 @@ public class PReg12  {
 	}
 
 	@Inject
-	void initPcoeff(@ConfigProperty(name = "preg12.pcoeff", 
-	defaultValue = "17.70 0.0 0.0 0.0") String values) {
-	model.setPcoeff(Util.extractDoubleArray(values));
+	void initPcoeff(@NumberConfig(name = "preg12.pcoeff", 
+	defaultValue = "17.70 0.0 0.0 0.0") double[] values) {
+	model.setPcoeff(values);
 	}
 		
 	@Inject
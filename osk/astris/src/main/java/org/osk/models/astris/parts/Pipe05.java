@@ -6,9 +6,7 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.apache.deltaspike.core.api.config.ConfigProperty;
 import org.osk.config.NumberConfig;
-import org.osk.config.Util;
 import org.osk.events.BackIter;
 import org.osk.events.Iter;
 import org.osk.events.TimeIter;
@@ -16,6 +14,7 @@ import org.osk.events.TimeStep;
 import org.osk.interceptors.Log;
 import org.osk.models.Pipe;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 
 @Log
 @ApplicationScoped
@@ -24,6 +23,7 @@ public class Pipe05 {
 	public final static String NAME = "Pipe05";
 
 	@Inject Pipe model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Iter Event<FluidPort> event;
 	@Inject @Named(NAME) @TimeIter Event<FluidPort> outputEvent;
 	@Inject @Named(Junction04.NAME) @BackIter Event<FluidPort> backEvent;
@@ -36,7 +36,7 @@ public class Pipe05 {
 
 	public void timeIteration(@Observes @Named(Junction04.NAME) @TimeIter FluidPort inputPort) {
 		model.propagate(tStepSize, inputPort);
-		FluidPort output = model.createOutputPort(inputPort);
+		FluidPort output = model.updateOutputPort(inputPort);
 		outputEvent.fire(output);
 	}
 
@@ -52,6 +52,7 @@ public class Pipe05 {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 
 	@Inject
@@ -84,9 +85,14 @@ public class Pipe05 {
 		model.setSurfaceRoughness(value);
 	}
 
+	@Inject
+	void initSections(@NumberConfig(name = "pipe5.sections", defaultValue = "10") Double value) {
+		model.setSections(value.intValue());
+	}
+	
 	@Inject
 	void initTemperatures(
-			@ConfigProperty(name = "pipe5.temperatures", defaultValue = "300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0") String values) {
-		model.setTemperatures(Util.extractDoubleArray(values));
+			@NumberConfig(name = "pipe5.temperatures", defaultValue = "300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0") double[] values) {
+		model.setTemperatures(values);
 	}
 }
@@ -6,9 +6,7 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.apache.deltaspike.core.api.config.ConfigProperty;
 import org.osk.config.NumberConfig;
-import org.osk.config.Util;
 import org.osk.events.BackIter;
 import org.osk.events.Iter;
 import org.osk.events.TimeIter;
@@ -16,6 +14,7 @@ import org.osk.events.TimeStep;
 import org.osk.interceptors.Log;
 import org.osk.models.Pipe;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 
 @Log
 @ApplicationScoped
@@ -24,6 +23,7 @@ public class Pipe07 {
 	public final static String NAME = "Pipe07";
 
 	@Inject Pipe model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Iter Event<FluidPort> event;
 	@Inject @Named(NAME) @TimeIter Event<FluidPort> outputEvent;
 	@Inject @Named(Filter06.NAME) @BackIter Event<FluidPort> backEvent;
@@ -36,7 +36,7 @@ public class Pipe07 {
 
 	public void timeIteration(@Observes @Named(Filter06.NAME) @TimeIter FluidPort inputPort) {
 		model.propagate(tStepSize, inputPort);
-		FluidPort output = model.createOutputPort(inputPort);
+		FluidPort output = model.updateOutputPort(inputPort);
 		outputEvent.fire(output);
 	}
 
@@ -53,6 +53,7 @@ public class Pipe07 {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 
 	@Inject
@@ -81,9 +82,14 @@ public class Pipe07 {
 	}
 	
 	@Inject
-	void initTemperatures(@ConfigProperty(name = "pipe7.temperatures", 
-			defaultValue = "300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0") String values) {
-	model.setTemperatures(Util.extractDoubleArray(values));
+	void initSections(@NumberConfig(name = "pipe7.sections", defaultValue = "10") Double value) {
+		model.setSections(value.intValue());
+	}
+	
+	@Inject
+	void initTemperatures(@NumberConfig(name = "pipe7.temperatures", 
+			defaultValue = "300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0") double[] values) {
+	model.setTemperatures(values);
 	}
 
 }
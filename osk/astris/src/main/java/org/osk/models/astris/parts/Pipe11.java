@@ -6,9 +6,7 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.apache.deltaspike.core.api.config.ConfigProperty;
 import org.osk.config.NumberConfig;
-import org.osk.config.Util;
 import org.osk.events.BackIter;
 import org.osk.events.Iter;
 import org.osk.events.Left;
@@ -17,6 +15,7 @@ import org.osk.events.TimeStep;
 import org.osk.interceptors.Log;
 import org.osk.models.Pipe;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 
 @Log
 @ApplicationScoped
@@ -25,6 +24,7 @@ public class Pipe11 {
 	public final static String NAME = "Pipe11";
 
 	@Inject Pipe model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Iter Event<FluidPort> event;
 	@Inject @Named(NAME) @TimeIter Event<FluidPort> outputEvent;
 	@Inject @Named(Split10.NAME) @BackIter @Left Event<FluidPort> backEvent;
@@ -37,7 +37,7 @@ public class Pipe11 {
 
 	public void timeIteration(@Observes @Named(Split10.NAME) @Left @TimeIter FluidPort inputPort) {
 		model.propagate(tStepSize, inputPort);
-		FluidPort output = model.createOutputPort(inputPort);
+		FluidPort output = model.updateOutputPort(inputPort);
 		outputEvent.fire(output);
 	}
 
@@ -53,6 +53,7 @@ public class Pipe11 {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 
 	@Inject
@@ -81,9 +82,14 @@ public class Pipe11 {
 	}
 	
 	@Inject
-	void initTemperatures(@ConfigProperty(name = "pipe11.temperatures", 
-			defaultValue = "300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0") String values) {
-	model.setTemperatures(Util.extractDoubleArray(values));
+	void initSections(@NumberConfig(name = "pipe11.sections", defaultValue = "10") Double value) {
+		model.setSections(value.intValue());
+	}
+	
+	@Inject
+	void initTemperatures(@NumberConfig(name = "pipe11.temperatures", 
+			defaultValue = "300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0 300.0") double[] values) {
+	model.setTemperatures(values);
 	}
 
 }
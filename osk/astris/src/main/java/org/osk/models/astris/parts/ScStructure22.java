@@ -7,19 +7,17 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
-import org.apache.deltaspike.core.api.config.ConfigProperty;
 import org.osk.config.NumberConfig;
-import org.osk.config.Util;
 import org.osk.errors.OskException;
 import org.osk.events.BackIter;
 import org.osk.events.ECI;
-import org.osk.events.Gravity;
 import org.osk.events.Iter;
 import org.osk.events.Iteration;
-import org.osk.events.PVCoordinates;
+import org.osk.events.ECIpv;
 import org.osk.events.TimeIter;
 import org.osk.interceptors.Log;
 import org.osk.models.structure.ScStructure;
+import org.osk.telemetry.ModelRegistry;
 import org.osk.time.TimeHandler;
 
 @Log
@@ -29,51 +27,67 @@ public class ScStructure22 {
 	public final static String NAME = "ScStructure22";
 	
 	@Inject ScStructure model;
-	@Inject @Named(NAME) @ECI @Iter Event<PVCoordinates> event;
-	@Inject @Named(NAME) @ECI @TimeIter Event<PVCoordinates> timerEvent;
-//	@Inject @Named(Engine20.NAME) @BackIter Event<PVCoordinates> backEvent;
+	@Inject ModelRegistry registry;
+	@Inject @Named(NAME) @ECI @Iter Event<ECIpv> event;
+	@Inject @Named(NAME) @ECI @TimeIter Event<ECIpv> timerEvent;
+//	@Inject @Named(Engine20.NAME) @BackIter Event<ECIpv> backEvent;
 	@Inject TimeHandler timeHandler;
+	@Inject Gravity23 gravity;
 
 	public void iteration(@Observes @ECI Iteration iter) {
-    	event.fire(new PVCoordinates(model.getScPositionECI(), model.getScVelocityECI()));
+    	event.fire(model.getCoordinates());
 	}
 
 	public void timeIteration(
 			@Observes @Named(Engine20.NAME) @TimeIter Vector3D thrust) throws OskException {
-		PVCoordinates scPosVel = model.calculateECICoordinates(timeHandler.getStepSizeAsDouble(), thrust);
+		ECIpv scPosVel = model.calculateECICoordinates(
+				timeHandler.getSimulatedMissionTimeAsDouble(), timeHandler.getStepSizeAsDouble(), thrust);
 		timerEvent.fire(scPosVel);
 	}
 
 	public void backIterate(
 			@Observes @BackIter Iteration backIter) {
     	// pass the initial position/velocity to interested parties
-		event.fire(new PVCoordinates(model.getScPositionECI(), model.getScVelocityECI()));
+		event.fire(model.getCoordinates());
 	}
 	
-	public void handleGravity(@Observes @Named(Gravity23.NAME) @Gravity Vector3D gravity) {
-		model.setGravity(gravity);
-	}
-
 	//---------------------------------------------------------------------------------------
 	// Initialisation values
 
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
+    	model.setGravityField(gravity.getGravityField());
     }
 
 	@Inject
-	void initScPositionECI(@ConfigProperty(name = "sc.scPositionECI", defaultValue = "6978137.0 0.0 0.0") String values) {
-	model.setScPositionECI(new Vector3D(Util.extractDoubleArray(values)));
+	void initScPositionECI(@NumberConfig(name = "sc.scPositionECI", defaultValue = "6978137.0 0.0 0.0") double[] values) {
+	model.setScPositionECI(new Vector3D(values));
 	}
 	
 	@Inject
-	void initScVelocityECI(@ConfigProperty(name = "sc.scVelocityECI", defaultValue = "0.0 2700.0 7058.0") String values) {
-	model.setScVelocityECI(new Vector3D(Util.extractDoubleArray(values)));
+	void initScVelocityECI(@NumberConfig(name = "sc.scVelocityECI", defaultValue = "0.0 2700.0 7058.0") double[] values) {
+	model.setScVelocityECI(new Vector3D(values));
 	}
 		
 	@Inject
 	void initScMass(@NumberConfig(name = "sc.scMass", defaultValue = "1000.0") Double value) {
 	model.setScMass(value);
 	}
+
+	@Inject
+	void initRelativeTolerance(@NumberConfig(name = "sc.relativeTolerance", defaultValue = "1.0E-10") Double value) {
+	model.getPropagator().setRelativeTolerance(value);
+	}
+
+	@Inject
+	void initPositionTolerance(@NumberConfig(name = "sc.positionTolerance", defaultValue = "1.0E-4") Double value) {
+	model.getPropagator().setPositionTolerance(value);
+	}
+
+	@Inject
+	void initVelocityTolerance(@NumberConfig(name = "sc.velocityTolerance", defaultValue = "1.0E-7") Double value) {
+	model.getPropagator().setVelocityTolerance(value);
+	}
 }
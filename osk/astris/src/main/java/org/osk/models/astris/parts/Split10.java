@@ -1,4 +1,5 @@
 package org.osk.models.astris.parts;
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
@@ -14,6 +15,7 @@ import org.osk.events.TimeIter;
 import org.osk.interceptors.Log;
 import org.osk.models.t1.SplitT1;
 import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
 
 @Log
 @ApplicationScoped
@@ -22,6 +24,7 @@ public class Split10 {
 	final static String NAME = "Split10"; 
 	
 	@Inject SplitT1 model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Right @Iter Event<FluidPort> eventRight;
 	@Inject @Named(NAME) @Left  @Iter Event<FluidPort> eventLeft;
 	@Inject @Named(NAME) @Right @TimeIter Event<FluidPort> outputEventRight;
@@ -65,4 +68,9 @@ public class Split10 {
 		backEvent.fire(input);
 	}
 
+	@PostConstruct
+    void initModel() {
+    	registry.register(NAME, model);
+    }
+
 }
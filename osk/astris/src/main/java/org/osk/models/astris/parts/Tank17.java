@@ -19,6 +19,8 @@ import org.osk.interceptors.Log;
 import org.osk.models.Tank;
 import org.osk.models.t1.BoundaryUtils;
 import org.osk.ports.FluidPort;
+import org.osk.ports.Fluids;
+import org.osk.telemetry.ModelRegistry;
 import org.osk.time.TimeHandler;
 
 @Log
@@ -26,8 +28,10 @@ import org.osk.time.TimeHandler;
 public class Tank17 {
 
 	public final static String NAME = "Tank17";
+	private static final int HELIUM = Fluids.id("Helium");
 
 	@Inject Tank model;
+	@Inject ModelRegistry registry;
 	@Inject @Named(NAME) @Oxid @Iter Event<FluidPort> eventOxid;
 	@Inject @Named(NAME) @Fuel @Iter Event<FluidPort> eventFuel;
 	@Inject @Named(NAME) @Oxid @TimeIter Event<FluidPort> outputEventOxid;
@@ -40,6 +44,9 @@ public class Tank17 {
 	FluidPort inputOx;
 	FluidPort outputFuel;
 	FluidPort outputOx;
+	/** Pressure gas requests, sent upstream in every back iteration. */
+	private final FluidPort boundaryFuel = new FluidPort();
+	private final FluidPort boundaryOxidizer = new FluidPort();
 
 	public void iterationFuel(
 			@Observes @Named(Pipe13.NAME) @Iter FluidPort inputPort) {
@@ -111,10 +118,10 @@ public class Tank17 {
 	private void fireBackIteration() {
 		// the tank just request a mass flow 
 		// FIXME: it seems there is no connection with oxid/fuel mass flow values from valves
-        FluidPort inputPortFuel = BoundaryUtils.createBoundaryPort("Helium", model.getMfBoundFuelPress());
-        FluidPort inputPortOxidizer = BoundaryUtils.createBoundaryPort("Helium", model.getMfBoundOxPress());
-		backEvent13.fire(inputPortFuel);
-		backEvent16.fire(inputPortOxidizer);
+        BoundaryUtils.setBoundaryPort(boundaryFuel, HELIUM, model.getMfBoundFuelPress());
+        BoundaryUtils.setBoundaryPort(boundaryOxidizer, HELIUM, model.getMfBoundOxPress());
+		backEvent13.fire(boundaryFuel);
+		backEvent16.fire(boundaryOxidizer);
 		outputFuel = outputOx = null; // events processed
 	}
 
@@ -124,6 +131,7 @@ public class Tank17 {
 	@PostConstruct
     void initModel() {
     	model.init(NAME);
+    	registry.register(NAME, model);
     }
 
 }
@@ -8,16 +8,19 @@ package org.osk.solver;
 
 import java.io.IOException;
 
+import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.jboss.weld.environment.se.events.ContainerInitialized;
+import org.osk.commands.TelecommandQueue;
 import org.osk.events.BackIter;
 import org.osk.events.ECI;
 import org.osk.events.Iter;
 import org.osk.events.Iteration;
 import org.osk.events.RegulIter;
+import org.osk.events.StepCompleted;
 import org.osk.events.TimeIteration;
 import org.osk.interceptors.AuditTime;
 import org.osk.time.TimeHandler;
@@ -32,15 +35,20 @@ import org.slf4j.Logger;
  * @author T. Pieper
  * @author P. Pita
  */
+@ApplicationScoped
 public class SeqModSim  {
     @Inject Logger LOG; 
     @Inject TimeHandler    timeHandler;
+    @Inject TelecommandQueue commands;
    
     @Inject @Iter Event<Iteration> iterEvent;
     @Inject @BackIter Event<Iteration> backIterEvent;
     @Inject @RegulIter Event<Iteration> regulIterEvent;
     @Inject Event<TimeIteration> timeEvent;
     @Inject @ECI Event<Iteration> positionEvent;
+    @Inject Event<StepCompleted> stepEvent;
+    /** Number of completed time steps. */
+    private long steps;
   
     public void printSimSettings() {
         LOG.info("Simulation: Step size is: {}.",
@@ -60,11 +68,8 @@ public class SeqModSim  {
  //       ExecutorService service = Executors.newSingleThreadExecutor();
 //		service.submit(this);
 
-        double time  = timeHandler.getSimulatedMissionTimeAsDouble();
-        double tinit = timeHandler.getSimulatedMissionTimeAsDouble();
-
         LOG.info("Starting simulation...\n");
-        LOG.info("Time: {}", time);
+        LOG.info("Time: {}", timeHandler.getSimulatedMissionTimeAsDouble());
         
         
         // We set up the boundary conditions, 
@@ -85,23 +90,14 @@ public class SeqModSim  {
          * boundary condition. */
     	LOG.info("Rocket Model Forward Iteration");
     	LOG.info("S/C Position in ECI and gravity\n");
-        iterEvent.fire(new Iteration()); // the event chain deals with iteration methods
+        iterate(); // the event chain deals with iteration methods
         
         //positionEvent.fire(new Iteration());
         
         // backIterEngineEvent.fire(new Iteration());
-        time = tinit;
-
 //        while (true) {
         try {
-        	LOG.info("Time iteration...\n");
-            timeEvent.fire(new TimeIteration(time, timeHandler.getStepSizeAsDouble()));
-            LOG.info("Regul iteration...\n");
-            regulIterEvent.fire(new Iteration());
-            LOG.info("Back iteration (set new boundary conditions) \n");
-            backIterEvent.fire(new Iteration());
-            time = time + timeHandler.getStepSizeAsDouble();
-
+            step();
             LOG.info("Time: {}",
             String.format("%1$tFT%1$tH:%1$tM:%1$tS.%1$tL",
             timeHandler.getSimulatedMissionTime()));
@@ -113,4 +109,37 @@ public class SeqModSim  {
 //        }
     }
 
+    /** Forward iteration of the whole system, from the sources to the engine. */
+    public void iterate() {
+        iterEvent.fire(new Iteration());
+    }
+
+    /**
+     * One time step: pending telecommands, time iteration, regulation and
+     * back iteration, then the mission clock of the {@link TimeHandler}
+     * advances and {@link StepCompleted} is fired. Benchmarks and batch runs
+     * call it repeatedly after the start-up in {@link #initSim}.
+     */
+    public void step() {
+        final double time = timeHandler.getSimulatedMissionTimeAsDouble();
+        commands.apply(time);
+        LOG.debug("Time iteration...");
+        timeEvent.fire(new TimeIteration(time, timeHandler.getStepSizeAsDouble()));
+        LOG.debug("Regul iteration...");
+        regulIterEvent.fire(new Iteration());
+        LOG.debug("Back iteration (set new boundary conditions)");
+        backIterEvent.fire(new Iteration());
+        timeHandler.update();
+        stepEvent.fire(new StepCompleted(timeHandler.getSimulatedMissionTimeAsDouble(), ++steps));
+    }
+
+    /** Mission time [s] at the start of the next step. */
+    public double getTime() {
+        return timeHandler.getSimulatedMissionTimeAsDouble();
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
 }
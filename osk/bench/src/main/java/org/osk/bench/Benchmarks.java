@@ -0,0 +1,28 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler, which reports the
+ * allocation rate and bytes allocated per operation next to the timings.
+ * All arguments are passed on to JMH, e.g. a benchmark name pattern like
+ * Gravity, or -f 1 -wi 3 -i 5 for a quick run.
+ */
+public final class Benchmarks {
+
+	private Benchmarks() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final String[] options = new String[args.length + 2];
+		options[0] = "-prof";
+		options[1] = "gc";
+		System.arraycopy(args, 0, options, 2, args.length);
+		Main.main(options);
+	}
+}
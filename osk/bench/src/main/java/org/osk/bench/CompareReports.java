@@ -0,0 +1,111 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.Map;
+
+/**
+ * Compares two {@link Throughput} reports, e.g. of the previous and the
+ * current build. Every number of both reports is printed with its relative
+ * change. The exit status is 1 if the simulated seconds per wall second
+ * dropped by more than the threshold, 5 % unless given, so build scripts
+ * can stop on a throughput regression.
+ *
+ * Arguments: base.json new.json [--threshold percent]
+ */
+public final class CompareReports {
+
+	static final String THROUGHPUT = "throughput.simulatedSecondsPerWallSecond";
+	/** Exit status of a throughput regression. */
+	static final int REGRESSION = 1;
+	/** Exit status of bad arguments or reports without throughput. */
+	static final int UNUSABLE = 2;
+
+	private CompareReports() {
+	}
+
+	public static void main(final String[] args) throws IOException {
+		double threshold = 5;
+		if (args.length == 4 && "--threshold".equals(args[2])) {
+			threshold = Double.parseDouble(args[3]);
+		} else if (args.length != 2) {
+			System.err.println("Usage: CompareReports base.json new.json [--threshold percent]");
+			System.exit(UNUSABLE);
+		}
+		final int status = compare(Json.numbers(Json.read(read(args[0]))),
+				Json.numbers(Json.read(read(args[1]))), threshold, System.out);
+		if (status != 0) {
+			System.exit(status);
+		}
+	}
+
+	/**
+	 * Prints the comparison of the numbers of two reports.
+	 *
+	 * @return the exit status, 0 if the throughput is within the threshold
+	 */
+	static int compare(final Map<String, Double> base, final Map<String, Double> current,
+			final double threshold, final PrintStream out) {
+		for (Map.Entry<String, Double> entry : base.entrySet()) {
+			if (entry.getKey().startsWith("scenario.")
+					&& !entry.getValue().equals(current.get(entry.getKey()))) {
+				out.println("Warning: the reports differ in " + entry.getKey());
+			}
+		}
+		out.println(String.format("%-52s %14s %14s %9s", "", "base", "new", "change"));
+		for (Map.Entry<String, Double> entry : base.entrySet()) {
+			if (entry.getKey().startsWith("scenario.") || entry.getKey().startsWith("environment.")
+					|| !current.containsKey(entry.getKey())) {
+				continue;
+			}
+			final double before = entry.getValue();
+			final double after = current.get(entry.getKey());
+			out.println(String.format("%-52s %14.6g %14.6g %9s",
+					entry.getKey(), before, after, change(before, after)));
+		}
+
+		final Double before = base.get(THROUGHPUT);
+		final Double after = current.get(THROUGHPUT);
+		if (before == null || after == null) {
+			out.println("No throughput in the reports");
+			return UNUSABLE;
+		}
+		if (after < before * (1 - threshold / 100)) {
+			out.println(String.format("Throughput regression: %s, more than %.1f %%",
+					change(before, after), threshold));
+			return REGRESSION;
+		}
+		out.println(String.format("Throughput %s, within %.1f %%", change(before, after), threshold));
+		return 0;
+	}
+
+	private static String change(final double before, final double after) {
+		if (before == 0) {
+			return after == 0 ? "0.0 %" : "n/a";
+		}
+		return String.format("%+.1f %%", (after - before) / Math.abs(before) * 100);
+	}
+
+	private static String read(final String file) throws IOException {
+		final Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+		try {
+			final StringBuilder text = new StringBuilder();
+			final char[] buffer = new char[4096];
+			int length;
+			while ((length = reader.read(buffer)) > 0) {
+				text.append(buffer, 0, length);
+			}
+			return text.toString();
+		} finally {
+			reader.close();
+		}
+	}
+}
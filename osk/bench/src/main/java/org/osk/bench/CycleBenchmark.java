@@ -0,0 +1,57 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.osk.solver.SeqModSim;
+
+/**
+ * The whole Astris event chain: a forward iteration followed by a time
+ * step with time, regulation and back iteration, as the solver runs it.
+ * The allocation per cycle is reported by the GC profiler that
+ * {@link Benchmarks} enables.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CycleBenchmark {
+
+	private Simulation simulation;
+	private SeqModSim solver;
+
+	@Setup
+	public void setUp() throws Exception {
+		simulation = new Simulation();
+		solver = simulation.get(SeqModSim.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		simulation.shutdown();
+	}
+
+	@Benchmark
+	public long iterationAndStep() {
+		solver.iterate();
+		solver.step();
+		return solver.getSteps();
+	}
+
+	@Benchmark
+	public long step() {
+		solver.step();
+		return solver.getSteps();
+	}
+}
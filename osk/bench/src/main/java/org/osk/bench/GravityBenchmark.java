@@ -0,0 +1,133 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import jat.forces.GravityModel;
+import jat.matvec.data.Matrix;
+import jat.matvec.data.VectorN;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.osk.events.ECEFpv;
+import org.osk.frames.ECEFBuilder;
+import org.osk.frames.EarthOrientation;
+import org.osk.models.environment.OSKGravityModel;
+import org.osk.models.environment.SphericalHarmonicGravity;
+import org.osk.time.TimeHandler;
+
+/**
+ * Earth gravity and frame conversions. Compares the native spherical
+ * harmonic model against the JAT GravityModel it replaced, both at the
+ * degree and order of gravity23 and with the same rotation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GravityBenchmark {
+
+	private static final String GRAVITY_FILE = "earthGravity/JGM3.grv";
+
+	private Simulation simulation;
+	private OSKGravityModel model;
+	private SphericalHarmonicGravity nativeGravity;
+	private GravityModel jatGravity;
+	private final ECEFBuilder ecefBuilder = new ECEFBuilder();
+	private double missionTime;
+	private final double[] position = {6978137.0, 0.0, 0.0};
+	private final double[] velocity = {0.0, 2700.0, 7058.0};
+	private final double[] eci2ecef = new double[9];
+	private final double[] acceleration = new double[3];
+	private VectorN jatPosition;
+	private Matrix jatEci2ecef;
+
+	@Setup
+	public void setUp() throws Exception {
+		simulation = new Simulation();
+		model = simulation.configured(OSKGravityModel.class, "gravity23.");
+		model.init();
+		model.setScPositionECI(new Vector3D(position));
+		missionTime = simulation.get(TimeHandler.class).getSimulatedMissionTimeAsDouble();
+
+		nativeGravity = SphericalHarmonicGravity.load(GRAVITY_FILE, model.getDegree(), model.getOrder());
+		simulation.get(EarthOrientation.class).eci2ecef(missionTime, eci2ecef);
+		jatGravity = new GravityModel(model.getOrder(), model.getDegree(), extract(GRAVITY_FILE).getPath());
+		jatPosition = new VectorN(position);
+		jatEci2ecef = new Matrix(3, 3);
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				jatEci2ecef.set(i, j, eci2ecef[3 * i + j]);
+			}
+		}
+	}
+
+	/** JAT reads the coefficients from a file, not from the classpath. */
+	private static File extract(final String resource) throws IOException {
+		final File file = File.createTempFile("gravity", ".grv");
+		file.deleteOnExit();
+		final InputStream in = GravityBenchmark.class.getClassLoader().getResourceAsStream(resource);
+		final OutputStream out = new FileOutputStream(file);
+		try {
+			final byte[] buffer = new byte[8192];
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				out.write(buffer, 0, n);
+			}
+		} finally {
+			out.close();
+			in.close();
+		}
+		return file;
+	}
+
+	@TearDown
+	public void tearDown() {
+		simulation.shutdown();
+	}
+
+	/** The model as the Gravity23 part uses it, rotation included. */
+	@Benchmark
+	public double[] computeEarthGravity() {
+		model.computeEarthGravity(missionTime, acceleration);
+		return acceleration;
+	}
+
+	@Benchmark
+	public Vector3D computeEarthGravityVector() {
+		return model.computeEarthGravity(missionTime);
+	}
+
+	@Benchmark
+	public double[] nativeSphericalHarmonics() {
+		nativeGravity.accelerationEci(position, eci2ecef, acceleration);
+		return acceleration;
+	}
+
+	@Benchmark
+	public VectorN jatSphericalHarmonics() {
+		return jatGravity.gravity(jatPosition, jatEci2ecef);
+	}
+
+	/** ECEFBuilder takes the days since J2000, the mission time is Unix time. */
+	@Benchmark
+	public ECEFpv eci2ecef() {
+		return ecefBuilder.eci2ecef((missionTime - EarthOrientation.UNIX_J2000) / EarthOrientation.SECONDS_PER_DAY,
+				0.0, 0, position, velocity);
+	}
+}
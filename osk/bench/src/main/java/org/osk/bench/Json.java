@@ -0,0 +1,234 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The little JSON the throughput reports need: objects of objects,
+ * numbers, strings, booleans and null. Arrays are not used by the reports
+ * and not supported.
+ */
+final class Json {
+
+	private final String text;
+	private int position;
+
+	private Json(final String text) {
+		this.text = text;
+	}
+
+	/** Writes the object with one member per line. */
+	static String write(final Map<String, ?> object) {
+		final StringBuilder out = new StringBuilder();
+		write(out, object, "");
+		return out.append('\n').toString();
+	}
+
+	/** Reads an object; nested objects become nested maps, numbers doubles. */
+	static Map<String, Object> read(final String text) {
+		final Json json = new Json(text);
+		final Map<String, Object> object = json.object();
+		json.skipSpace();
+		if (json.position != text.length()) {
+			throw json.error("end of input");
+		}
+		return object;
+	}
+
+	/**
+	 * All numbers of the object by their dotted path, e.g.
+	 * stepLatencyMicros.p99, in document order.
+	 */
+	static Map<String, Double> numbers(final Map<String, ?> object) {
+		final Map<String, Double> numbers = new LinkedHashMap<String, Double>();
+		numbers(numbers, "", object);
+		return numbers;
+	}
+
+	private static void numbers(final Map<String, Double> numbers, final String prefix,
+			final Map<String, ?> object) {
+		for (Map.Entry<String, ?> entry : object.entrySet()) {
+			final Object value = entry.getValue();
+			if (value instanceof Number) {
+				numbers.put(prefix + entry.getKey(), ((Number) value).doubleValue());
+			} else if (value instanceof Map) {
+				@SuppressWarnings("unchecked")
+				final Map<String, ?> member = (Map<String, ?>) value;
+				numbers(numbers, prefix + entry.getKey() + ".", member);
+			}
+		}
+	}
+
+	private static void write(final StringBuilder out, final Object value, final String indent) {
+		if (value instanceof Map) {
+			final String inner = indent + "  ";
+			out.append('{');
+			boolean first = true;
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				out.append(first ? "\n" : ",\n").append(inner);
+				string(out, String.valueOf(entry.getKey()));
+				out.append(": ");
+				write(out, entry.getValue(), inner);
+				first = false;
+			}
+			out.append(first ? "}" : "\n" + indent + "}");
+		} else if (value instanceof Double || value instanceof Float) {
+			final double number = ((Number) value).doubleValue();
+			out.append(Double.isNaN(number) || Double.isInfinite(number) ? "null" : String.valueOf(number));
+		} else if (value instanceof Number || value instanceof Boolean) {
+			out.append(value);
+		} else if (value == null) {
+			out.append("null");
+		} else {
+			string(out, value.toString());
+		}
+	}
+
+	private static void string(final StringBuilder out, final String value) {
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				out.append('\\').append(c);
+			} else if (c < 0x20) {
+				out.append(String.format("\\u%04x", (int) c));
+			} else {
+				out.append(c);
+			}
+		}
+		out.append('"');
+	}
+
+	private Map<String, Object> object() {
+		expect('{');
+		final Map<String, Object> object = new LinkedHashMap<String, Object>();
+		skipSpace();
+		if (peek() == '}') {
+			position++;
+			return object;
+		}
+		while (true) {
+			skipSpace();
+			final String key = string();
+			expect(':');
+			object.put(key, value());
+			skipSpace();
+			final char c = next();
+			if (c == '}') {
+				return object;
+			}
+			if (c != ',') {
+				throw error("',' or '}'");
+			}
+		}
+	}
+
+	private Object value() {
+		skipSpace();
+		final char c = peek();
+		if (c == '{') {
+			return object();
+		}
+		if (c == '"') {
+			return string();
+		}
+		if (text.startsWith("null", position)) {
+			position += 4;
+			return null;
+		}
+		if (text.startsWith("true", position)) {
+			position += 4;
+			return Boolean.TRUE;
+		}
+		if (text.startsWith("false", position)) {
+			position += 5;
+			return Boolean.FALSE;
+		}
+		final int start = position;
+		while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+			position++;
+		}
+		try {
+			return Double.valueOf(text.substring(start, position));
+		} catch (NumberFormatException e) {
+			position = start;
+			throw error("a value");
+		}
+	}
+
+	private String string() {
+		expect('"');
+		final StringBuilder value = new StringBuilder();
+		char c;
+		while ((c = next()) != '"') {
+			if (c == '\\') {
+				c = next();
+				switch (c) {
+				case 'n':
+					value.append('\n');
+					break;
+				case 't':
+					value.append('\t');
+					break;
+				case 'r':
+					value.append('\r');
+					break;
+				case 'b':
+					value.append('\b');
+					break;
+				case 'f':
+					value.append('\f');
+					break;
+				case 'u':
+					if (position + 4 > text.length()) {
+						throw error("four hex digits");
+					}
+					value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+					position += 4;
+					break;
+				default:
+					value.append(c);
+				}
+			} else {
+				value.append(c);
+			}
+		}
+		return value.toString();
+	}
+
+	private void expect(final char expected) {
+		skipSpace();
+		if (next() != expected) {
+			position--;
+			throw error("'" + expected + "'");
+		}
+	}
+
+	private char peek() {
+		if (position >= text.length()) {
+			throw error("more input");
+		}
+		return text.charAt(position);
+	}
+
+	private char next() {
+		final char c = peek();
+		position++;
+		return c;
+	}
+
+	private void skipSpace() {
+		while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+			position++;
+		}
+	}
+
+	private IllegalArgumentException error(final String expected) {
+		return new IllegalArgumentException("Expected " + expected + " at offset " + position);
+	}
+}
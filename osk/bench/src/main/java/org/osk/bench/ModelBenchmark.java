@@ -0,0 +1,80 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.osk.errors.OskException;
+import org.osk.models.materials.HeliumPropertiesBuilder;
+import org.osk.models.materials.MaterialProperties;
+import org.osk.models.t1.Engine;
+import org.osk.models.t1.PipeT1;
+import org.osk.ports.FluidPort;
+import org.osk.time.TimeHandler;
+
+/**
+ * Helium properties, the pipe iteration and time step, and the engine
+ * thrust, with the models configured like Pipe16 and Engine20.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelBenchmark {
+
+	private Simulation simulation;
+	private PipeT1 pipe;
+	private Engine engine;
+	private double stepSize;
+	/** Pressurant entering the pipe [bar, K, kg/s]. */
+	private final FluidPort helium = new FluidPort("Helium", 17.7, 290.0, 0.01);
+	private final FluidPort fuel = new FluidPort("Fuel", 10.0, 290.0, 2.995);
+	private final FluidPort oxidizer = new FluidPort("Oxidizer", 10.0, 290.0, 4.544);
+
+	@Setup
+	public void setUp() throws Exception {
+		simulation = new Simulation();
+		stepSize = simulation.get(TimeHandler.class).getStepSizeAsDouble();
+		pipe = simulation.configured(PipeT1.class, "pipe16.");
+		pipe.init("Pipe16");
+		engine = simulation.configured(Engine.class, "engine20.");
+		engine.init("Engine20");
+	}
+
+	@TearDown
+	public void tearDown() {
+		simulation.shutdown();
+	}
+
+	@Benchmark
+	public MaterialProperties heliumProperties() {
+		return HeliumPropertiesBuilder.build(17.7, 290.0);
+	}
+
+	@Benchmark
+	public FluidPort pipeOutletMassFlow() {
+		return pipe.calculateOutletMassFlow(helium);
+	}
+
+	@Benchmark
+	public double[] pipePropagate() {
+		pipe.propagate(stepSize, helium);
+		return pipe.getTemperatures();
+	}
+
+	@Benchmark
+	public Vector3D engineThrust() throws OskException {
+		return engine.computeThrust(fuel, oxidizer);
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Properties;
+
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.osk.config.Util;
+import org.osk.telemetry.ModelRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Weld container of the Astris simulation for the benchmarks. Starting it
+ * runs the start-up of the solver, the initial iteration and one step.
+ *
+ * The Astris chain runs the t2 alternatives of some models, so the t1
+ * models are created here from the container, which injects them, and
+ * configured from sim.properties the way the parts do it.
+ */
+public final class Simulation {
+
+	private static final Logger LOG = LoggerFactory.getLogger(Simulation.class);
+
+	private final Weld weld;
+	private final WeldContainer container;
+	private final Properties properties = new Properties();
+
+	public Simulation() throws IOException {
+		final InputStream in = Simulation.class.getResourceAsStream("/sim.properties");
+		if (in == null) {
+			throw new IOException("sim.properties not on the classpath");
+		}
+		try {
+			properties.load(in);
+		} finally {
+			in.close();
+		}
+		weld = new Weld();
+		container = weld.initialize();
+	}
+
+	public <T> T get(final Class<T> type) {
+		return container.instance().select(type).get();
+	}
+
+	/** Model registered by an Astris part, e.g. Tank17. */
+	public Object model(final String name) {
+		return get(ModelRegistry.class).getModel(name);
+	}
+
+	/**
+	 * New t1 model of the given type, with every sim.properties value
+	 * under the prefix, e.g. tank17., set through its setter. Keys without
+	 * setter are logged, as the parts may ignore some of them too.
+	 *
+	 * @throws IllegalStateException if a setter takes an unsupported type
+	 */
+	public <T> T configured(final Class<T> type, final String prefix) {
+		final T model = get(type);
+		for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+			final String key = (String) entry.getKey();
+			if (key.startsWith(prefix)
+					&& !set(model, key.substring(prefix.length()), ((String) entry.getValue()).trim())) {
+				LOG.warn("{} has no setter in {}, not set", key, type.getSimpleName());
+			}
+		}
+		return model;
+	}
+
+	/**
+	 * Sets a property through setX, the name compared ignoring case.
+	 *
+	 * @return false if there is no setter of the property
+	 */
+	private static boolean set(final Object model, final String property, final String value) {
+		Method unsupported = null;
+		for (Method method : model.getClass().getMethods()) {
+			if (!method.getName().equalsIgnoreCase("set" + property)
+					|| method.getParameterTypes().length != 1) {
+				continue;
+			}
+			final Class<?> type = method.getParameterTypes()[0];
+			final Object argument;
+			if (type == double.class) {
+				argument = Double.parseDouble(value);
+			} else if (type == int.class) {
+				argument = (int) Double.parseDouble(value);
+			} else if (type == boolean.class) {
+				argument = Boolean.parseBoolean(value);
+			} else if (type == String.class) {
+				argument = value;
+			} else if (type == double[].class) {
+				argument = Util.extractDoubleArray(value);
+			} else {
+				unsupported = method;
+				continue;
+			}
+			try {
+				method.invoke(model, argument);
+				return true;
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			} catch (InvocationTargetException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+		if (unsupported != null) {
+			throw new IllegalStateException("Cannot set " + property + " through " + unsupported);
+		}
+		return false;
+	}
+
+	public void shutdown() {
+		weld.shutdown();
+	}
+}
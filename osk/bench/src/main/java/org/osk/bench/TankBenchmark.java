@@ -0,0 +1,82 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.osk.config.SimHeaders;
+import org.osk.models.t1.TankT1;
+import org.osk.numeric.DEqSys;
+import org.osk.numeric.Engl45;
+import org.osk.ports.FluidPort;
+import org.osk.time.TimeHandler;
+
+/**
+ * Integration of the TankT1 differential equations: the derivatives, one
+ * England step and a whole DEqSys step. Every call starts from the same
+ * state, taken after one propagation of the configured tank.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TankBenchmark {
+
+	private static final int N = 20;
+
+	private Simulation simulation;
+	private TankT1 tank;
+	private double stepSize;
+	private final double[] initial = new double[N];
+	private final double[] state = new double[N];
+	private final double[] derivatives = new double[N];
+	private final double[] y = new double[N];
+	private final double[] yt = new double[N];
+
+	@Setup
+	public void setUp() throws Exception {
+		simulation = new Simulation();
+		stepSize = simulation.get(TimeHandler.class).getStepSizeAsDouble();
+		tank = simulation.configured(TankT1.class, "tank17.");
+		tank.init("Tank17");
+		tank.propagate(0.0, stepSize,
+				new FluidPort("Helium", tank.getPTO(), 290.0, 0.01),
+				new FluidPort("Helium", tank.getPTB(), 290.0, 0.01));
+		System.arraycopy(tank.getYK(), 0, initial, 0, N);
+	}
+
+	@TearDown
+	public void tearDown() {
+		simulation.shutdown();
+	}
+
+	@Benchmark
+	public double deqDeriv() {
+		tank.DEQDeriv(0.0, initial, N, derivatives);
+		return derivatives[0];
+	}
+
+	@Benchmark
+	public double engl45() {
+		System.arraycopy(initial, 0, state, 0, N);
+		Engl45.ENGL45(0.0, stepSize, state, N, y, yt, tank);
+		return y[0];
+	}
+
+	@Benchmark
+	public int deqSys() {
+		System.arraycopy(initial, 0, state, 0, N);
+		return DEqSys.DEqSys(0.0, stepSize, state, N, stepSize, SimHeaders.epsabs, SimHeaders.epsrel,
+				tank.getIFMAX(), tank.getIFANZ(), tank.getIFEHL(), tank);
+	}
+}
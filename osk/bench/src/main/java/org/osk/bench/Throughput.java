@@ -0,0 +1,289 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.osk.solver.SeqModSim;
+import org.osk.time.TimeHandler;
+
+/**
+ * Headless throughput run of the whole Astris scenario of sim.properties.
+ *
+ * After the start-up of the simulation, the solver runs a warm-up counted
+ * in steps, since the JIT compiler decides by invocations and not by
+ * simulated time: at least the given number of steps, then blocks of
+ * WARMUP_BLOCK steps until the mean step latency of two blocks in a row
+ * differs by less than SETTLED. Then it steps through the measured
+ * simulated duration. The JSON report gives the simulated
+ * seconds per wall second, the step latency percentiles, the bytes
+ * allocated by the simulation thread and the collections with their
+ * accumulated time per collector. Two reports are compared with
+ * {@link CompareReports}.
+ *
+ * Arguments: [--warmup-steps steps] [--duration seconds] [--out file],
+ * the duration in simulated seconds; without --out the report goes to
+ * standard output.
+ */
+public final class Throughput {
+
+	private static final double EPSILON = 1e-9;
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+	/** Steps per block of the warm-up latency check. */
+	private static final int WARMUP_BLOCK = 1000;
+	/** Relative change of the block latency taken as settled. */
+	private static final double SETTLED = 0.02;
+	/** Blocks after the minimum warm-up before giving up on settling. */
+	private static final int WARMUP_BLOCKS = 50;
+
+	/** Minimum warm-up, well above the C2 compile thresholds. */
+	private int warmupSteps = 20000;
+	private double duration = 3600;
+	private String out;
+
+	private Throughput() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final Throughput throughput = new Throughput();
+		for (int i = 0; i < args.length; i++) {
+			if ("--warmup-steps".equals(args[i]) && i + 1 < args.length) {
+				throughput.warmupSteps = Integer.parseInt(args[++i]);
+			} else if ("--duration".equals(args[i]) && i + 1 < args.length) {
+				throughput.duration = Double.parseDouble(args[++i]);
+			} else if ("--out".equals(args[i]) && i + 1 < args.length) {
+				throughput.out = args[++i];
+			} else {
+				System.err.println("Usage: Throughput [--warmup-steps steps] [--duration seconds] [--out file]");
+				System.exit(2);
+			}
+		}
+		if (!(throughput.duration > 0) || throughput.warmupSteps < 0) {
+			throw new IllegalArgumentException("Duration must be positive, warm-up not negative");
+		}
+		final Simulation simulation = new Simulation();
+		try {
+			throughput.write(Json.write(throughput.run(simulation)));
+		} finally {
+			simulation.shutdown();
+		}
+		// Weld leaves non-daemon threads behind.
+		System.exit(0);
+	}
+
+	private Map<String, Object> run(final Simulation simulation) {
+		final SeqModSim solver = simulation.get(SeqModSim.class);
+		final double stepSize = simulation.get(TimeHandler.class).getStepSizeAsDouble();
+
+		final int warmedUp = warmUp(solver);
+
+		final long[] latencies = new long[(int) Math.ceil(duration / stepSize - EPSILON)];
+		final double start = solver.getTime();
+		final double end = start + duration;
+		final Map<String, long[]> gcBefore = collections();
+		final long allocatedBefore = allocatedBytes();
+		final long wallStart = System.nanoTime();
+		int steps = 0;
+		while (steps < latencies.length && solver.getTime() < end - EPSILON) {
+			final long stepStart = System.nanoTime();
+			solver.step();
+			latencies[steps++] = System.nanoTime() - stepStart;
+		}
+		final long wall = System.nanoTime() - wallStart;
+		final long allocatedAfter = allocatedBytes();
+		final Map<String, long[]> gcAfter = collections();
+		final double wallSeconds = wall / 1e9;
+		final double simulated = solver.getTime() - start;
+
+		final Map<String, Object> report = new LinkedHashMap<String, Object>();
+		report.put("scenario", scenario(stepSize));
+		report.put("environment", environment());
+
+		final Map<String, Object> throughput = new LinkedHashMap<String, Object>();
+		throughput.put("warmupSteps", warmedUp);
+		throughput.put("steps", steps);
+		throughput.put("simulatedSeconds", simulated);
+		throughput.put("wallSeconds", wallSeconds);
+		throughput.put("simulatedSecondsPerWallSecond", simulated / wallSeconds);
+		throughput.put("stepsPerWallSecond", steps / wallSeconds);
+		report.put("throughput", throughput);
+
+		report.put("stepLatencyMicros", latency(Arrays.copyOf(latencies, steps)));
+
+		final Map<String, Object> allocation = new LinkedHashMap<String, Object>();
+		if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+			final long bytes = allocatedAfter - allocatedBefore;
+			allocation.put("bytes", bytes);
+			allocation.put("bytesPerStep", steps == 0 ? 0.0 : (double) bytes / steps);
+			allocation.put("megabytesPerWallSecond", bytes / 1048576.0 / wallSeconds);
+		} else {
+			allocation.put("bytes", null);
+		}
+		report.put("allocation", allocation);
+
+		report.put("gc", gc(gcBefore, gcAfter));
+		return report;
+	}
+
+	/**
+	 * Runs the minimum warm-up, then blocks until the step latency settles.
+	 *
+	 * @return the steps run
+	 */
+	private int warmUp(final SeqModSim solver) {
+		for (int i = 0; i < warmupSteps; i++) {
+			solver.step();
+		}
+		if (warmupSteps == 0) {
+			return 0;
+		}
+		int steps = warmupSteps + WARMUP_BLOCK;
+		double previous = block(solver);
+		for (int i = 1; i < WARMUP_BLOCKS; i++) {
+			final double latency = block(solver);
+			steps += WARMUP_BLOCK;
+			if (Math.abs(latency - previous) <= SETTLED * previous) {
+				return steps;
+			}
+			previous = latency;
+		}
+		System.err.println("Warning: step latency not settled after " + steps + " warm-up steps");
+		return steps;
+	}
+
+	/** Mean latency [ns] of one block of steps. */
+	private static double block(final SeqModSim solver) {
+		final long start = System.nanoTime();
+		for (int i = 0; i < WARMUP_BLOCK; i++) {
+			solver.step();
+		}
+		return (System.nanoTime() - start) / (double) WARMUP_BLOCK;
+	}
+
+	private Map<String, Object> scenario(final double stepSize) {
+		final Map<String, Object> scenario = new LinkedHashMap<String, Object>();
+		scenario.put("properties", "sim.properties");
+		scenario.put("stepSize", stepSize);
+		scenario.put("minimumWarmupSteps", warmupSteps);
+		scenario.put("durationSeconds", duration);
+		return scenario;
+	}
+
+	private static Map<String, Object> environment() {
+		final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		final Map<String, Object> environment = new LinkedHashMap<String, Object>();
+		environment.put("date", format.format(new Date()));
+		environment.put("javaVersion", System.getProperty("java.version"));
+		environment.put("vm", System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"));
+		environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+		environment.put("processors", Runtime.getRuntime().availableProcessors());
+		environment.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+		environment.put("inputArguments", ManagementFactory.getRuntimeMXBean().getInputArguments().toString());
+		return environment;
+	}
+
+	/** Mean, percentiles by nearest rank and maximum [us]. */
+	private static Map<String, Object> latency(final long[] latencies) {
+		final Map<String, Object> latency = new LinkedHashMap<String, Object>();
+		if (latencies.length == 0) {
+			return latency;
+		}
+		Arrays.sort(latencies);
+		long sum = 0;
+		for (long nanos : latencies) {
+			sum += nanos;
+		}
+		latency.put("mean", sum / 1e3 / latencies.length);
+		for (double percentile : PERCENTILES) {
+			final int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+			final String name = "p" + (percentile == Math.rint(percentile)
+					? String.valueOf((int) percentile) : String.valueOf(percentile).replace(".", ""));
+			latency.put(name, latencies[Math.max(rank, 1) - 1] / 1e3);
+		}
+		latency.put("max", latencies[latencies.length - 1] / 1e3);
+		return latency;
+	}
+
+	/**
+	 * Collections and their accumulated time during the measurement, per
+	 * collector and in total. For the stop-the-world collectors this is
+	 * the pause time; the concurrent ones report their whole cycle.
+	 */
+	private static Map<String, Object> gc(final Map<String, long[]> before, final Map<String, long[]> after) {
+		final Map<String, Object> collectors = new LinkedHashMap<String, Object>();
+		long count = 0;
+		long time = 0;
+		for (Map.Entry<String, long[]> entry : after.entrySet()) {
+			final long[] start = before.get(entry.getKey());
+			final long collectorCount = entry.getValue()[0] - (start == null ? 0 : start[0]);
+			final long collectorTime = entry.getValue()[1] - (start == null ? 0 : start[1]);
+			final Map<String, Object> collector = new LinkedHashMap<String, Object>();
+			collector.put("collections", collectorCount);
+			collector.put("timeMillis", collectorTime);
+			collectors.put(entry.getKey(), collector);
+			count += collectorCount;
+			time += collectorTime;
+		}
+		final Map<String, Object> gc = new LinkedHashMap<String, Object>();
+		gc.put("collections", count);
+		gc.put("timeMillis", time);
+		gc.put("collectors", collectors);
+		return gc;
+	}
+
+	/** Count and time [ms] per collector, negative values taken as 0. */
+	private static Map<String, long[]> collections() {
+		final List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+		final Map<String, long[]> collections = new LinkedHashMap<String, long[]>();
+		for (GarbageCollectorMXBean bean : beans) {
+			collections.put(bean.getName(), new long[] {
+					Math.max(bean.getCollectionCount(), 0), Math.max(bean.getCollectionTime(), 0)});
+		}
+		return collections;
+	}
+
+	/**
+	 * Bytes allocated so far by the current thread, which runs the whole
+	 * event chain, or -1 if the VM does not tell.
+	 */
+	private static long allocatedBytes() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+			if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+				return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+
+	private void write(final String report) throws IOException {
+		if (out == null) {
+			System.out.print(report);
+			return;
+		}
+		final Writer writer = new OutputStreamWriter(new FileOutputStream(out), "UTF-8");
+		try {
+			writer.write(report);
+		} finally {
+			writer.close();
+		}
+	}
+}
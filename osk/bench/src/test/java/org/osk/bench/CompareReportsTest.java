@@ -0,0 +1,71 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class CompareReportsTest {
+
+	private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+	private final PrintStream out = new PrintStream(output);
+
+	private static Map<String, Double> report(final double throughput, final double stepSize) {
+		final Map<String, Double> report = new LinkedHashMap<String, Double>();
+		report.put("scenario.stepSize", stepSize);
+		report.put(CompareReports.THROUGHPUT, throughput);
+		report.put("stepLatencyMicros.p99", 100.0);
+		return report;
+	}
+
+	private int compare(final double before, final double after, final double threshold) {
+		return CompareReports.compare(report(before, 2.0), report(after, 2.0), threshold, out);
+	}
+
+	@Test
+	public void withinThreshold() {
+		assertEquals(0, compare(1000.0, 1000.0, 5));
+		assertEquals(0, compare(1000.0, 960.0, 5));
+		assertEquals(0, compare(1000.0, 1500.0, 5));
+	}
+
+	@Test
+	public void exactlyAtThresholdPasses() {
+		assertEquals(0, compare(1000.0, 950.0, 5));
+	}
+
+	@Test
+	public void regressionBeyondThreshold() {
+		assertEquals(CompareReports.REGRESSION, compare(1000.0, 949.0, 5));
+		assertTrue(output.toString().contains("Throughput regression"));
+	}
+
+	@Test
+	public void thresholdIsConfigurable() {
+		assertEquals(0, compare(1000.0, 850.0, 20));
+		assertEquals(CompareReports.REGRESSION, compare(1000.0, 990.0, 0.5));
+	}
+
+	@Test
+	public void missingThroughput() {
+		final Map<String, Double> current = report(1000.0, 2.0);
+		current.remove(CompareReports.THROUGHPUT);
+		assertEquals(CompareReports.UNUSABLE, CompareReports.compare(report(1000.0, 2.0), current, 5, out));
+	}
+
+	@Test
+	public void warnsAboutDifferentScenarios() {
+		assertEquals(0, CompareReports.compare(report(1000.0, 2.0), report(1000.0, 1.0), 5, out));
+		assertTrue(output.toString().contains("differ in scenario.stepSize"));
+	}
+}
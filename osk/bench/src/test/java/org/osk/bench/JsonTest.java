@@ -0,0 +1,113 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.bench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class JsonTest {
+
+	private static Map<String, Object> report() {
+		final Map<String, Object> latency = new LinkedHashMap<String, Object>();
+		latency.put("mean", 12.5);
+		latency.put("p999", 1.5e3);
+		final Map<String, Object> throughput = new LinkedHashMap<String, Object>();
+		throughput.put("steps", 1800);
+		throughput.put("bytes", 123456789012L);
+		throughput.put("simulatedSecondsPerWallSecond", Double.NaN);
+		throughput.put("latency", latency);
+		final Map<String, Object> report = new LinkedHashMap<String, Object>();
+		report.put("name", "say \"hi\"\\ to\nthe\tsimulation");
+		report.put("ok", true);
+		report.put("missing", null);
+		report.put("empty", new LinkedHashMap<String, Object>());
+		report.put("throughput", throughput);
+		return report;
+	}
+
+	@Test
+	public void roundTrip() {
+		final String text = Json.write(report());
+		final Map<String, Object> read = Json.read(text);
+		assertEquals(Arrays.asList("name", "ok", "missing", "empty", "throughput"),
+				Arrays.asList(read.keySet().toArray()));
+		assertEquals("say \"hi\"\\ to\nthe\tsimulation", read.get("name"));
+		assertEquals(Boolean.TRUE, read.get("ok"));
+		assertTrue(read.containsKey("missing"));
+		assertNull(read.get("missing"));
+		assertTrue(((Map<?, ?>) read.get("empty")).isEmpty());
+
+		final Map<?, ?> throughput = (Map<?, ?>) read.get("throughput");
+		assertEquals(1800.0, throughput.get("steps"));
+		assertEquals(123456789012.0, throughput.get("bytes"));
+		assertTrue(throughput.containsKey("simulatedSecondsPerWallSecond"));
+		// NaN is written as null
+		assertNull(throughput.get("simulatedSecondsPerWallSecond"));
+		final Map<?, ?> latency = (Map<?, ?>) throughput.get("latency");
+		assertEquals(12.5, latency.get("mean"));
+		assertEquals(1500.0, latency.get("p999"));
+
+		// writing what was read gives the same text
+		assertEquals(text.replace("1800,", "1800.0,").replace("123456789012,", "1.23456789012E11,"),
+				Json.write(read));
+	}
+
+	@Test
+	public void controlCharactersAreEscaped() {
+		final Map<String, Object> object = new LinkedHashMap<String, Object>();
+		object.put("text", "a\nb\u0001");
+		final String text = Json.write(object);
+		assertFalse(text.contains("a\nb"));
+		assertTrue(text.contains("\\u000a"));
+		assertEquals("a\nb\u0001", Json.read(text).get("text"));
+	}
+
+	@Test
+	public void readsStandardEscapes() {
+		assertEquals("\"/\\\b\f\n\r\té",
+				Json.read("{\"s\": \"\\\"\\/\\\\\\b\\f\\n\\r\\t\\u00e9\"}").get("s"));
+	}
+
+	@Test
+	public void numbersByPath() {
+		final Map<String, Double> numbers = Json.numbers(Json.read(Json.write(report())));
+		assertEquals(Arrays.asList("throughput.steps", "throughput.bytes",
+				"throughput.latency.mean", "throughput.latency.p999"),
+				Arrays.asList(numbers.keySet().toArray()));
+		assertEquals(1800.0, numbers.get("throughput.steps"), 0.0);
+		assertEquals(1500.0, numbers.get("throughput.latency.p999"), 0.0);
+	}
+
+	@Test
+	public void readsExponentsAndSigns() {
+		final Map<String, Double> numbers = Json.numbers(Json.read("{\"a\": -1.5E-3, \"b\": {\"c\": 2e+2}}"));
+		assertEquals(-1.5e-3, numbers.get("a"), 0.0);
+		assertEquals(200.0, numbers.get("b.c"), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsTrailingInput() {
+		Json.read("{\"a\": 1} x");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsArrays() {
+		Json.read("{\"a\": [1, 2]}");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnterminatedObjects() {
+		Json.read("{\"a\": 1");
+	}
+}
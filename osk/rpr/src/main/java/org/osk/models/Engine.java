@@ -39,4 +39,14 @@ public interface Engine {
 
 	void setRequestedOxFlow(double requestedOxFlow);
 
+	@ManagedAttribute
+	boolean isUsePerformanceMap();
+
+	void setUsePerformanceMap(boolean usePerformanceMap);
+
+	@ManagedAttribute
+	String getPerformanceMapResource();
+
+	void setPerformanceMapResource(String performanceMapResource);
+
 }
\ No newline at end of file
@@ -14,7 +14,8 @@ public interface Filter {
 
 	FluidPort backIterStep(FluidPort outputPort);
 
-	FluidPort createOutputPort(FluidPort inputPort);
+	/** Writes the outlet state into the model's own port and returns it. */
+	FluidPort updateOutputPort(FluidPort inputPort);
 
 	@ManagedAttribute
 	double getInnerDiameter();
@@ -12,7 +12,8 @@ public interface Pipe {
 
 	void propagate(final double tStepSize, final FluidPort inputPort);
 
-	FluidPort createOutputPort(FluidPort inputPort);
+	/** Writes the outlet state into the model's own port and returns it. */
+	FluidPort updateOutputPort(FluidPort inputPort);
 
 	// This are for initialization of the numerical models
 	// FIXME: most values are specific to a solution algorithm, so they should be out
@@ -46,5 +47,10 @@ public interface Pipe {
 
 	void setTemperatures(double[] temperatures);
 
+	@ManagedAttribute
+	int getSections();
+
+	void setSections(int sections);
+
 
 }
\ No newline at end of file
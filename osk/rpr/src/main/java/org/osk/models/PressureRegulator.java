@@ -10,7 +10,8 @@ public interface PressureRegulator {
 
 	FluidPort calculateOutletMassFlow(FluidPort inputPort);
 
-	FluidPort createOutputPort(FluidPort inputPort);
+	/** Writes the outlet state into the model's own port and returns it. */
+	FluidPort updateOutputPort(FluidPort inputPort);
     
 	int propagate(final double tStepSize, FluidPort inputPort);
 
@@ -6,4 +6,10 @@ public interface Atmosphere {
 
 	double getAirPressure(double alt) throws OskException;
 
+	/**
+	 * Pressure, density and temperature at the given altitude [m] in one
+	 * call, written into the given state.
+	 */
+	void getState(double alt, AtmosphereState state) throws OskException;
+
 }
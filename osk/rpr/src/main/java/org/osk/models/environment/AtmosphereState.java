@@ -0,0 +1,22 @@
+package org.osk.models.environment;
+
+/**
+ * Air state at one altitude, filled by {@link Atmosphere#getState}.
+ * Callers keep one instance and reuse it, so that querying the atmosphere
+ * every step does not allocate.
+ */
+public final class AtmosphereState {
+
+	/** Air pressure [Pa]. */
+	public double pressure;
+	/** Air density [kg/m^3]. */
+	public double density;
+	/** Air temperature [K]. */
+	public double temperature;
+
+	@Override
+	public String toString() {
+		return "AtmosphereState[pressure=" + pressure + ", density=" + density
+				+ ", temperature=" + temperature + "]";
+	}
+}
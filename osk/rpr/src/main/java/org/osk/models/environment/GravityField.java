@@ -0,0 +1,16 @@
+package org.osk.models.environment;
+
+/**
+ * Gravity acceleration as a function of time and inertial position, for
+ * propagators that evaluate it several times per simulation step.
+ */
+public interface GravityField {
+
+	/**
+	 * @param missionTime Unix time [s] (UTC)
+	 * @param positionECI position [m] in ECI
+	 * @param acceleration receives the acceleration [m/s^2] in ECI
+	 */
+	void gravity(double missionTime, double[] positionECI, double[] acceleration);
+
+}
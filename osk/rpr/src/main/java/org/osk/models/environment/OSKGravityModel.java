@@ -9,23 +9,13 @@
  */
 package org.osk.models.environment;
 
-import jat.forces.GravityModel;
-import jat.matvec.data.Matrix;
-import jat.matvec.data.VectorN;
-import jat.spacetime.EarthRef;
-import jat.spacetime.Time;
-
-import java.io.File;
-import java.io.IOException;
-import java.net.URISyntaxException;
-
 import javax.inject.Inject;
 
-import org.apache.commons.math3.exception.util.DummyLocalizable;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.osk.errors.OskException;
+import org.osk.events.ECIpv;
+import org.osk.frames.EarthOrientation;
 import org.osk.models.BaseModel;
-import org.osk.time.TimeHandler;
 import org.slf4j.Logger;
 
 import net.gescobar.jmx.annotation.ManagedAttribute;
@@ -39,20 +29,26 @@ import net.gescobar.jmx.annotation.ManagedAttribute;
  */
 
 
-public class OSKGravityModel extends BaseModel {
+public class OSKGravityModel extends BaseModel implements GravityField {
 	@Inject Logger LOG;
+    /** Default degree and order of the spherical harmonics. */
+    public static final int DEFAULT_DEGREE = 8;
+    /** Gravity field coefficients on the classpath. */
+    private static final String GRAVITY_FILE = "earthGravity/JGM3.grv";
     /** Order of spherical harmonic. */
-     private int order = 8; // hardcoded for now 
+     private int order = DEFAULT_DEGREE;
     /** Degree of spherical harmonic. */
-     private int degree = 8; // hardcoded for now 
+     private int degree = DEFAULT_DEGREE;
     /** Structure SCPosition in ECI frame. */
-     private Vector3D scPositionECI; // = new double[3];
-    /** JAT Earth reference frame. */
-    private EarthRef earthReference;
-    /** JAT Earth gravity model. */
-    private GravityModel gravityModel;
-    /** OSK SRT time in converted format. */
-    Time convertedMissionTime;
+     private final double[] scPositionECI = new double[3];
+    /** ECI to ECEF rotation shared with the other models. */
+    @Inject EarthOrientation earthOrientation;
+    /** Earth gravity model. */
+    private SphericalHarmonicGravity gravityModel;
+    /** Buffers reused by every evaluation. */
+    private final double[] position = new double[3];
+    private final double[] acceleration = new double[3];
+    private final double[] eci2ecef = new double[9];
     
     private static final String TYPE = "OSKGravity1";
     private static final String SOLVER = "none";
@@ -62,29 +58,41 @@ public class OSKGravityModel extends BaseModel {
     }
 
     public void init() throws OskException {
-        convertedMissionTime = new Time();
-        earthReference = new EarthRef(convertedMissionTime);
-        try {
-        	String pathString = OSKGravityModel.class.getClassLoader().getResource("earthGravity/JGM3.grv").toURI().getPath();
-            gravityModel = new GravityModel(order, degree, pathString);
-		} catch (Exception ex) {
-			// TODO Auto-generated catch block
-			throw new OskException(new DummyLocalizable(ex.getMessage()));
-	    }
+        if (degree < SphericalHarmonicGravity.MIN_DEGREE
+        		|| degree > SphericalHarmonicGravity.MAX_DEGREE) {
+        	LOG.warn("Gravity degree {} out of range, using {}", degree, DEFAULT_DEGREE);
+        	degree = DEFAULT_DEGREE;
+        }
+        if (order < SphericalHarmonicGravity.MIN_DEGREE || order > degree) {
+        	LOG.warn("Gravity order {} out of range, using {}", order, degree);
+        	order = degree;
+        }
+        gravityModel = SphericalHarmonicGravity.load(GRAVITY_FILE, degree, order);
     }
 
 
     public Vector3D computeEarthGravity(double missionTime) {
-    	/* JAT Class of S/C position vector in ECI. An event has supplied the scPositionECI */
-    	VectorN  scPositionVector = new VectorN(3);
-    	scPositionVector.set(0, scPositionECI.getX());
-    	scPositionVector.set(1, scPositionECI.getY());
-    	scPositionVector.set(2, scPositionECI.getZ());
-
-    	convertedMissionTime.update(missionTime);
-    	/* ECI to ECEF conversion matrix of JAT. */
-    	Matrix eci2ECEFMatrix = earthReference.eci2ecef(convertedMissionTime);
-    	return new Vector3D(gravityModel.gravity(scPositionVector, eci2ECEFMatrix).getArray());        
+    	computeEarthGravity(missionTime, acceleration);
+    	return new Vector3D(acceleration[0], acceleration[1], acceleration[2]);
+    }
+
+    /**
+     * Gravity acceleration in ECI at the position last set with
+     * {@link #setScPositionECI(Vector3D)}, written into the given array.
+     */
+    public void computeEarthGravity(double missionTime, double[] result) {
+    	/* An event has supplied the scPositionECI */
+    	position[0] = scPositionECI[0];
+    	position[1] = scPositionECI[1];
+    	position[2] = scPositionECI[2];
+
+    	gravity(missionTime, position, result);
+    }
+
+    @Override
+    public void gravity(double missionTime, double[] positionECI, double[] result) {
+    	earthOrientation.eci2ecef(missionTime, eci2ecef);
+    	gravityModel.accelerationEci(positionECI, eci2ecef, result);
     }
 
     //----------------------------------------
@@ -92,12 +100,20 @@ public class OSKGravityModel extends BaseModel {
 
 	@ManagedAttribute
 	public Vector3D getScPositionECI() {
-		return scPositionECI;
+		return new Vector3D(scPositionECI);
 	}
 
 
 	public void setScPositionECI(Vector3D scPositionECI) {
-		this.scPositionECI = scPositionECI;
+		this.scPositionECI[0] = scPositionECI.getX();
+		this.scPositionECI[1] = scPositionECI.getY();
+		this.scPositionECI[2] = scPositionECI.getZ();
+	}
+
+	public void setScPositionECI(ECIpv posVel) {
+		scPositionECI[0] = posVel.getPosition(0);
+		scPositionECI[1] = posVel.getPosition(1);
+		scPositionECI[2] = posVel.getPosition(2);
 	}
 
 	@ManagedAttribute
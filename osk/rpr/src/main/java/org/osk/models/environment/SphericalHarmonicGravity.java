@@ -0,0 +1,297 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.environment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+
+/**
+ * Earth gravity field from a spherical harmonic expansion, evaluated with
+ * the Cunningham recursion of the solid harmonics V(n,m), W(n,m) as given
+ * by Montenbruck and Gill, Satellite Orbits, section 3.2.
+ *
+ * The coefficients are read once from a gravity file in STK format
+ * (the files under earthGravity/) and kept unnormalized up to the
+ * configured degree and order. The recursion buffers are allocated in
+ * the constructor, so {@link #accelerationEcef(double[], double[])} and
+ * {@link #accelerationEci(double[], double[], double[])} do not allocate.
+ * An instance is therefore not thread safe; every model owns its own.
+ */
+public final class SphericalHarmonicGravity {
+
+	/** Smallest degree and order that can be configured. */
+	public static final int MIN_DEGREE = 2;
+	/** Largest degree and order of the gravity files shipped with OSK. */
+	public static final int MAX_DEGREE = 70;
+
+	private final int degree;
+	private final int order;
+	/** Gravitational parameter [m^3/s^2] of the gravity file. */
+	private final double gm;
+	/** Reference radius [m] of the gravity file. */
+	private final double radius;
+
+	/** Row length of the flattened coefficient and recursion arrays. */
+	private final int stride;
+	/** Unnormalized coefficients, index n * stride + m. */
+	private final double[] c;
+	private final double[] s;
+	/** Recursion buffers up to degree + 1, order + 1. */
+	private final double[] v;
+	private final double[] w;
+	/** Scratch vector for the position in the Earth fixed frame. */
+	private final double[] ecef = new double[3];
+	/** Scratch vector for the acceleration in the Earth fixed frame. */
+	private final double[] accEcef = new double[3];
+
+	private SphericalHarmonicGravity(final int degree, final int order,
+			final double gm, final double radius, final double[] c, final double[] s) {
+		this.degree = degree;
+		this.order = order;
+		this.gm = gm;
+		this.radius = radius;
+		this.stride = degree + 2;
+		this.c = c;
+		this.s = s;
+		this.v = new double[stride * stride];
+		this.w = new double[stride * stride];
+	}
+
+	/**
+	 * Reads a gravity file from the classpath.
+	 *
+	 * @param resource classpath resource, e.g. "earthGravity/JGM3.grv"
+	 * @param degree maximum degree, between {@link #MIN_DEGREE} and
+	 *               {@link #MAX_DEGREE}
+	 * @param order maximum order, between {@link #MIN_DEGREE} and degree
+	 */
+	public static SphericalHarmonicGravity load(final String resource,
+			final int degree, final int order) throws OskException {
+		if (degree < MIN_DEGREE || degree > MAX_DEGREE
+				|| order < MIN_DEGREE || order > degree) {
+			throw new OskException(new DummyLocalizable("Gravity degree " + degree
+					+ " and order " + order + " must satisfy " + MIN_DEGREE
+					+ " <= order <= degree <= " + MAX_DEGREE));
+		}
+		final InputStream stream = SphericalHarmonicGravity.class
+				.getClassLoader().getResourceAsStream(resource);
+		if (stream == null) {
+			throw new OskException(new DummyLocalizable(
+					"Gravity file " + resource + " not found"));
+		}
+		try {
+			try {
+				return parse(new BufferedReader(new InputStreamReader(stream, "US-ASCII")),
+						resource, degree, order);
+			} finally {
+				stream.close();
+			}
+		} catch (IOException e) {
+			throw new OskException(new DummyLocalizable("Cannot read gravity file "
+					+ resource + ": " + e.getMessage()));
+		} catch (NumberFormatException e) {
+			throw new OskException(new DummyLocalizable("Malformed gravity file "
+					+ resource + ": " + e.getMessage()));
+		}
+	}
+
+	private static SphericalHarmonicGravity parse(final BufferedReader reader,
+			final String resource, final int degree, final int order)
+			throws IOException, OskException {
+		final int stride = degree + 2;
+		final double[] c = new double[stride * stride];
+		final double[] s = new double[stride * stride];
+		double gm = Double.NaN;
+		double radius = Double.NaN;
+		boolean normalized = false;
+		boolean inCoefficients = false;
+		int maxDegreeRead = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			final String trimmed = line.trim();
+			if (trimmed.length() == 0 || trimmed.startsWith("#")) {
+				continue;
+			}
+			final String[] tokens = trimmed.split("\\s+");
+			if (inCoefficients) {
+				if (tokens[0].equalsIgnoreCase("END")) {
+					inCoefficients = false;
+					continue;
+				}
+				final int n = Integer.parseInt(tokens[0]);
+				final int m = Integer.parseInt(tokens[1]);
+				if (n <= degree && m <= order) {
+					c[n * stride + m] = Double.parseDouble(tokens[2]);
+					s[n * stride + m] = Double.parseDouble(tokens[3]);
+				}
+				maxDegreeRead = Math.max(maxDegreeRead, n);
+			} else if (tokens[0].equalsIgnoreCase("BEGIN") && tokens.length > 1
+					&& tokens[1].equalsIgnoreCase("Coefficients")) {
+				inCoefficients = true;
+			} else if (tokens[0].equalsIgnoreCase("Gm")) {
+				gm = Double.parseDouble(tokens[1]);
+			} else if (tokens[0].equalsIgnoreCase("RefDistance")) {
+				radius = Double.parseDouble(tokens[1]);
+			} else if (tokens[0].equalsIgnoreCase("Normalized")) {
+				normalized = tokens[1].equalsIgnoreCase("Yes");
+			}
+		}
+		if (Double.isNaN(gm) || Double.isNaN(radius)) {
+			throw new OskException(new DummyLocalizable("Gravity file " + resource
+					+ " defines no Gm or RefDistance"));
+		}
+		if (maxDegreeRead < degree) {
+			throw new OskException(new DummyLocalizable("Gravity file " + resource
+					+ " only has coefficients up to degree " + maxDegreeRead));
+		}
+		// Central term; degree one vanishes in a centre of mass frame.
+		c[0] = 1.0;
+		if (normalized) {
+			denormalize(c, s, degree, order, stride);
+		}
+		return new SphericalHarmonicGravity(degree, order, gm, radius, c, s);
+	}
+
+	/**
+	 * Converts fully normalized coefficients to unnormalized ones, so the
+	 * recursion needs no normalization factors per evaluation.
+	 */
+	private static void denormalize(final double[] c, final double[] s,
+			final int degree, final int order, final int stride) {
+		for (int n = 2; n <= degree; n++) {
+			final int mMax = Math.min(n, order);
+			for (int m = 0; m <= mMax; m++) {
+				// (n-m)!/(n+m)! as product, stays within double range up to 70
+				double ratio = 1.0;
+				for (int k = n - m + 1; k <= n + m; k++) {
+					ratio /= k;
+				}
+				final double factor = Math.sqrt((m == 0 ? 1.0 : 2.0) * (2 * n + 1) * ratio);
+				c[n * stride + m] *= factor;
+				s[n * stride + m] *= factor;
+			}
+		}
+	}
+
+	/**
+	 * Acceleration in the Earth fixed frame.
+	 *
+	 * @param position position [m] in the Earth fixed frame
+	 * @param acceleration receives the acceleration [m/s^2]
+	 */
+	public void accelerationEcef(final double[] position, final double[] acceleration) {
+		final double x = position[0];
+		final double y = position[1];
+		final double z = position[2];
+		final double r2 = x * x + y * y + z * z;
+		final double rho = radius * radius / r2;
+		final double x0 = radius * x / r2;
+		final double y0 = radius * y / r2;
+		final double z0 = radius * z / r2;
+		final int nMax = degree + 1;
+		final int mMax = order + 1;
+
+		// Zonal terms V(n,0), W(n,0) = 0
+		v[0] = radius / Math.sqrt(r2);
+		w[0] = 0.0;
+		v[stride] = z0 * v[0];
+		w[stride] = 0.0;
+		for (int n = 2; n <= nMax; n++) {
+			v[n * stride] = ((2 * n - 1) * z0 * v[(n - 1) * stride]
+					- (n - 1) * rho * v[(n - 2) * stride]) / n;
+			w[n * stride] = 0.0;
+		}
+		// Tesseral and sectorial terms
+		for (int m = 1; m <= mMax; m++) {
+			final int mm = m * stride + m;
+			final int pp = (m - 1) * stride + (m - 1);
+			v[mm] = (2 * m - 1) * (x0 * v[pp] - y0 * w[pp]);
+			w[mm] = (2 * m - 1) * (x0 * w[pp] + y0 * v[pp]);
+			if (m < nMax) {
+				v[mm + stride] = (2 * m + 1) * z0 * v[mm];
+				w[mm + stride] = (2 * m + 1) * z0 * w[mm];
+			}
+			for (int n = m + 2; n <= nMax; n++) {
+				final int k = n * stride + m;
+				v[k] = ((2 * n - 1) * z0 * v[k - stride]
+						- (n + m - 1) * rho * v[k - 2 * stride]) / (n - m);
+				w[k] = ((2 * n - 1) * z0 * w[k - stride]
+						- (n + m - 1) * rho * w[k - 2 * stride]) / (n - m);
+			}
+		}
+
+		double ax = 0.0;
+		double ay = 0.0;
+		double az = 0.0;
+		for (int m = 0; m <= order; m++) {
+			for (int n = m; n <= degree; n++) {
+				final int k = n * stride + m;
+				final int up = (n + 1) * stride + m;
+				if (m == 0) {
+					final double cnm = c[k];
+					ax -= cnm * v[up + 1];
+					ay -= cnm * w[up + 1];
+					az -= (n + 1) * cnm * v[up];
+				} else {
+					final double cnm = c[k];
+					final double snm = s[k];
+					final double fac = 0.5 * (n - m + 1) * (n - m + 2);
+					ax += 0.5 * (-cnm * v[up + 1] - snm * w[up + 1])
+							+ fac * (cnm * v[up - 1] + snm * w[up - 1]);
+					ay += 0.5 * (-cnm * w[up + 1] + snm * v[up + 1])
+							+ fac * (-cnm * w[up - 1] + snm * v[up - 1]);
+					az += (n - m + 1) * (-cnm * v[up] - snm * w[up]);
+				}
+			}
+		}
+		final double scale = gm / (radius * radius);
+		acceleration[0] = scale * ax;
+		acceleration[1] = scale * ay;
+		acceleration[2] = scale * az;
+	}
+
+	/**
+	 * Acceleration in the inertial frame.
+	 *
+	 * @param position position [m] in the inertial frame
+	 * @param eci2ecef rotation from the inertial to the Earth fixed frame,
+	 *                 row major
+	 * @param acceleration receives the acceleration [m/s^2]
+	 */
+	public void accelerationEci(final double[] position, final double[] eci2ecef,
+			final double[] acceleration) {
+		for (int i = 0; i < 3; i++) {
+			ecef[i] = eci2ecef[3 * i] * position[0] + eci2ecef[3 * i + 1] * position[1]
+					+ eci2ecef[3 * i + 2] * position[2];
+		}
+		accelerationEcef(ecef, accEcef);
+		for (int i = 0; i < 3; i++) {
+			acceleration[i] = eci2ecef[i] * accEcef[0] + eci2ecef[3 + i] * accEcef[1]
+					+ eci2ecef[6 + i] * accEcef[2];
+		}
+	}
+
+	public int getDegree() {
+		return degree;
+	}
+
+	public int getOrder() {
+		return order;
+	}
+
+	public double getGm() {
+		return gm;
+	}
+
+	public double getRadius() {
+		return radius;
+	}
+}
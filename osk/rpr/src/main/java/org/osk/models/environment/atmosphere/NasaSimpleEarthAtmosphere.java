@@ -3,6 +3,7 @@ package org.osk.models.environment.atmosphere;
 import org.apache.commons.math3.exception.util.DummyLocalizable;
 import org.osk.errors.OskException;
 import org.osk.models.environment.Atmosphere;
+import org.osk.models.environment.AtmosphereState;
 
 /******************************************************************/
 /*                                                                */
@@ -14,31 +15,41 @@ public class NasaSimpleEarthAtmosphere implements Atmosphere {
 	
 	@Override
 	public double getAirPressure(double alt) throws OskException {
-		double Ta, rhoa, pa;
-		if ( alt <= 11000 ) {   
-		    /* Troposphere */
-		    Ta = 15.04 - 0.00649*alt;
-		    pa = (101.29*(Math.pow((Ta+273.15)/288.08,5.256)))*1000;
-		    rhoa = pa/(286.9*(Ta+273.15));
+		return pressure(alt, temperature(alt));
+	}
+
+	@Override
+	public void getState(double alt, AtmosphereState state) throws OskException {
+		final double Ta = temperature(alt);
+		final double pa = pressure(alt, Ta);
+		state.pressure = pa;
+		state.density = pa/(286.9*(Ta+273.15));
+		state.temperature = Ta + 273.15;
+	}
 
-		} else if ( alt > 11000 && alt < 25000 ) {  
+	/* Temperature [deg C] */
+	private static double temperature(double alt) throws OskException {
+		if ( alt <= 11000 ) {
+		    /* Troposphere */
+		    return 15.04 - 0.00649*alt;
+		} else if ( alt > 11000 && alt < 25000 ) {
 		    /* Lower Stratosphere */
-		    Ta = -56.46;
-		    pa = 22.56*(Math.exp(1.73 - 0.000157*alt))*1000;
-		    rhoa = pa/(286.9*(Ta+273.15));
-		                
-		} else if ( alt >= 25000 ) {  
+		    return -56.46;
+		} else if ( alt >= 25000 ) {
 		    /* Upper Stratosphere */
-		    Ta = -131.21 + 0.00299*alt;
-		    pa = (2.488*(Math.pow((Ta+273.15)/216.6,-11.388)))*1000;
-		    rhoa = pa/(286.9*(Ta+273.15));
-		
-		} else {
-//		    LOG.error("% Engine: Negative altitude");
-		    throw new OskException(new DummyLocalizable("% Engine: Negative altitude"));
+		    return -131.21 + 0.00299*alt;
 		}
-		return pa;
+//		LOG.error("% Engine: Negative altitude");
+		throw new OskException(new DummyLocalizable("% Engine: Negative altitude"));
 	}
 
-
+	/* Pressure [Pa] for the temperature Ta [deg C] at the altitude */
+	private static double pressure(double alt, double Ta) {
+		if ( alt <= 11000 ) {
+		    return (101.29*(Math.pow((Ta+273.15)/288.08,5.256)))*1000;
+		} else if ( alt < 25000 ) {
+		    return 22.56*(Math.exp(1.73 - 0.000157*alt))*1000;
+		}
+		return (2.488*(Math.pow((Ta+273.15)/216.6,-11.388)))*1000;
+	}
 }
@@ -0,0 +1,227 @@
+package org.osk.models.environment.atmosphere;
+
+import javax.enterprise.inject.Alternative;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+import org.osk.models.environment.Atmosphere;
+import org.osk.models.environment.AtmosphereState;
+import org.osk.numeric.UniformTable;
+
+/******************************************************************/
+/*                                                                */
+/*    U.S. Standard Atmosphere 1976, tabulated.                   */
+/*                                                                */
+/*    Pressure, density and temperature are computed once on a    */
+/*    uniform altitude grid and interpolated linearly. The table  */
+/*    is static, so all atmosphere instances, e.g. of ensemble    */
+/*    members, share it.                                          */
+/*                                                                */
+/*    Up to 86 km geometric altitude the seven layers of the      */
+/*    standard with their lapse rates in geopotential altitude    */
+/*    are used; the temperature there is the molecular-scale      */
+/*    temperature, up to 0.08 K above the kinetic one between     */
+/*    80 and 86 km. Above 86 km the composition changes by        */
+/*    diffusion and the mean molecular weight falls from 28.95    */
+/*    to about 4 at 1000 km, so pressure and density are taken    */
+/*    from the published tables of the standard (NOAA-S/T         */
+/*    76-1562, table I) and interpolated with cubic Hermite       */
+/*    polynomials in their logarithm. The temperature follows     */
+/*    the four temperature segments of the standard exactly.      */
+/*                                                                */
+/*    Below the table range the first, above it the last table    */
+/*    values are returned.                                        */
+/*                                                                */
+/******************************************************************/
+@Alternative
+public class UsStandardAtmosphere1976 implements Atmosphere {
+
+	/** Universal gas constant [J/(kmol K)] of the standard. */
+	private static final double RSTAR = 8314.32;
+	/** Molecular weight of air at sea level [kg/kmol]. */
+	private static final double M0 = 28.9644;
+	/** Specific gas constant of air [J/(kg K)]. */
+	private static final double RAIR = RSTAR / M0;
+	/** Gravity at sea level [m/s^2]. */
+	private static final double G0 = 9.80665;
+	/** Earth radius of the standard [m]. */
+	private static final double R0 = 6356766.;
+
+	/** Layer base geopotential altitudes [m] up to 84852 m (86 km geometric). */
+	private static final double[] HB = {0., 11000., 20000., 32000., 47000., 51000., 71000., 84852.};
+	/** Layer lapse rates [K/m]. */
+	private static final double[] LB = {-0.0065, 0., 0.001, 0.0028, 0., -0.0028, -0.002};
+
+	/** Table range and resolution [m]. */
+	static final double ALT_MIN = -2000.;
+	static final double ALT_LAYERS = 86000.;
+	static final double ALT_MAX = 1000000.;
+	static final double LOWER_STEP = 10.;
+	static final double UPPER_STEP = 100.;
+
+	/** Geometric altitudes [m] of the published values above 86 km. */
+	private static final double[] UPPER_ALTITUDE = {
+		86000., 90000., 100000., 110000., 120000., 130000., 140000., 150000.,
+		160000., 170000., 180000., 190000., 200000., 250000., 300000., 350000.,
+		400000., 450000., 500000., 600000., 700000., 800000., 900000., 1000000.};
+	/** Published pressure [Pa] of the standard. */
+	private static final double[] UPPER_PRESSURE = {
+		3.7338E-1, 1.8359E-1, 3.2011E-2, 7.1042E-3, 2.5382E-3, 1.2505E-3, 7.2028E-4, 4.5422E-4,
+		3.0395E-4, 2.1210E-4, 1.5271E-4, 1.1266E-4, 8.4736E-5, 2.4767E-5, 8.7704E-6, 3.4458E-6,
+		1.4518E-6, 6.4468E-7, 3.0236E-7, 8.2130E-8, 3.1908E-8, 1.7036E-8, 1.0873E-8, 7.5138E-9};
+	/** Published density [kg/m^3] of the standard. */
+	private static final double[] UPPER_DENSITY = {
+		6.958E-6, 3.416E-6, 5.604E-7, 9.708E-8, 2.222E-8, 8.152E-9, 3.831E-9, 2.076E-9,
+		1.233E-9, 7.815E-10, 5.194E-10, 3.581E-10, 2.541E-10, 6.073E-11, 1.916E-11, 7.014E-12,
+		2.803E-12, 1.184E-12, 5.215E-13, 1.137E-13, 3.070E-14, 1.136E-14, 5.759E-15, 3.561E-15};
+
+	/** Tables below and above 86 km. */
+	private static final class Tables {
+		static final UniformTable[] LOWER = buildLower();
+		static final UniformTable[] UPPER = buildUpper();
+	}
+
+	private static final int P = 0;
+	private static final int RHO = 1;
+	private static final int T = 2;
+
+	@Override
+	public double getAirPressure(double alt) throws OskException {
+		checkAltitude(alt);
+		return table(alt)[P].value(alt);
+	}
+
+	@Override
+	public void getState(double alt, AtmosphereState state) throws OskException {
+		checkAltitude(alt);
+		final UniformTable[] table = table(alt);
+		state.pressure = table[P].value(alt);
+		state.density = table[RHO].value(alt);
+		state.temperature = table[T].value(alt);
+	}
+
+	private static UniformTable[] table(double alt) {
+		return alt <= ALT_LAYERS ? Tables.LOWER : Tables.UPPER;
+	}
+
+	private static void checkAltitude(double alt) throws OskException {
+		if (Double.isNaN(alt)) {
+			throw new OskException(new DummyLocalizable("% Atmosphere: Altitude is not a number"));
+		}
+	}
+
+	private static UniformTable[] buildLower() {
+		final int n = (int) Math.round((ALT_LAYERS - ALT_MIN) / LOWER_STEP) + 1;
+		final double[] p = new double[n];
+		final double[] rho = new double[n];
+		final double[] t = new double[n];
+
+		/* Base temperatures and pressures of the layers */
+		final double[] tb = new double[HB.length];
+		final double[] pb = new double[HB.length];
+		tb[0] = 288.15;
+		pb[0] = 101325.;
+		for (int i = 1; i < HB.length; i++) {
+			tb[i] = tb[i - 1] + LB[i - 1] * (HB[i] - HB[i - 1]);
+			pb[i] = layerPressure(pb[i - 1], tb[i - 1], LB[i - 1], HB[i] - HB[i - 1]);
+		}
+
+		for (int j = 0; j < n; j++) {
+			final double z = ALT_MIN + j * LOWER_STEP;
+			final double h = R0 * z / (R0 + z);
+			int i = 0;
+			while (i < LB.length - 1 && h >= HB[i + 1]) {
+				i++;
+			}
+			t[j] = tb[i] + LB[i] * (h - HB[i]);
+			p[j] = layerPressure(pb[i], tb[i], LB[i], h - HB[i]);
+			rho[j] = p[j] / (RAIR * t[j]);
+		}
+		return new UniformTable[] {
+				new UniformTable(ALT_MIN, ALT_LAYERS, p),
+				new UniformTable(ALT_MIN, ALT_LAYERS, rho),
+				new UniformTable(ALT_MIN, ALT_LAYERS, t)};
+	}
+
+	private static double layerPressure(double pb, double tb, double lb, double dh) {
+		if (lb == 0.) {
+			return pb * Math.exp(-G0 * dh / (RAIR * tb));
+		}
+		return pb * Math.pow(tb / (tb + lb * dh), G0 / (RAIR * lb));
+	}
+
+	private static UniformTable[] buildUpper() {
+		final double[] lnP = new double[UPPER_PRESSURE.length];
+		final double[] lnRho = new double[UPPER_DENSITY.length];
+		for (int i = 0; i < UPPER_ALTITUDE.length; i++) {
+			lnP[i] = Math.log(UPPER_PRESSURE[i]);
+			lnRho[i] = Math.log(UPPER_DENSITY[i]);
+		}
+		final int n = (int) Math.round((ALT_MAX - ALT_LAYERS) / UPPER_STEP) + 1;
+		final double[] p = new double[n];
+		final double[] rho = new double[n];
+		final double[] t = new double[n];
+		for (int j = 0; j < n; j++) {
+			final double z = ALT_LAYERS + j * UPPER_STEP;
+			p[j] = Math.exp(hermite(UPPER_ALTITUDE, lnP, z));
+			rho[j] = Math.exp(hermite(UPPER_ALTITUDE, lnRho, z));
+			t[j] = upperTemperature(z);
+		}
+		return new UniformTable[] {
+				new UniformTable(ALT_LAYERS, ALT_MAX, p),
+				new UniformTable(ALT_LAYERS, ALT_MAX, rho),
+				new UniformTable(ALT_LAYERS, ALT_MAX, t)};
+	}
+
+	/**
+	 * Cubic Hermite interpolation of y(x) with the slopes of the
+	 * parabolas through three neighbouring points.
+	 */
+	private static double hermite(double[] x, double[] y, double z) {
+		int i = 0;
+		while (i < x.length - 2 && z > x[i + 1]) {
+			i++;
+		}
+		final double h = x[i + 1] - x[i];
+		final double s = (z - x[i]) / h;
+		final double m0 = slope(x, y, i) * h;
+		final double m1 = slope(x, y, i + 1) * h;
+		final double s2 = s * s;
+		final double s3 = s2 * s;
+		return (2 * s3 - 3 * s2 + 1) * y[i] + (s3 - 2 * s2 + s) * m0
+				+ (-2 * s3 + 3 * s2) * y[i + 1] + (s3 - s2) * m1;
+	}
+
+	private static double slope(double[] x, double[] y, int i) {
+		if (i == 0) {
+			return (y[1] - y[0]) / (x[1] - x[0]);
+		}
+		final int last = x.length - 1;
+		if (i == last) {
+			return (y[last] - y[last - 1]) / (x[last] - x[last - 1]);
+		}
+		final double h0 = x[i] - x[i - 1];
+		final double h1 = x[i + 1] - x[i];
+		final double d0 = (y[i] - y[i - 1]) / h0;
+		final double d1 = (y[i + 1] - y[i]) / h1;
+		return (d0 * h1 + d1 * h0) / (h0 + h1);
+	}
+
+	/** Kinetic temperature [K] of the standard above 86 km geometric altitude. */
+	private static double upperTemperature(double z) {
+		final double km = z / 1000.;
+		if (km <= 91.) {
+			return 186.8673;
+		}
+		if (km <= 110.) {
+			final double x = (km - 91.) / -19.9429;
+			return 263.1905 - 76.3232 * Math.sqrt(1. - x * x);
+		}
+		if (km <= 120.) {
+			return 240. + 12. * (km - 110.);
+		}
+		final double r0 = R0 / 1000.;
+		final double xi = (km - 120.) * (r0 + 120.) / (r0 + km);
+		return 1000. - (1000. - 360.) * Math.exp(-0.01875 * xi);
+	}
+}
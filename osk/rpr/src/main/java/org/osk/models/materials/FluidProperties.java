@@ -0,0 +1,38 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.materials;
+
+/**
+ * Temperature dependent properties of a liquid propellant as used by the
+ * tank models. All values are in SI units, temperatures in K.
+ *
+ * Implementations are stateless after construction and may be shared
+ * between several model instances.
+ */
+public interface FluidProperties {
+
+	/** Name of the propellant, e.g. as given in the configuration. */
+	String getName();
+
+	/** Density of the liquid [kg/m^3]. */
+	double density(double temperature);
+
+	/** Derivative of the liquid density over temperature [kg/(m^3 K)]. */
+	double densityDerivative(double temperature);
+
+	/** Dynamic viscosity of the liquid [kg/(m s)]. */
+	double viscosity(double temperature);
+
+	/** Heat conductivity of the liquid [W/(m K)]. */
+	double conductivity(double temperature);
+
+	/** Specific heat capacity of the liquid [J/(kg K)]. */
+	double heatCapacity(double temperature);
+
+	/** Vapour pressure of the liquid [Pa]. */
+	double vapourPressure(double temperature);
+
+}
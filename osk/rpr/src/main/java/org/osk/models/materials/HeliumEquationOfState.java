@@ -0,0 +1,60 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.materials;
+
+import org.osk.numeric.Polynomial;
+
+/**
+ * Real gas equation of state of helium. The compressibility factor is
+ * linear in pressure,
+ * <pre>
+ *    Z = 1 + FAKTOR(T) * p / 1E5
+ * </pre>
+ * with a cubic temperature polynomial FAKTOR, so the pressure for given
+ * density and temperature has the closed form
+ * <pre>
+ *    p = DENSITY*RSPEZ*T / (1 - FAKTOR(T) * DENSITY*RSPEZ*T / 1E5)
+ * </pre>
+ */
+public final class HeliumEquationOfState extends RealGasEquationOfState {
+
+	public static final HeliumEquationOfState INSTANCE = new HeliumEquationOfState();
+
+	/** Specific gas constant of helium [J/(kg K)]. */
+	public static final double RSPEZ = 2077;
+
+	/** Pressure unit of the compressibility correlation, bar. */
+	private static final double PUNIT = 1E5;
+
+	/** Compressibility correction factor [1/bar] as function of temperature. */
+	private static final Polynomial FAKTOR = new Polynomial(
+			1.913688E-3, -8.520942E-6, 1.358845E-8, -4.595341E-12);
+
+	private HeliumEquationOfState() {
+		super(RSPEZ);
+	}
+
+	@Override
+	public double compressibility(final double pressure, final double temperature) {
+		return 1.0 + FAKTOR.value(temperature) * pressure / PUNIT;
+	}
+
+	@Override
+	public double compressibilityDerivative(final double pressure, final double temperature) {
+		return FAKTOR.value(temperature) / PUNIT;
+	}
+
+	@Override
+	public double pressure(final double density, final double temperature) {
+		final double rrt = density * RSPEZ * temperature;
+		final double denominator = 1.0 - FAKTOR.value(temperature) * rrt / PUNIT;
+		if (denominator <= 0) {
+			// Outside of the validity of the correlation, no positive solution.
+			return super.pressure(density, temperature);
+		}
+		return rrt / denominator;
+	}
+}
@@ -55,6 +55,7 @@
  */
 package org.osk.models.materials;
 
+import org.osk.numeric.Polynomial;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +81,47 @@ public final class HeliumJKC {
             {2.31579E-9, 2.473935E-9, 2.55962E-9, 2.446718E-9, 2.490386E-9, 2.481965E-9, 2.464073E-9, 2.391366E-9, 2.469772E-9},
             {-1.661793E-12, -1.785971E-12, -1.857724E-12, -1.785917E-12, -1.828192E-12, -1.832863E-12, -1.829817E-12, -1.785697E-12, -1.854994E-12}};
 
+    /** Pressure step between the tabulated coefficient columns [bar]. */
+    private static final double PSTEP = 40.;
+
+    /** Temperature polynomials, one per tabulated pressure column. */
+    private static final Polynomial[] COLUMNS = new Polynomial[KOEFF[0].length];
+
+    static {
+        for (int j = 0; j < COLUMNS.length; j++) {
+            double[] column = new double[KOEFF.length];
+            for (int i = 0; i < KOEFF.length; i++) {
+                column[i] = KOEFF[i][j];
+            }
+            COLUMNS[j] = new Polynomial(column);
+        }
+    }
+
+    /**
+     * Joule-Kelvin-Coefficient of Helium, interpolated linearly in pressure
+     * between the two enclosing coefficient columns. Pressures outside the
+     * tabulated range of 0 to 320 bar are clamped to it, so the coefficient
+     * of the first or last column is returned there.
+     *
+     * @param pressure pressure [bar]
+     * @param temperature temperature [K]
+     * @return Joule-Kelvin-Coefficient [K/bar]
+     */
+    public static double coefficient(final double pressure, final double temperature) {
+        final int last = COLUMNS.length - 1;
+        double p = pressure;
+        if (p < 0.) {
+            LOG.warn("Pressure below the JKC table range: {}", pressure);
+            p = 0.;
+        } else if (p > last * PSTEP) {
+            p = last * PSTEP;
+        }
+        final int lower = Math.min((int) (p / PSTEP), last - 1);
+        final double P1 = COLUMNS[lower].value(temperature);
+        final double P2 = COLUMNS[lower + 1].value(temperature);
+        return -(P1 + (P2 - P1) * (p - lower * PSTEP) / PSTEP);
+    }
+
     public static double JKCParams(int i, int j) {
         double value;
 
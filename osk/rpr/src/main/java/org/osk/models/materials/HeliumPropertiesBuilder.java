@@ -57,7 +57,6 @@ package org.osk.models.materials;
  */
 public final class HeliumPropertiesBuilder {
     private static final double CV = 3146.5;
-    private static final double RSPEZ= 2077;
     private static final double XI= 671741.8271;
     private static final double ROKR= 69.45;
     private static final double LR= 1.38;
@@ -102,7 +101,7 @@ public final class HeliumPropertiesBuilder {
         /**********************************************************************/
         double NXIRO, NXIR, LAMBDO;
        //double CP = 0, CV = 0, RALLG = 0, RSPEZ = 0, XI = 0, LR = 0, GAMMA = 0;
-        double A,B,C,D,E,F,TRED,PRED,FQ,FQO,ETAO,FAKTOR,RORED = 0;
+        double A,B,C,D,E,F,TRED,PRED,FQ,FQO,ETAO,RORED = 0;
 
         // PK=PK/1E5; 
 
@@ -146,12 +145,9 @@ public final class HeliumPropertiesBuilder {
         /*                                                                    */
         /**********************************************************************/
 
-        FAKTOR=(1.913688E-3)-(8.520942E-6)*(TLAUF)+1.358845E-8
-                * Math.pow(TLAUF,2);
-        FAKTOR=FAKTOR-(4.595341E-12)*Math.pow(TLAUF,3);
-        MPHelium.Z=1.0+FAKTOR* (PK);
+        MPHelium.Z=HeliumEquationOfState.INSTANCE.compressibility(PK*1E5, TLAUF);
 
-        MPHelium.DENSITY = PK*1E5 /(RSPEZ* (TLAUF)*MPHelium.Z); // FIXME: units?
+        MPHelium.DENSITY = HeliumEquationOfState.INSTANCE.density(PK*1E5, TLAUF);
 
         /*   Waermeleitfaehigkeit Lambda-null bei p=1 bar     */
          LAMBDO=ETAO*2.5*CV*.99;
@@ -0,0 +1,75 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.materials;
+
+import org.osk.numeric.Polynomial;
+
+/**
+ * Liquid properties of the fuel monomethylhydrazine (MMH).
+ * Correlations are the ones of the tank model, taken from:
+ *
+ *    Eickhoff, J.:
+ *    Erstellung und Programmierung eines Rechenverfahrens zur
+ *    thermodynamischen Erfassung des Druckgas-Foerdersystems der
+ *    ARIANE L5-Stufe und Berechnung des noetigen Heliumbedarfs zur
+ *    Treibstoffoerderung.
+ *    Studienarbeit am Institut fuer Thermodynamik der Luft- und Raumfahrt
+ *    Universitaet Stuttgart, Pfaffenwaldring 31, 7000 Stuttgart 80, 1988
+ *
+ * The vapour pressure of MMH is neglected at stage operation temperatures,
+ * as the tank model does.
+ */
+public final class Monomethylhydrazine extends TabulatedFluidProperties {
+
+	public static final String NAME = "MMH";
+
+	/** Density DICHLB = CB + DB*T [kg/m^3]. */
+	private static final Polynomial DENSITY = new Polynomial(1150.34, -.93949);
+	private static final Polynomial DENSITY_DERIVATIVE = DENSITY.derivative();
+	/** Decadic logarithm of the dynamic viscosity [Pa s]. */
+	private static final Polynomial LOG_VISCOSITY = new Polynomial(
+			36.77076, -.385516, 1.263832E-3, -1.40667E-6);
+	/** Thermal conductivity [W/(m K)]. */
+	private static final Polynomial CONDUCTIVITY = new Polynomial(
+			.14246, 9.211E-4, -1.9029E-6);
+	/** Specific heat capacity [J/(kg K)]. */
+	private static final Polynomial HEAT_CAPACITY = new Polynomial(
+			2.7331E3, -7.2365E-2, 2.4762E-3);
+
+	public Monomethylhydrazine() {
+		super(NAME, 200.0, 400.0, 2001);
+	}
+
+	@Override
+	protected double correlateDensity(final double t) {
+		return DENSITY.value(t);
+	}
+
+	@Override
+	protected double correlateDensityDerivative(final double t) {
+		return DENSITY_DERIVATIVE.value(t);
+	}
+
+	@Override
+	protected double correlateViscosity(final double t) {
+		return Math.pow(10, LOG_VISCOSITY.value(t));
+	}
+
+	@Override
+	protected double correlateConductivity(final double t) {
+		return CONDUCTIVITY.value(t);
+	}
+
+	@Override
+	protected double correlateHeatCapacity(final double t) {
+		return HEAT_CAPACITY.value(t);
+	}
+
+	@Override
+	protected double correlateVapourPressure(final double t) {
+		return 0.0;
+	}
+}
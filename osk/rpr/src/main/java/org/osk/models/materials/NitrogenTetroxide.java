@@ -0,0 +1,87 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.materials;
+
+import org.osk.numeric.Polynomial;
+
+/**
+ * Liquid properties of the oxidizer nitrogen tetroxide (NTO, N2O4).
+ * Correlations are the ones of the tank model, taken from:
+ *
+ *    Eickhoff, J.:
+ *    Erstellung und Programmierung eines Rechenverfahrens zur
+ *    thermodynamischen Erfassung des Druckgas-Foerdersystems der
+ *    ARIANE L5-Stufe und Berechnung des noetigen Heliumbedarfs zur
+ *    Treibstoffoerderung.
+ *    Studienarbeit am Institut fuer Thermodynamik der Luft- und Raumfahrt
+ *    Universitaet Stuttgart, Pfaffenwaldring 31, 7000 Stuttgart 80, 1988
+ */
+public final class NitrogenTetroxide extends TabulatedFluidProperties {
+
+	public static final String NAME = "N2O4";
+
+	/** Density DICHLO = C + D*T + E*T^2 [kg/m^3]. */
+	private static final Polynomial DENSITY = new Polynomial(2066.0, -1.979, -4.826E-4);
+	private static final Polynomial DENSITY_DERIVATIVE = DENSITY.derivative();
+	/** Dynamic viscosity [Pa s]. */
+	private static final Polynomial VISCOSITY = new Polynomial(
+			7.533E-3, -6.167E-5, 2.055E-7, -3.234E-10, 1.966E-13);
+	/** Thermal conductivity [W/(m K)]. */
+	private static final Polynomial CONDUCTIVITY = new Polynomial(
+			-.13791, 2.3304E-3, -4.7897E-6);
+	/** Specific heat capacity [J/(kg K)]. */
+	private static final Polynomial HEAT_CAPACITY = new Polynomial(
+			-1.78232E4, 1.9312E2, -.65038, 7.4106E-4);
+
+	/** Conversion of Torr to Pa for the vapour pressure correlation. */
+	private static final double TORR = 133.332;
+
+	public NitrogenTetroxide() {
+		super(NAME, 200.0, 400.0, 2001);
+	}
+
+	@Override
+	protected double correlateDensity(final double t) {
+		return DENSITY.value(t);
+	}
+
+	@Override
+	protected double correlateDensityDerivative(final double t) {
+		return DENSITY_DERIVATIVE.value(t);
+	}
+
+	@Override
+	protected double correlateViscosity(final double t) {
+		return VISCOSITY.value(t);
+	}
+
+	@Override
+	protected double correlateConductivity(final double t) {
+		return CONDUCTIVITY.value(t);
+	}
+
+	@Override
+	protected double correlateHeatCapacity(final double t) {
+		return HEAT_CAPACITY.value(t);
+	}
+
+	@Override
+	protected double correlateVapourPressure(final double t) {
+		final double a;
+		final double b;
+		if (t < 233) {
+			a = -2881.007;
+			b = 13.4;
+		} else if (t < 263) {
+			a = -2373.331;
+			b = 11.214;
+		} else {
+			a = -1741.348;
+			b = 8.814;
+		}
+		return Math.pow(10, (a / t + b)) * TORR;
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.materials;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of the available propellant property implementations.
+ * The property tables are built once per propellant and shared by all
+ * models asking for it. Further propellants are added with
+ * {@link #register(FluidProperties, String...)} without touching the
+ * models using them.
+ */
+public final class Propellants {
+
+	private static final Map<String, FluidProperties> REGISTRY
+			= new HashMap<String, FluidProperties>();
+
+	static {
+		register(new NitrogenTetroxide(), NitrogenTetroxide.NAME, "NTO");
+		register(new Monomethylhydrazine(), Monomethylhydrazine.NAME);
+	}
+
+	private Propellants() {
+	}
+
+	public static synchronized void register(final FluidProperties properties,
+			final String... names) {
+		for (String name : names) {
+			REGISTRY.put(name.toUpperCase(), properties);
+		}
+	}
+
+	/**
+	 * @return the properties registered for the given name or null if
+	 *         there are none.
+	 */
+	public static synchronized FluidProperties get(final String name) {
+		if (name == null) {
+			return null;
+		}
+		return REGISTRY.get(name.trim().toUpperCase());
+	}
+
+	public static FluidProperties nitrogenTetroxide() {
+		return get(NitrogenTetroxide.NAME);
+	}
+
+	public static FluidProperties monomethylhydrazine() {
+		return get(Monomethylhydrazine.NAME);
+	}
+}
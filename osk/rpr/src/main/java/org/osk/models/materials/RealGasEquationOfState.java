@@ -0,0 +1,68 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.materials;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thermal equation of state of a real gas written with a compressibility
+ * factor Z:
+ * <pre>
+ *    p = Z(p,T) * DENSITY * RSPEZ * T
+ * </pre>
+ * Density for given pressure and temperature follows directly. Pressure for
+ * given density and temperature is found with Newton steps starting from
+ * the ideal gas pressure; subclasses with a compressibility factor that
+ * allows it override {@link #pressure(double, double)} with a closed form.
+ *
+ * All values in SI units: pressure [Pa], temperature [K], density [kg/m^3].
+ */
+public abstract class RealGasEquationOfState {
+	private static final Logger LOG = LoggerFactory.getLogger(RealGasEquationOfState.class);
+
+	private static final int MAX_NEWTON_STEPS = 20;
+	private static final double TOLERANCE = 1.E-12;
+
+	/** Specific gas constant [J/(kg K)]. */
+	private final double specificGasConstant;
+
+	protected RealGasEquationOfState(final double specificGasConstant) {
+		this.specificGasConstant = specificGasConstant;
+	}
+
+	/** @return compressibility factor Z [-] */
+	public abstract double compressibility(double pressure, double temperature);
+
+	/** @return derivative dZ/dp [1/Pa] at constant temperature */
+	public abstract double compressibilityDerivative(double pressure, double temperature);
+
+	public double density(final double pressure, final double temperature) {
+		return pressure / (compressibility(pressure, temperature)
+				* specificGasConstant * temperature);
+	}
+
+	public double pressure(final double density, final double temperature) {
+		final double rrt = density * specificGasConstant * temperature;
+		double p = rrt;
+		for (int i = 0; i < MAX_NEWTON_STEPS; i++) {
+			final double g = p - compressibility(p, temperature) * rrt;
+			final double dg = 1. - compressibilityDerivative(p, temperature) * rrt;
+			final double dp = g / dg;
+			p -= dp;
+			if (Math.abs(dp) <= TOLERANCE * Math.abs(p)) {
+				return p;
+			}
+		}
+		LOG.warn("No convergence solving the equation of state for density {}"
+				+ " and temperature {}", density, temperature);
+		return p;
+	}
+
+	public double getSpecificGasConstant() {
+		return specificGasConstant;
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.materials;
+
+import org.osk.numeric.UniformTable;
+
+/**
+ * Base class for propellants whose properties are given by correlations
+ * of the temperature. The correlations are sampled once into equidistant
+ * tables at construction, lookups inside the table range are a linear
+ * interpolation. Outside of the table range the correlation itself is
+ * evaluated, so results never get worse than the plain correlation.
+ *
+ * Subclasses must not depend on instance fields in the correlation
+ * methods, since these are called from this constructor.
+ */
+public abstract class TabulatedFluidProperties implements FluidProperties {
+
+	private final String name;
+	private final UniformTable density;
+	private final UniformTable densityDerivative;
+	private final UniformTable viscosity;
+	private final UniformTable conductivity;
+	private final UniformTable heatCapacity;
+	private final UniformTable vapourPressure;
+
+	protected TabulatedFluidProperties(final String name, final double tMin,
+			final double tMax, final int points) {
+		this.name = name;
+		final double[] rho = new double[points];
+		final double[] drho = new double[points];
+		final double[] eta = new double[points];
+		final double[] lambda = new double[points];
+		final double[] cp = new double[points];
+		final double[] pv = new double[points];
+		final double step = (tMax - tMin) / (points - 1);
+		for (int i = 0; i < points; i++) {
+			final double t = tMin + i * step;
+			rho[i] = correlateDensity(t);
+			drho[i] = correlateDensityDerivative(t);
+			eta[i] = correlateViscosity(t);
+			lambda[i] = correlateConductivity(t);
+			cp[i] = correlateHeatCapacity(t);
+			pv[i] = correlateVapourPressure(t);
+		}
+		density = new UniformTable(tMin, tMax, rho);
+		densityDerivative = new UniformTable(tMin, tMax, drho);
+		viscosity = new UniformTable(tMin, tMax, eta);
+		conductivity = new UniformTable(tMin, tMax, lambda);
+		heatCapacity = new UniformTable(tMin, tMax, cp);
+		vapourPressure = new UniformTable(tMin, tMax, pv);
+	}
+
+	protected abstract double correlateDensity(double temperature);
+
+	protected abstract double correlateDensityDerivative(double temperature);
+
+	protected abstract double correlateViscosity(double temperature);
+
+	protected abstract double correlateConductivity(double temperature);
+
+	protected abstract double correlateHeatCapacity(double temperature);
+
+	protected abstract double correlateVapourPressure(double temperature);
+
+	public String getName() {
+		return name;
+	}
+
+	public double density(final double temperature) {
+		return density.contains(temperature) ? density.value(temperature)
+				: correlateDensity(temperature);
+	}
+
+	public double densityDerivative(final double temperature) {
+		return densityDerivative.contains(temperature) ? densityDerivative.value(temperature)
+				: correlateDensityDerivative(temperature);
+	}
+
+	public double viscosity(final double temperature) {
+		return viscosity.contains(temperature) ? viscosity.value(temperature)
+				: correlateViscosity(temperature);
+	}
+
+	public double conductivity(final double temperature) {
+		return conductivity.contains(temperature) ? conductivity.value(temperature)
+				: correlateConductivity(temperature);
+	}
+
+	public double heatCapacity(final double temperature) {
+		return heatCapacity.contains(temperature) ? heatCapacity.value(temperature)
+				: correlateHeatCapacity(temperature);
+	}
+
+	public double vapourPressure(final double temperature) {
+		return vapourPressure.contains(temperature) ? vapourPressure.value(temperature)
+				: correlateVapourPressure(temperature);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -94,11 +94,12 @@ package org.osk.models.structure;
 
 import javax.inject.Inject;
 
+import org.apache.commons.math3.exception.util.DummyLocalizable;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.osk.errors.OskException;
-import org.osk.events.PVCoordinates;
+import org.osk.events.ECIpv;
 import org.osk.models.BaseModel;
-import org.osk.time.TimeHandler;
+import org.osk.models.environment.GravityField;
 import org.slf4j.Logger;
 
 import net.gescobar.jmx.annotation.ManagedAttribute;
@@ -118,17 +119,17 @@ public class ScStructure extends BaseModel {
 
 	@Inject Logger LOG;
 
-	/** Gravity acceleration imposed onto structure. */
-	private Vector3D gravityAccel; 
 	/** Structure mass. */
 	private double scMass;
 
-	/** Structure SCVelocity in ECI frame. */
-	private Vector3D scVelocityECI; //= new Vector3D();
-	/** Structure SCPosition in ECI frame. */
-	private Vector3D scPositionECI; //= new Vector3D();
-	/** scPosition of previous timestep. */
-	private Vector3D scPositionECI_prev; // = new Vector3D();
+	/** Gravity evaluated inside the propagator stages. */
+	private GravityField gravityField;
+	private final TrajectoryPropagator propagator = new TrajectoryPropagator();
+	private final Dynamics dynamics = new Dynamics();
+	/** Position and velocity in ECI, advanced in place by the propagator. */
+	private final double[] state = new double[6];
+	/** Position and velocity of the last step, overwritten every step. */
+	private final ECIpv coordinates = new ECIpv();
 
 	private static final String TYPE = "ScStructure";
 	private static final String SOLVER = "none";
@@ -139,43 +140,65 @@ public class ScStructure extends BaseModel {
 
 	public void init(String name) {
 		this.name = name;
-		scPositionECI_prev = scPositionECI;
 	}
 
-	public PVCoordinates calculateECICoordinates(final double tStepSize, Vector3D thrust) throws OskException {
-		// FIXME See if the Frames concept from OREKIT can be used 
-		final double thrustMag = thrust.getNorm(); 
-		final Vector3D thrustVecECI;
-		if (scPositionECI != scPositionECI_prev) {
-			thrustVecECI = scPositionECI.subtract(scPositionECI_prev)
-				.normalize().scalarMultiply(thrustMag);
-		} else {
-			thrustVecECI = thrust; // FIXME
+	/**
+	 * Propagates position and velocity over one simulation step starting at
+	 * the given mission time. Gravity and thrust are evaluated in every stage
+	 * of the {@link TrajectoryPropagator}, the thrust acting along the stage
+	 * velocity.
+	 */
+	public ECIpv calculateECICoordinates(final double missionTime, final double tStepSize,
+			Vector3D thrust) throws OskException {
+		if (gravityField == null) {
+			throw new OskException(new DummyLocalizable("No gravity field set for " + name));
 		}
-		LOG.info("thrustMag:  '{}' ", thrustMag);
-
-		// the actual acceleration is the composition of the gravity plus the rocket
-		// thrust done in ECI coordinates
-		final Vector3D totalAcc = gravityAccel.add(1.0/scMass, thrustVecECI); 
-		
-		/* Calculation of the new SC velocity.  v = v0 + a * dt */
-		final Vector3D newVelocityECI = scVelocityECI.add(tStepSize, totalAcc);
-		final Vector3D newPositionECI = scPositionECI.add(tStepSize, newVelocityECI);
-
-		/* Storage of old SC values */
-		scPositionECI_prev = scPositionECI;
-		scPositionECI = newPositionECI;
-		scVelocityECI = newVelocityECI;
-
-		return new PVCoordinates(newPositionECI, newVelocityECI);
+		final double thrustMag = thrust.getNorm();
+		dynamics.thrustAcceleration = thrustMag / scMass;
+		if (LOG.isTraceEnabled()) {
+			LOG.trace("thrustMag:  '{}' ", thrustMag);
+		}
+		propagator.propagate(missionTime, state, tStepSize, dynamics);
+		return coordinates.set(state);
 	}
 
-	public Vector3D getGravity() {
-		return gravityAccel;
+	/** Position and velocity of the last step, the instance is reused. */
+	public ECIpv getCoordinates() {
+		return coordinates;
 	}
-	
-	public void setGravity(Vector3D gravity) {
-		gravityAccel = gravity;
+
+	/** Gravity plus thrust along the velocity, for the propagator stages. */
+	private final class Dynamics implements TrajectoryPropagator.Dynamics {
+		/** Thrust divided by mass [m/s^2], constant over one step. */
+		double thrustAcceleration;
+
+		@Override
+		public void acceleration(double time, double[] position, double[] velocity,
+				double[] acceleration) {
+			gravityField.gravity(time, position, acceleration);
+			if (thrustAcceleration != 0.0) {
+				final double v = Math.sqrt(velocity[0] * velocity[0]
+						+ velocity[1] * velocity[1] + velocity[2] * velocity[2]);
+				if (v > 0.0) {
+					final double f = thrustAcceleration / v;
+					acceleration[0] += f * velocity[0];
+					acceleration[1] += f * velocity[1];
+					acceleration[2] += f * velocity[2];
+				}
+			}
+		}
+	}
+
+	public GravityField getGravityField() {
+		return gravityField;
+	}
+
+	public void setGravityField(GravityField gravityField) {
+		this.gravityField = gravityField;
+	}
+
+	public TrajectoryPropagator getPropagator() {
+		return propagator;
 	}
 
 	// JMX
@@ -191,20 +214,26 @@ public class ScStructure extends BaseModel {
 
 	@ManagedAttribute
 	public Vector3D getScVelocityECI() {
-		return scVelocityECI;
+		return new Vector3D(state[3], state[4], state[5]);
 	}
 
 	public void setScVelocityECI(Vector3D scVelocityECI) {
-		this.scVelocityECI = scVelocityECI;
+		state[3] = scVelocityECI.getX();
+		state[4] = scVelocityECI.getY();
+		state[5] = scVelocityECI.getZ();
+		coordinates.set(state);
 	}
 
 	@ManagedAttribute
 	public Vector3D getScPositionECI() {
-		return scPositionECI;
+		return new Vector3D(state[0], state[1], state[2]);
 	}
 
 	public void setScPositionECI(Vector3D scPositionECI) {
-		this.scPositionECI = scPositionECI;
+		state[0] = scPositionECI.getX();
+		state[1] = scPositionECI.getY();
+		state[2] = scPositionECI.getZ();
+		coordinates.set(state);
 	}
 
-}
\ No newline at end of file
+}
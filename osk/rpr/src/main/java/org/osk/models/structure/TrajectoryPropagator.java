@@ -0,0 +1,299 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.structure;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+
+/**
+ * Adaptive Dormand-Prince 8(5,3) integrator for the translational motion
+ * of a point mass, following DOP853 of Hairer, Norsett and Wanner,
+ * Solving Ordinary Differential Equations I, with its combined fifth and
+ * third order error estimate and step size control.
+ *
+ * The state is position and velocity in one array of six doubles that is
+ * advanced in place. Accelerations are requested from {@link Dynamics} at
+ * every stage, so gravity and thrust are sampled inside the step and not
+ * only at its start. All stage arrays are allocated in the constructor;
+ * {@link #propagate(double, double[], double, Dynamics)} does not
+ * allocate. The accepted step size is kept as start value for the next
+ * call, so a propagator instance belongs to one trajectory.
+ */
+public final class TrajectoryPropagator {
+
+	/** Acceleration of the point mass. */
+	public interface Dynamics {
+		/**
+		 * @param time Unix time [s] (UTC) of the stage
+		 * @param position position [m] in ECI
+		 * @param velocity velocity [m/s] in ECI
+		 * @param acceleration receives the acceleration [m/s^2] in ECI
+		 */
+		void acceleration(double time, double[] position, double[] velocity,
+				double[] acceleration);
+	}
+
+	public static final double DEFAULT_RELATIVE_TOLERANCE = 1E-10;
+	public static final double DEFAULT_POSITION_TOLERANCE = 1E-4;
+	public static final double DEFAULT_VELOCITY_TOLERANCE = 1E-7;
+	/** Upper bound of integration steps per call. */
+	private static final int MAX_STEPS = 100000;
+
+	private static final int STAGES = 12;
+	private static final int DIM = 6;
+
+	private static final double SAFETY = 0.9;
+	/** Limits of the step size change per step, as in DOP853. */
+	private static final double MIN_FACTOR = 0.333;
+	private static final double MAX_FACTOR = 6.0;
+
+	private static final double[] C = {
+		0.0,
+		0.526001519587677318785587544488E-01,
+		0.789002279381515978178381316732E-01,
+		0.118350341907227396726757197510,
+		0.281649658092772603273242802490,
+		0.333333333333333333333333333333,
+		0.25,
+		0.307692307692307692307692307692,
+		0.651282051282051282051282051282,
+		0.6,
+		0.857142857142857142857142857142,
+		1.0
+	};
+
+	private static final double[][] A = {
+		{},
+		{5.26001519587677318785587544488E-2},
+		{1.97250569845378994544595329183E-2, 5.91751709536136983633785987549E-2},
+		{2.95875854768068491816892993775E-2, 0.0, 8.87627564304205475450678981324E-2},
+		{2.41365134159266685502369798665E-1, 0.0, -8.84549479328286085344864962717E-1,
+			9.24834003261792003115737966543E-1},
+		{3.7037037037037037037037037037E-2, 0.0, 0.0,
+			1.70828608729473871279604482173E-1, 1.25467687566822425016691814123E-1},
+		{3.7109375E-2, 0.0, 0.0, 1.70252211019544039314978060272E-1,
+			6.02165389804559606850219397283E-2, -1.7578125E-2},
+		{3.70920001185047927108779319836E-2, 0.0, 0.0,
+			1.70383925712239993810214054705E-1, 1.07262030446373284651809199168E-1,
+			-1.53194377486244017527936158236E-2, 8.27378916381402288758473766002E-3},
+		{6.24110958716075717114429577812E-1, 0.0, 0.0,
+			-3.36089262944694129406857109825, -8.68219346841726006818189891453E-1,
+			2.75920996994467083049415600797E1, 2.01540675504778934086186788979E1,
+			-4.34898841810699588477366255144E1},
+		{4.77662536438264365890433908527E-1, 0.0, 0.0,
+			-2.48811461997166764192642586468, -5.90290826836842996371446475743E-1,
+			2.12300514481811942347288949897E1, 1.52792336328824235832596922938E1,
+			-3.32882109689848629194453265587E1, -2.03312017085086261358222928593E-2},
+		{-9.3714243008598732571704021658E-1, 0.0, 0.0,
+			5.18637242884406370830023853209, 1.09143734899672957818500254654,
+			-8.14978701074692612513997267357, -1.85200656599969598641566180701E1,
+			2.27394870993505042818970056734E1, 2.49360555267965238987089396762,
+			-3.0467644718982195003823669022},
+		{2.27331014751653820792359768449, 0.0, 0.0,
+			-1.05344954667372501984066689879E1, -2.00087205822486249909675718444,
+			-1.79589318631187989172765950534E1, 2.79488845294199600508499808837E1,
+			-2.85899827713502369474065508674, -8.87285693353062954433549289258,
+			1.23605671757943030647266201528E1, 6.43392746015763530355970484046E-1}
+	};
+
+	/** Weights of the eighth order solution. */
+	private static final double[] B = {
+		5.42937341165687622380535766363E-2, 0.0, 0.0, 0.0, 0.0,
+		4.45031289275240888144113950566, 1.89151789931450038304281599044,
+		-5.8012039600105847814672114227, 3.1116436695781989440891606237E-1,
+		-1.52160949662516078556178806805E-1, 2.01365400804030348374776537501E-1,
+		4.47106157277725905176885569043E-2
+	};
+
+	/** Difference between the eighth and the fifth order weights. */
+	private static final double[] E5 = {
+		0.1312004499419488073250102996E-01, 0.0, 0.0, 0.0, 0.0,
+		-0.1225156446376204440720569753E+01, -0.4957589496572501915214079952,
+		0.1664377182454986536961530415E+01, -0.3503288487499736816886487290,
+		0.3341791187130174790297318841, 0.8192320648511571246570742613E-01,
+		-0.2235530786388629525884427845E-01
+	};
+
+	/** Difference between the eighth and the third order weights. */
+	private static final double[] E3 = new double[STAGES];
+	static {
+		for (int i = 0; i < STAGES; i++) {
+			E3[i] = B[i];
+		}
+		E3[0] -= 0.244094488188976377952755905512;
+		E3[8] -= 0.733846688281611857341361741547;
+		E3[11] -= 0.220588235294117647058823529412E-1;
+	}
+
+	private double relativeTolerance = DEFAULT_RELATIVE_TOLERANCE;
+	private double positionTolerance = DEFAULT_POSITION_TOLERANCE;
+	private double velocityTolerance = DEFAULT_VELOCITY_TOLERANCE;
+
+	/** Stage derivatives, k[0] holds the derivative at the step start. */
+	private final double[][] k = new double[STAGES][DIM];
+	private final double[] stage = new double[DIM];
+	private final double[] next = new double[DIM];
+	private final double[] position = new double[3];
+	private final double[] velocity = new double[3];
+	private final double[] acceleration = new double[3];
+
+	/** Step size proposed by the last accepted step, NaN before the first. */
+	private double stepSize = Double.NaN;
+	private int evaluations;
+	private int acceptedSteps;
+	private int rejectedSteps;
+
+	/**
+	 * Advances the state over the given duration.
+	 *
+	 * @param time Unix time [s] (UTC) of the state
+	 * @param state position [m] and velocity [m/s] in ECI, overwritten with
+	 *              the state at time + duration
+	 * @param duration integration interval [s], positive
+	 * @param dynamics acceleration model
+	 */
+	public void propagate(final double time, final double[] state, final double duration,
+			final Dynamics dynamics) throws OskException {
+		final double end = time + duration;
+		double t = time;
+		double h = Double.isNaN(stepSize) ? duration : Math.min(stepSize, duration);
+		derivative(dynamics, t, state, k[0]);
+		int steps = 0;
+		while (t < end) {
+			if (++steps > MAX_STEPS) {
+				throw new OskException(new DummyLocalizable("Trajectory propagation needs more than "
+						+ MAX_STEPS + " steps for " + duration + " s"));
+			}
+			final boolean last = t + h >= end;
+			final double step = last ? end - t : h;
+			final double error = attempt(dynamics, t, state, step);
+			final double factor = Math.pow(error, 0.125) / SAFETY;
+			if (error <= 1.0) {
+				acceptedSteps++;
+				t = last ? end : t + step;
+				System.arraycopy(next, 0, state, 0, DIM);
+				derivative(dynamics, t, state, k[0]);
+				final double proposal = step / Math.max(1.0 / MAX_FACTOR, Math.min(1.0 / MIN_FACTOR, factor));
+				// a step shortened to hit the interval end does not limit the next one
+				h = last ? Math.max(h, proposal) : proposal;
+			} else {
+				rejectedSteps++;
+				h = step / Math.min(1.0 / MIN_FACTOR, factor);
+				if (t + h == t) {
+					throw new OskException(new DummyLocalizable(
+							"Trajectory propagation step size underflow at t = " + t));
+				}
+			}
+		}
+		stepSize = h;
+	}
+
+	/**
+	 * One step of size h from y with k[0] already set. Leaves the eighth
+	 * order solution in next and returns the scaled error estimate.
+	 */
+	private double attempt(final Dynamics dynamics, final double t, final double[] y,
+			final double h) {
+		for (int s = 1; s < STAGES; s++) {
+			final double[] a = A[s];
+			for (int i = 0; i < DIM; i++) {
+				double sum = 0.0;
+				for (int j = 0; j < s; j++) {
+					sum += a[j] * k[j][i];
+				}
+				stage[i] = y[i] + h * sum;
+			}
+			derivative(dynamics, t + C[s] * h, stage, k[s]);
+		}
+		double err5 = 0.0;
+		double err3 = 0.0;
+		for (int i = 0; i < DIM; i++) {
+			double sum = 0.0;
+			double sum5 = 0.0;
+			double sum3 = 0.0;
+			for (int j = 0; j < STAGES; j++) {
+				final double kj = k[j][i];
+				sum += B[j] * kj;
+				sum5 += E5[j] * kj;
+				sum3 += E3[j] * kj;
+			}
+			next[i] = y[i] + h * sum;
+			final double scale = (i < 3 ? positionTolerance : velocityTolerance)
+					+ relativeTolerance * Math.max(Math.abs(y[i]), Math.abs(next[i]));
+			sum5 /= scale;
+			sum3 /= scale;
+			err5 += sum5 * sum5;
+			err3 += sum3 * sum3;
+		}
+		if (err5 == 0.0) {
+			return 0.0;
+		}
+		return h * err5 / Math.sqrt((err5 + 0.01 * err3) * DIM);
+	}
+
+	private void derivative(final Dynamics dynamics, final double t, final double[] y,
+			final double[] dy) {
+		position[0] = y[0];
+		position[1] = y[1];
+		position[2] = y[2];
+		velocity[0] = y[3];
+		velocity[1] = y[4];
+		velocity[2] = y[5];
+		dynamics.acceleration(t, position, velocity, acceleration);
+		evaluations++;
+		dy[0] = y[3];
+		dy[1] = y[4];
+		dy[2] = y[5];
+		dy[3] = acceleration[0];
+		dy[4] = acceleration[1];
+		dy[5] = acceleration[2];
+	}
+
+	/** Forgets the step size, e.g. after a discontinuity of the state. */
+	public void reset() {
+		stepSize = Double.NaN;
+	}
+
+	public double getRelativeTolerance() {
+		return relativeTolerance;
+	}
+
+	public void setRelativeTolerance(double relativeTolerance) {
+		this.relativeTolerance = relativeTolerance;
+	}
+
+	public double getPositionTolerance() {
+		return positionTolerance;
+	}
+
+	public void setPositionTolerance(double positionTolerance) {
+		this.positionTolerance = positionTolerance;
+	}
+
+	public double getVelocityTolerance() {
+		return velocityTolerance;
+	}
+
+	public void setVelocityTolerance(double velocityTolerance) {
+		this.velocityTolerance = velocityTolerance;
+	}
+
+	public double getStepSize() {
+		return stepSize;
+	}
+
+	public int getEvaluations() {
+		return evaluations;
+	}
+
+	public int getAcceptedSteps() {
+		return acceptedSteps;
+	}
+
+	public int getRejectedSteps() {
+		return rejectedSteps;
+	}
+}
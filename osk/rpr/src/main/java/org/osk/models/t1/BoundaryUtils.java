@@ -4,17 +4,15 @@ import org.osk.ports.FluidPort;
 
 public class BoundaryUtils {
 
-	public static FluidPort createBoundaryPort(String fluid, double mflow) {
-		return createBoundaryPort(fluid,0.0,0.0, mflow);
+	/**
+	 * Writes a mass flow request into the given boundary port. Pressure and
+	 * temperature are not part of a request and are set to 0.
+	 */
+	public static FluidPort setBoundaryPort(FluidPort port, int fluidId, double mflow) {
+		return port.set(fluidId, 0.0, 0.0, mflow);
 	}
 
-	public static FluidPort createBoundaryPort(
-			FluidPort outputPort) {
-		return createBoundaryPort(outputPort.getFluid(),0.0,0.0, outputPort.getMassflow());
-	}
-
-	public static FluidPort createBoundaryPort(String fluid, double pressure,
-			double temp, double mflow) {
-		return new FluidPort(fluid, pressure, temp, mflow);
+	public static FluidPort setBoundaryPort(FluidPort port, FluidPort outputPort) {
+		return setBoundaryPort(port, outputPort.getFluidId(), outputPort.getMassflow());
 	}
 }
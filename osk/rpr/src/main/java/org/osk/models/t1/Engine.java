@@ -8,6 +8,9 @@
  */
 package org.osk.models.t1;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import javax.inject.Inject;
 
 import net.gescobar.jmx.annotation.ManagedAttribute;
@@ -17,8 +20,10 @@ import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.osk.errors.OskException;
 import org.osk.models.BaseModel;
 import org.osk.models.environment.Atmosphere;
-import org.osk.numeric.NumericalUtils;
+import org.osk.numeric.NozzleExitPressure;
+import org.osk.numeric.Polynomial;
 import org.osk.ports.FluidPort;
+import org.slf4j.Logger;
 
 /**
  * Model definition for an engine.
@@ -36,6 +41,7 @@ import org.osk.ports.FluidPort;
 
 public class Engine extends BaseModel implements org.osk.models.Engine {
 
+	@Inject Logger LOG;
 	@Inject Atmosphere atmosphere;
 	
 	/** Fuel flow at ingnition [kg/s]. */
@@ -48,9 +54,38 @@ public class Engine extends BaseModel implements org.osk.models.Engine {
 	private double requestedFuelFlow;
 	/** Requested ox flow [kg/s] */
 	private double requestedOxFlow;
+	/** Nozzle exit pressure solver, warm started from the previous step. */
+	private final NozzleExitPressure nozzle = new NozzleExitPressure();
+	/** Use a precomputed performance map instead of the analytic model. */
+	private boolean usePerformanceMap;
+	/** Optional classpath resource of the performance map. */
+	private String performanceMapResource;
+	/** Performance map in use, null for the analytic model. */
+	private EnginePerformanceMap performanceMap;
 
 	private static final String TYPE = "Engine";
 	private static final String SOLVER = "none";
+
+	/** Nozzle area ratio(assumed) */
+	private static final double AREA_RATIO = 100.0;
+	/** Combustion efficiency */
+	private static final double ETA_CSTAR = 0.94;
+	/** Thrust factor efficiency */
+	private static final double ETA_CF = 0.99;
+
+	/** Mixture ratio range and resolution of the performance map. */
+	private static final double MAP_OF_MIN = 0.5;
+	private static final double MAP_OF_MAX = 4.0;
+	private static final int MAP_POINTS = 3501;
+	/** Largest accepted relative error of the performance map. */
+	private static final double MAP_TOLERANCE = 1.E-4;
+
+	/** Isentropic exponent of combustion gas [-] as function of OF. */
+	private static final Polynomial ISENTROPIC_EXPONENT = new Polynomial(
+			1.5081, -0.3251, 0.1493, -0.0324, 0.0034, -0.0001, -7E-07);
+	/** Characteristic velocity [m/s] as function of OF. */
+	private static final Polynomial CHARACTERISTIC_VELOCITY = new Polynomial(
+			880.12, 1549.9, -1011.1, 309.5, -50.87, 4.3126, -0.1481);
   
     public Engine() {
         super(TYPE, SOLVER);
@@ -60,6 +95,7 @@ public class Engine extends BaseModel implements org.osk.models.Engine {
     	this.name = name;  
         requestedFuelFlow = ignitionFuelFlow;
         requestedOxFlow = ignitionOxidizerFlow;
+        performanceMap = usePerformanceMap ? loadPerformanceMap() : null;
     }
 
 
@@ -96,41 +132,137 @@ public class Engine extends BaseModel implements org.osk.models.Engine {
     }
 
 	private double calculateThrust(final double OF, final double mass, final double chamberPressure) throws OskException {
+		if (performanceMap != null && performanceMap.contains(OF)) {
+			return calculateThrustFromMap(OF, mass, chamberPressure);
+		}
 		
     	final double cstar = mixtureCharacteristicVelocity(OF);
 
     	/*Isentropic exponent of combustion gas [-], function of OF*/
     	final double k = isentropicExponentOfCombustionGas(OF);
 
-    	/** Nozzle area ratio(assumed) */
-    	final double areaRatio = 100.0;
-    	/** Combustion efficiency */
-    	final double etaCstar = 0.94;
-    	/** Thrust factor efficiency */
-    	final double etaCf = 0.99;
-
     	/*Nozzle exit pressure pe*/
-    	final double pe = NumericalUtils.newton( k, areaRatio, chamberPressure);
-    	if (pe == 0.0) {
+    	final double pe;
+    	try {
+    		pe = nozzle.solve(k, AREA_RATIO, chamberPressure);
+    	} catch (IllegalArgumentException e) {
     		throw new OskException(new DummyLocalizable("% Engine: Iteration for nozzle exit " +
-    				"pressure, no solution found"));
+    				"pressure, no solution found. " + e.getMessage()));
     	}
     	/*Check for flow separation in nozzle flow: Summerfield pe<0.4*pa */
     	final double pa = atmosphere.getAirPressure(altitude);
+    	checkFlowSeparation(pe, pa);
+    	final double cf = thrustFactor(chamberPressure, pe, k, pa, AREA_RATIO);
+
+    	final double thrust = mass * cstar * ETA_CSTAR * cf * ETA_CF;
+		return thrust;
+	}
+
+	private double calculateThrustFromMap(final double OF, final double mass,
+			final double chamberPressure) throws OskException {
+		final double pe = performanceMap.exitPressureRatio(OF) * chamberPressure;
+    	final double pa = atmosphere.getAirPressure(altitude);
+    	checkFlowSeparation(pe, pa);
+		final double cf = performanceMap.thrustFactor(OF, chamberPressure, pa);
+		return mass * performanceMap.characteristicVelocity(OF) * ETA_CSTAR * cf * ETA_CF;
+	}
+
+	private void checkFlowSeparation(final double pe, final double pa) throws OskException {
     	if ( pe < 0.4*pa ) {
     		throw new OskException(new DummyLocalizable("% Engine: Flow separation in nozzle. " +
     				"Thrust value is not realistic"));
     	} 
-    	final double cf = thrustFactor(chamberPressure, pe, k, pa, areaRatio);
+	}
 
-    	final double thrust = mass * cstar * etaCstar * cf * etaCf;
-		return thrust;
+	/**
+	 * Samples the analytic engine model into a performance map over the
+	 * mixture ratio range of the map.
+	 */
+	public EnginePerformanceMap buildPerformanceMap() {
+		final NozzleExitPressure solver = new NozzleExitPressure();
+		final double[] cstar = new double[MAP_POINTS];
+		final double[] exitRatio = new double[MAP_POINTS];
+		final double[] cfVac = new double[MAP_POINTS];
+		final double step = (MAP_OF_MAX - MAP_OF_MIN) / (MAP_POINTS - 1);
+		for (int i = 0; i < MAP_POINTS; i++) {
+			final double OF = MAP_OF_MIN + i * step;
+			cstar[i] = mixtureCharacteristicVelocity(OF);
+			final double k = isentropicExponentOfCombustionGas(OF);
+			exitRatio[i] = solver.ratio(k, AREA_RATIO);
+			cfVac[i] = thrustFactor(1., exitRatio[i], k, 0., AREA_RATIO);
+		}
+		return new EnginePerformanceMap(AREA_RATIO, MAP_OF_MIN, MAP_OF_MAX,
+				cstar, exitRatio, cfVac);
+	}
+
+	/**
+	 * Largest relative deviation of the vacuum thrust per mass flow and of
+	 * pe/pc between map and analytic model, checked in the middle between
+	 * the map points where the interpolation error is largest.
+	 */
+	public double performanceMapError(EnginePerformanceMap map) {
+		final NozzleExitPressure solver = new NozzleExitPressure();
+		final int n = map.size();
+		final double step = (map.getOfMax() - map.getOfMin()) / (n - 1);
+		double error = 0;
+		for (int i = 0; i < n - 1; i++) {
+			final double OF = map.getOfMin() + (i + .5) * step;
+			final double k = isentropicExponentOfCombustionGas(OF);
+			final double ratio = solver.ratio(k, AREA_RATIO);
+			final double specificThrust = mixtureCharacteristicVelocity(OF)
+					* thrustFactor(1., ratio, k, 0., AREA_RATIO);
+			final double mapThrust = map.characteristicVelocity(OF)
+					* map.vacuumThrustFactor(OF);
+			error = Math.max(error,
+					Math.abs(mapThrust - specificThrust) / Math.abs(specificThrust));
+			error = Math.max(error,
+					Math.abs(map.exitPressureRatio(OF) - ratio) / ratio);
+		}
+		return error;
+	}
+
+	private EnginePerformanceMap loadPerformanceMap() {
+		EnginePerformanceMap map = null;
+		if (performanceMapResource != null && performanceMapResource.length() > 0) {
+			final InputStream in = getClass().getResourceAsStream(performanceMapResource);
+			if (in == null) {
+				LOG.warn("{}: performance map {} not found, building it",
+						name, performanceMapResource);
+			} else {
+				try {
+					map = EnginePerformanceMap.read(in);
+				} catch (IOException e) {
+					LOG.warn("{}: performance map {} not readable, building it: {}",
+							new Object[] {name, performanceMapResource, e.getMessage()});
+				} finally {
+					try {
+						in.close();
+					} catch (IOException e) {
+						// ignore
+					}
+				}
+			}
+		}
+		if (map != null && map.getAreaRatio() != AREA_RATIO) {
+			LOG.warn("{}: performance map for area ratio {} does not match nozzle,"
+					+ " building it", name, map.getAreaRatio());
+			map = null;
+		}
+		if (map == null) {
+			map = buildPerformanceMap();
+		}
+		final double error = performanceMapError(map);
+		if (error > MAP_TOLERANCE) {
+			LOG.warn("{}: performance map error {} exceeds {}, using analytic model",
+					new Object[] {name, error, MAP_TOLERANCE});
+			return null;
+		}
+		LOG.info("{}: using performance map, max. relative error {}", name, error);
+		return map;
 	}
 
 	private double isentropicExponentOfCombustionGas(final double OF) {
-		return - 7E-07*Math.pow(OF,6) - 0.0001*Math.pow(OF,5)
-    			+ 0.0034*Math.pow(OF,4) - 0.0324*Math.pow(OF,3)
-    			+ 0.1493*Math.pow(OF,2) - 0.3251*OF + 1.5081;
+		return ISENTROPIC_EXPONENT.value(OF);
 	}
 
 	private double thrustFactor(final double pc, final double pe,
@@ -149,9 +281,7 @@ public class Engine extends BaseModel implements org.osk.models.Engine {
     	/*    Polynom valid for chamber pressures of approx. 20 bar       */
     	/******************************************************************/
     	/* Characteristic velociity [ m/s ] */
-		return  - 0.1481 * Math.pow(OF,6) + 4.3126 * Math.pow(OF,5)
-    			- 50.87  * Math.pow(OF,4) + 309.5  * Math.pow(OF,3)
-    			- 1011.1 * Math.pow(OF,2) + 1549.9 * OF + 880.12;
+		return CHARACTERISTIC_VELOCITY.value(OF);
 	}
 
    	
@@ -197,5 +327,23 @@ public class Engine extends BaseModel implements org.osk.models.Engine {
 	public void setRequestedOxFlow(double requestedOxFlow) {
 		this.requestedOxFlow = requestedOxFlow;
 	}
+
+	@ManagedAttribute
+	public boolean isUsePerformanceMap() {
+		return usePerformanceMap;
+	}
+
+	public void setUsePerformanceMap(boolean usePerformanceMap) {
+		this.usePerformanceMap = usePerformanceMap;
+	}
+
+	@ManagedAttribute
+	public String getPerformanceMapResource() {
+		return performanceMapResource;
+	}
+
+	public void setPerformanceMapResource(String performanceMapResource) {
+		this.performanceMapResource = performanceMapResource;
+	}
 	
 }
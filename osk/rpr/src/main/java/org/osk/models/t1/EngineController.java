@@ -42,6 +42,11 @@ public class EngineController extends BaseModel {
 	private double controlValueActual;
 	private double controlValue1;
 	private double controlValue2;
+	/** Control signal slots, overwritten with every new signal. */
+	private final AnalogPort controlPort1 = new AnalogPort();
+	private final AnalogPort controlPort2 = new AnalogPort();
+	private final ImmutablePair<AnalogPort, AnalogPort> controlPorts
+			= new ImmutablePair<AnalogPort, AnalogPort>(controlPort1, controlPort2);
 
 	private static final String TYPE = "EngineController";
 	private static final String SOLVER = "none";
@@ -78,18 +83,17 @@ public class EngineController extends BaseModel {
         return createNewControlSignal();
     }
 
-    public ImmutablePair<AnalogPort, AnalogPort> regulStep(AnalogPort controlPort1, AnalogPort controlPort2) {
-        controlPort1.setAnalogValue(controlValue1);
-        controlPort2.setAnalogValue(controlValue2);
-        return new ImmutablePair<AnalogPort, AnalogPort> (controlPort1, controlPort2);
+    public ImmutablePair<AnalogPort, AnalogPort> regulStep(AnalogPort requestPort1, AnalogPort requestPort2) {
+        requestPort1.setAnalogValue(controlValue1);
+        requestPort2.setAnalogValue(controlValue2);
+        return createNewControlSignal();
     }
 
+	/** Writes the current control values into the controller's own ports. */
 	public ImmutablePair<AnalogPort, AnalogPort> createNewControlSignal() {
-		AnalogPort controlPort1 = new AnalogPort();
-		AnalogPort controlPort2 = new AnalogPort();
 		controlPort1.setAnalogValue(controlValue1);
 		controlPort2.setAnalogValue(controlValue2);
-		return new ImmutablePair<AnalogPort, AnalogPort> (controlPort1, controlPort2);
+		return controlPorts;
 	}
 
 	//----------------------------------------
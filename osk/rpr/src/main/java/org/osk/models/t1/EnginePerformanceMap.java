@@ -0,0 +1,151 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.t1;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.osk.numeric.UniformTable;
+
+/**
+ * Performance map of an engine with fixed nozzle area ratio.
+ *
+ * The thrust per propellant mass flow depends on mixture ratio OF,
+ * chamber pressure pc and ambient pressure pa. With pe/pc and the
+ * isentropic exponent k depending only on OF, the thrust factor splits
+ * into a vacuum part depending on OF and a linear ambient pressure term:
+ * <pre>
+ *    cf(OF,pc,pa) = cfVac(OF) - areaRatio * pa/pc
+ * </pre>
+ * so the map over (OF, pc, pa) reduces exactly to three tables over OF:
+ * characteristic velocity, exit pressure ratio pe/pc and cfVac.
+ *
+ * Maps are built by the engine at startup or read from a binary resource
+ * written by {@link #write(OutputStream)}.
+ */
+public final class EnginePerformanceMap {
+
+	/** File magic, "OSKP". */
+	private static final int MAGIC = 0x4F534B50;
+	private static final int VERSION = 1;
+
+	private final double areaRatio;
+	private final UniformTable characteristicVelocity;
+	private final UniformTable exitPressureRatio;
+	private final UniformTable vacuumThrustFactor;
+
+	/**
+	 * @param areaRatio nozzle area ratio the map is valid for
+	 * @param ofMin first mixture ratio of the tables
+	 * @param ofMax last mixture ratio of the tables
+	 * @param cstar characteristic velocity [m/s], equidistant in OF
+	 * @param exitRatio nozzle exit to chamber pressure ratio pe/pc
+	 * @param cfVac vacuum thrust factor
+	 */
+	public EnginePerformanceMap(double areaRatio, double ofMin, double ofMax,
+			double[] cstar, double[] exitRatio, double[] cfVac) {
+		this.areaRatio = areaRatio;
+		this.characteristicVelocity = new UniformTable(ofMin, ofMax, cstar);
+		this.exitPressureRatio = new UniformTable(ofMin, ofMax, exitRatio);
+		this.vacuumThrustFactor = new UniformTable(ofMin, ofMax, cfVac);
+	}
+
+	public boolean contains(double OF) {
+		return characteristicVelocity.contains(OF);
+	}
+
+	public double characteristicVelocity(double OF) {
+		return characteristicVelocity.value(OF);
+	}
+
+	public double exitPressureRatio(double OF) {
+		return exitPressureRatio.value(OF);
+	}
+
+	public double vacuumThrustFactor(double OF) {
+		return vacuumThrustFactor.value(OF);
+	}
+
+	public double thrustFactor(double OF, double pc, double pa) {
+		return vacuumThrustFactor.value(OF) - areaRatio * pa / pc;
+	}
+
+	public double getAreaRatio() {
+		return areaRatio;
+	}
+
+	public double getOfMin() {
+		return characteristicVelocity.getXMin();
+	}
+
+	public double getOfMax() {
+		return characteristicVelocity.getXMax();
+	}
+
+	public int size() {
+		return characteristicVelocity.size();
+	}
+
+	/**
+	 * Writes the map in the binary format read by {@link #read(InputStream)}.
+	 * The stream is not closed.
+	 */
+	public void write(OutputStream out) throws IOException {
+		final DataOutputStream data = new DataOutputStream(out);
+		final int n = size();
+		final double ofMin = getOfMin();
+		final double step = characteristicVelocity.getStep();
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeDouble(areaRatio);
+		data.writeDouble(ofMin);
+		data.writeDouble(getOfMax());
+		data.writeInt(n);
+		for (int i = 0; i < n; i++) {
+			final double OF = ofMin + i * step;
+			data.writeDouble(characteristicVelocity.value(OF));
+			data.writeDouble(exitPressureRatio.value(OF));
+			data.writeDouble(vacuumThrustFactor.value(OF));
+		}
+		data.flush();
+	}
+
+	/**
+	 * Reads a map written by {@link #write(OutputStream)}. The stream is
+	 * not closed.
+	 */
+	public static EnginePerformanceMap read(InputStream in) throws IOException {
+		final DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC) {
+			throw new IOException("Not an engine performance map");
+		}
+		final int version = data.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported engine performance map version "
+					+ version);
+		}
+		final double areaRatio = data.readDouble();
+		final double ofMin = data.readDouble();
+		final double ofMax = data.readDouble();
+		final int n = data.readInt();
+		if (n < 2) {
+			throw new IOException("Engine performance map with " + n + " points");
+		}
+		final double[] cstar = new double[n];
+		final double[] exitRatio = new double[n];
+		final double[] cfVac = new double[n];
+		for (int i = 0; i < n; i++) {
+			cstar[i] = data.readDouble();
+			exitRatio[i] = data.readDouble();
+			cfVac[i] = data.readDouble();
+		}
+		return new EnginePerformanceMap(areaRatio, ofMin, ofMax, cstar,
+				exitRatio, cfVac);
+	}
+}
@@ -73,6 +73,8 @@ public class FilterT1 extends BaseModel implements Filter {
 	private double mfin;
 	private double pout;
 	private double tout;
+	/** Outlet slot, overwritten in every iteration. */
+	private final FluidPort outputPort = new FluidPort();
 
 	/** Mass of filter. */
 	private double mass;
@@ -100,13 +102,13 @@ public class FilterT1 extends BaseModel implements Filter {
 		pin = inputPort.getPressure();
 		tin = inputPort.getTemperature();
 		mfin = inputPort.getMassflow();
-		String fluid = inputPort.getFluid();
+		final int fluid = inputPort.getFluidId();
 
 		// Skip iteration step computation if no flow in pipe
 		if (mfin <= 1.E-6) {
 			pout = pin;
 			tout = tin;
-            return createOutputPort(fluid);
+            return updateOutputPort(fluid);
 		}
 
 		/* Pressure loss in gas filter as linear dependency of fluid flow. */
@@ -128,7 +130,7 @@ public class FilterT1 extends BaseModel implements Filter {
 		}
 
 		/* Massflow at outlet */
-		return createOutputPort(fluid);
+		return updateOutputPort(fluid);
 	}
 
 	public void propagate(final double tStepSize, FluidPort inputPort) {
@@ -208,15 +210,9 @@ public class FilterT1 extends BaseModel implements Filter {
 			RE = 1000.;
 		}
 
-		final double XI = Math.pow((1.82 * (Math.log10(RE)) - 1.64), (-2));
-
 		final double PR = CP * helium.ETA / helium.LAMBDA;
 
-		NU = (XI / 8)
-				* (RE - 1000)
-				* PR
-				/ (1 + 12.7 * (Math.sqrt(XI / 8)) * (Math.pow(PR, (2 / 3)) - 1))
-				* (1 + Math.pow((innerDiameter / length), (2 / 3)));
+		NU = FrictionFactor.nusselt(RE, PR);
 
 		/* Computation of heat flow from filter to fluid */
 		final double qHFlow = NU * helium.LAMBDA * Math.PI * length * (wallT - fluidT);
@@ -229,23 +225,17 @@ public class FilterT1 extends BaseModel implements Filter {
 		return outputPort;
 	}
 
-	public FluidPort createOutputPort(String fluid) {
-		FluidPort outputPort = new FluidPort();
-		outputPort.setFluid(fluid);
-		outputPort.setPressure(pout);
-		outputPort.setTemperature(tout);
-		outputPort.setMassflow(mfin);
-		return outputPort;
+	private FluidPort updateOutputPort(int fluid) {
+		return outputPort.set(fluid, pout, tout, mfin);
 	}
 
 	@Override
-	public FluidPort createOutputPort(FluidPort inputPort) {
-			FluidPort outputPort = new FluidPort(
-			inputPort.getFluid(),
+	public FluidPort updateOutputPort(FluidPort inputPort) {
+			return outputPort.set(
+			inputPort.getFluidId(),
 			inputPort.getPressure()/1.01,
 			inputPort.getTemperature(),
 			inputPort.getMassflow());
-			return outputPort;
 	}
 
 	// ----------------------------------------
@@ -61,7 +61,13 @@ public class FluidFlowValve extends BaseModel {
 	private double pout;
 	private double tout;
 	private double mfout;
+	/** Outlet slot, overwritten in every iteration. */
+	private final FluidPort outputPort = new FluidPort();
+	/** Controlled mass flow request, overwritten in every back iteration. */
+	private final FluidPort boundaryPort = new FluidPort();
 	private double controlValue;
+	/** Commanded control value, overrides the control port unless NaN. */
+	private double commandedValue = Double.NaN;
 	private double DP;
 
 	private static final String TYPE = "FluidFlowValve";
@@ -82,14 +88,11 @@ public class FluidFlowValve extends BaseModel {
 	   
     public FluidPort calculateMassFlow(final long simTime, FluidPort inputPort, AnalogPort controlPort) {
 //        LOG.info(name);
-        controlValue = controlPort.getAnalogValue();
-//        LOG.info("Reading controlValue: '{}'", controlValue);
-        if (controlValue < 0.0) {
-            controlValue = 0.0;
-        }
-//        LOG.info("Corrected controlValue: '{}'", controlValue);
+        controlValue = control(controlPort);
+//        LOG.info("Control value: '{}'", controlValue);
 
         fluid = inputPort.getFluid();
+        outputPort.setFluidId(inputPort.getFluidId());
         pin   = inputPort.getPressure();
         tin   = inputPort.getTemperature();
         mfin  = inputPort.getMassflow();
@@ -107,7 +110,7 @@ public class FluidFlowValve extends BaseModel {
             tout  = tin;
             mfout = mfin;
 //            LOG.info("Massflow: '{}'", mfout);
-            return createOutputPort();
+            return updateOutputPort();
         }
 
         /**********************************************************************/
@@ -124,12 +127,31 @@ public class FluidFlowValve extends BaseModel {
         pout = pin - DP;
         tout = tin;
         mfout = massflow;        
-        return createOutputPort();        
+        return updateOutputPort();
     }
    
-   	public FluidPort createOutputPort() {
-   		FluidPort outputPort = new FluidPort();
-   		outputPort.setFluid(fluid);
+    /**
+     * Mass flow request passed upstream in the back iteration of a
+     * controlled valve: the valve admits referenceMassFlow * controlValue
+     * instead of the consumer's request. The control port may be null for
+     * a commanded valve.
+     */
+    public FluidPort controlBoundary(FluidPort request, AnalogPort controlPort) {
+        controlValue = control(controlPort);
+        massflow = referenceMassFlow * controlValue;
+        return BoundaryUtils.setBoundaryPort(boundaryPort, request.getFluidId(), massflow);
+    }
+
+    /** Commanded value if there is one, else the port value, never below 0. */
+    private double control(AnalogPort controlPort) {
+        double value = commandedValue;
+        if (Double.isNaN(value)) {
+            value = controlPort == null ? 0.0 : controlPort.getAnalogValue();
+        }
+        return Math.max(value, 0.0);
+    }
+
+   	public FluidPort updateOutputPort() {
    		outputPort.setPressure(pout);
    		outputPort.setTemperature(tout);
    		outputPort.setMassflow(mfout);
@@ -220,6 +242,26 @@ public class FluidFlowValve extends BaseModel {
 		this.controlValue = controlValue;
 	}
 
+	/** Commanded control value, NaN while the control port rules. */
+	@ManagedAttribute
+	public double getCommandedValue() {
+		return commandedValue;
+	}
+
+	/**
+	 * Commands the control value, e.g. by telecommand FFV18.commandedValue.
+	 * It overrides the control port from the next iteration on, until NaN
+	 * hands the valve back to the port.
+	 */
+	public void setCommandedValue(double commandedValue) {
+		this.commandedValue = commandedValue;
+	}
+
+	/** Whether a commanded control value overrides the control port. */
+	public boolean isCommanded() {
+		return !Double.isNaN(commandedValue);
+	}
+
 	@ManagedAttribute
 	public double getDP() {
 		return DP;
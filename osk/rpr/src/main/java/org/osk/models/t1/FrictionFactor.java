@@ -0,0 +1,132 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.t1;
+
+/**
+ * Friction factor Lambda of a pipe flow according to the Colebrook formula.
+ * See manuscript "Industrielle Aerodynamik" p.11, Institut fuer Aero- und
+ * Gasdynamik, Universitaet Stuttgart, 1986.
+ *
+ * One instance belongs to one pipe. The constants depending only on the
+ * relative roughness, i.e. the laminar/turbulent boundary Reynolds number
+ * and the roughness term of the Haaland approximation, are computed once
+ * at construction. The turbulent friction factor starts from the previous
+ * result of the same pipe, or from the explicit Haaland approximation at
+ * the first call, and is corrected by Newton steps on the Colebrook formula
+ * written in x = 1/sqrt(Lambda):
+ * <pre>
+ *    f(x) = x + 2*log10( k/3.71 + 2.51*x/RE ) = 0
+ * </pre>
+ * A single Newton step is usually enough to reach the tolerance.
+ *
+ * The static methods provide the smooth tube correlations used for the
+ * heat transfer of pipes, filters and pressure regulators.
+ */
+public final class FrictionFactor {
+
+	/** Upper limit of the relative roughness. */
+	public static final double MAX_ROUGHNESS = 5.E-02;
+
+	private static final double LN10 = Math.log(10.);
+	private static final double TOLERANCE = 1.E-10;
+	private static final int MAX_NEWTON_STEPS = 4;
+
+	private final double roughness;
+	/** Roughness term k/3.71 of the Colebrook formula. */
+	private final double roughnessTerm;
+	/** Roughness term (k/3.7)^1.11 of the Haaland approximation. */
+	private final double haalandTerm;
+	/** Boundary Reynolds number between laminar and turbulent flow. */
+	private final double boundaryReynolds;
+
+	/** 1/sqrt(Lambda) of the last turbulent evaluation, 0 if none yet. */
+	private double lastX;
+
+	/**
+	 * @param surfaceRoughness relative roughness of the pipe inner surface,
+	 *                         limited to {@link #MAX_ROUGHNESS}
+	 */
+	public FrictionFactor(final double surfaceRoughness) {
+		roughness = Math.min(surfaceRoughness, MAX_ROUGHNESS);
+		roughnessTerm = roughness / 3.71;
+		haalandTerm = Math.pow(roughness / 3.7, 1.11);
+
+		double REbound = 1000.;
+		for (int J = 0; J < 6; J++) {
+			REbound = Math.pow(
+					(16. * (Math.log10(2.51 * 0.125 / Math.sqrt(REbound)
+							+ roughnessTerm))), 2.);
+		}
+		boundaryReynolds = REbound;
+	}
+
+	/**
+	 * @param RE Reynolds number of the flow
+	 * @return friction factor Lambda, 0 for RE < 1
+	 */
+	public double lambda(final double RE) {
+		if (RE < 1.) {
+			return 0.;
+		}
+		if (RE <= boundaryReynolds) { // laminar flow
+			return 64. / RE;
+		}
+		final double b = 2.51 / RE;
+		double x = lastX;
+		if (x <= 0.) {
+			x = -1.8 * Math.log10(haalandTerm + 6.9 / RE);
+		}
+		for (int i = 0; i < MAX_NEWTON_STEPS; i++) {
+			final double arg = roughnessTerm + b * x;
+			final double f = x + 2. * Math.log10(arg);
+			final double df = 1. + 2. * b / (arg * LN10);
+			final double dx = f / df;
+			x -= dx;
+			if (Math.abs(dx) <= TOLERANCE * x) {
+				break;
+			}
+		}
+		lastX = x;
+		return 1. / (x * x);
+	}
+
+	/** Forgets the warm start value, e.g. after a restart of the pipe. */
+	public void reset() {
+		lastX = 0.;
+	}
+
+	public double getRoughness() {
+		return roughness;
+	}
+
+	public double getBoundaryReynolds() {
+		return boundaryReynolds;
+	}
+
+	/**
+	 * Friction factor XI of a hydraulically smooth tube, used by the heat
+	 * transfer correlation. See Eickhoff, 1988, section 3.3.3.2, Eq. (3.1) ff.
+	 */
+	public static double smoothTube(final double RE) {
+		final double t = 1.82 * Math.log10(RE) - 1.64;
+		return 1. / (t * t);
+	}
+
+	/**
+	 * Nusselt number of the turbulent tube flow for the heat transfer from
+	 * walls to the fluid. See Eickhoff, 1988, section 3.3.3.2, Eq. (3.1) ff.
+	 *
+	 * FIXME: The ported correlation evaluates the exponents 2/3 in integer
+	 * arithmetic, i.e. as 0. The Prandtl and diameter/length correction
+	 * terms therefore reduce to constants. Kept as is so that results do
+	 * not change, the reduced form below is identical.
+	 */
+	public static double nusselt(final double RE, final double PR) {
+		final double XI = smoothTube(RE);
+		/* (XI/8)*(RE-1000)*PR/(1+12.7*sqrt(XI/8)*(PR^0-1))*(1+(d/l)^0) */
+		return (XI / 4) * (RE - 1000.) * PR;
+	}
+}
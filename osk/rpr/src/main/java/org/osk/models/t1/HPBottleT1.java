@@ -43,13 +43,15 @@ import javax.inject.Inject;
 
 import net.gescobar.jmx.annotation.ManagedAttribute;
 
-import org.osk.config.SimHeaders;
 import org.osk.models.BaseModel;
 import org.osk.models.HPBottle;
+import org.osk.models.materials.HeliumEquationOfState;
 import org.osk.models.materials.HeliumJKC;
 import org.osk.models.materials.HeliumPropertiesBuilder;
 import org.osk.models.materials.MaterialProperties;
+import org.osk.numeric.Polynomial;
 import org.osk.ports.FluidPort;
+import org.osk.ports.Fluids;
 import org.slf4j.Logger;
 
 
@@ -77,6 +79,9 @@ public class HPBottleT1 extends BaseModel implements HPBottle {
 	private double mftotal;
 	/** Gas in vessel. */
 	private String fluid;
+	private int fluidId = Fluids.NONE;
+	/** Outlet slot, overwritten on every request. */
+	private final FluidPort outputPort = new FluidPort();
 	/** Heat flow from wall to fluid for pressure regul. elements. */
 	private double qHFlow;
 	/** Initial pressure of gas in vessel. */
@@ -84,6 +89,10 @@ public class HPBottleT1 extends BaseModel implements HPBottle {
 
 	private static final String TYPE = "HPBottleT1";
 	private static final String SOLVER = "Euler";
+
+	/** Specific enthalpy of helium at reference pressure as function of temperature. */
+	private static final Polynomial ENTHALPY = new Polynomial(
+			-19846.5, 5732.967, -2.42982, 3.332099E-3);
 	
     public HPBottleT1() {
         super(TYPE, SOLVER);
@@ -147,43 +156,12 @@ public class HPBottleT1 extends BaseModel implements HPBottle {
         /**********************************************************************/
         /*                                                                    */
         /*   Computation of pressure after expansion considering non-ideal    */
-        /*   gas effects:                                                     */
-        /*   - assumption of a pressure value                                 */
-        /*   - therewith computation of the compressibility factor Z          */
-        /*   - comparison of assumed pressure with                            */
-        /*     Z-factor derived one: p=Z*DENSITY*RSPEZ.*TEMP                   */
-        /*   - correction of assumed pressure value and reiteration until     */
-        /*     deviation < 5e-4                                               */
+        /*   gas effects: p=Z*DENSITY*RSPEZ.*TEMP with a compressibility      */
+        /*   factor Z linear in pressure, solved in closed form by the        */
+        /*   helium equation of state.                                        */
         /*                                                                    */
         /**********************************************************************/
-       final double FAKTOR = 1.913688E-3 - 8.520942E-6 * ttotal
-                + 1.358845E-8*Math.pow(ttotal,2) - 4.595341E-12*Math.pow(ttotal,3);
-
-          final double RSPEZ = 2077;
-          double PLANF=.7*density*RSPEZ*ttotal;
-          double PLEND=pinit*1.1;
-          double ST=1E6;
-          double heliumZ=1.0+FAKTOR*PLANF/1E5;
-          // FIXME: check for maximum 1000 iterations
-          int i = 0;
-          double P = heliumZ*density*RSPEZ*ttotal;;
-          for(double PLAUF=PLANF; PLAUF<PLEND && i<1000; PLAUF+=ST, i++) {
-              heliumZ = 1.0 + FAKTOR*PLAUF/1E5;
-              P = heliumZ*density*RSPEZ*ttotal;
-              final double Wert= Math.abs((PLAUF-P)/PLAUF);
-              if (Wert<=0.01*SimHeaders.epsrel) break;
-              if (PLAUF>=P)
-                  if (PLAUF>P) {
-                  PLANF=PLAUF-ST;
-                  PLEND=PLAUF;
-                  ST=ST/10;
-                  PLAUF=PLANF;
-                  }
-          }
-          if (i>=1000) {
-          	LOG.warn("!!! Problem iterating the Pressure in HPTankT1");
-          }
-          return P;
+		return HeliumEquationOfState.INSTANCE.pressure(density, ttotal);
 	}
 
 	private double computeTempDifference(final double timeStep, final double pressure,
@@ -214,34 +192,12 @@ public class HPBottleT1 extends BaseModel implements HPBottle {
         /* spline interpolations - please refer to [1] section 3.3.2.         */
         /*                                                                    */
         /**********************************************************************/
-		int I = (int) (pressure / 40. + 1.);
-
-        double P1, P2, param = 0;
-        P1 = 0;
-        P2 = 0;
-
-        if (I <= 8) {
-            for (int L = 0; L < 5; L++) {
-                param = HeliumJKC.JKCParams(L, I-1);
-                P1 += param * Math.pow(temp, L);
-                param = HeliumJKC.JKCParams(L, I);
-                P2 += param * Math.pow(temp, L);
-            }
-        } else {
-            for(int L = 0; L < 5; L++) {
-                param = HeliumJKC.JKCParams(L,7);
-                P1 += param * Math.pow(temp ,L);
-                param = HeliumJKC.JKCParams(L,8);
-                P2 += param * Math.pow(temp ,L);
-            }
-        }
-        final double JKC = -(P1+(P2-P1)*(pressure-(I-1)*40)/40);
+        final double JKC = HeliumJKC.coefficient(pressure, temp);
 
         final double PBEZ = 5.0;
         final double DHTEMP = -JKC*(pressure-PBEZ);
         final double TBEZ=temp+DHTEMP;
-        final double H = -19846.5 + 5732.967 * TBEZ - 2.42982 * Math.pow(TBEZ, 2)
-                + 3.332099E-3 * Math.pow(TBEZ, 3);
+        final double H = ENTHALPY.value(TBEZ);
 		return H;
 	}
 
@@ -254,11 +210,11 @@ public class HPBottleT1 extends BaseModel implements HPBottle {
 	}
 
 	public FluidPort createInputPortIter() {
-		return new FluidPort(name, fluid, ptotal, ttotal, mftotal);
+		return outputPort.set(fluidId, ptotal, ttotal, mftotal);
 	}
 
 	public FluidPort getOutputPortStatus() {
-		return new FluidPort(name, fluid, ptotal, ttotal, mftotal);
+		return outputPort.set(fluidId, ptotal, ttotal, mftotal);
 	}
 
     //-----------------------------------------------------------------------------------
@@ -305,6 +261,7 @@ public class HPBottleT1 extends BaseModel implements HPBottle {
 	}
 	public void setFluid(String fluid) {
 		this.fluid = fluid;
+		this.fluidId = Fluids.id(fluid);
 	}
 	@ManagedAttribute
 	public double getDiam() {
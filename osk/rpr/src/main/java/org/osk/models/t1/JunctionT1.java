@@ -128,6 +128,13 @@ public class JunctionT1 extends BaseModel {
 	private double tout;
 	private double mfout;
 
+	/** Outlet slot and the two boundary slots of the backward iteration. */
+	private final FluidPort outputPort = new FluidPort();
+	private final FluidPort boundaryLeft = new FluidPort();
+	private final FluidPort boundaryRight = new FluidPort();
+	private final ImmutablePair<FluidPort, FluidPort> boundaryPorts
+			= new ImmutablePair<FluidPort, FluidPort>(boundaryLeft, boundaryRight);
+
 	private static final String TYPE = "JunctionT1";
 	private static final String SOLVER = "none";
     
@@ -146,7 +153,7 @@ public class JunctionT1 extends BaseModel {
     }
 
     public FluidPort  calculateOutletMassFlow(FluidPort inputPortLeft, FluidPort inputPortRight) {
-        String fluid;
+        int    fluid;
         int    result;
         double newSplitfactor;
 
@@ -160,19 +167,19 @@ public class JunctionT1 extends BaseModel {
         /* Skip iteration, if one or both of the ports has a mass flow of 0.0.
          */
         if (mfinLeft == 0.0 && mfinRight == 0.0) {
-            fluid = inputPortLeft.getFluid();
+            fluid = inputPortLeft.getFluidId();
             mfout = 0.0;
             pout  = (pinLeft + pinRight) / 2.;
             tout  = (tinLeft + tinRight) / 2.;
             return getOutputPortStatus(fluid);
         } else if (mfinLeft == 0.0) {
-            fluid = inputPortRight.getFluid();
+            fluid = inputPortRight.getFluidId();
             mfout = mfinRight;
             pout  = pinRight;
             tout  = tinRight;
             return getOutputPortStatus(fluid);
         } else if (mfinRight == 0.0) {
-            fluid = inputPortLeft.getFluid();
+            fluid = inputPortLeft.getFluidId();
             mfout = mfinLeft;
             pout  = pinLeft;
             tout  = tinLeft;
@@ -208,7 +215,7 @@ public class JunctionT1 extends BaseModel {
             result = 0;
         }
 
-        fluid = inputPortLeft.getFluid();
+        fluid = inputPortLeft.getFluidId();
         mfout = mfinLeft + mfinRight;
         pout  = (pinLeft + pinRight) / 2.;
         tout  = (tinLeft * mfinLeft
@@ -222,18 +229,13 @@ public class JunctionT1 extends BaseModel {
     }
 
     public ImmutablePair<FluidPort, FluidPort> backIterStep(FluidPort outputPort) {
-        FluidPort inputPortLeft = BoundaryUtils.createBoundaryPort(outputPort.getFluid(), splitfactor * outputPort.getMassflow());
-        FluidPort inputPortRight = BoundaryUtils.createBoundaryPort(outputPort.getFluid(), (1 - splitfactor) * outputPort.getMassflow());
-        return new ImmutablePair<FluidPort, FluidPort>(inputPortLeft, inputPortRight);
+        BoundaryUtils.setBoundaryPort(boundaryLeft, outputPort.getFluidId(), splitfactor * outputPort.getMassflow());
+        BoundaryUtils.setBoundaryPort(boundaryRight, outputPort.getFluidId(), (1 - splitfactor) * outputPort.getMassflow());
+        return boundaryPorts;
     }
 
-	public FluidPort getOutputPortStatus(String fluid) {
-		FluidPort outputPort = new FluidPort();
-		outputPort.setFluid(fluid);
-		outputPort.setPressure(pout);
-		outputPort.setTemperature(tout);
-		outputPort.setMassflow(mfout);
-		return outputPort;
+	public FluidPort getOutputPortStatus(int fluidId) {
+		return outputPort.set(fluidId, pout, tout, mfout);
 	}
 
     //-----------------------------------------------------------------------------------
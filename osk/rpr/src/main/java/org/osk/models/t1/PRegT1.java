@@ -76,6 +76,7 @@ import org.osk.models.PressureRegulator;
 import org.osk.models.materials.HeliumJKC;
 import org.osk.models.materials.HeliumPropertiesBuilder;
 import org.osk.models.materials.MaterialProperties;
+import org.osk.numeric.Polynomial;
 import org.osk.ports.FluidPort;
 import org.slf4j.Logger;
 
@@ -101,6 +102,8 @@ public class PRegT1 extends BaseModel implements PressureRegulator {
 	private double specificHeatCapacity;
 	/** Coefficients of pressure loss polynomial approximation. */
 	private double[] pcoeff = new double[4];
+	/** Pressure loss polynomial built from pcoeff. */
+	private Polynomial pressureDrop = new Polynomial(pcoeff);
 	/** Temperature of pressure regul. elements. */
 	private double temperature;
 	/** Heat transfer coefficient between pressure regul. housing and fluid. */
@@ -115,6 +118,8 @@ public class PRegT1 extends BaseModel implements PressureRegulator {
 	private double pout;
 	private double tout;
 	private double mfUpBackiter;
+	/** Outlet slot, overwritten in every iteration. */
+	private final FluidPort outputPort = new FluidPort();
 
 	private static final String TYPE = "PRegT1";
 	private static final String SOLVER = "Euler";
@@ -133,13 +138,12 @@ public class PRegT1 extends BaseModel implements PressureRegulator {
         pin  = inputPort.getPressure();
         tin  = inputPort.getTemperature();
         mfin = inputPort.getMassflow();
-        String fluid = inputPort.getFluid();
 
         //Skip iteration step computation if no flow in pressure regulator
         if (mfin <= 1.E-6) {
             pout  = pcoeff[0] * 1E5;
             tout  = tin;
-            return createOutputPort(inputPort);
+            return updateOutputPort(inputPort);
         }
 
 
@@ -166,7 +170,7 @@ public class PRegT1 extends BaseModel implements PressureRegulator {
         }
 
         /*   Massflow at outlet                                               */
-        return createOutputPort(inputPort);
+        return updateOutputPort(inputPort);
     }
 
 	private double heliumHeatFlow(final double pressure, final double tout, final double temperature) {
@@ -204,13 +208,9 @@ public class PRegT1 extends BaseModel implements PressureRegulator {
             RE = 1000.;
         }
 
-        final double XI = Math.pow((1.82 * (Math.log10(RE)) - 1.64), (-2));
-
         final double PR = CP * helium.ETA / helium.LAMBDA;
 
-        final double NU = (XI / 8) * (RE - 1000) * PR / (1 + 12.7 * (Math.sqrt(XI / 8))
-                * (Math.pow(PR, (2/3))-1))
-                * (1 + Math.pow((innerDiameter / length), (2/3)));
+        final double NU = FrictionFactor.nusselt(RE, PR);
 
         alfa = NU * helium.LAMBDA / innerDiameter;
 
@@ -224,23 +224,9 @@ public class PRegT1 extends BaseModel implements PressureRegulator {
         /*    Computation of the Joule-Kelvin-Coeff. of fluid, similar to     */
         /*    pressure vessel considering specific enthalpy of fluid.         */
         /**********************************************************************/
-        int I = (int) (pressure / 40. + 1.);
-        double P1 = 0;
-        double P2 = 0;
-        if (I <= 8) {
-            for (int L = 0; L < 5; L++) {
-                P1 += HeliumJKC.JKCParams(L, I-1) * Math.pow(temperature, L);
-                P2 += HeliumJKC.JKCParams(L, I) * Math.pow(temperature, L);
-            }
-        } else {
-            for (int L = 0; L < 5; L++) {
-                P1 += HeliumJKC.JKCParams(L, 7) * Math.pow(temperature, L);
-                P2 += HeliumJKC.JKCParams(L, 8) * Math.pow(temperature, L);
-            }
-        }
+        final double JKC = HeliumJKC.coefficient(pressure, temperature);
 
         /*    Computation of temp. change of fluid through throttling.        */
-        final double JKC = - P1 - (P2 - P1) * (pressure - (I - 1) * 40) / 40;
         final double DTEMP = -JKC * (pressure - newPressure);
 		return DTEMP;
 	}
@@ -252,16 +238,13 @@ public class PRegT1 extends BaseModel implements PressureRegulator {
         /*    interpolation. Polynomial coefficients loaded from              */
         /*    inputfile.                                                      */
         /**********************************************************************/
-		return pcoeff[0] + pcoeff[1] * pressure
-                + pcoeff[2] * Math.pow(pressure, 2)
-                + pcoeff[3] * Math.pow(pressure, 3);
+		return pressureDrop.value(pressure);
 	}
 
     public int propagate(final double tStepSize, FluidPort inputPort) {
         pin  = inputPort.getPressure();
         tin  = inputPort.getTemperature();
         mfin = inputPort.getMassflow();
-        String fluid = inputPort.getFluid();
 
         //Skip time step computation if no flow in pressure regulator
         if (mfin <= 1.E-6) {
@@ -292,13 +275,8 @@ public class PRegT1 extends BaseModel implements PressureRegulator {
         return 0;
     }
 
-	public FluidPort createOutputPort(FluidPort inputPort) {
-		FluidPort outputPort = new FluidPort();
-		outputPort.setFluid(inputPort.getFluid());
-		outputPort.setPressure(pout);
-		outputPort.setTemperature(tout);
-		outputPort.setMassflow(mfin);
-		return outputPort;
+	public FluidPort updateOutputPort(FluidPort inputPort) {
+		return outputPort.set(inputPort.getFluidId(), pout, tout, mfin);
 	}
    
     //-----------------------------------------------------------------------------------
@@ -347,6 +325,7 @@ public class PRegT1 extends BaseModel implements PressureRegulator {
 
 	public void setPcoeff(double[] pcoeff) {
 		this.pcoeff = pcoeff;
+		this.pressureDrop = new Polynomial(pcoeff);
 	}
 
 	@ManagedAttribute
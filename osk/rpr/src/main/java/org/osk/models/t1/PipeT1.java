@@ -6,12 +6,12 @@
  *  Model definition for a pipe.
 t this.name = name;  
  *
- *  Input Port --+<- Sect1-><- Sect2-><- Sect3->.....<- Sect10->+-- Output Port
+ *  Input Port --+<- Sect1-><- Sect2-><- Sect3->.....<- SectN->+-- Output Port
  *
  *  Pipe computes the following phenomena:
  *    - Pressure loss of fluid passing through pipe
- *    - Heat transfer from pipe wall to fluid. Pipe is discretized into 10
- *      sections with separate wall temperature.
+ *    - Heat transfer from pipe wall to fluid. Pipe is discretized into N
+ *      sections with separate wall temperature, 10 by default.
  *  Assumed is that pipe can be recognized adiabatic to the environment.
  *
  *
@@ -53,6 +53,8 @@ t this.name = name;
  */
 package org.osk.models.t1;
 
+import java.util.Arrays;
+
 import javax.inject.Inject;
 
 import net.gescobar.jmx.annotation.ManagedAttribute;
@@ -76,7 +78,10 @@ import org.slf4j.Logger;
 public class PipeT1 extends BaseModel implements Pipe {
 	@Inject Logger LOG;
 	
-	private static final int PARTS = 10;
+	/** Default number of pipe sections. */
+	public static final int DEFAULT_SECTIONS = 10;
+	/** Number of pipe sections. */
+	private int sections = DEFAULT_SECTIONS;
 	/** Diameter of pipe. */
 	private double innerDiameter;
 	/** Length of pipe. */
@@ -88,20 +93,24 @@ public class PipeT1 extends BaseModel implements Pipe {
 	/** Roughness of pipe inner surface. */
 	private double surfaceRoughness;
 	/** Array of temperature of pipe elements. */
-	private double temperatures[] = new double[PARTS];
+	private double temperatures[] = new double[DEFAULT_SECTIONS];
 	/** Array of heat flow from wall to fluid for pipe elements. */
-	private double qHFlow[] = new double[PARTS];
+	private double qHFlow[] = new double[DEFAULT_SECTIONS];
 	/** Heat transfer coefficient between pipe wall and fluid. */
 	private double alfa;
-	/** Mass of one pipe element (pipe consists of 10 elements). */
+	/** Mass of one pipe element. */
 	private double massPElem;
 	/** Static temperature of pipe entering fluid in timestep. */
 	private double tstatin;
+	/** Colebrook friction factor with the constants of this pipe. */
+	private FrictionFactor frictionFactor;
 
 	/** Parameters of in- and outflowing fluid. */
 	private double mfin;
 	private double pout;
 	private double tout;
+	/** Outlet slot, overwritten in every iteration. */
+	private final FluidPort outputPort = new FluidPort();
 
 	private static final String TYPE = "PipeT1";
 	private static final String SOLVER = "Euler";
@@ -112,8 +121,20 @@ public class PipeT1 extends BaseModel implements Pipe {
 
 	public void init(String name) {
 		this.name = name;
+		if (sections < 1) {
+			LOG.warn("{}: invalid number of sections {}, using {}",
+					new Object[] {name, sections, DEFAULT_SECTIONS});
+			sections = DEFAULT_SECTIONS;
+		}
+		if (temperatures.length != sections) {
+			LOG.info("{}: resampling {} wall temperatures to {} sections",
+					new Object[] {name, temperatures.length, sections});
+			temperatures = resample(temperatures, sections);
+		}
+		qHFlow = new double[sections];
 		/* Mass of one pipe element. */
-		massPElem = specificMass * length / PARTS;
+		massPElem = specificMass * length / sections;
+		frictionFactor = new FrictionFactor(surfaceRoughness);
 	}
 	
 	public FluidPort calculateOutletMassFlow(FluidPort inputPort) {
@@ -126,7 +147,7 @@ public class PipeT1 extends BaseModel implements Pipe {
 		if (mfin <= 1.E-6) {
 			pout = pin;
 			tout = tin;
-			return inputPort.clone();
+			return outputPort.set(inputPort);
 		}
 
 //		final double RSPEZ = 2077;
@@ -148,32 +169,7 @@ public class PipeT1 extends BaseModel implements Pipe {
 		/**********************************************************************/
 		double RE = GESCH * innerDiameter / He.NUE;
 
-		if (surfaceRoughness >= 5.E-02) {
-			surfaceRoughness = 5.E-02;
-		}
-
-		double LA, REbound;
-		if (RE < 1.) {
-			LA = 0.;
-		} else {
-			REbound = 1000.;
-			for (int J = 0; J < 6; J++) {
-				REbound = Math.pow(
-						(16. * (Math.log10(2.51 * 0.125 / Math.sqrt(REbound)
-								+ surfaceRoughness / 3.71))), 2.);
-			}
-
-			if (RE <= REbound) { // laminar flow
-				LA = 64. / RE;
-			} else { // turbulent flow
-				LA = 0.0515;
-				for (int J = 0; J < 6; J++) {
-					LA = 0.25 / Math.pow(
-							(Math.log10(2.51 / RE / Math.sqrt(LA)
-									+ surfaceRoughness / 3.71)), 2.);
-				} // numeric approx. for Colebrook formula.
-			}
-		}
+		final double LA = frictionFactor.lambda(RE);
 
 		/**********************************************************************/
 		/*                                                                    */
@@ -196,7 +192,7 @@ public class PipeT1 extends BaseModel implements Pipe {
 		/* Section for computation of temperature change of fluid */
 		/* when passing pipe element with different temperature. */
 		/* Material properties of fluid and heat transfer coefficients */
-		/* are considered to be constant over each of the 10 pipe sections. */
+		/* are considered to be constant over each of the pipe sections. */
 		/*                                                                    */
 		/* J= Number of pipe section */
 		/*                                                                    */
@@ -227,38 +223,24 @@ public class PipeT1 extends BaseModel implements Pipe {
 			RE = 1000.;
 		}
 
-		final double XI = Math.pow((1.82 * (Math.log10(RE)) - 1.64), (-2));
 		final double CP = 5223.2;
 		final double PR = CP * He.ETA / He.LAMBDA;
 
-		final double NU = (XI / 8)
-				* (RE - 1000.)
-				* PR
-				/ (1 + 12.7 * (Math.sqrt(XI / 8)) * (Math.pow(PR, (2 / 3)) - 1))
-				* (1 + Math.pow((innerDiameter / length), (2 / 3)));
+		final double NU = FrictionFactor.nusselt(RE, PR);
 
 		alfa = NU * He.LAMBDA / innerDiameter;
 
 		/**********************************************************************/
 		/*                                                                    */
 		/* Computation of heatflow from pipe wall to fluid for each of */
-		/* the 10 pipe sections. */
+		/* the pipe sections. */
 		/*                                                                    */
 		/**********************************************************************/
 
 		/* Static pipe inlet temperature. Required for timestep computation. */
-		tstatin = tin;
-
-		for (int J = 0; J < PARTS; J++) {
-			qHFlow[J] = alfa * Math.PI * innerDiameter * length
-					* (temperatures[J] - tstatin) / PARTS;
-
-			/* Computation of fluid temperature change and new fluid temp. */
-			final double DTF = qHFlow[J] / (mfin * CP);
-			tstatin = tstatin + DTF;
-		}
+		tstatin = heatFlows(tin, CP);
 		/*
-		 * Pipe consists of 10 Elements. tout = input temp of fictive 11th
+		 * Pipe consists of N Elements. tout = input temp of fictive N+1th
 		 * element.
 		 */
 		tout = tstatin;
@@ -268,7 +250,7 @@ public class PipeT1 extends BaseModel implements Pipe {
 		}
 
 		/* Massflow at outlet */
-		return createOutputPort(inputPort);
+		return updateOutputPort(inputPort);
 	}
 
 	public void propagate(final double tStepSize, final FluidPort inputPort) {
@@ -288,7 +270,7 @@ public class PipeT1 extends BaseModel implements Pipe {
 		/* Temperature change of pipe */
 		/*                                                                    */
 		/* Section for computation of temperature change of pipe. */
-		/* Coding is an approximation splitting pipe into 10 subsections */
+		/* Coding is an approximation splitting pipe into N subsections */
 		/* with individual temperature. */
 		/*                                                                    */
 		/* J= Number of pipe section */
@@ -305,42 +287,79 @@ public class PipeT1 extends BaseModel implements Pipe {
 		/* as L1 at pipe inlet port. */
 		/*                                                                    */
 		/* Computation of heatflow from pipe to fluid */
-		/* for each pipe of the 10 pipe elements. */
+		/* for each pipe of the N pipe elements. */
 		/*                                                                    */
 		/**********************************************************************/
-		for (int J = 0; J < PARTS; J++) {
-			qHFlow[J] = alfa * Math.PI * innerDiameter * length
-					* (temperatures[J] - tstatin) / PARTS;
-			final double Q = qHFlow[J] * tStepSize;
-
-			/******************************************************************/
-			/*                                                                */
-			/* Computation of delta T for fluid and new fluid temperature */
-			/* for each pipe element */
-			/*                                                                */
-			/******************************************************************/
-			final double DTF = qHFlow[J] / (mfin * CP);
-			tstatin = tstatin + DTF;
-
-			/******************************************************************/
-			/*                                                                */
-			/* Computation of delta T of each pipe section */
-			/* and computation of new pipe temp. for each section */
-			/*                                                                */
-			/******************************************************************/
-			final double DTB = Q / (massPElem * specificHeatCapacity);
-			temperatures[J] = temperatures[J] - DTB;
+		/* Computation of delta T for fluid and new fluid temperature */
+		/* for each pipe element, delta T of each pipe section and new */
+		/* pipe temp. for each section. */
+		final double[] tw = temperatures;
+		final double[] q = qHFlow;
+		final int n = sections;
+		final double kq = alfa * Math.PI * innerDiameter * length / n;
+		final double kf = 1. / (mfin * CP);
+		final double kb = tStepSize / (massPElem * specificHeatCapacity);
+		double t = tstatin;
+		for (int J = 0; J < n; J++) {
+			final double qj = kq * (tw[J] - t);
+			q[J] = qj;
+			t += qj * kf;
+			tw[J] -= qj * kb;
+		}
+		tstatin = t;
+	}
+
+	/**
+	 * Heat flow from each wall section to the fluid passing the pipe,
+	 * stored in qHFlow. Wall temperatures are not changed.
+	 *
+	 * @return fluid temperature at the pipe outlet
+	 */
+	private double heatFlows(final double tin, final double CP) {
+		final double[] tw = temperatures;
+		final double[] q = qHFlow;
+		final int n = sections;
+		final double kq = alfa * Math.PI * innerDiameter * length / n;
+		final double kf = 1. / (mfin * CP);
+		double t = tin;
+		for (int J = 0; J < n; J++) {
+			final double qj = kq * (tw[J] - t);
+			q[J] = qj;
+			t += qj * kf;
 		}
+		return t;
 	}
 
+	/**
+	 * Linear resampling of wall temperatures given for a different number
+	 * of sections, values are taken at the section centers.
+	 */
+	static double[] resample(final double[] values, final int n) {
+		final double[] result = new double[n];
+		if (values.length == 0) {
+			return result;
+		}
+		if (values.length == 1) {
+			Arrays.fill(result, values[0]);
+			return result;
+		}
+		for (int i = 0; i < n; i++) {
+			final double x = (i + .5) / n * values.length - .5;
+			if (x <= 0) {
+				result[i] = values[0];
+			} else if (x >= values.length - 1) {
+				result[i] = values[values.length - 1];
+			} else {
+				final int k = (int) x;
+				result[i] = values[k] + (x - k) * (values[k + 1] - values[k]);
+			}
+		}
+		return result;
+	}
 
-	public FluidPort createOutputPort(FluidPort inputPort) {
-		FluidPort outputPort = new FluidPort();
-		outputPort.setFluid(inputPort.getFluid());
-		outputPort.setPressure(pout);
-		outputPort.setTemperature(tout);
-		outputPort.setMassflow(mfin);
-		return outputPort;
+
+	public FluidPort updateOutputPort(FluidPort inputPort) {
+		return outputPort.set(inputPort.getFluidId(), pout, tout, mfin);
 	}
 	
 	
@@ -402,6 +421,15 @@ public class PipeT1 extends BaseModel implements Pipe {
 		this.temperatures = temperatures;
 	}
 
+	@ManagedAttribute
+	public int getSections() {
+		return sections;
+	}
+
+	public void setSections(int sections) {
+		this.sections = sections;
+	}
+
 	@ManagedAttribute
 	public double[] getqHFlow() {
 		return qHFlow;
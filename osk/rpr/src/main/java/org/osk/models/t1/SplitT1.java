@@ -112,6 +112,13 @@ public class SplitT1 extends BaseModel {
 	private double mfoutLeft;
 	private double mfoutRight;
 
+	/** Outlet slots and the boundary slot of the backward iteration. */
+	private final FluidPort outputPortLeft = new FluidPort();
+	private final FluidPort outputPortRight = new FluidPort();
+	private final ImmutablePair<FluidPort, FluidPort> outputPorts
+			= new ImmutablePair<FluidPort, FluidPort>(outputPortLeft, outputPortRight);
+	private final FluidPort boundaryPort = new FluidPort();
+
 	private static final String TYPE = "SplitT1";
 	private static final String SOLVER = "none";
 	
@@ -123,7 +130,7 @@ public class SplitT1 extends BaseModel {
         final double pin   = inputPort.getPressure();
         final double tin   = inputPort.getTemperature();
         final double mfin  = inputPort.getMassflow();
-        final String fluid = inputPort.getFluid();
+        final int fluid = inputPort.getFluidId();
 
         final double pout = pin;
         final double tout = tin;
@@ -141,30 +148,20 @@ public class SplitT1 extends BaseModel {
             mfoutRight = 0.0;
         }
 
-        FluidPort outputPortLeft =  createGasPort(fluid, pout, tout, mfoutLeft);
-        FluidPort outputPortRight = createGasPort(fluid, pout, tout, mfoutRight);
+        outputPortLeft.set(fluid, pout, tout, mfoutLeft);
+        outputPortRight.set(fluid, pout, tout, mfoutRight);
         
-        return new ImmutablePair<FluidPort, FluidPort>(outputPortLeft, outputPortRight);
+        return outputPorts;
     }
 
      public FluidPort getBoundedInputMassFlow(FluidPort outputPortLeft, FluidPort outputPortRight) {
         mfboundLeft  = outputPortLeft.getMassflow();
         mfboundRight = outputPortRight.getMassflow();
-		return BoundaryUtils.createBoundaryPort(
-				outputPortLeft.getFluid(), mfboundLeft + mfboundRight);
+		return BoundaryUtils.setBoundaryPort(boundaryPort,
+				outputPortLeft.getFluidId(), mfboundLeft + mfboundRight);
     }
 
 
- 	public FluidPort createGasPort(String fluid, double pout, double tout, double mflow) {
-		FluidPort outputPort = new FluidPort();
-        outputPort.setFluid(fluid);
-        outputPort.setPressure(pout);
-        outputPort.setTemperature(tout);
-        outputPort.setMassflow(mflow);
-		return outputPort;
-	}
-
-
     //-----------------------------------------------------------------------------------
     // Methods added for JMX monitoring	and setting initial properties via CDI Extensions
 
@@ -0,0 +1,227 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.t1;
+
+import org.osk.numeric.NonUniformTable;
+import org.osk.numeric.PiecewisePolynomial;
+import org.osk.numeric.Polynomial;
+import org.osk.numeric.UniformTable;
+
+/**
+ * Geometry of one tank compartment: filling level as function of the liquid
+ * volume and the liquid covered outer wall, separation wall and free liquid
+ * surface as function of the filling level.
+ *
+ * All four functions are sampled once into equidistant lookup tables, so
+ * the derivative evaluation of the tank does a table interpolation instead
+ * of evaluating eighth order polynomials. The level table is made monotone
+ * while sampling, so that a larger volume never gives a lower level.
+ *
+ * A geometry is either built from the polynomial approximations of the
+ * input deck, see {@link #fromPolynomials}, or from tabulated data points
+ * of the compartment shape, e.g. exported from a CAD model, see
+ * {@link #fromTables}. For polynomial geometries arguments outside of the
+ * sampled range are evaluated with the polynomials themselves, tabulated
+ * geometries are clamped to their first and last data point. The surface
+ * polynomials jump at the boundary level, which a table would smear
+ * over one table step, so levels within one step of the boundary level
+ * are evaluated with the polynomials as well.
+ */
+public final class TankGeometry {
+
+	/** Number of table points per function. */
+	static final int POINTS = 2001;
+
+	private final UniformTable level;
+	private final UniformTable outerWall;
+	private final UniformTable separationWall;
+	private final UniformTable freeSurface;
+
+	private final Polynomial levelFunction;
+	private final PiecewisePolynomial outerWallFunction;
+	private final PiecewisePolynomial separationWallFunction;
+	private final PiecewisePolynomial freeSurfaceFunction;
+
+	/** Levels within one table step of the boundary level, NaN if none. */
+	private final double jumpMin;
+	private final double jumpMax;
+
+	private TankGeometry(UniformTable level, UniformTable outerWall,
+			UniformTable separationWall, UniformTable freeSurface,
+			Polynomial levelFunction, PiecewisePolynomial outerWallFunction,
+			PiecewisePolynomial separationWallFunction,
+			PiecewisePolynomial freeSurfaceFunction,
+			double jumpMin, double jumpMax) {
+		this.level = level;
+		this.outerWall = outerWall;
+		this.separationWall = separationWall;
+		this.freeSurface = freeSurface;
+		this.levelFunction = levelFunction;
+		this.outerWallFunction = outerWallFunction;
+		this.separationWallFunction = separationWallFunction;
+		this.freeSurfaceFunction = freeSurfaceFunction;
+		this.jumpMin = jumpMin;
+		this.jumpMax = jumpMax;
+	}
+
+	/**
+	 * Builds the geometry from the polynomial approximations of the tank
+	 * input deck. Below and at the boundary level the second set of
+	 * surface polynomials applies, above it the first one.
+	 *
+	 * @param volume compartment volume [m^3], upper end of the level table
+	 * @param levelCoeffs level [m] as function of liquid volume [m^3]
+	 * @param boundaryLevel boundary fill level [m]
+	 * @param outerWallCoeffs covered outer wall [m^2] above boundary level
+	 * @param outerWallCoeffs2 covered outer wall [m^2] below boundary level
+	 * @param separationWallCoeffs covered sep. wall [m^2] above boundary level
+	 * @param separationWallCoeffs2 covered sep. wall [m^2] below boundary level
+	 * @param surfaceCoeffs free liquid surface [m^2] above boundary level
+	 * @param surfaceCoeffs2 free liquid surface [m^2] below boundary level
+	 */
+	public static TankGeometry fromPolynomials(double volume, double[] levelCoeffs,
+			double boundaryLevel,
+			double[] outerWallCoeffs, double[] outerWallCoeffs2,
+			double[] separationWallCoeffs, double[] separationWallCoeffs2,
+			double[] surfaceCoeffs, double[] surfaceCoeffs2) {
+		final Polynomial levelFunction = new Polynomial(levelCoeffs);
+		final PiecewisePolynomial outerWallFunction = new PiecewisePolynomial(
+				new Polynomial(outerWallCoeffs2), boundaryLevel,
+				new Polynomial(outerWallCoeffs));
+		final PiecewisePolynomial separationWallFunction = new PiecewisePolynomial(
+				new Polynomial(separationWallCoeffs2), boundaryLevel,
+				new Polynomial(separationWallCoeffs));
+		final PiecewisePolynomial freeSurfaceFunction = new PiecewisePolynomial(
+				new Polynomial(surfaceCoeffs2), boundaryLevel,
+				new Polynomial(surfaceCoeffs));
+
+		if (!(volume > 0)) {
+			// Nothing to tabulate, evaluate the polynomials directly.
+			return new TankGeometry(null, null, null, null, levelFunction,
+					outerWallFunction, separationWallFunction, freeSurfaceFunction,
+					Double.NaN, Double.NaN);
+		}
+		final double[] levels = new double[POINTS];
+		final double vstep = volume / (POINTS - 1);
+		for (int i = 0; i < POINTS; i++) {
+			levels[i] = levelFunction.value(i * vstep);
+		}
+		makeMonotone(levels);
+		final UniformTable level = new UniformTable(0, volume, levels);
+
+		final double hMin = levels[0];
+		final double hMax = levels[POINTS - 1];
+		if (!(hMax > hMin)) {
+			return new TankGeometry(level, null, null, null, levelFunction,
+					outerWallFunction, separationWallFunction, freeSurfaceFunction,
+					Double.NaN, Double.NaN);
+		}
+		double jumpMin = Double.NaN;
+		double jumpMax = Double.NaN;
+		if (boundaryLevel >= hMin && boundaryLevel <= hMax) {
+			// covers the table steps on both sides of a boundary on a table point
+			final double hstep = (hMax - hMin) / (POINTS - 1);
+			jumpMin = boundaryLevel - hstep;
+			jumpMax = boundaryLevel + hstep;
+		}
+		return new TankGeometry(level,
+				sample(outerWallFunction, hMin, hMax),
+				sample(separationWallFunction, hMin, hMax),
+				sample(freeSurfaceFunction, hMin, hMax),
+				levelFunction, outerWallFunction, separationWallFunction,
+				freeSurfaceFunction, jumpMin, jumpMax);
+	}
+
+	/**
+	 * Builds the geometry from tabulated data points of the compartment.
+	 *
+	 * @param volumes strictly increasing liquid volumes [m^3]
+	 * @param levels filling levels [m] at the given volumes
+	 * @param sampleLevels strictly increasing filling levels [m] of the
+	 *                     surface data points
+	 * @param outerWall covered outer wall [m^2] at the sample levels
+	 * @param separationWall covered sep. wall [m^2] at the sample levels
+	 * @param surface free liquid surface [m^2] at the sample levels
+	 */
+	public static TankGeometry fromTables(double[] volumes, double[] levels,
+			double[] sampleLevels, double[] outerWall, double[] separationWall,
+			double[] surface) {
+		final NonUniformTable levelData = new NonUniformTable(volumes, levels);
+		final double[] resampled = resample(levelData);
+		makeMonotone(resampled);
+		return new TankGeometry(
+				new UniformTable(levelData.getXMin(), levelData.getXMax(), resampled),
+				resample(sampleLevels, outerWall),
+				resample(sampleLevels, separationWall),
+				resample(sampleLevels, surface),
+				null, null, null, null, Double.NaN, Double.NaN);
+	}
+
+	/** @return filling level [m] for the given liquid volume [m^3] */
+	public double level(double volume) {
+		if (levelFunction != null && (level == null || !level.contains(volume))) {
+			return levelFunction.value(volume);
+		}
+		return level.value(volume);
+	}
+
+	/** @return liquid covered outer wall surface [m^2] at the given level [m] */
+	public double outerWallSurface(double fillLevel) {
+		return lookup(outerWall, outerWallFunction, fillLevel);
+	}
+
+	/** @return liquid covered separation wall surface [m^2] at the given level [m] */
+	public double separationWallSurface(double fillLevel) {
+		return lookup(separationWall, separationWallFunction, fillLevel);
+	}
+
+	/** @return free liquid surface [m^2] at the given level [m] */
+	public double freeSurface(double fillLevel) {
+		return lookup(freeSurface, freeSurfaceFunction, fillLevel);
+	}
+
+	private double lookup(UniformTable table, PiecewisePolynomial function,
+			double x) {
+		if (function != null && (table == null || !table.contains(x)
+				|| (x >= jumpMin && x <= jumpMax))) {
+			return function.value(x);
+		}
+		return table.value(x);
+	}
+
+	private static UniformTable sample(PiecewisePolynomial function,
+			double xMin, double xMax) {
+		final double[] values = new double[POINTS];
+		final double step = (xMax - xMin) / (POINTS - 1);
+		for (int i = 0; i < POINTS; i++) {
+			values[i] = function.value(xMin + i * step);
+		}
+		return new UniformTable(xMin, xMax, values);
+	}
+
+	private static UniformTable resample(double[] x, double[] y) {
+		final NonUniformTable data = new NonUniformTable(x, y);
+		return new UniformTable(data.getXMin(), data.getXMax(), resample(data));
+	}
+
+	private static double[] resample(NonUniformTable data) {
+		final double[] values = new double[POINTS];
+		final double xMin = data.getXMin();
+		final double step = (data.getXMax() - xMin) / (POINTS - 1);
+		for (int i = 0; i < POINTS; i++) {
+			values[i] = data.value(xMin + i * step);
+		}
+		return values;
+	}
+
+	private static void makeMonotone(double[] values) {
+		for (int i = 1; i < values.length; i++) {
+			if (values[i] < values[i - 1]) {
+				values[i] = values[i - 1];
+			}
+		}
+	}
+}
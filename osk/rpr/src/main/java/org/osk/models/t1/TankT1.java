@@ -137,10 +137,13 @@ import org.osk.config.SimHeaders;
 import org.osk.errors.OskException;
 import org.osk.models.BaseModel;
 import org.osk.models.materials.HeliumPropertiesBuilder;
+import org.osk.models.materials.FluidProperties;
 import org.osk.models.materials.MaterialProperties;
+import org.osk.models.materials.Propellants;
 import org.osk.numeric.DEQClient;
 import org.osk.numeric.DEqSys;
 import org.osk.ports.FluidPort;
+import org.osk.ports.Fluids;
 import org.slf4j.Logger;
 
 
@@ -161,6 +164,17 @@ public class TankT1 extends BaseModel implements DEQClient {
 	private String fuel;
 	/** Oxidizer type. */
 	private String oxidizer;
+	/** Liquid properties of the fuel, resolved from the fuel type. */
+	private FluidProperties fuelProperties;
+	/** Liquid properties of the oxidizer, resolved from the oxidizer type. */
+	private FluidProperties oxidizerProperties;
+	private int fuelId = Fluids.NONE;
+	private int oxidizerId = Fluids.NONE;
+	/** Outlet slots for fuel and oxidizer, overwritten in every iteration. */
+	private final FluidPort outputPortFuel = new FluidPort();
+	private final FluidPort outputPortOxidizer = new FluidPort();
+	private final ImmutablePair<FluidPort, FluidPort> outputPorts
+			= new ImmutablePair<FluidPort, FluidPort>(outputPortFuel, outputPortOxidizer);
 
 	/** Pressure gas for fuel compartment. */
 	private String fuPressGas;
@@ -256,7 +270,6 @@ public class TankT1 extends BaseModel implements DEQClient {
 	private double TANFBR;
 
 	private double PVO;
-	private double AO, BO;
 
 	/** Temp. of pressure gas entering tank oxid. compartment. */
 	private double THEINO;
@@ -370,6 +383,13 @@ public class TankT1 extends BaseModel implements DEQClient {
 	 */
 	private double oxSfc2[] = new double[8];
 
+	/**
+	 * Geometry lookup tables of the compartments. Built from the polynomial
+	 * approximations at init unless set explicitly, e.g. from CAD data.
+	 */
+	private TankGeometry fuGeometry;
+	private TankGeometry oxGeometry;
+
 	/** State variables vector of tank DEQ system. */
 	private double YK[] = new double[20];
 	/** Max. num. of calls of the Diff() method within one integ. step. */
@@ -427,9 +447,27 @@ public class TankT1 extends BaseModel implements DEQClient {
         // Initializing blowdown flag
         BDFLAG=0;
         //
+        // Resolving liquid properties of fuel and oxidizer
+        oxidizerProperties = resolveProperties(oxidizer,
+                Propellants.nitrogenTetroxide());
+        fuelProperties = resolveProperties(fuel,
+                Propellants.monomethylhydrazine());
+        //
+        // Initializing compartment geometry tables
+        if (oxGeometry == null) {
+            oxGeometry = TankGeometry.fromPolynomials(VTOX, oxLevel, HGOX,
+                    oxCOutWSfc, oxCOutWSfc2, oxCSepWSfc, oxCSepWSfc2,
+                    oxSfc, oxSfc2);
+        }
+        if (fuGeometry == null) {
+            fuGeometry = TankGeometry.fromPolynomials(VTBR, fuLevel, HGBR,
+                    fuCOutWSfc, fuCOutWSfc2, fuCSepWSfc, fuCSepWSfc2,
+                    fuSfc, fuSfc2);
+        }
+        //
         // Initializing ox. and fuel masses in compartment
-        MLOX=VANFOX*(2066.0-1.979*TANFOX-4.826E-4*Math.pow(TANFOX,2));
-        MLBR=VANFBR*(1150.34-.93949*TANFBR);
+        MLOX=VANFOX*oxidizerProperties.density(TANFOX);
+        MLBR=VANFBR*fuelProperties.density(TANFBR);
         YK[18]=MLOX;
         YK[19]=MLBR;
         //
@@ -447,20 +485,7 @@ public class TankT1 extends BaseModel implements DEQClient {
         }
         //
         // Initializing oxidizer vapour pressure
-        if(TANFOX < 233) {
-            AO=-2881.007;
-            BO=13.4;
-        }
-        if(TANFOX >= 233)
-            if(TANFOX < 263) {
-            AO=-2373.331;
-            BO=11.214;
-            } else {
-            AO=-1741.348;
-            BO=8.814;
-            }
-
-        PVO=Math.pow(10,(AO/TANFOX+BO))*133.332;
+        PVO=oxidizerProperties.vapourPressure(TANFOX);
         //
         // Initializing mass of oxidizer vapour in gaseous phase in ox.
         // compartment.
@@ -522,7 +547,7 @@ public class TankT1 extends BaseModel implements DEQClient {
         poutFuel  = YK[9];
         toutFuel  = YK[12];
 
-        FluidPort outputPortFuel = new FluidPort(fuel,poutFuel,toutFuel,mfoutFuel);
+        outputPortFuel.set(fuelId, poutFuel, toutFuel, mfoutFuel);
 
         mfoutOxidizer = mfBoundOx;
         poutOxidizer  = YK[3];
@@ -536,24 +561,30 @@ public class TankT1 extends BaseModel implements DEQClient {
 //        tGFuT = YK[11];
 //        tLFuT = YK[12];
 
-        FluidPort outputPortOxidizer = new FluidPort(oxidizer, poutOxidizer, toutOxidizer, mfoutOxidizer);
+        outputPortOxidizer.set(oxidizerId, poutOxidizer, toutOxidizer, mfoutOxidizer);
 
-        return new ImmutablePair<FluidPort,  FluidPort>(outputPortFuel, outputPortOxidizer);
+        return outputPorts;
     }
     
-	public FluidPort createOutputPort(FluidPort inputPort) {
-		FluidPort outputPort = new FluidPort(
-		inputPort.getFluid(),
-		inputPort.getPressure()/1.01,
-		inputPort.getTemperature(),
-		inputPort.getMassflow());
-		return outputPort;
+	/**
+	 * Looks up the liquid properties for the configured propellant name,
+	 * falling back to the given default for unknown or unset names.
+	 */
+	private FluidProperties resolveProperties(String propellant,
+			FluidProperties fallback) {
+		FluidProperties properties = Propellants.get(propellant);
+		if (properties == null) {
+			LOG.warn("{}: no liquid properties for propellant '{}', using {}",
+					new Object[] {name, propellant, fallback});
+			return fallback;
+		}
+		return properties;
 	}
-	
+
 
     public int DEQDeriv(final double X, final double Y[], final int N,
             final double F[]) {
-        double CPHE,CVHE,RALLG,RSPHE,RSPOXD,MMOLHE,MMOLO,C,D,E,CB,DB;
+        double CPHE,CVHE,RALLG,RSPHE,RSPOXD,MMOLHE,MMOLO,DRHOLO,DRHOLB;
         double RSPMO,DICHGO,DICHLO,DICHLB,NHEO,NOG,NGES;
 
         double POXD,VLOX,VLBR,PEGLO,PEGLB,LAMOL,LAMOG,LAMGO,LAMBL;
@@ -569,7 +600,6 @@ public class TankT1 extends BaseModel implements DEQClient {
         double NUAWGO,NUAWLO,NUTWGO,NUTWLO,NUAWGB,NUAWLB,NUTWGB,NUTWLB;
         double KO = 0,LO = 0,MPAWGO,MPTWGO,MPAWGB,MPTWGB;// JH MAWGBA;
         double MAWLO,MTWLO,MAWLB,MTWLB,VPTGBR = 0,FB = 0,PHEO;
-        int I;
 
         LOG.info("Tank: Computing derivations of state variables of DEQ"
                 + " system");
@@ -581,11 +611,6 @@ public class TankT1 extends BaseModel implements DEQClient {
         RSPOXD=90.372;
         MMOLHE=4.003E-3;
         MMOLO=92.011E-3;
-        C=2066.0;
-        D=-1.979;
-        E=-4.826E-4;
-        CB=1150.34;
-        DB=-.93949;
 
         /*********************************************************************/
         /*                                                                   */
@@ -758,40 +783,33 @@ public class TankT1 extends BaseModel implements DEQClient {
 
         /*******************************************************************/
         /*                                                                 */
-        /*    Density of fluid oxidizer can be computed according          */
-        /*                                                                 */
-        /*                                 2                               */
-        /*    DICHLO = C + D*T  + E*( T  )                                 */
-        /*                    l       l                                    */
+        /*    Density of fluid oxidizer and its temperature derivative     */
+        /*    are taken from the oxidizer liquid properties.               */
         /*                                                                 */
         /*******************************************************************/
-        DICHLO=C+D*Y[4]+E*Math.pow(Y[4],2);
+        DICHLO=oxidizerProperties.density(Y[4]);
+        DRHOLO=oxidizerProperties.densityDerivative(Y[4]);
 
         /*******************************************************************/
         /*                                                                 */
-        /*    Density of fluid fuel can be computed according              */
-        /*                                                                 */
-        /*    DICHLB = CB + DB*T                                           */
+        /*    Density of fluid fuel and its temperature derivative         */
+        /*    are taken from the fuel liquid properties.                   */
         /*                                                                 */
         /*******************************************************************/
-        DICHLB=CB+DB*Y[12];
+        DICHLB=fuelProperties.density(Y[12]);
+        DRHOLB=fuelProperties.densityDerivative(Y[12]);
 
         /*******************************************************************/
         /*                                                                 */
         /*    Computation of actual oxidizer & fuel levels                 */
-        /*    in the compartments as polynomial interpolations.            */
+        /*    in the compartments from the geometry lookup tables.         */
         /*                                                                 */
         /*******************************************************************/
         VLOX=Y[18]/DICHLO;
         VLBR=Y[19]/DICHLB;
 
-        PEGLO=0;
-        PEGLB=0;
-
-        for (I=0;I<8;I++) {
-            PEGLO=PEGLO+oxLevel[I]*Math.pow(VLOX,I);
-            PEGLB=PEGLB+fuLevel[I]*Math.pow(VLBR,I);
-        }
+        PEGLO=oxGeometry.level(VLOX);
+        PEGLB=fuGeometry.level(VLBR);
 
         /*******************************************************************/
         /*                                                                 */
@@ -814,37 +832,16 @@ public class TankT1 extends BaseModel implements DEQClient {
         /*    HGBR= boundary fill level in fuel compartment                */
         /*                                                                 */
         /*******************************************************************/
-        FAWLO=0;
-        FTWLO=0;
-        FFO=0;
-
-        FAWLB=0;
-        FTWLB=0;
-        FFB=0;
-
-        for (I=0;I<8;I++) {
-            if (PEGLO>HGOX) {
-                FAWLO=FAWLO+oxCOutWSfc[I]*Math.pow(PEGLO,I);
-                FTWLO=FTWLO+oxCSepWSfc[I]*Math.pow(PEGLO,I);
-                FFO=FFO+oxSfc[I]*Math.pow(PEGLO,I);
-            } else {
-                FAWLO=FAWLO+oxCOutWSfc2[I]*Math.pow(PEGLO,I);
-                FTWLO=FTWLO+oxCSepWSfc2[I]*Math.pow(PEGLO,I);
-                FFO=FFO+oxSfc2[I]*Math.pow(PEGLO,I);
-            }
-            if (PEGLB>HGBR) {
-                FAWLB=FAWLB+fuCOutWSfc[I]*Math.pow(PEGLB,I);
-                FTWLB=FTWLB+fuCSepWSfc[I]*Math.pow(PEGLB,I);
-                if (FTWLB == 0) {
-                	// FIXME: Avoid NaN later with 0 division
-                	LOG.warn("FTWLB is 0. PEGLB: {}", PEGLB);
-                }
-                FFB=FFB+fuSfc[I]*Math.pow(PEGLB,I);
-            } else {
-                FAWLB=FAWLB+fuCOutWSfc2[I]*Math.pow(PEGLB,I);
-                FTWLB=FTWLB+fuCSepWSfc2[I]*Math.pow(PEGLB,I);
-                FFB=FFB+fuSfc2[I]*Math.pow(PEGLB,I);
-            }
+        FAWLO=oxGeometry.outerWallSurface(PEGLO);
+        FTWLO=oxGeometry.separationWallSurface(PEGLO);
+        FFO=oxGeometry.freeSurface(PEGLO);
+
+        FAWLB=fuGeometry.outerWallSurface(PEGLB);
+        FTWLB=fuGeometry.separationWallSurface(PEGLB);
+        FFB=fuGeometry.freeSurface(PEGLB);
+        if (FTWLB == 0) {
+        	// FIXME: Avoid NaN later with 0 division
+        	LOG.warn("FTWLB is 0. PEGLB: {}", PEGLB);
         }
 
         FAWGO=FAWO-FAWLO;
@@ -892,8 +889,7 @@ public class TankT1 extends BaseModel implements DEQClient {
         /*******************************************************************/
         ETAOG=(-1.241265+8.57137E-3*Y[1])*1E-5;
 
-        ETAOL=7.533E-3-6.167E-5*Y[4]+2.055E-7*Math.pow(Y[4],2);
-        ETAOL=ETAOL-3.234E-10*Math.pow(Y[4],3)+1.966E-13*Math.pow(Y[4],4);
+        ETAOL=oxidizerProperties.viscosity(Y[4]);
 
         MaterialProperties Helium_ox = HeliumPropertiesBuilder.build(PHEO, Y[1]);
 
@@ -901,7 +897,7 @@ public class TankT1 extends BaseModel implements DEQClient {
         ETAGO=ETAGO+ETAOG*YDO*Math.pow(MMOLO,.5);
         ETAGO=ETAGO/(YHEO*Math.pow(MMOLHE,.5)+YDO*Math.pow(MMOLO,.5));
 
-        LAMOL=-.13791+2.3304E-3*Y[4]-4.7897E-6*Math.pow(Y[4],2);
+        LAMOL=oxidizerProperties.conductivity(Y[4]);
         LAMOG=.08223-2.026E-4*Y[1];
         LAMGO=LAMOG*YDO+Helium_ox.LAMBDA*YHEO;
 
@@ -909,11 +905,9 @@ public class TankT1 extends BaseModel implements DEQClient {
 
         MaterialProperties Helium_brenn = HeliumPropertiesBuilder.build(Y[9], Y[11]);
 
-        LAMBL=.14246+9.211E-4*Y[12]-1.9029E-6*Math.pow(Y[12],2);
+        LAMBL=fuelProperties.conductivity(Y[12]);
 
-        ETALB=36.77076-.385516*Y[12]+1.263832E-3*Math.pow(Y[12],2);
-        ETALB=ETALB-1.40667E-6*Math.pow(Y[12],3);
-        ETALB=Math.pow(10,ETALB);
+        ETALB=fuelProperties.viscosity(Y[12]);
 
 
         /*******************************************************************/
@@ -1033,9 +1027,8 @@ public class TankT1 extends BaseModel implements DEQClient {
         /*    to each compartment                                          */
         /*                                                                 */
         /*******************************************************************/
-        CPLO=-1.78232E4+1.9312E2*Y[4]-.65038*Math.pow(Y[4],2);
-        CPLO=CPLO+7.4106E-4*Math.pow(Y[4],3);
-        CPLB=2.7331E3-7.2365E-2*Y[12]+2.4762E-3*Math.pow(Y[12],2);
+        CPLO=oxidizerProperties.heatCapacity(Y[4]);
+        CPLB=fuelProperties.heatCapacity(Y[12]);
         CPOG=361.7617+2.035667*Y[1]-1.248147E-3*Math.pow(Y[1],2);
         CVOG=CPOG-RSPOXD;
         CPGO=(CPHE*Y[0]+CPOG*MDO)/(Y[0]+MDO);
@@ -1151,7 +1144,7 @@ public class TankT1 extends BaseModel implements DEQClient {
             KO=MDO*CVOG+Y[0]*CVHE;
             LO=HHEINO-Y[1]*CVHE+KO*Y[3]*Y[2]*RSPHE
                     / Math.pow((RSPMO*(Y[0]+MDO)),2);
-            VPTGBR=DB*VLBR*SUQPLB/(Y[19]*CPLB*DICHLB)+VBLOUT;
+            VPTGBR=DRHOLB*VLBR*SUQPLB/(Y[19]*CPLB*DICHLB)+VBLOUT;
             FB=VPTGBR*Y[11]/Y[13];
         }
 
@@ -1162,7 +1155,7 @@ public class TankT1 extends BaseModel implements DEQClient {
         /*******************************************************************/
         if(BDFLAG==0) {
             F[4]=SUQPLO/(Y[18]*CPLO);
-            F[2]=VOLOUT+(VLOX*F[4]*(D+2*E*Y[4]))/DICHLO;
+            F[2]=VOLOUT+(VLOX*F[4]*DRHOLO)/DICHLO;
             F[0]=Y[3]*F[2]-SUQPGO+F[2]*Y[3]*KO/(RSPMO*(Y[0]+MDO));
             F[0]=F[0]/LO;
             F[1]=(F[0]*(HHEINO-CVHE*Y[1])+SUQPGO-Y[3]*F[2])/KO;
@@ -1180,7 +1173,7 @@ public class TankT1 extends BaseModel implements DEQClient {
 
             F[11]=-F[10]*Y[11]/Y[10]+FB;
             F[12]=SUQPLB/(CPLB*Y[19]);
-            F[13]=F[12]*DB*VLBR/DICHLB+VBLOUT;
+            F[13]=F[12]*DRHOLB*VLBR/DICHLB+VBLOUT;
             F[14]=(-QPAWGB+SPWKB*(Y[15]-Y[14])*MPAWGB)/(MAWGB*SPWKB);
             if (MAWLB > 0.)
                 F[15]=-QPAWLB/(MAWLB*SPWKB);
@@ -1191,7 +1184,7 @@ public class TankT1 extends BaseModel implements DEQClient {
         } else {
             F[0]=0;
             F[4]=SUQPLO/(Y[18]*CPLO);
-            F[2]=VOLOUT+(VLOX*F[4]*(D+2*E*Y[4]))/DICHLO;
+            F[2]=VOLOUT+(VLOX*F[4]*DRHOLO)/DICHLO;
             F[1]=(SUQPGO-Y[3]*F[2])/((Y[0]+MDO)*CVGO);
             F[3]=(Y[0]+MDO)*RSPMO*(F[1]/Y[2]-F[2]*Y[1]/Math.pow(Y[2],2));
             F[5]=(-QPAWGO+SPWKO*(Y[6]-Y[5])*MPAWGO)/(MAWGO*SPWKO);
@@ -1203,7 +1196,7 @@ public class TankT1 extends BaseModel implements DEQClient {
                 F[8]=0.;
             F[10]=0;
             F[12]=SUQPLB/(CPLB*Y[19]);
-            F[13]=F[12]*DB*VLBR/DICHLB+VBLOUT;
+            F[13]=F[12]*DRHOLB*VLBR/DICHLB+VBLOUT;
             F[11]=(SUQPGB-Y[9]*F[13])/(Y[10]*CVHE);
             F[9]=Y[10]*RSPHE*(F[11]/Y[13]-F[13]*Y[11]/Math.pow(Y[13],2));
             F[14]=(-QPAWGB+SPWKB*(Y[15]-Y[14])*MPAWGB)/(MAWGB*SPWKB);
@@ -1235,7 +1228,9 @@ public class TankT1 extends BaseModel implements DEQClient {
 
         if (result == 1) {
             LOG.error("Error in timestep integration of component TankT1");
-            return new ImmutablePair<FluidPort,  FluidPort>(new FluidPort(), new FluidPort());
+            outputPortFuel.clear();
+            outputPortOxidizer.clear();
+            return outputPorts;
         }
 
         ZEITA=time;
@@ -1253,9 +1248,9 @@ public class TankT1 extends BaseModel implements DEQClient {
         pBoundFuelPress  = YK[9];
         pBoundOxPress    = YK[3];
 
-        FluidPort outputPortFuel = new FluidPort(fuel,poutFuel,toutFuel,mfoutFuel);
-        FluidPort outputPortOxidizer = new FluidPort(oxidizer, poutOxidizer, toutOxidizer, mfoutOxidizer);
-        return new ImmutablePair<FluidPort,  FluidPort>(outputPortFuel, outputPortOxidizer);
+        outputPortFuel.set(fuelId, poutFuel, toutFuel, mfoutFuel);
+        outputPortOxidizer.set(oxidizerId, poutOxidizer, toutOxidizer, mfoutOxidizer);
+        return outputPorts;
     }
 
     
@@ -1268,6 +1263,7 @@ public class TankT1 extends BaseModel implements DEQClient {
 	}
 	public void setFuel(String fuel) {
 		this.fuel = fuel;
+		this.fuelId = Fluids.id(fuel);
 	}
     
 	@ManagedAttribute    
@@ -1276,6 +1272,7 @@ public class TankT1 extends BaseModel implements DEQClient {
 	}
 	public void setOxidizer(String oxidizer) {
 		this.oxidizer = oxidizer;
+		this.oxidizerId = Fluids.id(oxidizer);
 	}
 	@ManagedAttribute    
 	public String getFuPressGas() {
@@ -1816,6 +1813,26 @@ public class TankT1 extends BaseModel implements DEQClient {
 	public void setOxSfc2(double[] oxSfc2) {
 		this.oxSfc2 = oxSfc2;
 	}
+
+	public TankGeometry getFuGeometry() {
+		return fuGeometry;
+	}
+	public void setFuGeometry(TankGeometry fuGeometry) {
+		this.fuGeometry = fuGeometry;
+	}
+
+	public TankGeometry getOxGeometry() {
+		return oxGeometry;
+	}
+	public void setOxGeometry(TankGeometry oxGeometry) {
+		this.oxGeometry = oxGeometry;
+	}
+
+	/** State variables vector of the tank DEQ system, read only. */
+	@ManagedAttribute    
+	public double[] getYK() {
+		return YK;
+	}
 	@ManagedAttribute    
 	public int getIFMAX() {
 		return IFMAX;
@@ -32,6 +32,9 @@ public class EngineT2 extends BaseModel implements Engine {
 	private double requestedFuelFlow;
 	/** Requested ox flow [kg/s] */
 	private double requestedOxFlow;
+	/** Performance map settings, not used by this model. */
+	private boolean usePerformanceMap;
+	private String performanceMapResource;
 
 	private static final String TYPE = "Engine";
 	private static final String SOLVER = "none";
@@ -107,5 +110,27 @@ public class EngineT2 extends BaseModel implements Engine {
 	public void setRequestedOxFlow(double requestedOxFlow) {
 		this.requestedOxFlow = requestedOxFlow;
 	}
+
+	@Override
+	@ManagedAttribute
+	public boolean isUsePerformanceMap() {
+		return usePerformanceMap;
+	}
+
+	@Override
+	public void setUsePerformanceMap(boolean usePerformanceMap) {
+		this.usePerformanceMap = usePerformanceMap;
+	}
+
+	@Override
+	@ManagedAttribute
+	public String getPerformanceMapResource() {
+		return performanceMapResource;
+	}
+
+	@Override
+	public void setPerformanceMapResource(String performanceMapResource) {
+		this.performanceMapResource = performanceMapResource;
+	}
 	
 }
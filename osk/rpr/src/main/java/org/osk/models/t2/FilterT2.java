@@ -33,6 +33,8 @@ public class FilterT2 extends BaseModel implements Filter {
 
 	/** Mass of filter. */
 	private double mass;
+	/** Outlet slot, overwritten in every iteration. */
+	private final FluidPort outputPort = new FluidPort();
 	
 	private static final String TYPE = "FilterT2";
 	private static final String SOLVER = "none";
@@ -49,7 +51,7 @@ public class FilterT2 extends BaseModel implements Filter {
 
 	@Override
 	public FluidPort calculateOutletMassFlow(FluidPort inputPort) {
-		return createOutputPort(inputPort);
+		return updateOutputPort(inputPort);
 	}
 	
 	@Override
@@ -65,13 +67,12 @@ public class FilterT2 extends BaseModel implements Filter {
 	}
 
 	@Override
-	public FluidPort createOutputPort(FluidPort inputPort) {
-		FluidPort outputPort = new FluidPort(
-		inputPort.getFluid(),
+	public FluidPort updateOutputPort(FluidPort inputPort) {
+		return outputPort.set(
+		inputPort.getFluidId(),
 		inputPort.getPressure()/1.01,
 		inputPort.getTemperature(),
 		inputPort.getMassflow());
-		return outputPort;
 	}
 	
 	// ----------------------------------------
@@ -9,6 +9,7 @@ import org.osk.models.HPBottle;
 import org.osk.models.materials.HeliumPropertiesBuilder;
 import org.osk.models.materials.MaterialProperties;
 import org.osk.ports.FluidPort;
+import org.osk.ports.Fluids;
 
 @Alternative
 public class HPBottleT2 extends BaseModel implements HPBottle {
@@ -34,6 +35,9 @@ public class HPBottleT2 extends BaseModel implements HPBottle {
 	private double mftotal;
 	/** Gas in vessel. */
 	private String fluid;
+	private int fluidId = Fluids.NONE;
+	/** Outlet slot, overwritten on every request. */
+	private final FluidPort outputPort = new FluidPort();
 	/** Heat flow from wall to fluid for pressure regul. elements. */
 	private double qHFlow;
 	/** Initial pressure of gas in vessel. */
@@ -69,12 +73,12 @@ public class HPBottleT2 extends BaseModel implements HPBottle {
 
 	@Override
 	public FluidPort createInputPortIter() {
-		return new FluidPort(name, fluid, ptotal, ttotal, mftotal);
+		return outputPort.set(fluidId, ptotal, ttotal, mftotal);
 	}
 
 	@Override
 	public FluidPort getOutputPortStatus() {
-		return new FluidPort(name, fluid, ptotal, ttotal, mftotal);
+		return outputPort.set(fluidId, ptotal, ttotal, mftotal);
 	}
 
     //-----------------------------------------------------------------------------------
@@ -133,6 +137,7 @@ public class HPBottleT2 extends BaseModel implements HPBottle {
 	@Override
 	public void setFluid(String fluid) {
 		this.fluid = fluid;
+		this.fluidId = Fluids.id(fluid);
 	}
 	@Override
 	@ManagedAttribute
@@ -29,6 +29,8 @@ public class PRegT2 extends BaseModel implements PressureRegulator {
 	private double[] pcoeff = new double[4];
 	/** Temperature of pressure regul. elements. */
 	private double temperature;
+	/** Outlet slot, overwritten in every iteration. */
+	private final FluidPort outputPort = new FluidPort();
 
 	private static final String TYPE = "PRegT2";
 	private static final String SOLVER = "";
@@ -45,7 +47,7 @@ public class PRegT2 extends BaseModel implements PressureRegulator {
 
     @Override
 	public FluidPort calculateOutletMassFlow(FluidPort inputPort) {
-        return createOutputPort(inputPort);
+        return updateOutputPort(inputPort);
     }
 
     @Override
@@ -54,13 +56,12 @@ public class PRegT2 extends BaseModel implements PressureRegulator {
 	}
 
 	@Override
-	public FluidPort createOutputPort(FluidPort inputPort) {
-		FluidPort outputPort = new FluidPort(
-		inputPort.getFluid(),
+	public FluidPort updateOutputPort(FluidPort inputPort) {
+		return outputPort.set(
+		inputPort.getFluidId(),
 		inputPort.getPressure()/1.01,
 		inputPort.getTemperature(),
 		inputPort.getMassflow());
-		return outputPort;
 	}
 	
     //-----------------------------------------------------------------------------------
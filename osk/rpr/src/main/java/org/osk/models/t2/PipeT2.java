@@ -44,6 +44,8 @@ public class PipeT2 extends BaseModel implements Pipe {
 	private double mfin;
 	private double pout;
 	private double tout;
+	/** Outlet slot, overwritten in every iteration. */
+	private final FluidPort outputPort = new FluidPort();
 
 	private static final String TYPE = "PipeT2";
 	private static final String SOLVER = "";
@@ -59,7 +61,7 @@ public class PipeT2 extends BaseModel implements Pipe {
 	
 	@Override
 	public FluidPort calculateOutletMassFlow(FluidPort inputPort) {
-		return createOutputPort(inputPort);
+		return updateOutputPort(inputPort);
 	}
 
 	@Override
@@ -67,13 +69,12 @@ public class PipeT2 extends BaseModel implements Pipe {
      // nothing in this model
 	}
 
-	public FluidPort createOutputPort(FluidPort inputPort) {
-		FluidPort outputPort = new FluidPort(
-		inputPort.getFluid(),
+	public FluidPort updateOutputPort(FluidPort inputPort) {
+		return outputPort.set(
+		inputPort.getFluidId(),
 		inputPort.getPressure()/1.01,
 		inputPort.getTemperature(),
 		inputPort.getMassflow());
-		return outputPort;
 	}
 	
 	
@@ -148,6 +149,17 @@ public class PipeT2 extends BaseModel implements Pipe {
 	}
 
 
+	@Override
+	@ManagedAttribute
+	public int getSections() {
+		return PARTS;
+	}
+
+	/** Ignored, this model has no wall sections. */
+	@Override
+	public void setSections(int sections) {
+	}
+
 	@ManagedAttribute
 	public double[] getqHFlow() {
 		return qHFlow;
@@ -8,6 +8,7 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.osk.models.BaseModel;
 import org.osk.models.Tank;
 import org.osk.ports.FluidPort;
+import org.osk.ports.Fluids;
 
 
 /**
@@ -26,6 +27,13 @@ public class TankT2 extends BaseModel implements Tank  {
 	private String fuel;
 	/** Oxidizer type. */
 	private String oxidizer;
+	private int fuelId = Fluids.NONE;
+	private int oxidizerId = Fluids.NONE;
+	/** Outlet slots for fuel and oxidizer, overwritten in every iteration. */
+	private final FluidPort outputPortFuel = new FluidPort();
+	private final FluidPort outputPortOxidizer = new FluidPort();
+	private final ImmutablePair<FluidPort, FluidPort> outputPorts
+			= new ImmutablePair<FluidPort, FluidPort>(outputPortFuel, outputPortOxidizer);
 
 	/** Pressure gas for fuel compartment. */
 	private String fuPressGas;
@@ -271,11 +279,11 @@ public class TankT2 extends BaseModel implements Tank  {
     @Override
 	public ImmutablePair<FluidPort,  FluidPort> calculateOutletsMassFlow(FluidPort inputPortFuelPressureGas, FluidPort inputPortOxidizerPressureGas) {
         toutFuel = 5000; poutFuel=100000; mfoutFuel=1;
-        FluidPort outputPortFuel = new FluidPort(fuel, poutFuel, toutFuel, mfoutFuel);
+        outputPortFuel.set(fuelId, poutFuel, toutFuel, mfoutFuel);
         toutOxidizer = 5000; poutOxidizer=200000; mfoutOxidizer=2;
-        FluidPort outputPortOxidizer = new FluidPort(oxidizer, poutOxidizer, toutOxidizer, mfoutOxidizer);
+        outputPortOxidizer.set(oxidizerId, poutOxidizer, toutOxidizer, mfoutOxidizer);
 
-        return new ImmutablePair<FluidPort,  FluidPort>(outputPortFuel, outputPortOxidizer);
+        return outputPorts;
     }
 
 
@@ -283,9 +291,9 @@ public class TankT2 extends BaseModel implements Tank  {
 	public ImmutablePair<FluidPort,  FluidPort> propagate(final double time, final double tStepSize, 
     		 final FluidPort inputPortOxidizerPressureGas, final FluidPort inputPortFuelPressureGas) {
 
-        FluidPort outputPortFuel = new FluidPort(fuel, poutFuel, toutFuel, mfoutFuel);
-        FluidPort outputPortOxidizer = new FluidPort(oxidizer, poutOxidizer, toutOxidizer, mfoutOxidizer);
-        return new ImmutablePair<FluidPort,  FluidPort>(outputPortFuel, outputPortOxidizer);
+        outputPortFuel.set(fuelId, poutFuel, toutFuel, mfoutFuel);
+        outputPortOxidizer.set(oxidizerId, poutOxidizer, toutOxidizer, mfoutOxidizer);
+        return outputPorts;
     }
 
     
@@ -300,6 +308,7 @@ public class TankT2 extends BaseModel implements Tank  {
 	@Override
 	public void setFuel(String fuel) {
 		this.fuel = fuel;
+		this.fuelId = Fluids.id(fuel);
 	}
     
 	@Override
@@ -310,6 +319,7 @@ public class TankT2 extends BaseModel implements Tank  {
 	@Override
 	public void setOxidizer(String oxidizer) {
 		this.oxidizer = oxidizer;
+		this.oxidizerId = Fluids.id(oxidizer);
 	}
 	@Override
 	@ManagedAttribute    
@@ -0,0 +1,86 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.environment.atmosphere;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.osk.errors.OskException;
+import org.osk.models.environment.AtmosphereState;
+
+/**
+ * Spot checks against the published tables of the U.S. Standard Atmosphere
+ * 1976, geometric altitudes.
+ */
+public class UsStandardAtmosphere1976Test {
+
+	private final UsStandardAtmosphere1976 atmosphere = new UsStandardAtmosphere1976();
+	private final AtmosphereState state = new AtmosphereState();
+
+	private void check(final double altitude, final double pressure, final double density,
+			final double temperature, final double tolerance) throws OskException {
+		check(altitude, pressure, density, temperature, tolerance, 0.01);
+	}
+
+	private void check(final double altitude, final double pressure, final double density,
+			final double temperature, final double tolerance, final double temperatureTolerance)
+			throws OskException {
+		atmosphere.getState(altitude, state);
+		assertEquals("pressure at " + altitude, pressure, state.pressure, tolerance * pressure);
+		assertEquals("density at " + altitude, density, state.density, tolerance * density);
+		assertEquals("temperature at " + altitude, temperature, state.temperature, temperatureTolerance);
+		assertEquals(state.pressure, atmosphere.getAirPressure(altitude), 0);
+	}
+
+	@Test
+	public void seaLevel() throws OskException {
+		check(0, 101325., 1.2250, 288.15, 1e-4);
+	}
+
+	@Test
+	public void tropopause() throws OskException {
+		check(11000, 22699.9, 0.36480, 216.77, 1e-4);
+	}
+
+	@Test
+	public void stratopause() throws OskException {
+		check(50000, 79.779, 1.0269E-3, 270.65, 1e-3);
+	}
+
+	@Test
+	public void mesopause() throws OskException {
+		// Molecular-scale temperature up to 86 km, 0.08 K above the kinetic one.
+		check(86000, 0.37338, 6.958E-6, 186.87, 1e-3, 0.1);
+	}
+
+	@Test
+	public void thermosphere() throws OskException {
+		check(150000, 4.5422E-4, 2.076E-9, 634.39, 1e-3);
+		check(500000, 3.0236E-7, 5.215E-13, 999.24, 1e-3);
+	}
+
+	@Test
+	public void betweenPublishedValues() throws OskException {
+		check(95000, 7.5966E-2, 1.393E-6, 188.42, 0.03);
+		check(275000, 1.4597E-5, 3.339E-11, 962.54, 0.03);
+	}
+
+	@Test
+	public void decreasingUpTo1000km() throws OskException {
+		double last = Double.MAX_VALUE;
+		for (double altitude = 0; altitude <= 1000000; altitude += 500) {
+			atmosphere.getState(altitude, state);
+			assertTrue("density at " + altitude, state.density < last);
+			last = state.density;
+		}
+	}
+
+	@Test(expected = OskException.class)
+	public void rejectsNaN() throws OskException {
+		atmosphere.getAirPressure(Double.NaN);
+	}
+}
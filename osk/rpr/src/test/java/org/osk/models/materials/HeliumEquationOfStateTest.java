@@ -0,0 +1,56 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.materials;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class HeliumEquationOfStateTest {
+
+	private final HeliumEquationOfState helium = HeliumEquationOfState.INSTANCE;
+
+	@Test
+	public void pressureInvertsDensity() {
+		for (double p = 1E5; p <= 350E5; p += 7E5) {
+			for (double t = 150; t <= 400; t += 25) {
+				final double density = helium.density(p, t);
+				assertEquals(p, helium.pressure(density, t), 1E-9 * p);
+			}
+		}
+	}
+
+	@Test
+	public void closedFormMatchesNewton() {
+		final RealGasEquationOfState newton = new RealGasEquationOfState(HeliumEquationOfState.RSPEZ) {
+			@Override
+			public double compressibility(final double pressure, final double temperature) {
+				return helium.compressibility(pressure, temperature);
+			}
+
+			@Override
+			public double compressibilityDerivative(final double pressure, final double temperature) {
+				return helium.compressibilityDerivative(pressure, temperature);
+			}
+		};
+		final double density = 40.;
+		assertEquals(newton.pressure(density, 290), helium.pressure(density, 290), 1E-3);
+	}
+
+	@Test
+	public void idealGasAtLowPressure() {
+		final double ideal = 1E3 / (2077 * 300.);
+		assertEquals(ideal, helium.density(1E3, 300), 1E-5 * ideal);
+	}
+
+	@Test
+	public void compressibilityAt280Bar() {
+		// Reference data give Z = 1.13 for helium at 280 bar and 290 K.
+		final double z = helium.compressibility(280E5, 290);
+		assertEquals(1.13, z, 0.01);
+		assertEquals(z, HeliumPropertiesBuilder.build(280, 290).Z, 1E-12);
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.materials;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class HeliumJKCTest {
+
+	/** The coefficient sum of one column as the models computed it before. */
+	private static double column(final int j, final double temperature) {
+		double value = 0;
+		for (int i = 0; i < 5; i++) {
+			value += HeliumJKC.KOEFF[i][j] * Math.pow(temperature, i);
+		}
+		return value;
+	}
+
+	@Test
+	public void columns() {
+		for (int j = 0; j < 9; j++) {
+			assertEquals(-column(j, 280), HeliumJKC.coefficient(j * 40., 280), 1e-12);
+		}
+	}
+
+	@Test
+	public void linearBetweenColumns() {
+		final double expected = -(column(4, 250) + (column(5, 250) - column(4, 250)) * 0.25);
+		assertEquals(expected, HeliumJKC.coefficient(170, 250), 1e-12);
+	}
+
+	@Test
+	public void clampedOutsideTable() {
+		assertEquals(-column(8, 300), HeliumJKC.coefficient(400, 300), 1e-12);
+		assertEquals(-column(8, 300), HeliumJKC.coefficient(1000, 300), 1e-12);
+		assertEquals(-column(0, 300), HeliumJKC.coefficient(-5, 300), 1e-12);
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.structure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.Test;
+import org.osk.errors.OskException;
+import org.osk.events.ECIpv;
+
+public class ScStructureTest {
+
+	private static ScStructure structure() {
+		final ScStructure structure = new ScStructure();
+		structure.init("ScStructureTest");
+		structure.setScMass(1000.0);
+		structure.setScPositionECI(new Vector3D(6978137.0, 0.0, 0.0));
+		structure.setScVelocityECI(new Vector3D(0.0, 2700.0, 7058.0));
+		return structure;
+	}
+
+	@Test(expected = OskException.class)
+	public void stepNeedsAGravityField() throws OskException {
+		structure().calculateECICoordinates(0.0, 0.5, Vector3D.ZERO);
+	}
+
+	@Test
+	public void coordinatesFollowTheInitialState() {
+		final ScStructure structure = structure();
+		final ECIpv coordinates = structure.getCoordinates();
+		assertEquals(6978137.0, coordinates.getPosition(0), 0.0);
+		assertEquals(2700.0, coordinates.getVelocity(1), 0.0);
+		assertEquals(7058.0, coordinates.getVelocity(2), 0.0);
+		assertEquals(6978137.0, coordinates.getRadius(), 0.0);
+		structure.setScPositionECI(new Vector3D(0.0, 7000000.0, 0.0));
+		assertSame(coordinates, structure.getCoordinates());
+		assertEquals(7000000.0, coordinates.getPosition(1), 0.0);
+		assertEquals(7000000.0, structure.getScPositionECI().getY(), 0.0);
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.structure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.osk.errors.OskException;
+
+public class TrajectoryPropagatorTest {
+
+	/** Gravitational parameter of the Earth [m^3/s^2]. */
+	private static final double MU = 3.986004418E14;
+
+	/** Point mass gravity. */
+	private static final TrajectoryPropagator.Dynamics KEPLER = new TrajectoryPropagator.Dynamics() {
+		@Override
+		public void acceleration(double time, double[] position, double[] velocity,
+				double[] acceleration) {
+			final double r2 = position[0] * position[0] + position[1] * position[1]
+					+ position[2] * position[2];
+			final double f = -MU / (r2 * Math.sqrt(r2));
+			acceleration[0] = f * position[0];
+			acceleration[1] = f * position[1];
+			acceleration[2] = f * position[2];
+		}
+	};
+
+	/** Circular orbit at 600 km altitude, inclined by 30 degrees. */
+	private static double[] circularOrbit() {
+		final double r = 6978137.;
+		final double v = Math.sqrt(MU / r);
+		return new double[] {r, 0, 0, 0, v * Math.cos(Math.PI / 6), v * Math.sin(Math.PI / 6)};
+	}
+
+	private static double energy(final double[] y) {
+		final double r = Math.sqrt(y[0] * y[0] + y[1] * y[1] + y[2] * y[2]);
+		return 0.5 * (y[3] * y[3] + y[4] * y[4] + y[5] * y[5]) - MU / r;
+	}
+
+	private static double period() {
+		final double r = 6978137.;
+		return 2 * Math.PI * Math.sqrt(r * r * r / MU);
+	}
+
+	@Test
+	public void closesCircularOrbitInSimulationSteps() throws OskException {
+		final double[] y = circularOrbit();
+		final double[] start = y.clone();
+		final TrajectoryPropagator propagator = new TrajectoryPropagator();
+		final double period = period();
+		final int steps = (int) (period / 2.);
+		for (int i = 0; i < steps; i++) {
+			propagator.propagate(i * 2., y, 2., KEPLER);
+		}
+		propagator.propagate(steps * 2., y, period - steps * 2., KEPLER);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(start[i], y[i], 1.);
+			assertEquals(start[i + 3], y[i + 3], 1e-3);
+		}
+		assertEquals(energy(start), energy(y), 1e-9 * Math.abs(energy(start)));
+	}
+
+	@Test
+	public void largeStepsKeepOrbitalAccuracy() throws OskException {
+		final double[] y = circularOrbit();
+		final double[] start = y.clone();
+		final TrajectoryPropagator propagator = new TrajectoryPropagator();
+		propagator.propagate(0, y, period(), KEPLER);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(start[i], y[i], 1.);
+		}
+		// The adaptive steps are far larger than the 2 s of the solver.
+		assertTrue(propagator.getAcceptedSteps() < 200);
+		assertTrue(propagator.getStepSize() > 60);
+	}
+
+	@Test
+	public void thrustAlongVelocityRaisesEnergy() throws OskException {
+		final double[] y = circularOrbit();
+		final double before = energy(y);
+		final double thrust = 1.;
+		new TrajectoryPropagator().propagate(0, y, 100, new TrajectoryPropagator.Dynamics() {
+			@Override
+			public void acceleration(double time, double[] position, double[] velocity,
+					double[] acceleration) {
+				KEPLER.acceleration(time, position, velocity, acceleration);
+				final double v = Math.sqrt(velocity[0] * velocity[0] + velocity[1] * velocity[1]
+						+ velocity[2] * velocity[2]);
+				for (int i = 0; i < 3; i++) {
+					acceleration[i] += thrust * velocity[i] / v;
+				}
+			}
+		});
+		// The specific energy grows by the work of the thrust, a * v * t, with
+		// the speed between the start value and the start value plus a * t.
+		final double v = Math.sqrt(MU / 6978137.);
+		final double gain = energy(y) - before;
+		assertTrue(gain > thrust * v * 100);
+		assertTrue(gain < thrust * (v + thrust * 100) * 100);
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.t1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class EnginePerformanceMapTest {
+
+	private final EnginePerformanceMap map = new EnginePerformanceMap(50, 1, 3,
+			new double[] {1500, 1700, 1600}, new double[] {1e-3, 2e-3, 3e-3},
+			new double[] {1.8, 1.9, 1.85});
+
+	@Test
+	public void interpolatesOverMixtureRatio() {
+		assertEquals(1600, map.characteristicVelocity(1.5), 1e-9);
+		assertEquals(2.5e-3, map.exitPressureRatio(2.5), 1e-15);
+		assertTrue(map.contains(3));
+	}
+
+	@Test
+	public void ambientPressureTerm() {
+		assertEquals(1.9 - 50 * 0.2e5 / 20e5, map.thrustFactor(2, 20e5, 0.2e5), 1e-12);
+		assertEquals(map.vacuumThrustFactor(2), map.thrustFactor(2, 20e5, 0), 0);
+	}
+
+	@Test
+	public void binaryRoundTrip() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		map.write(out);
+		final EnginePerformanceMap read = EnginePerformanceMap.read(
+				new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(map.getAreaRatio(), read.getAreaRatio(), 0);
+		assertEquals(map.size(), read.size());
+		for (double OF = 1; OF <= 3; OF += 0.1) {
+			assertEquals(map.characteristicVelocity(OF), read.characteristicVelocity(OF), 1e-9);
+			assertEquals(map.thrustFactor(OF, 1e6, 1e4), read.thrustFactor(OF, 1e6, 1e4), 1e-12);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherFiles() throws IOException {
+		EnginePerformanceMap.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+	}
+
+	@Test
+	public void builtMapWithinTolerance() {
+		final Engine engine = new Engine();
+		assertTrue(engine.performanceMapError(engine.buildPerformanceMap()) < 1e-4);
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.t1;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class FrictionFactorTest {
+
+	/** Residual of the Colebrook formula, 0 for the exact friction factor. */
+	private static double colebrook(final double lambda, final double k, final double RE) {
+		final double x = 1. / Math.sqrt(lambda);
+		return x + 2. * Math.log10(k / 3.71 + 2.51 * x / RE);
+	}
+
+	@Test
+	public void laminar() {
+		final FrictionFactor friction = new FrictionFactor(1e-4);
+		assertEquals(64. / 500., friction.lambda(500), 0);
+		assertEquals(0, friction.lambda(0.5), 0);
+	}
+
+	@Test
+	public void turbulentSolvesColebrook() {
+		for (double k : new double[] {0, 1e-5, 1e-3, 2e-2}) {
+			final FrictionFactor friction = new FrictionFactor(k);
+			for (double RE = 5e3; RE < 1e8; RE *= 3) {
+				assertEquals(0, colebrook(friction.lambda(RE), k, RE), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void warmStartGivesSameResult() {
+		final FrictionFactor warm = new FrictionFactor(1e-4);
+		warm.lambda(2e4);
+		final double lambda = warm.lambda(3e6);
+		final FrictionFactor cold = new FrictionFactor(1e-4);
+		assertEquals(cold.lambda(3e6), lambda, 1e-12);
+	}
+
+	@Test
+	public void moodyChartValue() {
+		// Fully rough pipe, k = 0.01: Lambda = 0.038 from the Moody chart.
+		assertEquals(0.038, new FrictionFactor(0.01).lambda(1e7), 0.001);
+	}
+
+	@Test
+	public void roughnessLimited() {
+		assertEquals(FrictionFactor.MAX_ROUGHNESS, new FrictionFactor(0.2).getRoughness(), 0);
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.t1;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+public class PipeSectionsTest {
+
+	/** Wall temperatures 10 * k for the ten default sections. */
+	private static double[] linear() {
+		final double[] values = new double[PipeT1.DEFAULT_SECTIONS];
+		for (int k = 0; k < values.length; k++) {
+			values[k] = 10.0 * k;
+		}
+		return values;
+	}
+
+	private static PipeT1 pipe(final int sections, final double[] temperatures) {
+		final PipeT1 pipe = new PipeT1();
+		pipe.LOG = LoggerFactory.getLogger(PipeT1.class);
+		pipe.setSections(sections);
+		pipe.setTemperatures(temperatures);
+		pipe.setLength(2.0);
+		pipe.setSpecificMass(0.5);
+		pipe.init("PipeSectionsTest");
+		return pipe;
+	}
+
+	@Test
+	public void sameCountIsKept() {
+		assertArrayEquals(linear(), PipeT1.resample(linear(), PipeT1.DEFAULT_SECTIONS), 1.0E-12);
+	}
+
+	@Test
+	public void fewerSectionsTakeTheCenters() {
+		assertArrayEquals(new double[] {5.0, 25.0, 45.0, 65.0, 85.0},
+				PipeT1.resample(linear(), 5), 1.0E-12);
+	}
+
+	@Test
+	public void moreSectionsInterpolateAndClampTheEnds() {
+		final double[] result = PipeT1.resample(linear(), 20);
+		assertEquals(20, result.length);
+		assertEquals(0.0, result[0], 0.0);
+		assertEquals(2.5, result[1], 1.0E-12);
+		assertEquals(47.5, result[10], 1.0E-12);
+		assertEquals(87.5, result[18], 1.0E-12);
+		assertEquals(90.0, result[19], 0.0);
+	}
+
+	@Test
+	public void singleValueFillsAllSections() {
+		assertArrayEquals(new double[] {290.0, 290.0, 290.0},
+				PipeT1.resample(new double[] {290.0}, 3), 0.0);
+		assertArrayEquals(new double[4], PipeT1.resample(new double[0], 4), 0.0);
+	}
+
+	@Test
+	public void initResamplesTheWall() {
+		final PipeT1 pipe = pipe(5, linear());
+		assertEquals(5, pipe.getSections());
+		assertArrayEquals(new double[] {5.0, 25.0, 45.0, 65.0, 85.0}, pipe.getTemperatures(), 1.0E-12);
+		assertEquals(5, pipe.getqHFlow().length);
+	}
+
+	@Test
+	public void invalidCountFallsBackToTheDefault() {
+		final PipeT1 pipe = pipe(0, linear());
+		assertEquals(PipeT1.DEFAULT_SECTIONS, pipe.getSections());
+		assertArrayEquals(linear(), pipe.getTemperatures(), 0.0);
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.t1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.Test;
+import org.osk.ports.AnalogPort;
+import org.osk.ports.FluidPort;
+import org.osk.ports.Fluids;
+
+/**
+ * Models hand out their own port slots, which they overwrite in the next
+ * call. Values survive only in the ports they were copied to.
+ */
+public class PortSlotTest {
+
+	private static final String FLUID = "PortSlotTest.Fuel";
+
+	private final SplitT1 first = new SplitT1();
+	private final SplitT1 second = new SplitT1();
+
+	private static FluidPort inlet(final double massflow) {
+		return new FluidPort(FLUID, 2.0E5, 290.0, massflow);
+	}
+
+	@Test
+	public void slotsAreDistinctPerModel() {
+		final ImmutablePair<FluidPort, FluidPort> a = first.calculateOutletsMassFlow(inlet(1.0));
+		final ImmutablePair<FluidPort, FluidPort> b = second.calculateOutletsMassFlow(inlet(2.0));
+		assertNotSame(a.getLeft(), a.getRight());
+		assertNotSame(a.getLeft(), b.getLeft());
+		assertNotSame(a.getRight(), b.getRight());
+		assertNotSame(first.getBoundedInputMassFlow(a.getLeft(), a.getRight()),
+				second.getBoundedInputMassFlow(b.getLeft(), b.getRight()));
+	}
+
+	@Test
+	public void slotIsReusedByTheSameModel() {
+		final FluidPort left = first.calculateOutletsMassFlow(inlet(1.0)).getLeft();
+		assertSame(left, first.calculateOutletsMassFlow(inlet(2.0)).getLeft());
+		assertEquals(1.0, left.getMassflow(), 1.0E-12);
+	}
+
+	@Test
+	public void outputsSurviveTheOtherModel() {
+		final ImmutablePair<FluidPort, FluidPort> a = first.calculateOutletsMassFlow(inlet(1.0));
+		final ImmutablePair<FluidPort, FluidPort> b = second.calculateOutletsMassFlow(inlet(4.0));
+		b.getLeft().clear();
+		second.calculateOutletsMassFlow(inlet(0.0));
+		assertEquals(Fluids.id(FLUID), a.getLeft().getFluidId());
+		assertEquals(0.5, a.getLeft().getMassflow(), 1.0E-12);
+		assertEquals(0.5, a.getRight().getMassflow(), 1.0E-12);
+		assertEquals(2.0E5, a.getRight().getPressure(), 0.0);
+	}
+
+	@Test
+	public void copiesSurviveTheNextCall() {
+		final FluidPort downstream = new FluidPort();
+		final FluidPort slot = first.calculateOutletsMassFlow(inlet(1.0)).getLeft();
+		downstream.set(slot);
+		first.calculateOutletsMassFlow(inlet(3.0));
+		slot.clear();
+		assertEquals(FLUID, downstream.getFluid());
+		assertEquals(0.5, downstream.getMassflow(), 1.0E-12);
+	}
+
+	@Test
+	public void valveSlotsAreDistinctPerModel() {
+		final FluidFlowValve a = new FluidFlowValve();
+		final FluidFlowValve b = new FluidFlowValve();
+		final AnalogPort control = new AnalogPort();
+		control.setAnalogValue(1.0);
+		final FluidPort outA = a.calculateMassFlow(0, inlet(1.0), control);
+		final FluidPort outB = b.calculateMassFlow(0, inlet(2.0), control);
+		assertNotSame(outA, outB);
+		assertNotSame(outA, a.controlBoundary(inlet(1.0), control));
+		outB.clear();
+		assertEquals(1.0, outA.getMassflow(), 0.0);
+		assertEquals(FLUID, outA.getFluid());
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.t1;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TankGeometryTest {
+
+	/** Boundary level between two table points of the 0..2 m level range. */
+	private static final double BOUNDARY = 0.70037;
+
+	/**
+	 * Level 2V on 1 m^3. Below and at the boundary the covered walls and
+	 * the free surface follow the second polynomials, above it the first,
+	 * with a jump at the boundary.
+	 */
+	private static TankGeometry polynomials(final double boundary) {
+		return TankGeometry.fromPolynomials(1.0, new double[] {0.0, 2.0}, boundary,
+				new double[] {3.0, 1.0}, new double[] {1.0},
+				new double[] {5.0}, new double[] {2.0, 1.0},
+				new double[] {4.0}, new double[] {1.0});
+	}
+
+	private static void assertSurfaces(final TankGeometry geometry, final double h,
+			final double outerWall, final double separationWall, final double surface) {
+		assertEquals("outer wall at " + h, outerWall, geometry.outerWallSurface(h), 1.0E-9);
+		assertEquals("separation wall at " + h, separationWall,
+				geometry.separationWallSurface(h), 1.0E-9);
+		assertEquals("free surface at " + h, surface, geometry.freeSurface(h), 1.0E-9);
+	}
+
+	@Test
+	public void lowerPiecesUpToTheBoundary() {
+		final TankGeometry geometry = polynomials(BOUNDARY);
+		assertSurfaces(geometry, BOUNDARY, 1.0, 2.0 + BOUNDARY, 1.0);
+		assertSurfaces(geometry, BOUNDARY - 1.0E-7, 1.0, 2.0 + BOUNDARY - 1.0E-7, 1.0);
+		assertSurfaces(geometry, 0.5, 1.0, 2.5, 1.0);
+	}
+
+	@Test
+	public void upperPiecesAboveTheBoundary() {
+		final TankGeometry geometry = polynomials(BOUNDARY);
+		final double h = BOUNDARY + 1.0E-7;
+		assertSurfaces(geometry, h, 3.0 + h, 5.0, 4.0);
+		assertSurfaces(geometry, 1.5, 4.5, 5.0, 4.0);
+	}
+
+	@Test
+	public void boundaryOnATablePoint() {
+		// 1000 table steps of 1 mm
+		final TankGeometry geometry = polynomials(1.0);
+		assertSurfaces(geometry, 1.0, 1.0, 3.0, 1.0);
+		assertSurfaces(geometry, 1.0 + 1.0E-7, 4.0 + 1.0E-7, 5.0, 4.0);
+		assertSurfaces(geometry, 1.0005, 4.0005, 5.0, 4.0);
+	}
+
+	@Test
+	public void boundaryOutsideTheLevelRange() {
+		assertSurfaces(polynomials(-1.0), 0.0, 3.0, 5.0, 4.0);
+		assertSurfaces(polynomials(5.0), 2.0, 1.0, 4.0, 1.0);
+	}
+
+	@Test
+	public void polynomialsBeyondTheTables() {
+		final TankGeometry geometry = polynomials(BOUNDARY);
+		assertEquals(3.0, geometry.level(1.5), 1.0E-12);
+		assertSurfaces(geometry, 2.5, 5.5, 5.0, 4.0);
+		assertSurfaces(geometry, -0.5, 1.0, 1.5, 1.0);
+	}
+
+	@Test
+	public void levelTableIsMonotone() {
+		// falls between 0.5 and 1 m^3
+		final TankGeometry geometry = TankGeometry.fromPolynomials(1.0,
+				new double[] {0.0, 3.0, -2.0}, BOUNDARY,
+				new double[] {0.0}, new double[] {0.0}, new double[] {0.0},
+				new double[] {0.0}, new double[] {0.0}, new double[] {0.0});
+		double last = geometry.level(0.0);
+		for (double v = 0.0; v <= 1.0; v += 0.001) {
+			final double h = geometry.level(v);
+			assertEquals("level falls at " + v, true, h >= last);
+			last = h;
+		}
+		assertEquals(1.125, geometry.level(1.0), 1.0E-6);
+	}
+
+	@Test
+	public void tablesAtTheirKnots() {
+		// surface steps from 1 to 3 m^2 between 0.4 and 0.401 m
+		final TankGeometry geometry = TankGeometry.fromTables(
+				new double[] {0.0, 0.5, 1.0}, new double[] {0.0, 0.4, 1.0},
+				new double[] {0.0, 0.4, 0.401, 1.0},
+				new double[] {0.0, 2.0, 2.0, 5.0},
+				new double[] {1.0, 1.0, 1.0, 1.0},
+				new double[] {1.0, 1.0, 3.0, 3.0});
+		assertEquals(0.4, geometry.level(0.5), 1.0E-12);
+		assertEquals(0.7, geometry.level(0.75), 1.0E-12);
+		assertEquals(1.0, geometry.freeSurface(0.4), 1.0E-9);
+		assertEquals(3.0, geometry.freeSurface(0.401), 1.0E-9);
+		assertEquals(2.0, geometry.freeSurface(0.4005), 1.0E-9);
+		assertEquals(3.0, geometry.freeSurface(0.7), 1.0E-9);
+		assertEquals(2.0, geometry.outerWallSurface(0.4005), 1.0E-9);
+		// clamped outside of the data
+		assertEquals(1.0, geometry.freeSurface(-0.1), 0.0);
+		assertEquals(5.0, geometry.outerWallSurface(1.2), 0.0);
+		assertEquals(1.0, geometry.level(2.0), 0.0);
+	}
+}
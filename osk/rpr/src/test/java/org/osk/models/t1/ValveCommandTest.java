@@ -0,0 +1,91 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.models.t1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.osk.commands.TelecommandQueue;
+import org.osk.ports.AnalogPort;
+import org.osk.ports.FluidPort;
+import org.osk.telemetry.ModelRegistry;
+
+public class ValveCommandTest {
+
+	private static final double STEP_SIZE = 0.1;
+
+	private final FluidFlowValve valve = new FluidFlowValve();
+	private final ModelRegistry registry = new ModelRegistry();
+	private final TelecommandQueue queue = new TelecommandQueue(registry);
+	private final AnalogPort controlPort = new AnalogPort();
+	private final FluidPort request = new FluidPort();
+
+	@Before
+	public void setUp() {
+		valve.setReferenceMassFlow(10.0);
+		valve.init("FFV18");
+		registry.register("FFV18", valve);
+		controlPort.setAnalogValue(0.2);
+	}
+
+	/**
+	 * Runs the back iteration of the valve for the given steps, the
+	 * commands applied at each boundary like the solver does.
+	 *
+	 * @return the mass flow passed upstream per step
+	 */
+	private double[] run(final int steps) {
+		final double[] flows = new double[steps];
+		for (int step = 0; step < steps; step++) {
+			queue.apply(step * STEP_SIZE);
+			flows[step] = valve.controlBoundary(request, controlPort).getMassflow();
+		}
+		return flows;
+	}
+
+	@Test
+	public void commandOverridesTheControlPort() {
+		queue.submit(0.3, "FFV18.commandedValue", 0.5);
+		final double[] flows = run(6);
+		assertEquals(2.0, flows[0], 1e-12);
+		assertEquals(2.0, flows[2], 1e-12);
+		assertEquals(5.0, flows[3], 1e-12);
+		assertEquals(5.0, flows[5], 1e-12);
+		assertTrue(valve.isCommanded());
+		assertEquals(0.5, valve.getCommandedValue(), 0.0);
+		assertEquals(0.5, valve.getControlValue(), 0.0);
+		assertEquals(1, queue.getAppliedCommands());
+	}
+
+	@Test
+	public void nanReleasesTheValve() {
+		queue.submit(0.1, "FFV18.commandedValue", 1.0);
+		queue.submit(0.2, "FFV18.commandedValue", Double.NaN);
+		final double[] flows = run(3);
+		assertEquals(2.0, flows[0], 1e-12);
+		assertEquals(10.0, flows[1], 1e-12);
+		assertEquals(2.0, flows[2], 1e-12);
+		assertFalse(valve.isCommanded());
+	}
+
+	@Test
+	public void controlValueSetterIsNoCommand() {
+		valve.setControlValue(1.0);
+		assertEquals(1.0, valve.getControlValue(), 0.0);
+		assertFalse(valve.isCommanded());
+		assertEquals(2.0, run(1)[0], 1e-12);
+	}
+
+	@Test
+	public void commandClosesAnUncontrolledValve() {
+		queue.submit(0.0, "FFV18.commandedValue", -1.0);
+		run(1);
+		assertEquals(0.0, valve.controlBoundary(request, null).getMassflow(), 0.0);
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.commands;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+import org.osk.telemetry.ModelRegistry;
+
+/**
+ * Setter of one model attribute, the target of a {@link Telecommand}.
+ * Scalars are set through setX(double), setX(int), setX(long) or
+ * setX(boolean), where booleans are true for values other than 0. Array
+ * elements are set in the array returned by getX(), which is then handed
+ * to setX(double[]) if there is one. The methods are resolved once.
+ */
+final class Setting {
+
+	private static final Class<?>[] SCALARS = {double.class, float.class, int.class, long.class, boolean.class};
+
+	private final Object model;
+	private final Method setter;
+	private final Method getter;
+	/** Array element, -1 for scalars. */
+	private final int element;
+
+	private Setting(final Object model, final Method setter, final Method getter, final int element) {
+		this.model = model;
+		this.setter = setter;
+		this.getter = getter;
+		this.element = element;
+	}
+
+	static Setting resolve(final ModelRegistry registry, final String target) throws OskException {
+		final String[] parts = target.split("\\.");
+		if (parts.length < 2 || parts.length > 3) {
+			throw unknown(target);
+		}
+		final Object model = registry.getModel(parts[0]);
+		if (model == null) {
+			throw unknown(target);
+		}
+		final Class<?> type = model.getClass();
+		final String attribute = parts[1];
+		final String capitalized = Character.toUpperCase(attribute.charAt(0)) + attribute.substring(1);
+		if (parts.length == 2) {
+			for (Class<?> scalar : SCALARS) {
+				Method setter = method(type, "set" + capitalized, scalar);
+				if (setter == null) {
+					setter = method(type, "set" + attribute, scalar);
+				}
+				if (setter != null) {
+					return new Setting(model, setter, null, -1);
+				}
+			}
+			throw unknown(target);
+		}
+		final int element;
+		try {
+			element = Integer.parseInt(parts[2]);
+		} catch (NumberFormatException e) {
+			throw unknown(target);
+		}
+		Method getter = method(type, "get" + capitalized);
+		if (getter == null) {
+			getter = method(type, "get" + attribute);
+		}
+		if (getter == null || getter.getReturnType() != double[].class || element < 0) {
+			throw unknown(target);
+		}
+		Method setter = method(type, "set" + capitalized, double[].class);
+		if (setter == null) {
+			setter = method(type, "set" + attribute, double[].class);
+		}
+		return new Setting(model, setter, getter, element);
+	}
+
+	private static Method method(final Class<?> type, final String name, final Class<?>... parameters) {
+		try {
+			final Method method = type.getMethod(name, parameters);
+			method.setAccessible(true);
+			return method;
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private static OskException unknown(final String target) {
+		return new OskException(new DummyLocalizable("No settable model attribute " + target));
+	}
+
+	void apply(final double value) throws OskException {
+		try {
+			if (element < 0) {
+				setter.invoke(model, convert(setter.getParameterTypes()[0], value));
+				return;
+			}
+			final double[] array = (double[]) getter.invoke(model);
+			if (array == null || element >= array.length) {
+				throw new OskException(new DummyLocalizable("Element " + element + " out of range"));
+			}
+			array[element] = value;
+			if (setter != null) {
+				setter.invoke(model, (Object) array);
+			}
+		} catch (IllegalAccessException e) {
+			throw new OskException(new DummyLocalizable(e.getMessage()));
+		} catch (InvocationTargetException e) {
+			throw new OskException(new DummyLocalizable(String.valueOf(e.getCause())));
+		}
+	}
+
+	private static Object convert(final Class<?> type, final double value) {
+		if (type == double.class) {
+			return value;
+		}
+		if (type == float.class) {
+			return (float) value;
+		}
+		if (type == int.class) {
+			return (int) Math.round(value);
+		}
+		if (type == long.class) {
+			return Math.round(value);
+		}
+		return value != 0.0;
+	}
+}
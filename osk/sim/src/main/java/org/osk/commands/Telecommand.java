@@ -0,0 +1,60 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.commands;
+
+/**
+ * Immutable order to set one model attribute to a value at a mission
+ * time. The target is named like a telemetry signal, model.attribute,
+ * with an element index for arrays, e.g. FFV18.commandedValue or
+ * PReg08.pcoeff.0.
+ *
+ * Commands are ordered by time, and by submission for equal times.
+ */
+public final class Telecommand implements Comparable<Telecommand> {
+
+	private final double time;
+	private final String target;
+	private final double value;
+	private final long sequence;
+
+	Telecommand(final double time, final String target, final double value, final long sequence) {
+		this.time = time;
+		this.target = target;
+		this.value = value;
+		this.sequence = sequence;
+	}
+
+	/** Mission time [s] from which on the command is due. */
+	public double getTime() {
+		return time;
+	}
+
+	public String getTarget() {
+		return target;
+	}
+
+	public double getValue() {
+		return value;
+	}
+
+	/** Submission number, unique per queue. */
+	public long getSequence() {
+		return sequence;
+	}
+
+	@Override
+	public int compareTo(final Telecommand other) {
+		if (time != other.time) {
+			return time < other.time ? -1 : 1;
+		}
+		return sequence < other.sequence ? -1 : sequence == other.sequence ? 0 : 1;
+	}
+
+	@Override
+	public String toString() {
+		return target + "=" + value + " at " + time;
+	}
+}
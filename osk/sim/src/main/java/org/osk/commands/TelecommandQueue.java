@@ -0,0 +1,165 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.commands;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.osk.errors.OskException;
+import org.osk.telemetry.ModelRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Time tagged commands for the running simulation.
+ *
+ * Any thread, e.g. JMX clients or a hardware emulator loop, submits
+ * commands into a lock-free queue; submitting never waits for the
+ * simulation. The solver calls {@link #apply(double)} at every step
+ * boundary, before the step starts. All commands due by then are applied
+ * on the simulation thread in the order of their time tag, and of their
+ * submission for equal tags, so a command sequence known in advance gives
+ * the same run every time. A command is applied at the first boundary at
+ * or after its time tag; one arriving after that boundary has passed is
+ * applied at the next one and counted as late.
+ *
+ * Registered in JMX under org.osk:type=Telecommands.
+ */
+@ApplicationScoped
+public class TelecommandQueue implements TelecommandQueueMXBean {
+
+	public static final String OBJECT_NAME = "org.osk:type=Telecommands";
+	/** Tolerance of the time tags against the summed up step times [s]. */
+	private static final double EPSILON = 1e-9;
+
+	@Inject Logger LOG;
+	@Inject ModelRegistry registry;
+
+	private final Queue<Telecommand> inbox = new ConcurrentLinkedQueue<Telecommand>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong applied = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong late = new AtomicLong();
+
+	// Owned by the simulation thread.
+	private final PriorityQueue<Telecommand> due = new PriorityQueue<Telecommand>();
+	private final Map<String, Setting> settings = new HashMap<String, Setting>();
+	private double boundary = Double.NEGATIVE_INFINITY;
+
+	/** Queue of the container, which injects the registry. */
+	public TelecommandQueue() {
+	}
+
+	/** Queue outside a container, e.g. for batch runs and tests. */
+	public TelecommandQueue(final ModelRegistry registry) {
+		this.registry = registry;
+		this.LOG = LoggerFactory.getLogger(TelecommandQueue.class);
+	}
+
+	@PostConstruct
+	void register() {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(this, name);
+			}
+		} catch (JMException e) {
+			LOG.warn("Telecommand MXBean not registered: {}", e.getMessage());
+		}
+	}
+
+	@PreDestroy
+	void unregister() {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			// shutting down anyway
+		}
+	}
+
+	/** Safe from any thread. */
+	@Override
+	public long submit(final double time, final String target, final double value) {
+		if (Double.isNaN(time) || target == null) {
+			throw new IllegalArgumentException("Telecommand needs a time and a target");
+		}
+		final long number = sequence.incrementAndGet();
+		inbox.offer(new Telecommand(time, target, value, number));
+		return number;
+	}
+
+	/**
+	 * Applies the commands due at the step boundary at the given mission
+	 * time [s]. Called by the solver on the simulation thread.
+	 */
+	public void apply(final double time) {
+		Telecommand command;
+		while ((command = inbox.poll()) != null) {
+			if (command.getTime() <= boundary + EPSILON) {
+				late.incrementAndGet();
+			}
+			due.add(command);
+		}
+		while ((command = due.peek()) != null && command.getTime() <= time + EPSILON) {
+			due.poll();
+			try {
+				setting(command.getTarget()).apply(command.getValue());
+				applied.incrementAndGet();
+			} catch (OskException e) {
+				rejected.incrementAndGet();
+				LOG.warn("Telecommand {} rejected: {}", command, e.getMessage());
+			}
+		}
+		boundary = time;
+	}
+
+	private Setting setting(final String target) throws OskException {
+		Setting setting = settings.get(target);
+		if (setting == null) {
+			setting = Setting.resolve(registry, target);
+			settings.put(target, setting);
+		}
+		return setting;
+	}
+
+	@Override
+	public long getPendingCommands() {
+		return sequence.get() - applied.get() - rejected.get();
+	}
+
+	@Override
+	public long getAppliedCommands() {
+		return applied.get();
+	}
+
+	@Override
+	public long getRejectedCommands() {
+		return rejected.get();
+	}
+
+	@Override
+	public long getLateCommands() {
+		return late.get();
+	}
+}
@@ -0,0 +1,26 @@
+package org.osk.commands;
+
+/**
+ * Commanding of the running simulation over JMX.
+ */
+public interface TelecommandQueueMXBean {
+
+	/**
+	 * Queues a command for the given mission time [s], see
+	 * {@link Telecommand}; a time already passed applies it at the next
+	 * step. Returns its sequence number.
+	 */
+	long submit(double time, String target, double value);
+
+	/** Commands submitted and not yet applied. */
+	long getPendingCommands();
+
+	long getAppliedCommands();
+
+	/** Commands whose target could not be set. */
+	long getRejectedCommands();
+
+	/** Commands that arrived after their step boundary had passed. */
+	long getLateCommands();
+
+}
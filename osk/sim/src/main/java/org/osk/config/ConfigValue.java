@@ -0,0 +1,110 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.config;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+
+/**
+ * Immutable value of one configuration property, parsed once. A value of
+ * whitespace separated numbers, e.g. "300.0 2.5E-3", is numeric and kept as
+ * primitive doubles; any other text is only available as text.
+ */
+public final class ConfigValue {
+
+	private final String key;
+	private final String text;
+	/** Numbers of the value, null if it is not numeric. */
+	private final double[] numbers;
+
+	ConfigValue(final String key, final String text) {
+		this.key = key;
+		this.text = text;
+		this.numbers = text == null ? null : parse(text);
+	}
+
+	/** Numbers of a whitespace separated list, null if any of them is not a number. */
+	static double[] parse(final String text) {
+		final int n = text.length();
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			if (!Character.isWhitespace(text.charAt(i))
+					&& (i == 0 || Character.isWhitespace(text.charAt(i - 1)))) {
+				count++;
+			}
+		}
+		final double[] numbers = new double[count];
+		int start = 0;
+		for (int i = 0; i < count; i++) {
+			while (Character.isWhitespace(text.charAt(start))) {
+				start++;
+			}
+			int end = start;
+			while (end < n && !Character.isWhitespace(text.charAt(end))) {
+				end++;
+			}
+			try {
+				numbers[i] = Double.parseDouble(text.substring(start, end));
+			} catch (NumberFormatException e) {
+				return null;
+			}
+			start = end;
+		}
+		return numbers;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	/** Configured text, null if the property is not set and has no default. */
+	public String getText() {
+		return text;
+	}
+
+	public boolean isSet() {
+		return text != null;
+	}
+
+	public boolean isNumeric() {
+		return numbers != null;
+	}
+
+	/** The single number of the value. */
+	public double asDouble() throws OskException {
+		if (numbers == null || numbers.length != 1) {
+			throw invalid("a number");
+		}
+		return numbers[0];
+	}
+
+	/** The single number of the value, which has to be integral. */
+	public long asLong() throws OskException {
+		final double number = asDouble();
+		if (number != Math.rint(number)) {
+			throw invalid("an integer");
+		}
+		return (long) number;
+	}
+
+	/** Copy of the numbers of the value. */
+	public double[] asDoubleArray() throws OskException {
+		if (numbers == null) {
+			throw invalid("a list of numbers");
+		}
+		return numbers.clone();
+	}
+
+	private OskException invalid(final String expected) {
+		return new OskException(new DummyLocalizable("Configuration " + key + "=" + text
+				+ " is not " + expected));
+	}
+
+	@Override
+	public String toString() {
+		return key + "=" + text;
+	}
+}
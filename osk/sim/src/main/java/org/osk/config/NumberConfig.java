@@ -45,6 +45,7 @@ public @interface NumberConfig
     @Nonbinding
     String defaultValue() default ConfigProperty.NULL;
 
+    /** No longer used, values are parsed as plain Java numbers. */
     @Nonbinding
     String pattern() default "#0.00";
 }
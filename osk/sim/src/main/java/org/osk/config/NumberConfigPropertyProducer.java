@@ -22,91 +22,70 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.Dependent;
 import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.InjectionPoint;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.text.ParseException;
-import java.util.Locale;
+import javax.inject.Inject;
 
 import org.apache.deltaspike.core.spi.config.BaseConfigPropertyProducer;
+import org.osk.errors.OskException;
 
+/**
+ * Produces the values of {@link NumberConfig} injection points from the
+ * {@link SimConfig}, where every property is parsed once. Values are
+ * plain Java numbers, exponents included; a value that is not a number
+ * fails the injection with the property named.
+ */
 @ApplicationScoped
 @SuppressWarnings("UnusedDeclaration")
 public class NumberConfigPropertyProducer extends BaseConfigPropertyProducer
 {
+    @Inject
+    private SimConfig config;
+
+    private ConfigValue value(InjectionPoint injectionPoint)
+    {
+        NumberConfig metaData = getAnnotation(injectionPoint, NumberConfig.class);
+        return config.get(metaData.name(), metaData.defaultValue());
+    }
+
     @Produces
     @Dependent
     @NumberConfig(name = "unused")
-    public double produceDoubleNumberProperty(InjectionPoint injectionPoint) throws ParseException
+    public double produceDoubleNumberProperty(InjectionPoint injectionPoint) throws OskException
     {
-        // resolve the annotation
-        NumberConfig metaData = getAnnotation(injectionPoint, NumberConfig.class);
-
-        // get the configured value from the underlying configuration system
-        String configuredValue = getPropertyValue(metaData.name(), metaData.defaultValue());
-        if (configuredValue == null)
-        {
-            return 9e-99;
-        }
-
-        // format according to the given pattern
-        DecimalFormat df = new DecimalFormat(metaData.pattern(), new DecimalFormatSymbols(Locale.US));
-        return df.parse(configuredValue).doubleValue();
+        ConfigValue value = value(injectionPoint);
+        return value.isSet() ? value.asDouble() : 9e-99;
     }
-    
+
     @Produces
     @Dependent
     @NumberConfig(name = "unused")
-    public float produceFloatNumberProperty(InjectionPoint injectionPoint) throws ParseException
+    public float produceFloatNumberProperty(InjectionPoint injectionPoint) throws OskException
     {
-        // resolve the annotation
-        NumberConfig metaData = getAnnotation(injectionPoint, NumberConfig.class);
-
-        // get the configured value from the underlying configuration system
-        String configuredValue = getPropertyValue(metaData.name(), metaData.defaultValue());
-        if (configuredValue == null)
-        {
-            return 9e-19f;
-        }
-
-        // format according to the given pattern
-        DecimalFormat df = new DecimalFormat(metaData.pattern(), new DecimalFormatSymbols(Locale.US));
-        return df.parse(configuredValue).floatValue();
+        ConfigValue value = value(injectionPoint);
+        return value.isSet() ? (float) value.asDouble() : 9e-19f;
     }
 
     @Produces
     @Dependent
     @NumberConfig(name = "unused")
-    public int produceIntNumberProperty(InjectionPoint injectionPoint) throws ParseException
+    public int produceIntNumberProperty(InjectionPoint injectionPoint) throws OskException
     {
-        // resolve the annotation
-        NumberConfig metaData = getAnnotation(injectionPoint, NumberConfig.class);
-
-        // get the configured value from the underlying configuration system
-        String configuredValue = getPropertyValue(metaData.name(), metaData.defaultValue());
-        if (configuredValue == null)
-        {
-            return -99999999;
-        }
-
-        // format according to the given pattern
-        DecimalFormat df = new DecimalFormat(metaData.pattern(), new DecimalFormatSymbols(Locale.US));
-        return df.parse(configuredValue).intValue();
+        ConfigValue value = value(injectionPoint);
+        return value.isSet() ? (int) value.asLong() : -99999999;
     }
 
-    public long produceLongNumberProperty(InjectionPoint injectionPoint) throws ParseException
+    public long produceLongNumberProperty(InjectionPoint injectionPoint) throws OskException
     {
-        // resolve the annotation
-        NumberConfig metaData = getAnnotation(injectionPoint, NumberConfig.class);
-
-        // get the configured value from the underlying configuration system
-        String configuredValue = getPropertyValue(metaData.name(), metaData.defaultValue());
-        if (configuredValue == null)
-        {
-            return -9999999999999L;
-        }
+        ConfigValue value = value(injectionPoint);
+        return value.isSet() ? value.asLong() : -9999999999999L;
+    }
 
-        // format according to the given pattern
-        DecimalFormat df = new DecimalFormat(metaData.pattern(), new DecimalFormatSymbols(Locale.US));
-        return df.parse(configuredValue).longValue();
+    /** Space separated numbers, e.g. the temperatures along a pipe. */
+    @Produces
+    @Dependent
+    @NumberConfig(name = "unused")
+    public double[] produceDoubleArrayProperty(InjectionPoint injectionPoint) throws OskException
+    {
+        ConfigValue value = value(injectionPoint);
+        return value.isSet() ? value.asDoubleArray() : new double[0];
     }
 }
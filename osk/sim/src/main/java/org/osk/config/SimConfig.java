@@ -0,0 +1,62 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.config;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.apache.deltaspike.core.api.config.ConfigProperty;
+import org.apache.deltaspike.core.api.config.ConfigResolver;
+
+/**
+ * Typed view of the simulation configuration. Every property is looked
+ * up and parsed once into an immutable {@link ConfigValue}; injection
+ * points and models asking for the same property share it. The values
+ * come from the DeltaSpike configuration, i.e. sim.properties and the
+ * system properties overriding it.
+ */
+@ApplicationScoped
+public class SimConfig {
+
+	/** Values by key and default, a default only applies to its lookups. */
+	private final Map<String, ConfigValue> values = new ConcurrentHashMap<String, ConfigValue>();
+
+	/**
+	 * Value of the property, or of the default if it is not configured.
+	 * A default of {@link ConfigProperty#NULL} stands for none.
+	 */
+	public ConfigValue get(final String key, final String defaultValue) {
+		final boolean hasDefault = defaultValue != null && !ConfigProperty.NULL.equals(defaultValue);
+		final String lookup = hasDefault ? key + '\n' + defaultValue : key;
+		ConfigValue value = values.get(lookup);
+		if (value == null) {
+			String text = ConfigResolver.getPropertyValue(key);
+			if (text == null && hasDefault) {
+				text = defaultValue;
+			}
+			value = new ConfigValue(key, text == null ? null : text.trim());
+			values.put(lookup, value);
+		}
+		return value;
+	}
+
+	public ConfigValue get(final String key) {
+		return get(key, null);
+	}
+
+	/** Values looked up so far, by key. */
+	public Map<String, ConfigValue> getValues() {
+		final Map<String, ConfigValue> byKey = new TreeMap<String, ConfigValue>();
+		for (ConfigValue value : values.values()) {
+			byKey.put(value.getKey(), value);
+		}
+		return Collections.unmodifiableMap(byKey);
+	}
+}
@@ -1,20 +1,12 @@
 package org.osk.config;
 
-import java.util.ArrayList;
-import java.util.StringTokenizer;
-
 public class Util {
 	
+	/** Numbers of a space separated list, see {@link ConfigValue}. */
 	public static double[] extractDoubleArray(String values) {
-		StringTokenizer tokenizer = new StringTokenizer(values, " ");		
-		ArrayList<Double> list = new ArrayList<Double>();
-		while (tokenizer.hasMoreTokens()) {
-			Double d = Double.parseDouble(tokenizer.nextToken());
-			list.add(d);
-		}
-		double[] array = new double[list.size()];
-		for (int i=0; i < list.size() ;i++) {
-		    array[i] = list.get(i).doubleValue();
+		double[] array = ConfigValue.parse(values.trim());
+		if (array == null) {
+			throw new NumberFormatException("Not a list of numbers: " + values);
 		}
 		return array;
 	}
@@ -0,0 +1,54 @@
+package org.osk.events;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * Position and velocity in the ECI frame. The structure model owns one
+ * instance and overwrites it every step, observers copy what they keep.
+ */
+public class ECIpv {
+
+    /** Structure SCPosition in ECI frame. */
+    private final double[] scPositionECI = new double[3];
+    /** Structure SCVelocity in ECI frame. */
+    private final double[] scVelocityECI = new double[3];
+
+    /** Copies position and velocity from a state of six values. */
+    public ECIpv set(final double[] state) {
+    	scPositionECI[0] = state[0];
+    	scPositionECI[1] = state[1];
+    	scPositionECI[2] = state[2];
+    	scVelocityECI[0] = state[3];
+    	scVelocityECI[1] = state[4];
+    	scVelocityECI[2] = state[5];
+    	return this;
+    }
+
+    /** Position component, axis 0 to 2 [m]. */
+    public double getPosition(final int axis) {
+    	return scPositionECI[axis];
+    }
+
+    /** Velocity component, axis 0 to 2 [m/s]. */
+    public double getVelocity(final int axis) {
+    	return scVelocityECI[axis];
+    }
+
+    /** Distance from the Earth centre [m]. */
+    public double getRadius() {
+    	return Math.sqrt(scPositionECI[0] * scPositionECI[0]
+    			+ scPositionECI[1] * scPositionECI[1]
+    			+ scPositionECI[2] * scPositionECI[2]);
+    }
+
+    /** Immutable copy, for callers that keep the values. */
+    public PVCoordinates toPVCoordinates() {
+    	return new PVCoordinates(new Vector3D(scPositionECI), new Vector3D(scVelocityECI));
+    }
+
+    @Override
+    public String toString() {
+    	return "{P(" + scPositionECI[0] + ", " + scPositionECI[1] + ", " + scPositionECI[2]
+    			+ "), V(" + scVelocityECI[0] + ", " + scVelocityECI[1] + ", " + scVelocityECI[2] + ")}";
+    }
+}
@@ -0,0 +1,20 @@
+package org.osk.events;
+
+/**
+ * Fired by the solver when all iterations of a time step are done. The
+ * model state is consistent at this point, so observers can publish or
+ * record it.
+ */
+public class StepCompleted {
+	/** Mission time [s] at the end of the step. */
+	public final double time;
+	/** Number of completed steps, starting at 1. */
+	public final long step;
+
+	public StepCompleted(double time, long step) {
+		super();
+		this.time = time;
+		this.step = step;
+	}
+
+}
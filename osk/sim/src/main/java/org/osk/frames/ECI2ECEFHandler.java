@@ -23,8 +23,7 @@ public class ECI2ECEFHandler {
 
 	@Inject TimeHandler timeHandler;
 	@Inject Event<ECEFpv> event;
-	
-	ECEFBuilder builder = new ECEFBuilder();
+	@Inject EarthOrientation earthOrientation;
 	
 	/**
 	 * This methods gathers ECI position/velocity events and 
@@ -33,9 +32,11 @@ public class ECI2ECEFHandler {
 	 * @param posVel
 	 */
 	public void eci2ecefHandler(/*Observes @ECI*/ PVCoordinates posVel) {
-        double mjdMissionTime = (timeHandler.getSimulatedMissionTimeAsDouble()-946684800)/86400;
-        ECEFpv pv = builder.eci2ecef(mjdMissionTime, 0.0, 15, 
-        		posVel.getPosition().toArray(), posVel.getVelocity().toArray());        
-        event.fire(pv);
+        double[] scPositionECEF = new double[3];
+        double[] scVelocityECEF = new double[3];
+        earthOrientation.toEcef(timeHandler.getSimulatedMissionTimeAsDouble(),
+        		posVel.getPosition().toArray(), posVel.getVelocity().toArray(),
+        		scPositionECEF, scVelocityECEF);
+        event.fire(new ECEFpv(scVelocityECEF, scPositionECEF));
 	}
 }
@@ -0,0 +1,259 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.frames;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.osk.config.NumberConfig;
+
+/**
+ * Rotation between the ECI (J2000) and the Earth fixed frame, shared by
+ * all models of the simulation.
+ *
+ * The rotation is the product of the Earth rotation, nutation and
+ * precession matrices of the algorithm in {@link ECEFBuilder}. Precession
+ * and nutation change slowly, their product is therefore only recomputed
+ * when the mission time moves more than the configured cache interval away
+ * from the time it was computed for. Per time step only the Earth rotation
+ * angle is updated. The rotation of the last requested mission time is
+ * kept, so gravity, altitude and telemetry code asking for the same time
+ * step share one evaluation.
+ *
+ * All results are written into arrays supplied by the caller; no method
+ * allocates. Matrices are 3x3 in row major order. Like the models, the
+ * service is meant to be used from the simulation thread only.
+ */
+@ApplicationScoped
+public class EarthOrientation {
+
+	/** Default time [s] after which precession and nutation are recomputed. */
+	public static final double DEFAULT_CACHE_INTERVAL = 3600.0;
+
+	/** Unix time [s] of 2000-01-01T00:00:00Z. */
+	public static final double UNIX_J2000 = 946684800.0;
+	public static final double SECONDS_PER_DAY = 86400.0;
+	/** Rotation angle [rad] between vernal equinox and ECEF x-axis at J2000. */
+	static final double GMST2000 = 1.74476716333061;
+	/** Earth rotational rate [rad/s]. */
+	static final double EARTH_RATE = 7.2921158553E-5;
+	/** Arc seconds to radian, with the value of pi of the original algorithm. */
+	private static final double ARCSEC = 3.14159265 / 180 / 3600;
+	/** Obliquity of the ecliptic at J2000 [rad]. */
+	private static final double OBLIQUITY = 23.43929111 * 3.14159265 / 180;
+
+	private double cacheInterval = DEFAULT_CACHE_INTERVAL;
+	/** UT1 - UTC [s]. */
+	private double ut1MinusUtc = 0.0;
+	/** Leap seconds, TAI - UTC - 19 s as used by the original algorithm. */
+	private double leapSeconds = 15.0;
+
+	/** Nutation times precession, valid around npTime. */
+	private final double[] np = new double[9];
+	private double npTime = Double.NaN;
+	/** Rotation and its time derivative at rotationTime. */
+	private final double[] rotation = new double[9];
+	private final double[] rotationRate = new double[9];
+	private double rotationTime = Double.NaN;
+
+	/**
+	 * ECI to ECEF rotation matrix.
+	 *
+	 * @param missionTime Unix time [s] (UTC)
+	 * @param matrix receives the 3x3 matrix, row major
+	 */
+	public void eci2ecef(final double missionTime, final double[] matrix) {
+		update(missionTime);
+		System.arraycopy(rotation, 0, matrix, 0, 9);
+	}
+
+	public void positionToEcef(final double missionTime, final double[] rEci,
+			final double[] rEcef) {
+		update(missionTime);
+		multiply(rotation, rEci, rEcef);
+	}
+
+	public void positionToEci(final double missionTime, final double[] rEcef,
+			final double[] rEci) {
+		update(missionTime);
+		multiplyTransposed(rotation, rEcef, rEci);
+	}
+
+	/**
+	 * Position and velocity in ECEF. The velocity includes the transport
+	 * term of the Earth rotation.
+	 */
+	public void toEcef(final double missionTime, final double[] rEci, final double[] vEci,
+			final double[] rEcef, final double[] vEcef) {
+		update(missionTime);
+		for (int i = 0; i < 3; i++) {
+			final int row = 3 * i;
+			rEcef[i] = rotation[row] * rEci[0] + rotation[row + 1] * rEci[1]
+					+ rotation[row + 2] * rEci[2];
+			vEcef[i] = rotation[row] * vEci[0] + rotation[row + 1] * vEci[1]
+					+ rotation[row + 2] * vEci[2]
+					+ rotationRate[row] * rEci[0] + rotationRate[row + 1] * rEci[1]
+					+ rotationRate[row + 2] * rEci[2];
+		}
+	}
+
+	private void update(final double missionTime) {
+		if (missionTime == rotationTime) {
+			return;
+		}
+		final double secondsJ2000 = missionTime - UNIX_J2000;
+		if (!(Math.abs(missionTime - npTime) <= cacheInterval)) {
+			precessionNutation(terrestrialDays(secondsJ2000, leapSeconds), np);
+			npTime = missionTime;
+		}
+		final double gmst = GMST2000 + EARTH_RATE * (secondsJ2000 + ut1MinusUtc);
+		final double c = Math.cos(gmst);
+		final double s = Math.sin(gmst);
+		for (int j = 0; j < 3; j++) {
+			final double r0 = c * np[j] + s * np[3 + j];
+			final double r1 = -s * np[j] + c * np[3 + j];
+			rotation[j] = r0;
+			rotation[3 + j] = r1;
+			rotation[6 + j] = np[6 + j];
+			rotationRate[j] = EARTH_RATE * r1;
+			rotationRate[3 + j] = -EARTH_RATE * r0;
+			rotationRate[6 + j] = 0.0;
+		}
+		rotationTime = missionTime;
+	}
+
+	/** Forces recomputation of precession and nutation at the next request. */
+	public void reset() {
+		npTime = Double.NaN;
+		rotationTime = Double.NaN;
+	}
+
+	/**
+	 * Days of terrestrial time since J2000 as used by the original
+	 * algorithm, i.e. counted from midnight.
+	 */
+	static double terrestrialDays(final double secondsJ2000, final double leapSeconds) {
+		return (secondsJ2000 + leapSeconds + 32.194 + 19) / SECONDS_PER_DAY - 0.5;
+	}
+
+	/**
+	 * Nutation times precession matrix N * P.
+	 *
+	 * @param jd2000TT days of terrestrial time since J2000
+	 * @param np receives the 3x3 matrix, row major
+	 */
+	static void precessionNutation(final double jd2000TT, final double[] np) {
+		// date conversion from days to centuries
+		final double T = jd2000TT / 36525;
+		final double T2 = T * T;
+		final double T3 = T2 * T;
+
+		// precession angles zeta, theta, z
+		final double zc = 2306.2181 * T + 0.30188 * T2 + 0.017998 * T3;
+		final double c = zc * ARCSEC;
+		final double t = (2004.3109 * T - 0.42665 * T2 - 0.041833 * T3) * ARCSEC;
+		final double z = (zc + 0.79280 * T2 + 0.000205 * T3) * ARCSEC;
+		final double sc = Math.sin(c);
+		final double cc = Math.cos(c);
+		final double st = Math.sin(t);
+		final double ct = Math.cos(t);
+		final double sz = Math.sin(z);
+		final double cz = Math.cos(z);
+		final double p11 = -sz * sc + cz * ct * cc;
+		final double p21 = cz * sc + sz * ct * cc;
+		final double p31 = st * cc;
+		final double p12 = -sz * cc - cz * ct * sc;
+		final double p22 = cz * cc - sz * ct * sc;
+		final double p32 = -st * sc;
+		final double p13 = -cz * st;
+		final double p23 = -sz * st;
+		final double p33 = ct;
+
+		// longitude of the ascending node of the moon
+		final double om = (125 * 3600 + 2 * 60 + 40.28 - (1934 * 3600 + 8 * 60 + 10.539) * T
+				+ 7.455 * T2 + 0.008 * T3) * ARCSEC;
+		// nutation in longitude and obliquity
+		final double dp = -17.2 * ARCSEC * Math.sin(om);
+		final double de = 9.203 * ARCSEC * Math.cos(om);
+		final double e = OBLIQUITY;
+		final double sdp = Math.sin(dp);
+		final double cdp = Math.cos(dp);
+		final double se = Math.sin(e);
+		final double ce = Math.cos(e);
+		final double sede = Math.sin(e + de);
+		final double cede = Math.cos(e + de);
+		final double n11 = cdp;
+		final double n21 = cede * sdp;
+		final double n31 = sede * sdp;
+		final double n12 = -ce * sdp;
+		final double n22 = ce * cede * cdp + se * sede;
+		final double n32 = ce * sede * cdp - se * cede;
+		final double n13 = -se * sdp;
+		final double n23 = se * cede * cdp - ce * sede;
+		final double n33 = se * sede * cdp + ce * cede;
+
+		np[0] = n11 * p11 + n12 * p21 + n13 * p31;
+		np[1] = n11 * p12 + n12 * p22 + n13 * p32;
+		np[2] = n11 * p13 + n12 * p23 + n13 * p33;
+		np[3] = n21 * p11 + n22 * p21 + n23 * p31;
+		np[4] = n21 * p12 + n22 * p22 + n23 * p32;
+		np[5] = n21 * p13 + n22 * p23 + n23 * p33;
+		np[6] = n31 * p11 + n32 * p21 + n33 * p31;
+		np[7] = n31 * p12 + n32 * p22 + n33 * p32;
+		np[8] = n31 * p13 + n32 * p23 + n33 * p33;
+	}
+
+	static void multiply(final double[] m, final double[] v, final double[] result) {
+		final double x = v[0];
+		final double y = v[1];
+		final double z = v[2];
+		result[0] = m[0] * x + m[1] * y + m[2] * z;
+		result[1] = m[3] * x + m[4] * y + m[5] * z;
+		result[2] = m[6] * x + m[7] * y + m[8] * z;
+	}
+
+	static void multiplyTransposed(final double[] m, final double[] v, final double[] result) {
+		final double x = v[0];
+		final double y = v[1];
+		final double z = v[2];
+		result[0] = m[0] * x + m[3] * y + m[6] * z;
+		result[1] = m[1] * x + m[4] * y + m[7] * z;
+		result[2] = m[2] * x + m[5] * y + m[8] * z;
+	}
+
+	public double getCacheInterval() {
+		return cacheInterval;
+	}
+
+	@Inject
+	public void setCacheInterval(
+			@NumberConfig(name = "frames.cacheInterval", defaultValue = "3600.0") Double cacheInterval) {
+		this.cacheInterval = cacheInterval;
+		reset();
+	}
+
+	public double getUt1MinusUtc() {
+		return ut1MinusUtc;
+	}
+
+	@Inject
+	public void setUt1MinusUtc(
+			@NumberConfig(name = "frames.ut1MinusUtc", defaultValue = "0.0") Double ut1MinusUtc) {
+		this.ut1MinusUtc = ut1MinusUtc;
+		reset();
+	}
+
+	public double getLeapSeconds() {
+		return leapSeconds;
+	}
+
+	@Inject
+	public void setLeapSeconds(
+			@NumberConfig(name = "frames.leapSeconds", defaultValue = "15.0") Double leapSeconds) {
+		this.leapSeconds = leapSeconds;
+		reset();
+	}
+}
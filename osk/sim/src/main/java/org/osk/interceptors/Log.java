@@ -7,6 +7,11 @@ import java.lang.annotation.Target;
 
 import javax.interceptor.InterceptorBinding;
 
+/**
+ * Marks the parts traced by the {@link TracingInterceptor}. The interceptor
+ * is only enabled in the beans.xml of the trace profile; otherwise the
+ * binding has no effect and costs nothing.
+ */
 @InterceptorBinding
 @Target(value = {ElementType.TYPE, ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
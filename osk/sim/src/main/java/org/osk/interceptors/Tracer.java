@@ -0,0 +1,412 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.interceptors;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.Reception;
+import javax.inject.Inject;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.deltaspike.core.api.config.ConfigProperty;
+import org.osk.config.NumberConfig;
+import org.osk.events.BackIter;
+import org.osk.events.Iter;
+import org.osk.events.RegulIter;
+import org.osk.events.StepCompleted;
+import org.osk.events.TimeIter;
+import org.slf4j.Logger;
+
+/**
+ * Records the calls of the traced parts, see {@link TracingInterceptor}.
+ *
+ * Every call is one event: step, part, phase, nesting depth, start and
+ * duration in nanoseconds. The simulation thread writes the events into a
+ * preallocated ring buffer without locking or allocating; a flush thread
+ * writes them as CSV to trace.file every trace.flushMillis. If the flush
+ * thread falls behind and the ring is full, events are dropped and
+ * counted, the simulation does not wait.
+ *
+ * A part is the NAME of the part class, a phase the qualifier of the
+ * observed event: Iter, TimeIter, BackIter, RegulIter, or Other. Tracing
+ * is switched as a whole, per part and per phase over JMX under
+ * org.osk:type=Tracer; trace.parts and trace.phases, both space separated,
+ * give the initial selection, empty for all.
+ */
+@ApplicationScoped
+public class Tracer implements TracerMXBean {
+
+	public static final String OBJECT_NAME = "org.osk:type=Tracer";
+	public static final String OTHER = "Other";
+
+	@SuppressWarnings("unchecked")
+	private static final Class<? extends Annotation>[] PHASES = new Class[] {
+		Iter.class, TimeIter.class, BackIter.class, RegulIter.class };
+
+	@Inject Logger LOG;
+
+	private volatile boolean enabled;
+	private String fileName;
+	private String initialParts;
+	private String initialPhases;
+	private int capacity;
+	private int flushMillis;
+
+	/** Trace point of every intercepted method, a part and phase pair. */
+	private final Map<Method, Integer> points = new ConcurrentHashMap<Method, Integer>();
+	private final List<String> parts = new ArrayList<String>();
+	private final List<String> phases = new ArrayList<String>();
+	private final List<int[]> pointKeys = new ArrayList<int[]>();
+	/** Switches set over JMX or configuration, by part and phase name. */
+	private final Map<String, Boolean> partSwitches = new HashMap<String, Boolean>();
+	private final Map<String, Boolean> phaseSwitches = new HashMap<String, Boolean>();
+	private boolean allParts = true;
+	private boolean allPhases = true;
+	/** Whether a trace point is traced, rebuilt on every change. */
+	private volatile boolean[] active = new boolean[0];
+
+	// Ring buffer, written by the simulation thread only.
+	private int mask;
+	private long[] eventSteps;
+	private int[] eventPoints;
+	private int[] eventDepths;
+	private long[] eventStarts;
+	private long[] eventDurations;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private long step = 1;
+	private int depth;
+	private long origin;
+
+	private volatile boolean running;
+	private Thread flusher;
+	private Writer out;
+
+	@PostConstruct
+	void start() {
+		int size = 1;
+		while (size < capacity) {
+			size <<= 1;
+		}
+		mask = size - 1;
+		eventSteps = new long[size];
+		eventPoints = new int[size];
+		eventDepths = new int[size];
+		eventStarts = new long[size];
+		eventDurations = new long[size];
+		configure(initialParts, partSwitches);
+		configure(initialPhases, phaseSwitches);
+		allParts = partSwitches.isEmpty();
+		allPhases = phaseSwitches.isEmpty();
+		origin = System.nanoTime();
+		try {
+			out = new BufferedWriter(new FileWriter(fileName));
+			out.write("step,part,phase,depth,startNanos,durationNanos\n");
+		} catch (IOException e) {
+			LOG.error("Tracing disabled, cannot write {}: {}", fileName, e.getMessage());
+			enabled = false;
+			return;
+		}
+		running = true;
+		flusher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				flushLoop();
+			}
+		}, "osk-trace-flush");
+		flusher.setDaemon(true);
+		flusher.start();
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(this, name);
+			}
+		} catch (JMException e) {
+			LOG.warn("Tracer MXBean not registered: {}", e.getMessage());
+		}
+		LOG.info("Tracing part calls to {}", fileName);
+	}
+
+	private static void configure(final String names, final Map<String, Boolean> switches) {
+		final StringTokenizer tokenizer = new StringTokenizer(names, " ");
+		while (tokenizer.hasMoreTokens()) {
+			switches.put(tokenizer.nextToken(), Boolean.TRUE);
+		}
+	}
+
+	@PreDestroy
+	void stop() {
+		running = false;
+		if (flusher != null) {
+			flusher.interrupt();
+			try {
+				flusher.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			// shutting down anyway
+		}
+		if (dropped.get() > 0) {
+			LOG.warn("Tracing dropped {} events, increase trace.bufferSize", dropped.get());
+		}
+	}
+
+	/** Counts the steps once tracing runs, does not create the tracer. */
+	public void step(@Observes(notifyObserver = Reception.IF_EXISTS) StepCompleted completed) {
+		step = completed.step + 1;
+	}
+
+	/** Trace point of the method, registered on its first call. */
+	int point(final Method method) {
+		final Integer point = points.get(method);
+		return point != null ? point : register(method);
+	}
+
+	private synchronized int register(final Method method) {
+		Integer point = points.get(method);
+		if (point == null) {
+			final int part = index(parts, partName(method.getDeclaringClass()));
+			final int phase = index(phases, phaseName(method));
+			point = pointKeys.size();
+			pointKeys.add(new int[] {part, phase});
+			points.put(method, point);
+			activate();
+		}
+		return point;
+	}
+
+	private static int index(final List<String> names, final String name) {
+		int index = names.indexOf(name);
+		if (index < 0) {
+			index = names.size();
+			names.add(name);
+		}
+		return index;
+	}
+
+	private static String partName(final Class<?> type) {
+		try {
+			final Field field = type.getField("NAME");
+			if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+				return (String) field.get(null);
+			}
+		} catch (NoSuchFieldException e) {
+			// no part name, use the class name
+		} catch (IllegalAccessException e) {
+			// no part name, use the class name
+		}
+		return type.getSimpleName();
+	}
+
+	private static String phaseName(final Method method) {
+		for (Annotation[] annotations : method.getParameterAnnotations()) {
+			for (Annotation annotation : annotations) {
+				for (Class<? extends Annotation> phase : PHASES) {
+					if (annotation.annotationType() == phase) {
+						return phase.getSimpleName();
+					}
+				}
+			}
+		}
+		return OTHER;
+	}
+
+	/** Rebuilds the switches of all trace points, holding the lock. */
+	private void activate() {
+		final boolean[] next = new boolean[pointKeys.size()];
+		for (int i = 0; i < next.length; i++) {
+			final int[] key = pointKeys.get(i);
+			next[i] = isOn(partSwitches, allParts, parts.get(key[0]))
+					&& isOn(phaseSwitches, allPhases, phases.get(key[1]));
+		}
+		active = next;
+	}
+
+	private static boolean isOn(final Map<String, Boolean> switches, final boolean all, final String name) {
+		final Boolean on = switches.get(name);
+		return on != null ? on : all;
+	}
+
+	boolean isActive(final int point) {
+		return active[point];
+	}
+
+	/** Enters a traced call, returns its nesting depth. */
+	int enter() {
+		return depth++;
+	}
+
+	/** Records a traced call, called by the simulation thread only. */
+	void exit(final int point, final int callDepth, final long start, final long duration) {
+		depth = callDepth;
+		final long h = head.get();
+		if (h - tail.get() > mask) {
+			dropped.incrementAndGet();
+			return;
+		}
+		final int slot = (int) h & mask;
+		eventSteps[slot] = step;
+		eventPoints[slot] = point;
+		eventDepths[slot] = callDepth;
+		eventStarts[slot] = start - origin;
+		eventDurations[slot] = duration;
+		head.lazySet(h + 1);
+	}
+
+	private void flushLoop() {
+		while (running) {
+			drain();
+			try {
+				Thread.sleep(flushMillis);
+			} catch (InterruptedException e) {
+				// stopping, write what is left
+			}
+		}
+		drain();
+		try {
+			out.close();
+		} catch (IOException e) {
+			LOG.warn("Closing the trace file failed: {}", e.getMessage());
+		}
+	}
+
+	private void drain() {
+		final long h = head.get();
+		long t = tail.get();
+		if (t == h) {
+			return;
+		}
+		// every point of the events up to h is registered by now
+		final String[] pointNames;
+		synchronized (this) {
+			pointNames = new String[pointKeys.size()];
+			for (int i = 0; i < pointNames.length; i++) {
+				final int[] key = pointKeys.get(i);
+				pointNames[i] = parts.get(key[0]) + ',' + phases.get(key[1]);
+			}
+		}
+		final StringBuilder line = new StringBuilder(80);
+		try {
+			for (; t < h; t++) {
+				final int slot = (int) t & mask;
+				line.setLength(0);
+				line.append(eventSteps[slot]).append(',').append(pointNames[eventPoints[slot]])
+						.append(',').append(eventDepths[slot]).append(',').append(eventStarts[slot])
+						.append(',').append(eventDurations[slot]).append('\n');
+				out.append(line);
+				tail.lazySet(t + 1);
+			}
+			out.flush();
+		} catch (IOException e) {
+			LOG.error("Writing the trace failed, tracing stopped: {}", e.getMessage());
+			enabled = false;
+			running = false;
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(final boolean enabled) {
+		this.enabled = enabled && running;
+	}
+
+	@Override
+	public synchronized String[] getParts() {
+		return parts.toArray(new String[parts.size()]);
+	}
+
+	@Override
+	public synchronized String[] getPhases() {
+		return phases.toArray(new String[phases.size()]);
+	}
+
+	@Override
+	public synchronized void setPartEnabled(final String part, final boolean on) {
+		partSwitches.put(part, on);
+		activate();
+	}
+
+	@Override
+	public synchronized void setPhaseEnabled(final String phase, final boolean on) {
+		phaseSwitches.put(phase, on);
+		activate();
+	}
+
+	@Override
+	public long getWrittenEvents() {
+		return tail.get();
+	}
+
+	@Override
+	public long getDroppedEvents() {
+		return dropped.get();
+	}
+
+	@Inject
+	void initEnabled(@ConfigProperty(name = "trace.enabled", defaultValue = "true") String value) {
+		enabled = Boolean.parseBoolean(value.trim());
+	}
+
+	@Inject
+	void initFile(@ConfigProperty(name = "trace.file", defaultValue = "trace.csv") String value) {
+		fileName = value.trim();
+	}
+
+	@Inject
+	void initParts(@ConfigProperty(name = "trace.parts", defaultValue = "") String value) {
+		initialParts = value == null ? "" : value.trim();
+	}
+
+	@Inject
+	void initPhases(@ConfigProperty(name = "trace.phases", defaultValue = "") String value) {
+		initialPhases = value == null ? "" : value.trim();
+	}
+
+	@Inject
+	void initBufferSize(@NumberConfig(name = "trace.bufferSize", defaultValue = "65536") Integer value) {
+		capacity = value;
+	}
+
+	@Inject
+	void initFlushMillis(@NumberConfig(name = "trace.flushMillis", defaultValue = "200") Integer value) {
+		flushMillis = value;
+	}
+}
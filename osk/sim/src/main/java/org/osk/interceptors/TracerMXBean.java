@@ -0,0 +1,30 @@
+package org.osk.interceptors;
+
+/**
+ * Runtime control of the {@link Tracer}.
+ */
+public interface TracerMXBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	/** Parts seen so far. */
+	String[] getParts();
+
+	/** Phases seen so far, Iter, TimeIter, BackIter, RegulIter or Other. */
+	String[] getPhases();
+
+	/** Traces the part, or stops tracing it. Unknown parts are remembered. */
+	void setPartEnabled(String part, boolean enabled);
+
+	/** Traces the phase, or stops tracing it. Unknown phases are remembered. */
+	void setPhaseEnabled(String phase, boolean enabled);
+
+	/** Events written to the trace file. */
+	long getWrittenEvents();
+
+	/** Events lost because the ring buffer was full. */
+	long getDroppedEvents();
+
+}
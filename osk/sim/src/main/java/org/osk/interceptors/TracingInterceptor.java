@@ -0,0 +1,48 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.interceptors;
+
+import java.io.Serializable;
+
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+
+/**
+ * Times the calls of the {@link Log} parts into the {@link Tracer}.
+ *
+ * Enabled only by the beans.xml of the trace build profile
+ * (mvn -Ptrace); the default beans.xml leaves it out, so the parts are
+ * called without any interception. When enabled, a disabled part or
+ * phase costs a lookup and the call goes on untraced.
+ */
+@Log
+@Interceptor
+public class TracingInterceptor implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Inject Tracer tracer;
+
+	@AroundInvoke
+	public Object trace(InvocationContext context) throws Exception {
+		if (!tracer.isEnabled()) {
+			return context.proceed();
+		}
+		final int point = tracer.point(context.getMethod());
+		if (!tracer.isActive(point)) {
+			return context.proceed();
+		}
+		final int depth = tracer.enter();
+		final long start = System.nanoTime();
+		try {
+			return context.proceed();
+		} finally {
+			tracer.exit(point, depth, start, System.nanoTime() - start);
+		}
+	}
+}
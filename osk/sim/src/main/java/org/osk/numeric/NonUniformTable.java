@@ -0,0 +1,75 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+import java.util.Arrays;
+
+/**
+ * One dimensional lookup table on an arbitrary, strictly increasing grid,
+ * e.g. for data points taken from CAD models or data sheets. The enclosing
+ * interval is found by binary search and interpolated linearly.
+ *
+ * Abscissa values outside of the table range are clamped to the first
+ * or last table value.
+ */
+public final class NonUniformTable {
+
+	private final double[] x;
+	private final double[] y;
+
+	/**
+	 * @param x strictly increasing abscissa values, at least two
+	 * @param y table values, same length as x
+	 */
+	public NonUniformTable(final double[] x, final double[] y) {
+		if (x.length < 2 || x.length != y.length) {
+			throw new IllegalArgumentException("NonUniformTable needs at least two"
+					+ " points and as many values as abscissas");
+		}
+		for (int i = 1; i < x.length; i++) {
+			if (!(x[i] > x[i - 1])) {
+				throw new IllegalArgumentException("NonUniformTable abscissas"
+						+ " must be strictly increasing");
+			}
+		}
+		this.x = x.clone();
+		this.y = y.clone();
+	}
+
+	public boolean contains(final double value) {
+		return value >= x[0] && value <= x[x.length - 1];
+	}
+
+	public double value(final double value) {
+		if (value <= x[0]) {
+			return y[0];
+		}
+		final int last = x.length - 1;
+		if (value >= x[last]) {
+			return y[last];
+		}
+		int i = Arrays.binarySearch(x, value);
+		if (i >= 0) {
+			return y[i];
+		}
+		// Insertion point is the index of the first greater abscissa
+		i = -i - 2;
+		final double fraction = (value - x[i]) / (x[i + 1] - x[i]);
+		return y[i] + fraction * (y[i + 1] - y[i]);
+	}
+
+	public double getXMin() {
+		return x[0];
+	}
+
+	public double getXMax() {
+		return x[x.length - 1];
+	}
+
+	public int size() {
+		return x.length;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+/**
+ * Nozzle exit pressure from chamber pressure for an adiabatic isentropic
+ * 1D-flow. Source: Space Propulsion Analysis and Design p.102 3.100.
+ *
+ * The supersonic solution r = pe/pc of the area ratio equation
+ * <pre>
+ *    areaRatio/t1 = r^(-1/k) * (1 - r^((k-1)/k))^(-1/2)
+ *    t1           = (2/(k+1))^(1/(k-1)) * ((k+1)/(k-1))^(-1/2)
+ * </pre>
+ * lies between 0 and the critical pressure ratio. The equation is solved
+ * in logarithmic form for u = ln(r),
+ * <pre>
+ *    h(u) = ln(areaRatio/t1) + u/k + ln(1 - exp(u*(k-1)/k))/2 = 0
+ * </pre>
+ * which is nearly linear in u. Newton steps are safeguarded with bisection
+ * on the bracket where h changes sign, so the iteration always converges
+ * for k &gt; 1 and areaRatio &gt; 1. It starts from the pressure ratio of
+ * the previous call, which changes little from one time step to the next,
+ * so one to three steps are usually enough.
+ *
+ * One instance holds the warm start state of one nozzle and is not thread
+ * safe.
+ */
+public final class NozzleExitPressure {
+
+	private static final int MAX_ITERATIONS = 60;
+	private static final double TOLERANCE = 1.E-12;
+	/** Lower end of the bracket, ln of the pressure ratio 1E-12. */
+	private static final double LN_RMIN = Math.log(1.E-12);
+
+	/** Pressure ratio pe/pc of the last call, 0 if none yet. */
+	private double lastRatio;
+	/** Iterations of the last call, for monitoring. */
+	private int lastIterations;
+
+	/**
+	 * @param k isentropic exponent of the combustion gas
+	 * @param areaRatio nozzle area ratio
+	 * @param pc chamber pressure
+	 * @return nozzle exit pressure pe in the unit of pc
+	 * @throws IllegalArgumentException for k &lt;= 1 or areaRatio &lt;= 1
+	 */
+	public double solve(final double k, final double areaRatio, final double pc) {
+		return ratio(k, areaRatio) * pc;
+	}
+
+	/**
+	 * @return pressure ratio pe/pc of the supersonic solution
+	 */
+	public double ratio(final double k, final double areaRatio) {
+		if (!(k > 1.) || !(areaRatio > 1.)) {
+			throw new IllegalArgumentException("Nozzle solution needs k > 1 and"
+					+ " area ratio > 1, got k=" + k + ", area ratio=" + areaRatio);
+		}
+		/* k dependent constants, computed once per call */
+		final double b = (k - 1.) / k;
+		final double invK = 1. / k;
+		final double t1 = Math.pow(2. / (k + 1.), 1. / (k - 1.))
+				/ Math.sqrt((k + 1.) / (k - 1.));
+		final double lnC = Math.log(areaRatio / t1);
+
+		/* Bracket in u = ln(r) with h(lo) < 0 < h(hi) */
+		double lo = LN_RMIN;
+		double hi = Math.log(2. / (k + 1.)) / b;
+		double u = lastRatio > 0. ? Math.log(lastRatio) : 0.5 * (lo + hi);
+		if (!(u > lo && u < hi)) {
+			u = 0.5 * (lo + hi);
+		}
+		int i = 0;
+		while (i < MAX_ITERATIONS) {
+			i++;
+			final double s = Math.exp(b * u);
+			final double h = lnC + u * invK + 0.5 * Math.log(1. - s);
+			if (h < 0) {
+				lo = u;
+			} else {
+				hi = u;
+			}
+			final double dh = invK - 0.5 * b * s / (1. - s);
+			double next = u - h / dh;
+			if (!(next >= lo && next <= hi)) {
+				next = 0.5 * (lo + hi);
+			}
+			final double du = next - u;
+			u = next;
+			if (Math.abs(du) <= TOLERANCE) {
+				break;
+			}
+		}
+		final double r = Math.exp(u);
+		lastIterations = i;
+		lastRatio = r;
+		return r;
+	}
+
+	/** Forgets the warm start value. */
+	public void reset() {
+		lastRatio = 0.;
+	}
+
+	public int getLastIterations() {
+		return lastIterations;
+	}
+}
@@ -8,6 +8,11 @@ public class NumericalUtils {
     *    Iterative Newton-method                                               *
     *                                                                          *
     ***************************************************************************/
+    /**
+     * @deprecated fixed start value and no safeguard, returns 0.0 on failure.
+     *             Use {@link NozzleExitPressure} instead.
+     */
+    @Deprecated
     public static double newton(final double k, final double areaRatio,
                          final double pc) {
         double newp;
@@ -0,0 +1,85 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+import java.util.Arrays;
+
+/**
+ * Function composed of polynomial pieces separated by breakpoints.
+ * For n breakpoints there are n+1 pieces. Piece i is used for abscissa
+ * values up to and including breakpoint i, the last piece for values
+ * above the last breakpoint:
+ * <pre>
+ *    piece 0:  x &lt;= b[0]
+ *    piece i:  b[i-1] &lt; x &lt;= b[i]
+ *    piece n:  x &gt; b[n-1]
+ * </pre>
+ * This is the convention of the boundary fill levels in the tank models,
+ * where the lower polynomial is used up to and including the boundary level.
+ */
+public final class PiecewisePolynomial {
+
+	private final double[] breakpoints;
+	private final Polynomial[] pieces;
+
+	/**
+	 * @param breakpoints strictly increasing breakpoints
+	 * @param pieces one polynomial more than breakpoints
+	 */
+	public PiecewisePolynomial(final double[] breakpoints, final Polynomial[] pieces) {
+		if (pieces.length != breakpoints.length + 1) {
+			throw new IllegalArgumentException("PiecewisePolynomial needs one"
+					+ " piece more than breakpoints");
+		}
+		for (int i = 1; i < breakpoints.length; i++) {
+			if (!(breakpoints[i] > breakpoints[i - 1])) {
+				throw new IllegalArgumentException("PiecewisePolynomial breakpoints"
+						+ " must be strictly increasing");
+			}
+		}
+		this.breakpoints = breakpoints.clone();
+		this.pieces = pieces.clone();
+	}
+
+	/**
+	 * Convenience constructor for two pieces split at one breakpoint.
+	 */
+	public PiecewisePolynomial(final Polynomial lower, final double breakpoint,
+			final Polynomial upper) {
+		this(new double[] {breakpoint}, new Polynomial[] {lower, upper});
+	}
+
+	public double value(final double x) {
+		return pieces[pieceIndex(x)].value(x);
+	}
+
+	/**
+	 * @return the first derivative, piece by piece
+	 */
+	public PiecewisePolynomial derivative() {
+		final Polynomial[] d = new Polynomial[pieces.length];
+		for (int i = 0; i < pieces.length; i++) {
+			d[i] = pieces[i].derivative();
+		}
+		return new PiecewisePolynomial(breakpoints, d);
+	}
+
+	private int pieceIndex(final double x) {
+		// Few breakpoints are the common case, a linear scan beats a
+		// binary search there.
+		int i = 0;
+		while (i < breakpoints.length && x > breakpoints[i]) {
+			i++;
+		}
+		return i;
+	}
+
+	@Override
+	public String toString() {
+		return "PiecewisePolynomial[breakpoints=" + Arrays.toString(breakpoints)
+				+ ", pieces=" + Arrays.toString(pieces) + "]";
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+import java.util.Arrays;
+
+/**
+ * Polynomial with constant coefficients, evaluated by the Horner scheme.
+ * A polynomial of degree n costs n multiplications and n additions per
+ * evaluation, instead of n calls of {@link Math#pow(double, double)}.
+ *
+ * Coefficients are given in ascending order of the power, the same order
+ * the coefficient arrays of the input decks use:
+ * <pre>
+ *    p(x) = c[0] + c[1]*x + c[2]*x^2 + ... + c[n]*x^n
+ * </pre>
+ */
+public final class Polynomial {
+
+	private final double[] coefficients;
+
+	/**
+	 * @param coefficients coefficients in ascending order of the power,
+	 *                     at least one
+	 */
+	public Polynomial(final double... coefficients) {
+		if (coefficients.length == 0) {
+			throw new IllegalArgumentException("Polynomial needs at least one"
+					+ " coefficient");
+		}
+		this.coefficients = coefficients.clone();
+	}
+
+	public double value(final double x) {
+		final double[] c = coefficients;
+		double result = c[c.length - 1];
+		for (int i = c.length - 2; i >= 0; i--) {
+			result = result * x + c[i];
+		}
+		return result;
+	}
+
+	/**
+	 * @return the first derivative of this polynomial
+	 */
+	public Polynomial derivative() {
+		if (coefficients.length == 1) {
+			return new Polynomial(0.0);
+		}
+		final double[] d = new double[coefficients.length - 1];
+		for (int i = 1; i < coefficients.length; i++) {
+			d[i - 1] = i * coefficients[i];
+		}
+		return new Polynomial(d);
+	}
+
+	public int degree() {
+		return coefficients.length - 1;
+	}
+
+	public double[] getCoefficients() {
+		return coefficients.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "Polynomial" + Arrays.toString(coefficients);
+	}
+}
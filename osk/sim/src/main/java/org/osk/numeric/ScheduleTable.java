@@ -0,0 +1,133 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+import java.util.Arrays;
+
+/**
+ * Time schedule of setpoints for one control channel, e.g. a throttle
+ * profile. Between the breakpoints the value is either held from the last
+ * breakpoint or interpolated linearly. Before the first breakpoint the
+ * first value, after the last breakpoint the last value applies.
+ *
+ * Lookups remember the interval of the previous lookup. Simulation time
+ * advances in small steps, so the next lookup is found by checking the
+ * same or the following interval, which costs O(1) independently of the
+ * number of breakpoints. Larger jumps, also backwards, fall back to a
+ * binary search. Because of that cursor an instance must not be shared
+ * between threads.
+ */
+public final class ScheduleTable {
+
+	public enum Interpolation {
+		/** Hold the value of the last breakpoint. */
+		STEP,
+		/** Interpolate linearly between breakpoints. */
+		LINEAR
+	}
+
+	private final double[] times;
+	private final double[] values;
+	private final Interpolation interpolation;
+	/** Index of the breakpoint at or before the last looked up time. */
+	private int cursor;
+
+	/**
+	 * @param times strictly increasing breakpoint times, at least one
+	 * @param values setpoints, same length as times
+	 */
+	public ScheduleTable(final double[] times, final double[] values,
+			final Interpolation interpolation) {
+		if (times.length < 1 || times.length != values.length) {
+			throw new IllegalArgumentException("ScheduleTable needs at least one"
+					+ " breakpoint and as many values as times");
+		}
+		for (int i = 1; i < times.length; i++) {
+			if (!(times[i] > times[i - 1])) {
+				throw new IllegalArgumentException("ScheduleTable times must be"
+						+ " strictly increasing, found " + times[i] + " after " + times[i - 1]);
+			}
+		}
+		this.times = times.clone();
+		this.values = values.clone();
+		this.interpolation = interpolation;
+	}
+
+	/**
+	 * Schedule from alternating time and value entries, e.g. as read with
+	 * {@link org.osk.config.Util#extractDoubleArray(String)} from a
+	 * property "0.0 0.2 10.0 0.8 120.0 0.0".
+	 */
+	public static ScheduleTable fromPairs(final double[] pairs,
+			final Interpolation interpolation) {
+		if (pairs.length % 2 != 0) {
+			throw new IllegalArgumentException("ScheduleTable needs time/value pairs,"
+					+ " got " + pairs.length + " numbers");
+		}
+		final double[] times = new double[pairs.length / 2];
+		final double[] values = new double[pairs.length / 2];
+		for (int i = 0; i < times.length; i++) {
+			times[i] = pairs[2 * i];
+			values[i] = pairs[2 * i + 1];
+		}
+		return new ScheduleTable(times, values, interpolation);
+	}
+
+	public double value(final double time) {
+		final int last = times.length - 1;
+		if (time <= times[0]) {
+			cursor = 0;
+			return values[0];
+		}
+		if (time >= times[last]) {
+			cursor = last;
+			return values[last];
+		}
+		// times[0] < time < times[last], so the interval i, i + 1 exists
+		int i = cursor;
+		if (time < times[i]) {
+			i = search(time);
+		} else if (time >= times[i + 1]) {
+			i++;
+			if (time >= times[i + 1]) {
+				i = search(time);
+			}
+		}
+		cursor = i;
+		if (interpolation == Interpolation.STEP) {
+			return values[i];
+		}
+		final double fraction = (time - times[i]) / (times[i + 1] - times[i]);
+		return values[i] + fraction * (values[i + 1] - values[i]);
+	}
+
+	/** Index of the last breakpoint at or before the given inner time. */
+	private int search(final double time) {
+		final int i = Arrays.binarySearch(times, time);
+		return i >= 0 ? i : -i - 2;
+	}
+
+	/** Rewinds the cursor, e.g. when the simulation restarts. */
+	public void reset() {
+		cursor = 0;
+	}
+
+	public Interpolation getInterpolation() {
+		return interpolation;
+	}
+
+	public double getStartTime() {
+		return times[0];
+	}
+
+	public double getEndTime() {
+		return times[times.length - 1];
+	}
+
+	public int size() {
+		return times.length;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+/**
+ * One dimensional lookup table sampled on an equidistant grid.
+ * The index of the enclosing interval is computed directly from the
+ * abscissa, so a lookup costs one multiplication and one linear
+ * interpolation independently of the table size.
+ *
+ * Abscissa values outside of the table range are clamped to the first
+ * or last table value. Callers that need a different behaviour check
+ * {@link #contains(double)} first.
+ */
+public final class UniformTable {
+
+	private final double xMin;
+	private final double xMax;
+	private final double step;
+	private final double invStep;
+	private final double[] values;
+
+	/**
+	 * @param xMin abscissa of the first table value
+	 * @param xMax abscissa of the last table value
+	 * @param values table values, at least two, equally spaced over
+	 *               [xMin, xMax]
+	 */
+	public UniformTable(final double xMin, final double xMax, final double[] values) {
+		if (values.length < 2 || !(xMax > xMin)) {
+			throw new IllegalArgumentException("UniformTable needs at least two"
+					+ " values over a non empty range");
+		}
+		this.xMin = xMin;
+		this.xMax = xMax;
+		this.values = values.clone();
+		this.step = (xMax - xMin) / (values.length - 1);
+		this.invStep = 1.0 / step;
+	}
+
+	public boolean contains(final double x) {
+		return x >= xMin && x <= xMax;
+	}
+
+	public double value(final double x) {
+		if (x <= xMin) {
+			return values[0];
+		}
+		if (x >= xMax) {
+			return values[values.length - 1];
+		}
+		final double position = (x - xMin) * invStep;
+		int i = (int) position;
+		if (i >= values.length - 1) {
+			i = values.length - 2;
+		}
+		final double fraction = position - i;
+		return values[i] + fraction * (values[i + 1] - values[i]);
+	}
+
+	public double getXMin() {
+		return xMin;
+	}
+
+	public double getXMax() {
+		return xMax;
+	}
+
+	public double getStep() {
+		return step;
+	}
+
+	public int size() {
+		return values.length;
+	}
+}
@@ -6,12 +6,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Fluid line connection dataset.
+ *
+ * A port is a slot owned by the component that writes it. The component
+ * overwrites the same instance in every iteration and the connected
+ * component reads it within that iteration, so ports are not allocated
+ * while the simulation runs. Consumers that need a value beyond the
+ * current iteration copy it with {@link #set(FluidPort)}.
  *
  * @author A. Brandt
  */
 public class FluidPort  {
     private static final Logger LOG = LoggerFactory.getLogger(FluidPort.class);
-     private String fluid;
+     /** Fluid id from {@link Fluids}. */
+     private int fluidId = Fluids.NONE;
      private double pressure;
      private double temperature;
      private double massflow;
@@ -25,7 +33,7 @@ public class FluidPort  {
 
     public FluidPort(String fluid, final double pressure, 
     		final double temperature, final double massflow) {
-    	this.fluid = fluid;
+    	this.fluidId = Fluids.id(fluid);
     	this.massflow = massflow;
         assert temperature >= 0.0;
         this.temperature = temperature;
@@ -34,20 +42,53 @@ public class FluidPort  {
     
     public FluidPort(final String name, String fluid, final double pressure, 
     		final double temperature, final double massflow) {
-        this(name, pressure, temperature, massflow);
+        this(fluid, pressure, temperature, massflow);
     }
     
 	public FluidPort clone() {
-		FluidPort outputPort = new FluidPort();
-		outputPort.setFluid(fluid);
-		outputPort.setPressure(pressure);
-		outputPort.setTemperature(temperature);
-		outputPort.setMassflow(massflow);
-		return outputPort;
+		return new FluidPort().set(this);
+	}
+
+	/** Copies all values of the given port into this one. */
+	public FluidPort set(final FluidPort port) {
+		fluidId = port.fluidId;
+		pressure = port.pressure;
+		temperature = port.temperature;
+		massflow = port.massflow;
+		return this;
+	}
+
+	/** Sets all values at once. */
+	public FluidPort set(final int fluidId, final double pressure,
+			final double temperature, final double massflow) {
+		assert pressure >= 0.0;
+		assert temperature >= 0.0;
+		this.fluidId = fluidId;
+		this.pressure = pressure;
+		this.temperature = temperature;
+		this.massflow = massflow;
+		return this;
+	}
+
+	/** Resets the port to no fluid and zero values. */
+	public FluidPort clear() {
+		fluidId = Fluids.NONE;
+		pressure = 0.0;
+		temperature = 0.0;
+		massflow = 0.0;
+		return this;
 	}
 	
     public void setFluid(final String fluid) {
-        this.fluid = fluid;
+        this.fluidId = Fluids.id(fluid);
+    }
+
+    public void setFluidId(final int fluidId) {
+        this.fluidId = fluidId;
+    }
+
+    public int getFluidId() {
+        return fluidId;
     }
 
     public void setPressure(final double pressure) {
@@ -67,7 +108,7 @@ public class FluidPort  {
  
     @ManagedAttribute
     public String getFluid() {
-        return fluid;
+        return Fluids.name(fluidId);
     }
 
     @ManagedAttribute
@@ -87,7 +128,7 @@ public class FluidPort  {
 
  
      public void printValues(final String txt) {
-        LOG.info("Fluid: {}", fluid);
+        LOG.info("Fluid: {}", getFluid());
         LOG.info("Pressure: {}", pressure);
         LOG.info("Temperature: {}", temperature);
         LOG.info("Mass Flow: {}", massflow);
@@ -99,7 +140,7 @@ public class FluidPort  {
         StringBuilder result = new StringBuilder();
 
         result.append(": fluid == ");
-        result.append(fluid);
+        result.append(getFluid());
         result.append("; pressure == ");
         result.append(pressure);
         result.append(" bar ; temperature == ");
@@ -0,0 +1,50 @@
+package org.osk.ports;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of the fluid names carried by {@link FluidPort}s. Every name is
+ * mapped once to a small integer id, so ports store and copy an int
+ * instead of a String and fluids are compared with ==.
+ *
+ * Id {@link #NONE} stands for a port without fluid.
+ */
+public final class Fluids {
+
+	/** Id of a port that carries no fluid. */
+	public static final int NONE = 0;
+
+	private static final Map<String, Integer> IDS = new HashMap<String, Integer>();
+	/** Names by id, replaced as a whole when a fluid is added. */
+	private static volatile String[] names = {null};
+
+	private Fluids() {
+	}
+
+	/**
+	 * Id of the given fluid name, registering it on first use. Models call
+	 * this during initialisation, the iterations only copy ids.
+	 */
+	public static synchronized int id(final String name) {
+		if (name == null) {
+			return NONE;
+		}
+		final Integer id = IDS.get(name);
+		if (id != null) {
+			return id.intValue();
+		}
+		final int newId = names.length;
+		final String[] extended = Arrays.copyOf(names, newId + 1);
+		extended[newId] = name;
+		IDS.put(name, Integer.valueOf(newId));
+		names = extended;
+		return newId;
+	}
+
+	/** Name of the fluid with the given id, null for {@link #NONE}. */
+	public static String name(final int id) {
+		return names[id];
+	}
+}
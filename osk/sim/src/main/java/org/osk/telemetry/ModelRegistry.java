@@ -0,0 +1,135 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.beans.Introspector;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import net.gescobar.jmx.annotation.ManagedAttribute;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.osk.errors.OskException;
+
+/**
+ * Models of the running simulation by name. The structural parts register
+ * their model after initialising it, so telemetry, monitoring and
+ * commanding can find the models without knowing the parts.
+ */
+@ApplicationScoped
+public class ModelRegistry {
+
+	private final Map<String, Object> models = new LinkedHashMap<String, Object>();
+
+	public synchronized void register(final String name, final Object model) {
+		models.put(name, model);
+	}
+
+	public synchronized Object getModel(final String name) {
+		return models.get(name);
+	}
+
+	public synchronized int getModelCount() {
+		return models.size();
+	}
+
+	/** Registered models in registration order. */
+	public synchronized Map<String, Object> getModels() {
+		return Collections.unmodifiableMap(new LinkedHashMap<String, Object>(models));
+	}
+
+	/**
+	 * Signal with the given name, model.attribute with an optional
+	 * component, see {@link Signal}.
+	 */
+	public Signal signal(final String name) throws OskException {
+		final int dot = name.indexOf('.');
+		if (dot > 0) {
+			final Object model = getModel(name.substring(0, dot));
+			if (model != null) {
+				for (Signal signal : signals(name.substring(0, dot), model)) {
+					if (signal.getName().equals(name)) {
+						return signal;
+					}
+				}
+			}
+		}
+		throw new OskException(new DummyLocalizable("Unknown telemetry signal " + name));
+	}
+
+	/** Signals for all names, in the given order. */
+	public Signal[] signals(final String... names) throws OskException {
+		final Signal[] signals = new Signal[names.length];
+		for (int i = 0; i < names.length; i++) {
+			signals[i] = signal(names[i]);
+		}
+		return signals;
+	}
+
+	/** All numeric signals of all registered models. */
+	public List<Signal> signals() {
+		final List<Signal> signals = new ArrayList<Signal>();
+		for (Map.Entry<String, Object> entry : getModels().entrySet()) {
+			signals.addAll(signals(entry.getKey(), entry.getValue()));
+		}
+		return signals;
+	}
+
+	/**
+	 * Numeric signals of one model, one per numeric or boolean managed
+	 * attribute and one per component of vector attributes. Arrays give a
+	 * signal per element of their current length.
+	 */
+	static List<Signal> signals(final String modelName, final Object model) {
+		final List<Signal> signals = new ArrayList<Signal>();
+		for (Method method : model.getClass().getMethods()) {
+			if (method.getParameterTypes().length != 0
+					|| !method.isAnnotationPresent(ManagedAttribute.class)) {
+				continue;
+			}
+			final String attribute = attributeName(method.getName());
+			if (attribute == null) {
+				continue;
+			}
+			final Signal.Accessor accessor = Signal.accessor(model, method);
+			if (accessor == null) {
+				continue;
+			}
+			final String prefix = modelName + "." + attribute;
+			final Class<?> type = method.getReturnType();
+			if (type == Vector3D.class) {
+				for (int i = 0; i < 3; i++) {
+					signals.add(new Signal(prefix + "." + Signal.VECTOR_COMPONENTS[i], accessor, i));
+				}
+			} else if (type == double[].class) {
+				accessor.read();
+				for (int i = 0; i < accessor.length; i++) {
+					signals.add(new Signal(prefix + "." + i, accessor, i));
+				}
+			} else {
+				signals.add(new Signal(prefix, accessor, 0));
+			}
+		}
+		return signals;
+	}
+
+	private static String attributeName(final String getter) {
+		if (getter.startsWith("get") && getter.length() > 3) {
+			return Introspector.decapitalize(getter.substring(3));
+		}
+		if (getter.startsWith("is") && getter.length() > 2) {
+			return Introspector.decapitalize(getter.substring(2));
+		}
+		return null;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+
+import sun.misc.Unsafe;
+
+/**
+ * Sequence field of a mapped {@link StateSegment}, read and written with
+ * volatile semantics. The buffer methods are plain accesses, which
+ * compiler and processor may reorder around the bank accesses; Java 6 has
+ * no fences, so the sequence goes through Unsafe on the mapped address.
+ * The long is stored little endian whatever the native order.
+ */
+final class SegmentSequence {
+
+	private static final Unsafe UNSAFE;
+	private static final long ADDRESS;
+	private static final boolean SWAP = ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN;
+
+	static {
+		Unsafe unsafe = null;
+		long address = -1;
+		try {
+			final Field field = Unsafe.class.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = (Unsafe) field.get(null);
+			address = unsafe.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+		} catch (Exception e) {
+			unsafe = null;
+		}
+		UNSAFE = unsafe;
+		ADDRESS = address;
+	}
+
+	/** Keeps the mapping, and so the address, alive. */
+	private final MappedByteBuffer buffer;
+	private final long address;
+
+	SegmentSequence(final MappedByteBuffer buffer, final int offset) throws OskException {
+		if (UNSAFE == null || offset % 8 != 0) {
+			throw new OskException(new DummyLocalizable("No ordered access to the state segment"));
+		}
+		this.buffer = buffer;
+		this.address = UNSAFE.getLong(buffer, ADDRESS) + offset;
+	}
+
+	/** Volatile read, later reads are not moved before it. */
+	long get() {
+		final long value = UNSAFE.getLongVolatile(null, address);
+		return SWAP ? Long.reverseBytes(value) : value;
+	}
+
+	/**
+	 * Volatile write, earlier writes are not moved after it and later
+	 * ones not before it.
+	 */
+	void set(final long value) {
+		UNSAFE.putLongVolatile(null, address, SWAP ? Long.reverseBytes(value) : value);
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.lang.reflect.Method;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * One numeric value of a model, read through a getter marked as
+ * {@link net.gescobar.jmx.annotation.ManagedAttribute}. Numbers and
+ * booleans give one signal, vectors and double arrays one signal per
+ * component.
+ *
+ * The getter is resolved once into an {@link Accessor} for its return
+ * type, which unpacks the value without type checks. The accessor keeps
+ * the unpacked value, so a {@link SignalSampler} calls a vector getter
+ * once for all three components. Signals are read from the simulation
+ * thread only.
+ *
+ * Signals are named model.attribute, e.g. Pipe16.pout, with a component
+ * suffix for vectors, e.g. ScStructure22.scPositionECI.x.
+ */
+public final class Signal {
+
+	static final String[] VECTOR_COMPONENTS = {"x", "y", "z"};
+
+	private final String name;
+	private final Accessor accessor;
+	/** Component of a vector or array, 0 for scalars. */
+	private final int component;
+
+	Signal(final String name, final Accessor accessor, final int component) {
+		this.name = name;
+		this.accessor = accessor;
+		this.component = component;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/** Current value, NaN if the getter fails or returns null. */
+	public double value() {
+		accessor.read();
+		return accessor.value(component);
+	}
+
+	Accessor getAccessor() {
+		return accessor;
+	}
+
+	int getComponent() {
+		return component;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	/**
+	 * Accessor for the return type of the getter, null if the type gives
+	 * no signal.
+	 */
+	static Accessor accessor(final Object model, final Method getter) {
+		final Class<?> type = getter.getReturnType();
+		if (type == boolean.class || type == Boolean.class) {
+			return new BooleanAccessor(model, getter);
+		}
+		if (type.isPrimitive() ? type != void.class && type != char.class
+				: Number.class.isAssignableFrom(type)) {
+			return new NumberAccessor(model, getter);
+		}
+		if (type == Vector3D.class) {
+			return new VectorAccessor(model, getter);
+		}
+		if (type == double[].class) {
+			return new ArrayAccessor(model, getter);
+		}
+		return null;
+	}
+
+	/**
+	 * Reads one getter and keeps its value unpacked into doubles, one per
+	 * component.
+	 */
+	abstract static class Accessor {
+		final Object model;
+		final Method getter;
+		double[] values;
+		int length;
+
+		Accessor(final Object model, final Method getter, final int length) {
+			this.model = model;
+			this.getter = getter;
+			this.values = new double[length];
+			this.length = length;
+			getter.setAccessible(true);
+		}
+
+		/** Calls the getter and unpacks its value. */
+		final void read() {
+			final Object value;
+			try {
+				value = getter.invoke(model);
+			} catch (Exception e) {
+				clear();
+				return;
+			}
+			if (value == null) {
+				clear();
+			} else {
+				unpack(value);
+			}
+		}
+
+		abstract void unpack(Object value);
+
+		/** Component of the last read value, NaN if there is none. */
+		final double value(final int component) {
+			return component < length ? values[component] : Double.NaN;
+		}
+
+		private void clear() {
+			for (int i = 0; i < values.length; i++) {
+				values[i] = Double.NaN;
+			}
+		}
+
+		/** Same getter of the same model instance. */
+		final boolean reads(final Accessor other) {
+			return model == other.model && getter.equals(other.getter);
+		}
+	}
+
+	private static final class NumberAccessor extends Accessor {
+		NumberAccessor(final Object model, final Method getter) {
+			super(model, getter, 1);
+		}
+
+		@Override
+		void unpack(final Object value) {
+			values[0] = ((Number) value).doubleValue();
+		}
+	}
+
+	private static final class BooleanAccessor extends Accessor {
+		BooleanAccessor(final Object model, final Method getter) {
+			super(model, getter, 1);
+		}
+
+		@Override
+		void unpack(final Object value) {
+			values[0] = ((Boolean) value).booleanValue() ? 1.0 : 0.0;
+		}
+	}
+
+	private static final class VectorAccessor extends Accessor {
+		VectorAccessor(final Object model, final Method getter) {
+			super(model, getter, 3);
+		}
+
+		@Override
+		void unpack(final Object value) {
+			final Vector3D v = (Vector3D) value;
+			values[0] = v.getX();
+			values[1] = v.getY();
+			values[2] = v.getZ();
+		}
+	}
+
+	private static final class ArrayAccessor extends Accessor {
+		ArrayAccessor(final Object model, final Method getter) {
+			super(model, getter, 0);
+		}
+
+		@Override
+		void unpack(final Object value) {
+			final double[] array = (double[]) value;
+			if (array.length > values.length) {
+				values = new double[array.length];
+			}
+			System.arraycopy(array, 0, values, 0, array.length);
+			length = array.length;
+		}
+	}
+}
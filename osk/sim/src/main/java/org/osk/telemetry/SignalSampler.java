@@ -0,0 +1,74 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads a fixed set of signals together. Every getter behind the signals
+ * is called once per sample, however many components of it are sampled,
+ * e.g. once for the three components of a position vector.
+ */
+final class SignalSampler {
+
+	private final Signal.Accessor[] accessors;
+	/** Per signal, its accessor and component. */
+	private final int[] accessor;
+	private final int[] component;
+	/** Accessors already read in the running sample. */
+	private final boolean[] read;
+
+	SignalSampler(final Signal[] signals) {
+		final List<Signal.Accessor> distinct = new ArrayList<Signal.Accessor>();
+		accessor = new int[signals.length];
+		component = new int[signals.length];
+		for (int i = 0; i < signals.length; i++) {
+			final Signal.Accessor candidate = signals[i].getAccessor();
+			int index = 0;
+			while (index < distinct.size() && !distinct.get(index).reads(candidate)) {
+				index++;
+			}
+			if (index == distinct.size()) {
+				distinct.add(candidate);
+			}
+			accessor[i] = index;
+			component[i] = signals[i].getComponent();
+		}
+		accessors = distinct.toArray(new Signal.Accessor[distinct.size()]);
+		read = new boolean[accessors.length];
+	}
+
+	/** Current values of all signals, in the order given. */
+	void sample(final double[] values) {
+		for (Signal.Accessor a : accessors) {
+			a.read();
+		}
+		for (int i = 0; i < accessor.length; i++) {
+			values[i] = accessors[accessor[i]].value(component[i]);
+		}
+	}
+
+	/** Current values of the needed signals; the others are left as they are. */
+	void sample(final double[] values, final boolean[] needed) {
+		Arrays.fill(read, false);
+		for (int i = 0; i < accessor.length; i++) {
+			if (needed[i]) {
+				final int a = accessor[i];
+				if (!read[a]) {
+					accessors[a].read();
+					read[a] = true;
+				}
+				values[i] = accessors[a].value(component[i]);
+			}
+		}
+	}
+
+	int size() {
+		return accessor.length;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Immutable values of all signals at the end of one time step. Over JMX
+ * it is transferred as one CompositeData.
+ */
+public final class Snapshot {
+
+	private final double time;
+	private final long step;
+	private final String[] names;
+	private final double[] values;
+
+	@ConstructorProperties({"time", "step", "names", "values"})
+	public Snapshot(final double time, final long step, final String[] names, final double[] values) {
+		this.time = time;
+		this.step = step;
+		this.names = names;
+		this.values = values;
+	}
+
+	/** Mission time [s] of the values. */
+	public double getTime() {
+		return time;
+	}
+
+	public long getStep() {
+		return step;
+	}
+
+	public String[] getNames() {
+		return names.clone();
+	}
+
+	public double[] getValues() {
+		return values.clone();
+	}
+
+	/** Position of the named signal, -1 if there is none. */
+	public int indexOf(final String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** Value of the signal at the given position of {@link #getNames()}. */
+	public double value(final int signal) {
+		return values[signal];
+	}
+}
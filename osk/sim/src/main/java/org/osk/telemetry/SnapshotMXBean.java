@@ -0,0 +1,19 @@
+package org.osk.telemetry;
+
+/**
+ * Bulk access to all numeric model attributes in one JMX call.
+ */
+public interface SnapshotMXBean {
+
+	/** Values of all signals, taken together at the end of one step. */
+	Snapshot getSnapshot();
+
+	/** Names of the signals in snapshot order. */
+	String[] getSignalNames();
+
+	/** Steps between two snapshots, 0 to stop taking them. */
+	int getDecimation();
+
+	void setDecimation(int decimation);
+
+}
@@ -0,0 +1,118 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.gescobar.jmx.Management;
+import net.gescobar.jmx.ManagementException;
+
+import org.osk.events.StepCompleted;
+import org.slf4j.Logger;
+
+/**
+ * Registers every model of the {@link ModelRegistry} as MBean under
+ * org.osk:type=&lt;model class&gt;,name=&lt;model name&gt; and offers all
+ * their numeric attributes as one {@link Snapshot} under
+ * org.osk:type=Snapshot.
+ *
+ * The model MBeans call the getters of the models directly, so they race
+ * with the simulation thread: their values may be of different steps, and
+ * vectors or arrays may be torn. They are meant for browsing and for the
+ * setters. Consistent values come from the snapshot, which is the one of
+ * the {@link StatePublication}: values of a single step, transferred in
+ * one round trip, and empty while state.publishDecimation is 0. Models are
+ * registered at the first completed step, when all parts have registered
+ * them, and whenever new ones appear.
+ */
+@ApplicationScoped
+public class SnapshotService implements SnapshotMXBean {
+
+	public static final String OBJECT_NAME = "org.osk:type=Snapshot";
+
+	@Inject Logger LOG;
+	@Inject ModelRegistry registry;
+	@Inject StatePublication publication;
+
+	private int registered;
+
+	public void register(@Observes StepCompleted step) {
+		if (registered != registry.getModelCount()) {
+			register();
+		}
+	}
+
+	private void register() {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		int index = 0;
+		for (Map.Entry<String, Object> entry : registry.getModels().entrySet()) {
+			if (index++ < registered) {
+				continue;
+			}
+			final Object model = entry.getValue();
+			try {
+				Management.register(model, "org.osk:type=" + model.getClass().getSimpleName()
+						+ ",name=" + entry.getKey());
+			} catch (InstanceAlreadyExistsException e) {
+				LOG.warn("Model {} is already registered in JMX", entry.getKey());
+			} catch (ManagementException e) {
+				LOG.warn("Model {} not registered in JMX: {}", entry.getKey(), e.getMessage());
+			}
+		}
+		registered = index;
+		try {
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(this, name);
+			}
+		} catch (JMException e) {
+			LOG.warn("Snapshot MXBean not registered: {}", e.getMessage());
+		}
+	}
+
+	@PreDestroy
+	void unregister() {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			// shutting down anyway
+		}
+	}
+
+	@Override
+	public Snapshot getSnapshot() {
+		return publication.latest();
+	}
+
+	@Override
+	public String[] getSignalNames() {
+		return publication.latest().getNames();
+	}
+
+	@Override
+	public int getDecimation() {
+		return publication.getDecimation();
+	}
+
+	@Override
+	public void setDecimation(final int decimation) {
+		publication.setDecimation(decimation);
+	}
+}
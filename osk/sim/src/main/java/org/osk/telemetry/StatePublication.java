@@ -0,0 +1,89 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.osk.config.NumberConfig;
+import org.osk.events.StepCompleted;
+
+/**
+ * Consistent view of the model state for readers on other threads, e.g.
+ * JMX clients, monitoring or visualizer threads.
+ *
+ * Model fields like the position of the structure or the tank state
+ * vector are changed by the simulation thread while a step runs; reading
+ * them from another thread gives values of different steps or torn
+ * vectors. Instead, at the end of a step the simulation thread copies all
+ * numeric model attributes into a new {@link Snapshot} and publishes it
+ * with a single volatile write. Readers take the latest snapshot without
+ * locking and without ever blocking the simulation; a snapshot never
+ * changes after publication, so it can be kept as long as needed.
+ *
+ * The copy costs one array per published step. Every step is published
+ * by default; state.publishDecimation thins the publication out, and 0
+ * turns it off.
+ */
+@ApplicationScoped
+public class StatePublication {
+
+	@Inject ModelRegistry registry;
+
+	private volatile Snapshot latest = new Snapshot(Double.NaN, 0, new String[0], new double[0]);
+	private volatile int decimation = 1;
+	/** Signals of the registered models, resolved again when models are added. */
+	private int models = -1;
+	private SignalSampler sampler;
+	private String[] names;
+	private long steps;
+
+	public void publish(@Observes StepCompleted step) {
+		final int every = decimation;
+		if (every < 1 || ++steps % every != 0) {
+			return;
+		}
+		if (models != registry.getModelCount()) {
+			resolveSignals();
+		}
+		final double[] values = new double[names.length];
+		sampler.sample(values);
+		latest = new Snapshot(step.time, step.step, names, values);
+	}
+
+	private void resolveSignals() {
+		models = registry.getModelCount();
+		final List<Signal> all = registry.signals();
+		final Signal[] signals = all.toArray(new Signal[all.size()]);
+		sampler = new SignalSampler(signals);
+		names = new String[signals.length];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = signals[i].getName();
+		}
+	}
+
+	/** Latest published snapshot, safe to use from any thread. */
+	public Snapshot latest() {
+		return latest;
+	}
+
+	public int getDecimation() {
+		return decimation;
+	}
+
+	/** Steps between two publications, 0 to stop publishing. */
+	public void setDecimation(final int decimation) {
+		this.decimation = decimation;
+	}
+
+	@Inject
+	void initDecimation(@NumberConfig(name = "state.publishDecimation", defaultValue = "1") Integer value) {
+		decimation = value;
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+
+/**
+ * Fixed layout, memory mapped file holding the latest simulation state,
+ * e.g. below /dev/shm. External processes such as visualizers map the same
+ * file and read the values at any rate, without going through JMX and
+ * without any call into the simulator.
+ *
+ * Layout, little endian:
+ * <pre>
+ *   0  int    magic "OSKS"
+ *   4  int    layout version
+ *   8  int    number of channels n
+ *  12  int    offset of bank 0
+ *  16  long   sequence, number of the last published write, 0 before
+ *  24  int    size of a bank
+ *  28  ...    reserved up to HEADER_SIZE
+ *  64  n names of NAME_SIZE bytes, US-ASCII, zero padded
+ *      bank 0 and bank 1, each
+ *        double mission time [s] of the values
+ *        long   step number of the values
+ *        n doubles, the values
+ * </pre>
+ *
+ * The values are double buffered. Write number k goes into bank k % 2,
+ * and the sequence is set to k only after the bank is complete. A reader
+ * reads the sequence, copies bank sequence % 2 and reads the sequence
+ * again. The copy is consistent if both sequence values are equal;
+ * otherwise the writer may have started on the same bank again and the
+ * reader retries. Readers never wait for a write in progress, as the
+ * bank they copy is not touched for a whole step.
+ *
+ * The sequence is read and written with volatile semantics through
+ * {@link SegmentSequence}, which the JIT compiles to the processor fences
+ * needed, so the bank accesses keep their order around it on any
+ * processor and across processes. The writer publishes with a volatile
+ * store, so the bank is complete before the sequence changes and the next
+ * write does not start before. The reader reads the sequence volatile
+ * before the copy, and orders the copy before the second read with a
+ * volatile store in between, as Java 6 has no load fence.
+ * The layout is written once when the segment is opened. Instances are
+ * written from the simulation thread only.
+ */
+public final class StateSegment {
+
+	public static final int MAGIC = 0x534B534F; // "OSKS" in little endian
+	public static final int VERSION = 2;
+	public static final int HEADER_SIZE = 64;
+	public static final int NAME_SIZE = 32;
+
+	static final int CHANNELS_OFFSET = 8;
+	static final int BANKS_OFFSET = 12;
+	static final int SEQUENCE_OFFSET = 16;
+	static final int BANK_SIZE_OFFSET = 24;
+	/** Offsets within a bank. */
+	static final int TIME = 0;
+	static final int STEP = 8;
+	static final int VALUES = 16;
+
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+
+	private final File file;
+	private final String[] channels;
+	private final int banksOffset;
+	private final int bankSize;
+	private final MappedByteBuffer buffer;
+	private final RandomAccessFile raf;
+	private final SegmentSequence published;
+	private long sequence;
+	/** Offset of the bank being written. */
+	private int bank;
+
+	/**
+	 * Creates or overwrites the file and writes the layout.
+	 *
+	 * @param file segment file, e.g. /dev/shm/osk-state
+	 * @param channels channel names, at most NAME_SIZE ASCII characters
+	 */
+	public StateSegment(final File file, final String... channels) throws OskException {
+		this.file = file;
+		this.channels = channels.clone();
+		this.banksOffset = HEADER_SIZE + NAME_SIZE * channels.length;
+		this.bankSize = VALUES + 8 * channels.length;
+		final int size = banksOffset + 2 * bankSize;
+		try {
+			raf = new RandomAccessFile(file, "rw");
+			raf.setLength(size);
+			buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+		} catch (IOException e) {
+			throw new OskException(new DummyLocalizable("Cannot map state segment "
+					+ file + ": " + e.getMessage()));
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			published = new SegmentSequence(buffer, SEQUENCE_OFFSET);
+		} catch (OskException e) {
+			close();
+			throw e;
+		}
+		for (int i = 0; i < channels.length; i++) {
+			final byte[] name = channels[i].getBytes(ASCII);
+			if (name.length > NAME_SIZE) {
+				close();
+				throw new OskException(new DummyLocalizable("State segment channel name "
+						+ channels[i] + " is longer than " + NAME_SIZE + " characters"));
+			}
+			buffer.position(HEADER_SIZE + NAME_SIZE * i);
+			buffer.put(name);
+		}
+		buffer.position(0);
+		published.set(0L);
+		buffer.putInt(CHANNELS_OFFSET, channels.length);
+		buffer.putInt(BANKS_OFFSET, banksOffset);
+		buffer.putInt(BANK_SIZE_OFFSET, bankSize);
+		buffer.putInt(4, VERSION);
+		// the magic is written last, readers ignore a segment without it
+		buffer.putInt(0, MAGIC);
+	}
+
+	/** Starts a write into the bank readers are not reading. */
+	public void begin(final double missionTime, final long step) {
+		bank = banksOffset + (int) ((sequence + 1) & 1L) * bankSize;
+		buffer.putDouble(bank + TIME, missionTime);
+		buffer.putLong(bank + STEP, step);
+	}
+
+	public void set(final int channel, final double value) {
+		buffer.putDouble(bank + VALUES + 8 * channel, value);
+	}
+
+	/** Publishes the bank written since {@link #begin(double, long)}. */
+	public void end() {
+		published.set(++sequence);
+	}
+
+	/** Index of the named channel, -1 if there is none. */
+	public int channel(final String name) {
+		for (int i = 0; i < channels.length; i++) {
+			if (channels[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public int getChannels() {
+		return channels.length;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Writes the mapped values to the file and closes it. The mapping
+	 * itself stays valid until the buffer is garbage collected, readers
+	 * keep seeing the last values.
+	 */
+	public void close() {
+		buffer.force();
+		try {
+			raf.close();
+		} catch (IOException e) {
+			// nothing left to release
+		}
+	}
+}
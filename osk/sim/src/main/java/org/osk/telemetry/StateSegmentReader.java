@@ -0,0 +1,124 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+
+/**
+ * Reads a {@link StateSegment} written by another process, following the
+ * sequence protocol described there. Reference for readers in other
+ * languages.
+ */
+public final class StateSegmentReader {
+
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+	/** Retries before a read gives up on a writer that is always active. */
+	private static final int MAX_RETRIES = 1000;
+
+	private final MappedByteBuffer buffer;
+	private final SegmentSequence sequence;
+	private final String[] channels;
+	private final int banksOffset;
+	private final int bankSize;
+	/**
+	 * Sequence of the last copy. The volatile store after the copy keeps
+	 * the bank reads before the second sequence read.
+	 */
+	private volatile long copied;
+	private double time;
+	private long step;
+
+	public StateSegmentReader(final File file) throws OskException {
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(file, "r");
+			buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+		} catch (IOException e) {
+			throw new OskException(new DummyLocalizable("Cannot map state segment "
+					+ file + ": " + e.getMessage()));
+		} finally {
+			if (raf != null) {
+				try {
+					raf.close();
+				} catch (IOException e) {
+					// the mapping stays valid
+				}
+			}
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.capacity() < StateSegment.HEADER_SIZE || buffer.getInt(0) != StateSegment.MAGIC
+				|| buffer.getInt(4) != StateSegment.VERSION) {
+			throw new OskException(new DummyLocalizable(file + " is no state segment of version "
+					+ StateSegment.VERSION));
+		}
+		sequence = new SegmentSequence(buffer, StateSegment.SEQUENCE_OFFSET);
+		channels = new String[buffer.getInt(StateSegment.CHANNELS_OFFSET)];
+		banksOffset = buffer.getInt(StateSegment.BANKS_OFFSET);
+		bankSize = buffer.getInt(StateSegment.BANK_SIZE_OFFSET);
+		final byte[] name = new byte[StateSegment.NAME_SIZE];
+		for (int i = 0; i < channels.length; i++) {
+			buffer.position(StateSegment.HEADER_SIZE + StateSegment.NAME_SIZE * i);
+			buffer.get(name);
+			int length = 0;
+			while (length < name.length && name[length] != 0) {
+				length++;
+			}
+			channels[i] = new String(name, 0, length, ASCII);
+		}
+	}
+
+	/**
+	 * Copies the last published values.
+	 *
+	 * @param values receives one value per channel
+	 * @return false if nothing was published yet, or if the writer
+	 *         overtook every retry
+	 */
+	public boolean read(final double[] values) {
+		for (int retry = 0; retry < MAX_RETRIES; retry++) {
+			final long before = sequence.get();
+			if (before == 0) {
+				return false;
+			}
+			final int bank = banksOffset + (int) (before & 1L) * bankSize;
+			final double t = buffer.getDouble(bank + StateSegment.TIME);
+			final long s = buffer.getLong(bank + StateSegment.STEP);
+			for (int i = 0; i < channels.length; i++) {
+				values[i] = buffer.getDouble(bank + StateSegment.VALUES + 8 * i);
+			}
+			copied = before;
+			if (sequence.get() == before) {
+				time = t;
+				step = s;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Mission time [s] of the values of the last successful read. */
+	public double getTime() {
+		return time;
+	}
+
+	/** Step number of the values of the last successful read. */
+	public long getStep() {
+		return step;
+	}
+
+	public String[] getChannels() {
+		return channels.clone();
+	}
+}
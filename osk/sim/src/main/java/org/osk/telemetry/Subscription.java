@@ -0,0 +1,187 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+/**
+ * Request of one telemetry consumer: a set of signals, the window over
+ * which they are reduced and the reduction per signal.
+ *
+ * A window spans a number of steps: the decimation or, if a period is set,
+ * the period rounded to whole time steps, at least one. Windows are
+ * counted in steps, so every window, the first one included, has the same
+ * number of steps, and the window ends do not drift against the step grid.
+ * At the end of each window the listener receives one value per signal:
+ * the last sample, or the minimum, maximum or mean over the window.
+ * Minimum, maximum and mean are updated incrementally every step, samples
+ * are only taken at the end of the window, so a subscription keeps no
+ * history.
+ *
+ * Subscriptions are created with {@link Subscriptions#subscribe} and
+ * updated from the simulation thread.
+ */
+public final class Subscription {
+
+	public enum Aggregation {
+		/** Value at the end of the window. */
+		SAMPLE,
+		MIN,
+		MAX,
+		MEAN
+	}
+
+	/** Receiver of the window values, called on the simulation thread. */
+	public interface Listener {
+		/**
+		 * @param time mission time [s] at the end of the window
+		 * @param subscription the subscription the values belong to
+		 * @param values one value per signal, reused for the next window;
+		 *               copy it to keep it, and return quickly
+		 */
+		void window(double time, Subscription subscription, double[] values);
+	}
+
+	private final String[] names;
+	private final Aggregation[] aggregations;
+	private final int decimation;
+	private final double period;
+	private final Listener listener;
+
+	private final double[] values;
+	private final boolean sampleEveryStep;
+	/** Steps per window, 0 until a period is resolved. */
+	private int window;
+	private int steps;
+
+	/**
+	 * @param names signal names, see {@link Signal}
+	 * @param aggregations reduction per signal, same length as names
+	 * @param decimation steps per window, used if period is not positive
+	 * @param period window length [s] of mission time, 0 for none
+	 */
+	public Subscription(final String[] names, final Aggregation[] aggregations,
+			final int decimation, final double period, final Listener listener) {
+		if (names.length != aggregations.length) {
+			throw new IllegalArgumentException("Subscription needs one aggregation per signal");
+		}
+		if (decimation < 1 && !(period > 0.0)) {
+			throw new IllegalArgumentException("Subscription needs a decimation of at least one"
+					+ " or a positive period");
+		}
+		this.names = names.clone();
+		this.aggregations = aggregations.clone();
+		this.decimation = decimation;
+		this.period = period;
+		this.listener = listener;
+		this.values = new double[names.length];
+		boolean everyStep = false;
+		for (Aggregation aggregation : aggregations) {
+			everyStep |= aggregation != Aggregation.SAMPLE;
+		}
+		this.sampleEveryStep = everyStep;
+		this.window = period > 0.0 ? 0 : decimation;
+	}
+
+	/** Subscription of every decimation-th value of the signals. */
+	public static Subscription decimated(final String[] names, final int decimation,
+			final Listener listener) {
+		return new Subscription(names, uniform(names.length, Aggregation.SAMPLE),
+				decimation, 0.0, listener);
+	}
+
+	/** Subscription of one reduced value per period of the signals. */
+	public static Subscription periodic(final String[] names, final double period,
+			final Aggregation aggregation, final Listener listener) {
+		return new Subscription(names, uniform(names.length, aggregation), 1, period, listener);
+	}
+
+	private static Aggregation[] uniform(final int length, final Aggregation aggregation) {
+		final Aggregation[] aggregations = new Aggregation[length];
+		for (int i = 0; i < length; i++) {
+			aggregations[i] = aggregation;
+		}
+		return aggregations;
+	}
+
+	/** Converts the period into steps of the given size [s]. */
+	void resolve(final double stepSize) {
+		if (period > 0.0) {
+			window = Math.max(1, (int) Math.round(period / stepSize));
+		}
+	}
+
+	/** Whether the next step ends the current window. */
+	boolean endsWindow() {
+		if (window == 0) {
+			throw new IllegalStateException("Subscription period is not resolved into steps");
+		}
+		return steps + 1 >= window;
+	}
+
+	/** Whether the signals are needed for this step. */
+	boolean needsSample(final boolean endsWindow) {
+		return endsWindow || sampleEveryStep;
+	}
+
+	/**
+	 * Adds one step of the sample and delivers the window if it ends.
+	 *
+	 * @param columns position of each signal in the sample
+	 */
+	void update(final double time, final double[] sample, final int[] columns,
+			final boolean endsWindow) {
+		final boolean first = steps == 0;
+		steps++;
+		if (sampleEveryStep) {
+			for (int i = 0; i < values.length; i++) {
+				final double value = sample[columns[i]];
+				switch (aggregations[i]) {
+				case MIN:
+					values[i] = first || value < values[i] ? value : values[i];
+					break;
+				case MAX:
+					values[i] = first || value > values[i] ? value : values[i];
+					break;
+				case MEAN:
+					values[i] = first ? value : values[i] + (value - values[i]) / steps;
+					break;
+				default:
+					break;
+				}
+			}
+		}
+		if (!endsWindow) {
+			return;
+		}
+		for (int i = 0; i < values.length; i++) {
+			if (aggregations[i] == Aggregation.SAMPLE) {
+				values[i] = sample[columns[i]];
+			}
+		}
+		listener.window(time, this, values);
+		steps = 0;
+	}
+
+	public String[] getNames() {
+		return names.clone();
+	}
+
+	public Aggregation getAggregation(final int signal) {
+		return aggregations[signal];
+	}
+
+	public int getDecimation() {
+		return decimation;
+	}
+
+	public double getPeriod() {
+		return period;
+	}
+
+	/** Steps per window, 0 before a period is resolved. */
+	public int getStepsPerWindow() {
+		return window;
+	}
+}
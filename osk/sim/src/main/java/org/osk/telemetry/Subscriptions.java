@@ -0,0 +1,151 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.osk.errors.OskException;
+import org.osk.events.StepCompleted;
+import org.osk.time.TimeHandler;
+
+/**
+ * Serves the telemetry {@link Subscription}s at the end of every time
+ * step.
+ *
+ * The signals of all subscriptions are merged, so a signal wanted by
+ * several subscribers is read once per step, and only in steps where at
+ * least one subscription needs it. Subscribing and unsubscribing may
+ * happen on any thread; they replace an immutable set of subscriptions
+ * that the simulation thread picks up at the next step.
+ */
+@ApplicationScoped
+public class Subscriptions {
+
+	/** Subscriptions with their merged signals, replaced as a whole. */
+	private static final class SubscriptionSet {
+		final Subscription[] subscriptions;
+		/** Per subscription the positions of its signals in the sample. */
+		final int[][] columns;
+		final Signal[] signals;
+		final SignalSampler sampler;
+		final double[] sample;
+		final boolean[] needed;
+		final boolean[] ends;
+
+		SubscriptionSet(final List<Subscription> subscriptions, final List<int[]> columns,
+				final List<Signal> signals) {
+			this.subscriptions = subscriptions.toArray(new Subscription[subscriptions.size()]);
+			this.columns = columns.toArray(new int[columns.size()][]);
+			this.signals = signals.toArray(new Signal[signals.size()]);
+			this.sampler = new SignalSampler(this.signals);
+			this.sample = new double[this.signals.length];
+			this.needed = new boolean[this.signals.length];
+			this.ends = new boolean[this.subscriptions.length];
+		}
+	}
+
+	@Inject ModelRegistry registry;
+	@Inject TimeHandler timeHandler;
+
+	private volatile SubscriptionSet current = new SubscriptionSet(new ArrayList<Subscription>(),
+			new ArrayList<int[]>(), new ArrayList<Signal>());
+
+	/**
+	 * Adds a subscription. Its signals are resolved now, so unknown names
+	 * fail here and not in the simulation loop.
+	 */
+	public synchronized Subscription subscribe(final Subscription subscription) throws OskException {
+		subscription.resolve(timeHandler.getStepSizeAsDouble());
+		final List<Signal> signals = new ArrayList<Signal>(Arrays.asList(current.signals));
+		final String[] names = subscription.getNames();
+		final int[] columns = new int[names.length];
+		for (int i = 0; i < names.length; i++) {
+			columns[i] = indexOf(signals, names[i]);
+			if (columns[i] < 0) {
+				signals.add(registry.signal(names[i]));
+				columns[i] = signals.size() - 1;
+			}
+		}
+		final List<Subscription> subscriptions
+				= new ArrayList<Subscription>(Arrays.asList(current.subscriptions));
+		final List<int[]> allColumns = new ArrayList<int[]>(Arrays.asList(current.columns));
+		subscriptions.add(subscription);
+		allColumns.add(columns);
+		current = new SubscriptionSet(subscriptions, allColumns, signals);
+		return subscription;
+	}
+
+	/** Removes a subscription and the signals only it used. */
+	public synchronized void unsubscribe(final Subscription subscription) {
+		final SubscriptionSet old = current;
+		final List<Subscription> subscriptions = new ArrayList<Subscription>();
+		final List<int[]> allColumns = new ArrayList<int[]>();
+		final List<Signal> signals = new ArrayList<Signal>();
+		for (int s = 0; s < old.subscriptions.length; s++) {
+			if (old.subscriptions[s] == subscription) {
+				continue;
+			}
+			final int[] columns = new int[old.columns[s].length];
+			for (int i = 0; i < columns.length; i++) {
+				final Signal signal = old.signals[old.columns[s][i]];
+				columns[i] = signals.indexOf(signal);
+				if (columns[i] < 0) {
+					signals.add(signal);
+					columns[i] = signals.size() - 1;
+				}
+			}
+			subscriptions.add(old.subscriptions[s]);
+			allColumns.add(columns);
+		}
+		current = new SubscriptionSet(subscriptions, allColumns, signals);
+	}
+
+	private static int indexOf(final List<Signal> signals, final String name) {
+		for (int i = 0; i < signals.size(); i++) {
+			if (signals.get(i).getName().equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public void update(@Observes StepCompleted step) {
+		final SubscriptionSet set = current;
+		final Subscription[] subscriptions = set.subscriptions;
+		if (subscriptions.length == 0) {
+			return;
+		}
+		final boolean[] needed = set.needed;
+		Arrays.fill(needed, false);
+		for (int s = 0; s < subscriptions.length; s++) {
+			set.ends[s] = subscriptions[s].endsWindow();
+			if (subscriptions[s].needsSample(set.ends[s])) {
+				for (int column : set.columns[s]) {
+					needed[column] = true;
+				}
+			}
+		}
+		final double[] sample = set.sample;
+		set.sampler.sample(sample, needed);
+		for (int s = 0; s < subscriptions.length; s++) {
+			subscriptions[s].update(step.time, sample, set.columns[s], set.ends[s]);
+		}
+	}
+
+	public int getSubscriptionCount() {
+		return current.subscriptions.length;
+	}
+
+	public int getSignalCount() {
+		return current.signals.length;
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+
+/**
+ * Reads columns of a file written by {@link TelemetryRecorder} for post
+ * flight analysis.
+ */
+public final class TelemetryReader {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final File file;
+	private final String[] columns;
+	private final int blockRows;
+	private final long rows;
+	private final int dataOffset;
+
+	public TelemetryReader(final File file) throws OskException {
+		this.file = file;
+		try {
+			final RandomAccessFile raf = new RandomAccessFile(file, "r");
+			try {
+				final ByteBuffer head = ByteBuffer.allocate(TelemetryRecorder.NAMES_OFFSET);
+				head.order(ByteOrder.LITTLE_ENDIAN);
+				raf.getChannel().read(head, 0);
+				if (head.getInt(0) != TelemetryRecorder.MAGIC
+						|| head.getInt(4) != TelemetryRecorder.VERSION) {
+					throw new OskException(new DummyLocalizable(file
+							+ " is no telemetry recording of version " + TelemetryRecorder.VERSION));
+				}
+				columns = new String[head.getInt(TelemetryRecorder.COLUMNS_OFFSET)];
+				blockRows = head.getInt(TelemetryRecorder.BLOCK_ROWS_OFFSET);
+				rows = head.getLong(TelemetryRecorder.ROWS_OFFSET);
+				dataOffset = head.getInt(TelemetryRecorder.DATA_OFFSET);
+				final ByteBuffer names = ByteBuffer.allocate(dataOffset - TelemetryRecorder.NAMES_OFFSET);
+				names.order(ByteOrder.LITTLE_ENDIAN);
+				raf.getChannel().read(names, TelemetryRecorder.NAMES_OFFSET);
+				names.flip();
+				for (int i = 0; i < columns.length; i++) {
+					final byte[] name = new byte[names.getShort()];
+					names.get(name);
+					columns[i] = new String(name, UTF8);
+				}
+			} finally {
+				raf.close();
+			}
+		} catch (IOException e) {
+			throw new OskException(new DummyLocalizable("Cannot read telemetry file "
+					+ file + ": " + e.getMessage()));
+		}
+	}
+
+	/** All recorded values of one column. */
+	public double[] column(final String name) throws OskException {
+		int column = -1;
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i].equals(name)) {
+				column = i;
+			}
+		}
+		if (column < 0) {
+			throw new OskException(new DummyLocalizable("No column " + name + " in " + file));
+		}
+		if (rows > Integer.MAX_VALUE) {
+			throw new OskException(new DummyLocalizable("Column " + name + " has too many rows"
+					+ " for one array"));
+		}
+		final double[] values = new double[(int) rows];
+		final long blockBytes = 8L * blockRows * columns.length;
+		try {
+			final RandomAccessFile raf = new RandomAccessFile(file, "r");
+			try {
+				final FileChannel channel = raf.getChannel();
+				final ByteBuffer buffer = ByteBuffer.allocate(8 * blockRows);
+				buffer.order(ByteOrder.LITTLE_ENDIAN);
+				for (int start = 0; start < values.length; start += blockRows) {
+					final int count = Math.min(blockRows, values.length - start);
+					buffer.clear();
+					buffer.limit(8 * count);
+					final long position = dataOffset + (start / blockRows) * blockBytes
+							+ 8L * blockRows * column;
+					while (buffer.hasRemaining()) {
+						if (channel.read(buffer, position + buffer.position()) < 0) {
+							throw new IOException("unexpected end of file");
+						}
+					}
+					buffer.flip();
+					buffer.asDoubleBuffer().get(values, start, count);
+				}
+			} finally {
+				raf.close();
+			}
+		} catch (IOException e) {
+			throw new OskException(new DummyLocalizable("Cannot read telemetry file "
+					+ file + ": " + e.getMessage()));
+		}
+		return values;
+	}
+
+	public String[] getColumns() {
+		return columns.clone();
+	}
+
+	public long getRows() {
+		return rows;
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+
+/**
+ * Append-only columnar recording of signals, one row per time step.
+ *
+ * The file starts with a schema header followed by blocks of a fixed
+ * number of rows. Within a block every column is stored contiguously, the
+ * time column first, so one signal can be read over a whole run without
+ * touching the others. The block being filled is kept in one direct
+ * buffer, reused for every block and written to its place in the file
+ * when it is complete; only the header is mapped. Recordings of several
+ * GB therefore need no more memory than one block.
+ *
+ * Layout, little endian:
+ * <pre>
+ *   0  int   magic "OSKT"
+ *   4  int   layout version
+ *   8  int   number of columns n, including the time column
+ *  12  int   rows per block
+ *  16  long  number of recorded rows
+ *  24  int   offset of the first block
+ *  28  n column names, each a short length and UTF-8 bytes
+ *      blocks of n * rows per block doubles, column after column
+ * </pre>
+ *
+ * The row count in the header is updated when a block is completed and on
+ * {@link #close()}; rows behind it are not valid. Instances are used from
+ * the simulation thread only.
+ */
+public final class TelemetryRecorder {
+
+	public static final int MAGIC = 0x544B534F; // "OSKT" in little endian
+	public static final int VERSION = 1;
+	public static final int DEFAULT_BLOCK_ROWS = 4096;
+	public static final String TIME_COLUMN = "time";
+
+	static final int COLUMNS_OFFSET = 8;
+	static final int BLOCK_ROWS_OFFSET = 12;
+	static final int ROWS_OFFSET = 16;
+	static final int DATA_OFFSET = 24;
+	static final int NAMES_OFFSET = 28;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final File file;
+	private final SignalSampler sampler;
+	/** Values of the row being recorded. */
+	private final double[] sample;
+	private final int blockRows;
+	private final long blockBytes;
+	private final int dataOffset;
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+	private final ByteBuffer block;
+	private int row;
+	private long rows;
+
+	/**
+	 * Creates or overwrites the recording file.
+	 *
+	 * @param file recording file
+	 * @param signals recorded signals, one column each
+	 * @param blockRows rows per block, the unit in which the file grows
+	 */
+	public TelemetryRecorder(final File file, final Signal[] signals, final int blockRows)
+			throws OskException {
+		if (blockRows < 1) {
+			throw new OskException(new DummyLocalizable("Telemetry block size must be positive"));
+		}
+		this.file = file;
+		this.sampler = new SignalSampler(signals);
+		this.sample = new double[signals.length];
+		this.blockRows = blockRows;
+		this.blockBytes = 8L * blockRows * (signals.length + 1);
+		if (blockBytes > Integer.MAX_VALUE) {
+			throw new OskException(new DummyLocalizable("Telemetry blocks of " + blockRows
+					+ " rows and " + signals.length + " signals exceed 2 GB"));
+		}
+		final byte[][] names = new byte[signals.length + 1][];
+		names[0] = TIME_COLUMN.getBytes(UTF8);
+		int size = NAMES_OFFSET + 2 + names[0].length;
+		for (int i = 0; i < signals.length; i++) {
+			names[i + 1] = signals[i].getName().getBytes(UTF8);
+			size += 2 + names[i + 1].length;
+		}
+		// blocks start 8 byte aligned
+		dataOffset = (size + 7) & ~7;
+		try {
+			raf = new RandomAccessFile(file, "rw");
+			raf.setLength(0);
+			channel = raf.getChannel();
+			header = channel.map(FileChannel.MapMode.READ_WRITE, 0, dataOffset);
+		} catch (IOException e) {
+			throw new OskException(new DummyLocalizable("Cannot create telemetry file "
+					+ file + ": " + e.getMessage()));
+		}
+		header.order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(0, MAGIC);
+		header.putInt(4, VERSION);
+		header.putInt(COLUMNS_OFFSET, names.length);
+		header.putInt(BLOCK_ROWS_OFFSET, blockRows);
+		header.putLong(ROWS_OFFSET, 0L);
+		header.putInt(DATA_OFFSET, dataOffset);
+		header.position(NAMES_OFFSET);
+		for (byte[] name : names) {
+			header.putShort((short) name.length);
+			header.put(name);
+		}
+		block = ByteBuffer.allocateDirect((int) blockBytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/** Appends one row with the current values of all signals. */
+	public void record(final double time) throws OskException {
+		sampler.sample(sample);
+		final int stride = 8 * blockRows;
+		int offset = 8 * row;
+		block.putDouble(offset, time);
+		for (int i = 0; i < sample.length; i++) {
+			offset += stride;
+			block.putDouble(offset, sample[i]);
+		}
+		row++;
+		rows++;
+		if (row == blockRows) {
+			writeBlock();
+			header.putLong(ROWS_OFFSET, rows);
+			row = 0;
+		}
+	}
+
+	/** Writes the block buffer to the place of the block being filled. */
+	private void writeBlock() throws OskException {
+		final long position = dataOffset + ((rows - 1) / blockRows) * blockBytes;
+		block.clear();
+		try {
+			while (block.hasRemaining()) {
+				channel.write(block, position + block.position());
+			}
+		} catch (IOException e) {
+			throw new OskException(new DummyLocalizable("Cannot extend telemetry file "
+					+ file + ": " + e.getMessage()));
+		}
+	}
+
+	/** Writes the partly filled block and the row count and closes the file. */
+	public void close() {
+		try {
+			if (row > 0) {
+				writeBlock();
+			}
+		} catch (OskException e) {
+			// the rows of the completed blocks are still valid
+		}
+		header.putLong(ROWS_OFFSET, rows);
+		header.force();
+		try {
+			raf.close();
+		} catch (IOException e) {
+			// the header is already written
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public int getBlockRows() {
+		return blockRows;
+	}
+}
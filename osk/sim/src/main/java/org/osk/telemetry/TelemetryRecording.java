@@ -0,0 +1,99 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.io.File;
+import java.util.StringTokenizer;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.apache.deltaspike.core.api.config.ConfigProperty;
+import org.osk.config.NumberConfig;
+import org.osk.errors.OskException;
+import org.osk.events.StepCompleted;
+import org.slf4j.Logger;
+
+/**
+ * Records the configured signals into a {@link TelemetryRecorder} file at
+ * the end of every time step. Recording is off unless telemetry.file names
+ * a file. telemetry.signals lists the signal names separated by blanks; if
+ * it is empty, all numeric attributes of all registered models are
+ * recorded.
+ *
+ * The signals are resolved at the first completed step, when all parts
+ * have registered their models.
+ */
+@ApplicationScoped
+public class TelemetryRecording {
+
+	@Inject Logger LOG;
+	@Inject ModelRegistry registry;
+
+	private String fileName;
+	private String signalNames;
+	private int blockRows = TelemetryRecorder.DEFAULT_BLOCK_ROWS;
+	private TelemetryRecorder recorder;
+	private boolean failed;
+
+	public void record(@Observes StepCompleted step) {
+		if (fileName == null || failed) {
+			return;
+		}
+		try {
+			if (recorder == null) {
+				recorder = new TelemetryRecorder(new File(fileName), resolveSignals(), blockRows);
+				LOG.info("Recording telemetry to {}", fileName);
+			}
+			recorder.record(step.time);
+		} catch (OskException e) {
+			LOG.error("Telemetry recording stopped: {}", e.getMessage());
+			failed = true;
+		}
+	}
+
+	private Signal[] resolveSignals() throws OskException {
+		if (signalNames.length() == 0) {
+			return registry.signals().toArray(new Signal[0]);
+		}
+		final StringTokenizer tokenizer = new StringTokenizer(signalNames, " ");
+		final String[] names = new String[tokenizer.countTokens()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = tokenizer.nextToken();
+		}
+		return registry.signals(names);
+	}
+
+	@PreDestroy
+	public void close() {
+		if (recorder != null) {
+			recorder.close();
+			LOG.info("Recorded {} telemetry rows", recorder.getRows());
+			recorder = null;
+		}
+	}
+
+	public TelemetryRecorder getRecorder() {
+		return recorder;
+	}
+
+	@Inject
+	void initFile(@ConfigProperty(name = "telemetry.file", defaultValue = "") String value) {
+		fileName = value == null || value.trim().length() == 0 ? null : value.trim();
+	}
+
+	@Inject
+	void initSignals(@ConfigProperty(name = "telemetry.signals", defaultValue = "") String value) {
+		signalNames = value == null ? "" : value.trim();
+	}
+
+	@Inject
+	void initBlockRows(@NumberConfig(name = "telemetry.blockRows", defaultValue = "4096") Integer value) {
+		blockRows = value;
+	}
+}
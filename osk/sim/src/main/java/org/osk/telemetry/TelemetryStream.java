@@ -0,0 +1,380 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.exception.util.DummyLocalizable;
+import org.osk.errors.OskException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams telemetry rows in compact binary frames over TCP or UDP.
+ *
+ * The simulation thread writes the rows of a {@link Subscription} into a
+ * frame buffer. When the frame holds the configured number of rows it is
+ * handed to a bounded queue and a new buffer is taken from a pool. A
+ * dedicated sender thread writes the frames to the network. If the queue
+ * is full, because a client is slow, the frame is dropped and counted; the
+ * simulation never waits for the network. Frame buffers are recycled, the
+ * steady state does not allocate.
+ *
+ * Frames, big endian:
+ * <pre>
+ *   int    magic "OSKF"
+ *   byte   type, SCHEMA or DATA
+ *   byte   layout version
+ *   short  number of signals n
+ *   long   frame sequence number
+ *   SCHEMA: n names, each a short length and UTF-8 bytes
+ *   DATA:   int rows, then per row the mission time and n values
+ * </pre>
+ * Over TCP every frame is preceded by its length as int, at most
+ * MAX_FRAME, and a client receives the schema when it connects. Over UDP
+ * every datagram is one frame of at most MAX_DATAGRAM bytes, and the
+ * schema is repeated every SCHEMA_INTERVAL frames.
+ */
+public final class TelemetryStream implements Subscription.Listener {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TelemetryStream.class);
+
+	public enum Transport { TCP, UDP }
+
+	public static final int MAGIC = 0x4F534B46; // "OSKF"
+	public static final byte VERSION = 1;
+	public static final byte SCHEMA = 0;
+	public static final byte DATA = 1;
+	/** Frame header size, up to the type specific part. */
+	public static final int HEADER_SIZE = 16;
+	/** Largest UDP payload. */
+	public static final int MAX_DATAGRAM = 65507;
+	/** Largest frame over TCP, so clients can size their buffer from the length. */
+	public static final int MAX_FRAME = 16 * 1024 * 1024;
+	/** Data frames between two schema frames over UDP. */
+	static final int SCHEMA_INTERVAL = 100;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final Transport transport;
+	private final InetSocketAddress address;
+	private final String[] names;
+	private final int rowsPerFrame;
+	private final int frameSize;
+	private final BlockingQueue<ByteBuffer> queue;
+	private final BlockingQueue<ByteBuffer> pool;
+	private final ByteBuffer schema;
+
+	private ByteBuffer frame;
+	private int rows;
+	private long sequence;
+	private volatile long dropped;
+	private volatile long sent;
+	private volatile boolean running;
+	private Thread sender;
+
+	/**
+	 * @param transport TCP to accept clients on the address, UDP to send
+	 *                  datagrams to it
+	 * @param address local address for TCP, destination for UDP
+	 * @param names streamed signals, in frame order
+	 * @param rowsPerFrame rows batched into one data frame
+	 * @param queueFrames frames that may wait for the sender
+	 */
+	public TelemetryStream(final Transport transport, final InetSocketAddress address,
+			final String[] names, final int rowsPerFrame, final int queueFrames) throws OskException {
+		if (rowsPerFrame < 1 || queueFrames < 1) {
+			throw new OskException(new DummyLocalizable("Telemetry stream needs at least one row"
+					+ " per frame and one queued frame"));
+		}
+		this.transport = transport;
+		this.address = address;
+		this.names = names.clone();
+		final int rowSize = 8 * (names.length + 1);
+		final int maxSize = transport == Transport.UDP ? MAX_DATAGRAM : MAX_FRAME;
+		final long size = HEADER_SIZE + 4 + (long) rowSize * rowsPerFrame;
+		if (size > maxSize) {
+			throw new OskException(new DummyLocalizable("Telemetry frames of " + rowsPerFrame
+					+ " rows exceed the " + transport + " frame size, use at most "
+					+ (maxSize - HEADER_SIZE - 4) / rowSize));
+		}
+		this.frameSize = (int) size;
+		this.schema = encodeSchema(this.names);
+		if (schema.remaining() > maxSize) {
+			throw new OskException(new DummyLocalizable("Telemetry schema of " + names.length
+					+ " signals exceeds the " + transport + " frame size"));
+		}
+		this.rowsPerFrame = rowsPerFrame;
+		this.queue = new ArrayBlockingQueue<ByteBuffer>(queueFrames);
+		// queued frames, one being sent and one being filled
+		this.pool = new ArrayBlockingQueue<ByteBuffer>(queueFrames + 2);
+		for (int i = 0; i < queueFrames + 1; i++) {
+			pool.add(ByteBuffer.allocateDirect(frameSize));
+		}
+		this.frame = ByteBuffer.allocateDirect(frameSize);
+	}
+
+	private static ByteBuffer encodeSchema(final String[] names) {
+		final byte[][] bytes = new byte[names.length][];
+		int size = HEADER_SIZE;
+		for (int i = 0; i < names.length; i++) {
+			bytes[i] = names[i].getBytes(UTF8);
+			size += 2 + bytes[i].length;
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.putInt(MAGIC).put(SCHEMA).put(VERSION).putShort((short) names.length).putLong(0L);
+		for (byte[] name : bytes) {
+			buffer.putShort((short) name.length).put(name);
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/** Starts the sender thread; for TCP binds the server socket first. */
+	public synchronized void start() throws OskException {
+		if (running) {
+			return;
+		}
+		final Sender task;
+		try {
+			task = transport == Transport.TCP ? new TcpSender() : new UdpSender();
+		} catch (IOException e) {
+			throw new OskException(new DummyLocalizable("Cannot open telemetry stream on "
+					+ address + ": " + e.getMessage()));
+		}
+		running = true;
+		sender = new Thread(task, "osk-telemetry-stream");
+		sender.setDaemon(true);
+		sender.start();
+	}
+
+	/** Stops the sender thread, frames still queued are discarded. */
+	public synchronized void stop() {
+		running = false;
+		if (sender != null) {
+			sender.interrupt();
+			try {
+				sender.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			sender = null;
+		}
+	}
+
+	/** Adds one row; called by the subscription on the simulation thread. */
+	@Override
+	public void window(final double time, final Subscription subscription, final double[] values) {
+		if (frame == null) {
+			// all buffers are queued, drop rows until the sender returns one
+			frame = pool.poll();
+			if (frame == null) {
+				return;
+			}
+		}
+		if (rows == 0) {
+			frame.clear();
+			frame.putInt(MAGIC).put(DATA).put(VERSION).putShort((short) names.length)
+					.putLong(sequence).putInt(0);
+		}
+		frame.putDouble(time);
+		for (int i = 0; i < names.length; i++) {
+			frame.putDouble(values[i]);
+		}
+		if (++rows == rowsPerFrame) {
+			flush();
+		}
+	}
+
+	/** Queues the rows collected so far as one frame. */
+	public void flush() {
+		if (rows == 0 || frame == null) {
+			return;
+		}
+		frame.putInt(HEADER_SIZE, rows);
+		frame.flip();
+		sequence++;
+		rows = 0;
+		if (queue.offer(frame)) {
+			frame = pool.poll();
+		} else {
+			dropped++;
+		}
+	}
+
+	public String[] getNames() {
+		return names.clone();
+	}
+
+	public long getDroppedFrames() {
+		return dropped;
+	}
+
+	public long getSentFrames() {
+		return sent;
+	}
+
+	public Transport getTransport() {
+		return transport;
+	}
+
+	/** Address the stream is bound or sending to. */
+	public InetSocketAddress getAddress() {
+		return address;
+	}
+
+	private abstract class Sender implements Runnable {
+
+		@Override
+		public void run() {
+			try {
+				while (running) {
+					final ByteBuffer next = queue.poll(100, TimeUnit.MILLISECONDS);
+					idle();
+					if (next == null) {
+						continue;
+					}
+					try {
+						send(next);
+						sent++;
+					} catch (IOException e) {
+						LOG.warn("Telemetry frame not sent: {}", e.getMessage());
+					}
+					pool.offer(next);
+				}
+			} catch (InterruptedException e) {
+				// stopped
+			} finally {
+				close();
+			}
+		}
+
+		/** Work between frames, e.g. accepting clients. */
+		void idle() {
+		}
+
+		abstract void send(ByteBuffer frame) throws IOException;
+
+		abstract void close();
+	}
+
+	private final class TcpSender extends Sender {
+		private final ServerSocketChannel server;
+		private final List<SocketChannel> clients = new ArrayList<SocketChannel>();
+		private final ByteBuffer length = ByteBuffer.allocate(4);
+
+		TcpSender() throws IOException {
+			server = ServerSocketChannel.open();
+			server.socket().setReuseAddress(true);
+			server.socket().bind(address);
+			server.configureBlocking(false);
+		}
+
+		@Override
+		void idle() {
+			try {
+				SocketChannel client;
+				while ((client = server.accept()) != null) {
+					client.configureBlocking(true);
+					client.socket().setTcpNoDelay(true);
+					try {
+						write(client, schema.duplicate());
+						clients.add(client);
+						LOG.info("Telemetry client connected from {}", client.socket().getRemoteSocketAddress());
+					} catch (IOException e) {
+						client.close();
+					}
+				}
+			} catch (IOException e) {
+				LOG.warn("Telemetry client not accepted: {}", e.getMessage());
+			}
+		}
+
+		@Override
+		void send(final ByteBuffer frame) {
+			for (Iterator<SocketChannel> i = clients.iterator(); i.hasNext();) {
+				final SocketChannel client = i.next();
+				try {
+					write(client, frame.duplicate());
+				} catch (IOException e) {
+					LOG.info("Telemetry client disconnected: {}", e.getMessage());
+					closeQuietly(client);
+					i.remove();
+				}
+			}
+		}
+
+		private void write(final SocketChannel client, final ByteBuffer body) throws IOException {
+			length.clear();
+			length.putInt(body.remaining()).flip();
+			while (length.hasRemaining()) {
+				client.write(length);
+			}
+			while (body.hasRemaining()) {
+				client.write(body);
+			}
+		}
+
+		@Override
+		void close() {
+			for (SocketChannel client : clients) {
+				closeQuietly(client);
+			}
+			clients.clear();
+			try {
+				server.close();
+			} catch (IOException e) {
+				// closing anyway
+			}
+		}
+
+		private void closeQuietly(final SocketChannel client) {
+			try {
+				client.close();
+			} catch (IOException e) {
+				// closing anyway
+			}
+		}
+	}
+
+	private final class UdpSender extends Sender {
+		private final DatagramChannel channel;
+		private long frames;
+
+		UdpSender() throws IOException {
+			channel = DatagramChannel.open();
+		}
+
+		@Override
+		void send(final ByteBuffer frame) throws IOException {
+			if (frames++ % SCHEMA_INTERVAL == 0) {
+				channel.send(schema.duplicate(), address);
+			}
+			channel.send(frame.duplicate(), address);
+		}
+
+		@Override
+		void close() {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// closing anyway
+			}
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Reference client of a {@link TelemetryStream}, for tests and as example
+ * for clients in other languages. Data frames that arrive before the
+ * schema are skipped.
+ */
+public final class TelemetryStreamClient {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final TelemetryStream.Transport transport;
+	private final ByteChannel channel;
+	/** Frame buffer, grown for larger TCP frames. */
+	private ByteBuffer buffer = ByteBuffer.allocate(TelemetryStream.MAX_DATAGRAM);
+	private final ByteBuffer length = ByteBuffer.allocate(4);
+	private String[] names;
+	private long sequence = -1;
+	private int rows;
+	private double[] times = new double[0];
+	private double[] values = new double[0];
+
+	private TelemetryStreamClient(final TelemetryStream.Transport transport, final ByteChannel channel) {
+		this.transport = transport;
+		this.channel = channel;
+	}
+
+	/** Connects to a TCP stream. */
+	public static TelemetryStreamClient connect(final InetSocketAddress address) throws IOException {
+		return new TelemetryStreamClient(TelemetryStream.Transport.TCP, SocketChannel.open(address));
+	}
+
+	/** Listens for a UDP stream on the given local address. */
+	public static TelemetryStreamClient listen(final InetSocketAddress address) throws IOException {
+		final DatagramChannel channel = DatagramChannel.open();
+		channel.socket().bind(address);
+		return new TelemetryStreamClient(TelemetryStream.Transport.UDP, channel);
+	}
+
+	/**
+	 * Blocks until the next data frame arrived.
+	 *
+	 * @return number of rows of the frame
+	 */
+	public int receive() throws IOException {
+		while (true) {
+			readFrame();
+			final int magic = buffer.getInt();
+			final byte type = buffer.get();
+			final byte version = buffer.get();
+			final int count = buffer.getShort();
+			final long frameSequence = buffer.getLong();
+			if (magic != TelemetryStream.MAGIC || version != TelemetryStream.VERSION) {
+				throw new IOException("Not a telemetry frame of version " + TelemetryStream.VERSION);
+			}
+			if (type == TelemetryStream.SCHEMA) {
+				names = new String[count];
+				for (int i = 0; i < count; i++) {
+					final byte[] name = new byte[buffer.getShort()];
+					buffer.get(name);
+					names[i] = new String(name, UTF8);
+				}
+			} else if (names != null && count == names.length) {
+				sequence = frameSequence;
+				rows = buffer.getInt();
+				if (times.length < rows) {
+					times = new double[rows];
+					values = new double[rows * count];
+				}
+				for (int r = 0; r < rows; r++) {
+					times[r] = buffer.getDouble();
+					for (int i = 0; i < count; i++) {
+						values[r * count + i] = buffer.getDouble();
+					}
+				}
+				return rows;
+			}
+		}
+	}
+
+	private void readFrame() throws IOException {
+		buffer.clear();
+		if (transport == TelemetryStream.Transport.UDP) {
+			((DatagramChannel) channel).receive(buffer);
+		} else {
+			length.clear();
+			readFully(length);
+			length.flip();
+			final int size = length.getInt();
+			if (size < TelemetryStream.HEADER_SIZE || size > TelemetryStream.MAX_FRAME) {
+				throw new IOException("Telemetry frame length " + size + " out of range");
+			}
+			if (size > buffer.capacity()) {
+				buffer = ByteBuffer.allocate(size);
+			}
+			buffer.limit(size);
+			readFully(buffer);
+		}
+		buffer.flip();
+	}
+
+	private void readFully(final ByteBuffer target) throws IOException {
+		while (target.hasRemaining()) {
+			if (channel.read(target) < 0) {
+				throw new IOException("Telemetry stream closed");
+			}
+		}
+	}
+
+	/** Signal names, null before the schema arrived. */
+	public String[] getNames() {
+		return names == null ? null : names.clone();
+	}
+
+	/** Sequence number of the last data frame; gaps are dropped frames. */
+	public long getSequence() {
+		return sequence;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public double getTime(final int row) {
+		return times[row];
+	}
+
+	public double getValue(final int row, final int signal) {
+		return values[row * names.length + signal];
+	}
+
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import java.net.InetSocketAddress;
+import java.util.StringTokenizer;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.apache.deltaspike.core.api.config.ConfigProperty;
+import org.osk.config.NumberConfig;
+import org.osk.errors.OskException;
+import org.osk.events.StepCompleted;
+import org.slf4j.Logger;
+
+/**
+ * Streams the signals listed in stream.signals to external tools, e.g. a
+ * visualizer, through a {@link TelemetryStream}. stream.transport selects
+ * tcp or udp; left empty, nothing is streamed. The stream is opened at the
+ * first completed step, when all parts have registered their models, and
+ * delivers every stream.decimation-th step.
+ */
+@ApplicationScoped
+public class TelemetryStreaming {
+
+	@Inject Logger LOG;
+	@Inject Subscriptions subscriptions;
+
+	private String transport;
+	private String host;
+	private int port;
+	private String signalNames;
+	private int decimation;
+	private int rowsPerFrame;
+	private int queueFrames;
+	private TelemetryStream stream;
+	private Subscription subscription;
+	private boolean failed;
+
+	public void open(@Observes StepCompleted step) {
+		if (stream != null || failed || transport.length() == 0) {
+			return;
+		}
+		try {
+			final StringTokenizer tokenizer = new StringTokenizer(signalNames, " ");
+			final String[] names = new String[tokenizer.countTokens()];
+			for (int i = 0; i < names.length; i++) {
+				names[i] = tokenizer.nextToken();
+			}
+			final TelemetryStream.Transport type = TelemetryStream.Transport.valueOf(transport.toUpperCase());
+			stream = new TelemetryStream(type, new InetSocketAddress(host, port), names,
+					rowsPerFrame, queueFrames);
+			subscription = subscriptions.subscribe(Subscription.decimated(names, decimation, stream));
+			stream.start();
+			LOG.info("Streaming {} signals over {} on {}", new Object[] {names.length, type, stream.getAddress()});
+		} catch (IllegalArgumentException e) {
+			LOG.error("Unknown stream.transport {}, use tcp or udp", transport);
+			failed = true;
+		} catch (OskException e) {
+			LOG.error("Telemetry stream disabled: {}", e.getMessage());
+			failed = true;
+		}
+		if (failed) {
+			if (subscription != null) {
+				subscriptions.unsubscribe(subscription);
+			}
+			stream = null;
+		}
+	}
+
+	@PreDestroy
+	public void close() {
+		if (stream != null) {
+			subscriptions.unsubscribe(subscription);
+			stream.flush();
+			stream.stop();
+			LOG.info("Telemetry stream sent {} frames, dropped {}",
+					stream.getSentFrames(), stream.getDroppedFrames());
+			stream = null;
+		}
+	}
+
+	public TelemetryStream getStream() {
+		return stream;
+	}
+
+	@Inject
+	void initTransport(@ConfigProperty(name = "stream.transport", defaultValue = "") String value) {
+		transport = value == null ? "" : value.trim();
+	}
+
+	@Inject
+	void initHost(@ConfigProperty(name = "stream.host", defaultValue = "localhost") String value) {
+		host = value.trim();
+	}
+
+	@Inject
+	void initPort(@NumberConfig(name = "stream.port", defaultValue = "5800") Integer value) {
+		port = value;
+	}
+
+	@Inject
+	void initSignals(@ConfigProperty(name = "stream.signals", defaultValue = "") String value) {
+		signalNames = value == null ? "" : value.trim();
+	}
+
+	@Inject
+	void initDecimation(@NumberConfig(name = "stream.decimation", defaultValue = "1") Integer value) {
+		decimation = value;
+	}
+
+	@Inject
+	void initRowsPerFrame(@NumberConfig(name = "stream.rowsPerFrame", defaultValue = "10") Integer value) {
+		rowsPerFrame = value;
+	}
+
+	@Inject
+	void initQueueFrames(@NumberConfig(name = "stream.queueFrames", defaultValue = "64") Integer value) {
+		queueFrames = value;
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.osk.errors.OskException;
+
+public class ConfigValueTest {
+
+	@Test
+	public void singleNumber() throws OskException {
+		final ConfigValue value = new ConfigValue("pipe16.length", "1.5");
+		assertTrue(value.isNumeric());
+		assertEquals(1.5, value.asDouble(), 0.0);
+		assertArrayEquals(new double[] {1.5}, value.asDoubleArray(), 0.0);
+	}
+
+	@Test
+	public void list() throws OskException {
+		final ConfigValue value = new ConfigValue("pipe16.temperatures", "300.0 301.5  -.5");
+		assertArrayEquals(new double[] {300.0, 301.5, -0.5}, value.asDoubleArray(), 0.0);
+	}
+
+	@Test
+	public void emptyValueIsAnEmptyArray() throws OskException {
+		assertEquals(0, new ConfigValue("icontroller24.fuelSchedule", "").asDoubleArray().length);
+		assertEquals(0, new ConfigValue("icontroller24.fuelSchedule", "   ").asDoubleArray().length);
+	}
+
+	@Test
+	public void exponents() throws OskException {
+		assertArrayEquals(new double[] {1e-6, 2.5e3, -3.88878e-4, 6e5},
+				new ConfigValue("k", "1.E-6 2.5e+3 -3.88878E-4 0.6e6").asDoubleArray(), 0.0);
+	}
+
+	@Test
+	public void anyWhitespaceSeparates() throws OskException {
+		assertArrayEquals(new double[] {1.0, 2.0, 3.0, 4.0},
+				new ConfigValue("k", "1.0\t2.0 \t3.0\n4.0").asDoubleArray(), 0.0);
+	}
+
+	@Test
+	public void integers() throws OskException {
+		assertEquals(8, new ConfigValue("gravity23.degree", "8").asLong());
+		assertEquals(100, new ConfigValue("time.stepSize", "1E2").asLong());
+	}
+
+	@Test
+	public void unsetValue() {
+		final ConfigValue value = new ConfigValue("none", null);
+		assertFalse(value.isSet());
+		assertFalse(value.isNumeric());
+	}
+
+	@Test
+	public void textIsNotNumeric() {
+		final ConfigValue value = new ConfigValue("tank17.fuel", "MON3");
+		assertTrue(value.isSet());
+		assertFalse(value.isNumeric());
+		assertEquals("MON3", value.getText());
+		assertRejected(value, "tank17.fuel");
+	}
+
+	@Test
+	public void listWithTextIsRejected() {
+		assertRejected(new ConfigValue("pipe16.temperatures", "300.0 warm 300.0"), "pipe16.temperatures");
+	}
+
+	@Test
+	public void fractionalIntegerIsRejected() {
+		try {
+			new ConfigValue("gravity23.degree", "8.5").asLong();
+			fail("8.5 is no integer");
+		} catch (OskException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("gravity23.degree"));
+		}
+	}
+
+	@Test
+	public void listIsNoSingleNumber() {
+		try {
+			new ConfigValue("pipe16.length", "1.5 2.5").asDouble();
+			fail("a list is no single number");
+		} catch (OskException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("pipe16.length"));
+		}
+	}
+
+	private static void assertRejected(final ConfigValue value, final String key) {
+		try {
+			value.asDouble();
+			fail("not a number");
+		} catch (OskException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(key));
+		}
+		try {
+			value.asDoubleArray();
+			fail("not a list of numbers");
+		} catch (OskException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(key));
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class NonUniformTableTest {
+
+	/** Free surface over level with a steep step between 0.4 and 0.401. */
+	private final NonUniformTable table = new NonUniformTable(
+			new double[] {0.0, 0.1, 0.4, 0.401, 1.0},
+			new double[] {1.0, 1.5, 1.5, 3.0, 2.0});
+
+	@Test
+	public void exactAtKnots() {
+		assertEquals(1.0, table.value(0.0), 0.0);
+		assertEquals(1.5, table.value(0.1), 0.0);
+		assertEquals(1.5, table.value(0.4), 0.0);
+		assertEquals(3.0, table.value(0.401), 0.0);
+		assertEquals(2.0, table.value(1.0), 0.0);
+	}
+
+	@Test
+	public void linearWithinTheStep() {
+		assertEquals(2.25, table.value(0.4005), 1.0E-9);
+		assertEquals(1.5 + 1.5 * 0.1, table.value(0.4001), 1.0E-9);
+		assertEquals(1.5, table.value(Math.nextAfter(0.4, 0.0)), 1.0E-12);
+		assertEquals(3.0, table.value(Math.nextUp(0.401)), 1.0E-9);
+	}
+
+	@Test
+	public void linearBetweenKnots() {
+		assertEquals(1.25, table.value(0.05), 1.0E-12);
+		assertEquals(1.5, table.value(0.25), 1.0E-12);
+		assertEquals(2.5, table.value(0.7005), 1.0E-12);
+	}
+
+	@Test
+	public void clampedOutsideRange() {
+		assertEquals(1.0, table.value(-1.0), 0.0);
+		assertEquals(2.0, table.value(1.5), 0.0);
+		assertTrue(table.contains(0.0));
+		assertTrue(table.contains(1.0));
+		assertFalse(table.contains(Math.nextUp(1.0)));
+		assertFalse(table.contains(-1.0E-12));
+		assertEquals(0.0, table.getXMin(), 0.0);
+		assertEquals(1.0, table.getXMax(), 0.0);
+		assertEquals(5, table.size());
+	}
+
+	@Test
+	public void copiesItsArrays() {
+		final double[] x = {0.0, 1.0};
+		final double[] y = {2.0, 4.0};
+		final NonUniformTable copy = new NonUniformTable(x, y);
+		x[1] = 2.0;
+		y[1] = 0.0;
+		assertEquals(3.0, copy.value(0.5), 1.0E-12);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void repeatedAbscissa() {
+		new NonUniformTable(new double[] {0.0, 0.4, 0.4, 1.0}, new double[] {1.0, 1.0, 3.0, 3.0});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void singlePoint() {
+		new NonUniformTable(new double[] {0.0}, new double[] {1.0});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void lengthMismatch() {
+		new NonUniformTable(new double[] {0.0, 1.0}, new double[] {1.0});
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class NozzleExitPressureTest {
+
+	/** Area ratio for the pressure ratio r, Space Propulsion Analysis and Design 3.100. */
+	private static double areaRatio(final double k, final double r) {
+		final double t1 = Math.pow(2. / (k + 1.), 1. / (k - 1.)) / Math.sqrt((k + 1.) / (k - 1.));
+		return t1 * Math.pow(r, -1. / k) / Math.sqrt(1. - Math.pow(r, (k - 1.) / k));
+	}
+
+	@Test
+	public void solvesAreaRatioEquation() {
+		final NozzleExitPressure nozzle = new NozzleExitPressure();
+		for (double k = 1.1; k <= 1.4; k += 0.05) {
+			for (double eps = 1.5; eps < 400; eps *= 1.7) {
+				final double r = nozzle.ratio(k, eps);
+				assertEquals(eps, areaRatio(k, r), 1e-9 * eps);
+				assertTrue(r < Math.pow(2. / (k + 1.), k / (k - 1.)));
+			}
+		}
+	}
+
+	@Test
+	public void idealGasTableValue() {
+		// k = 1.4, area ratio 10: Me = 3.92 from the isentropic flow tables,
+		// pe/pc = (1 + 0.2 Me^2)^-3.5 = 0.00731.
+		assertEquals(0.00731, new NozzleExitPressure().ratio(1.4, 10), 0.00002);
+	}
+
+	@Test
+	public void exitPressureInUnitOfChamberPressure() {
+		final NozzleExitPressure nozzle = new NozzleExitPressure();
+		assertEquals(nozzle.ratio(1.2, 60) * 10E5, nozzle.solve(1.2, 60, 10E5), 1e-6);
+	}
+
+	@Test
+	public void warmStartConvergesFast() {
+		final NozzleExitPressure nozzle = new NozzleExitPressure();
+		final double cold = nozzle.ratio(1.22, 80);
+		final int coldIterations = nozzle.getLastIterations();
+		final double warm = nozzle.ratio(1.2201, 80);
+		assertTrue(nozzle.getLastIterations() <= 3);
+		assertTrue(nozzle.getLastIterations() < coldIterations);
+		nozzle.reset();
+		assertEquals(cold, nozzle.ratio(1.22, 80), 1e-15);
+		assertTrue(warm != cold);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsSubsonicAreaRatio() {
+		new NozzleExitPressure().ratio(1.2, 0.9);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsIsothermalExponent() {
+		new NozzleExitPressure().ratio(1., 10);
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class PiecewisePolynomialTest {
+
+	private final PiecewisePolynomial function = new PiecewisePolynomial(
+			new double[] {0, 10},
+			new Polynomial[] {new Polynomial(-1), new Polynomial(0, 1), new Polynomial(10, 0, 1)});
+
+	@Test
+	public void pieceByBreakpoint() {
+		assertEquals(-1, function.value(-5), 0);
+		assertEquals(5, function.value(5), 0);
+		assertEquals(10 + 144, function.value(12), 0);
+	}
+
+	@Test
+	public void breakpointBelongsToLowerPiece() {
+		assertEquals(-1, function.value(0), 0);
+		assertEquals(10, function.value(10), 0);
+	}
+
+	@Test
+	public void derivativePerPiece() {
+		final PiecewisePolynomial derivative = function.derivative();
+		assertEquals(0, derivative.value(-1), 0);
+		assertEquals(1, derivative.value(1), 0);
+		assertEquals(24, derivative.value(12), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void needsOnePieceMoreThanBreakpoints() {
+		new PiecewisePolynomial(new double[] {0, 1}, new Polynomial[] {new Polynomial(1)});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void needsIncreasingBreakpoints() {
+		new PiecewisePolynomial(new double[] {1, 1},
+				new Polynomial[] {new Polynomial(1), new Polynomial(2), new Polynomial(3)});
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class PolynomialTest {
+
+	@Test
+	public void valueMatchesPowerSum() {
+		final double[] c = {-19846.5, 5732.967, -2.42982, 3.332099E-3};
+		final Polynomial polynomial = new Polynomial(c);
+		for (double x = -50; x <= 400; x += 12.5) {
+			double expected = 0;
+			for (int i = 0; i < c.length; i++) {
+				expected += c[i] * Math.pow(x, i);
+			}
+			assertEquals(expected, polynomial.value(x), 1e-9 * Math.abs(expected) + 1e-9);
+		}
+	}
+
+	@Test
+	public void constant() {
+		final Polynomial polynomial = new Polynomial(4.5);
+		assertEquals(4.5, polynomial.value(-3), 0);
+		assertEquals(0, polynomial.degree());
+		assertEquals(0, polynomial.derivative().value(7), 0);
+	}
+
+	@Test
+	public void derivative() {
+		final Polynomial derivative = new Polynomial(1, 2, 3, 4).derivative();
+		assertArrayEquals(new double[] {2, 6, 12}, derivative.getCoefficients(), 0);
+		assertEquals(2 + 6 * 2. + 12 * 4., derivative.value(2), 1e-12);
+	}
+
+	@Test
+	public void coefficientsAreCopied() {
+		final double[] c = {1, 1};
+		final Polynomial polynomial = new Polynomial(c);
+		c[1] = 5;
+		assertEquals(3, polynomial.value(2), 0);
+		polynomial.getCoefficients()[0] = 7;
+		assertEquals(3, polynomial.value(2), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void needsCoefficients() {
+		new Polynomial();
+	}
+}
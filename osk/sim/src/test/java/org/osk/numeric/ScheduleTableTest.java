@@ -0,0 +1,70 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.osk.numeric.ScheduleTable.Interpolation;
+
+public class ScheduleTableTest {
+
+	private static final double[] PAIRS = {0.0, 0.2, 10.0, 0.8, 120.0, 0.0};
+
+	@Test
+	public void stepHoldsTheLastBreakpoint() {
+		final ScheduleTable table = ScheduleTable.fromPairs(PAIRS, Interpolation.STEP);
+		assertEquals(0.2, table.value(0.0), 0.0);
+		assertEquals(0.2, table.value(9.999), 0.0);
+		assertEquals(0.8, table.value(10.0), 0.0);
+		assertEquals(0.8, table.value(119.0), 0.0);
+		assertEquals(0.0, table.value(120.0), 0.0);
+	}
+
+	@Test
+	public void linearInterpolatesBetweenBreakpoints() {
+		final ScheduleTable table = ScheduleTable.fromPairs(PAIRS, Interpolation.LINEAR);
+		assertEquals(0.5, table.value(5.0), 1e-15);
+		assertEquals(0.4, table.value(65.0), 1e-15);
+	}
+
+	@Test
+	public void endValuesHoldOutsideTheSchedule() {
+		final ScheduleTable table = ScheduleTable.fromPairs(PAIRS, Interpolation.LINEAR);
+		assertEquals(0.2, table.value(-5.0), 0.0);
+		assertEquals(0.0, table.value(1e6), 0.0);
+	}
+
+	@Test
+	public void cursorFollowsJumpsInBothDirections() {
+		final int n = 5000;
+		final double[] times = new double[n];
+		final double[] values = new double[n];
+		for (int i = 0; i < n; i++) {
+			times[i] = i;
+			values[i] = 2.0 * i;
+		}
+		final ScheduleTable table = new ScheduleTable(times, values, Interpolation.LINEAR);
+		for (double t = 0; t < n - 1; t += 0.1) {
+			assertEquals(2.0 * t, table.value(t), 1e-9);
+		}
+		assertEquals(200.5, table.value(100.25), 1e-9);
+		assertEquals(8000.0, table.value(4000.0), 1e-9);
+		assertEquals(3.0, table.value(1.5), 1e-9);
+		table.reset();
+		assertEquals(9997.0, table.value(4998.5), 1e-9);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnsortedTimes() {
+		new ScheduleTable(new double[] {0, 2, 1}, new double[] {0, 0, 0}, Interpolation.STEP);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsOddPairs() {
+		ScheduleTable.fromPairs(new double[] {0, 1, 2}, Interpolation.STEP);
+	}
+}
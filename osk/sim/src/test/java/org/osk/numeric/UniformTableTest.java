@@ -0,0 +1,51 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class UniformTableTest {
+
+	/** y = 3x + 1 on [2, 6], five points. */
+	private final UniformTable table = new UniformTable(2, 6, new double[] {7, 10, 13, 16, 19});
+
+	@Test
+	public void exactAtGridPoints() {
+		for (int i = 0; i < 5; i++) {
+			assertEquals(3 * (2 + i) + 1, table.value(2 + i), 1e-12);
+		}
+	}
+
+	@Test
+	public void linearBetweenGridPoints() {
+		for (double x = 2; x <= 6; x += 0.037) {
+			assertEquals(3 * x + 1, table.value(x), 1e-12);
+		}
+	}
+
+	@Test
+	public void clampedOutsideRange() {
+		assertEquals(7, table.value(-100), 0);
+		assertEquals(19, table.value(6.5), 0);
+		assertFalse(table.contains(1.99));
+		assertTrue(table.contains(6));
+	}
+
+	@Test
+	public void grid() {
+		assertEquals(1, table.getStep(), 0);
+		assertEquals(5, table.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void needsRange() {
+		new UniformTable(1, 1, new double[] {0, 1});
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.ports;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class FluidsTest {
+
+	@Test
+	public void idAndNameRoundTrip() {
+		final int id = Fluids.id("FluidsTest.He");
+		assertTrue(id != Fluids.NONE);
+		assertEquals("FluidsTest.He", Fluids.name(id));
+		assertEquals(id, Fluids.id("FluidsTest.He"));
+		assertEquals(id, Fluids.id(new String("FluidsTest.He")));
+	}
+
+	@Test
+	public void distinctNamesGetDistinctIds() {
+		final int fuel = Fluids.id("FluidsTest.MMH");
+		final int oxidizer = Fluids.id("FluidsTest.NTO");
+		assertFalse(fuel == oxidizer);
+		assertEquals("FluidsTest.MMH", Fluids.name(fuel));
+		assertEquals("FluidsTest.NTO", Fluids.name(oxidizer));
+	}
+
+	@Test
+	public void noFluid() {
+		assertEquals(Fluids.NONE, Fluids.id(null));
+		// NONE has no name
+		assertNull(Fluids.name(Fluids.NONE));
+		assertNull(new FluidPort().getFluid());
+	}
+
+	@Test
+	public void portKeepsTheFluidName() {
+		final FluidPort port = new FluidPort("FluidsTest.N2", 2.0E5, 290.0, 0.1);
+		assertEquals("FluidsTest.N2", port.getFluid());
+		assertEquals(Fluids.id("FluidsTest.N2"), port.getFluidId());
+	}
+
+	@Test
+	public void setCopiesTheValues() {
+		final FluidPort source = new FluidPort("FluidsTest.N2", 2.0E5, 290.0, 0.1);
+		final FluidPort copy = new FluidPort().set(source);
+		source.clear();
+		assertEquals(Fluids.NONE, source.getFluidId());
+		assertEquals(0.0, source.getMassflow(), 0.0);
+		assertEquals("FluidsTest.N2", copy.getFluid());
+		assertEquals(2.0E5, copy.getPressure(), 0.0);
+		assertEquals(290.0, copy.getTemperature(), 0.0);
+		assertEquals(0.1, copy.getMassflow(), 0.0);
+	}
+
+	@Test
+	public void cloneIsIndependent() {
+		final FluidPort source = new FluidPort("FluidsTest.N2", 2.0E5, 290.0, 0.1);
+		final FluidPort clone = source.clone();
+		assertNotSame(source, clone);
+		source.set(Fluids.NONE, 1.0E5, 280.0, 0.0);
+		assertEquals("FluidsTest.N2", clone.getFluid());
+		assertEquals(2.0E5, clone.getPressure(), 0.0);
+		assertSame(clone, clone.clear());
+	}
+}
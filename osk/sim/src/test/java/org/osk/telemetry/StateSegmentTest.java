@@ -0,0 +1,148 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osk.errors.OskException;
+
+public class StateSegmentTest {
+
+	private static final String[] CHANNELS = {"eci.x", "eci.y", "eci.z", "thrust"};
+
+	private File file;
+	private StateSegment segment;
+
+	@Before
+	public void open() throws IOException, OskException {
+		file = File.createTempFile("osk-state", ".seg");
+		segment = new StateSegment(file, CHANNELS);
+	}
+
+	@After
+	public void close() {
+		segment.close();
+		file.delete();
+	}
+
+	@Test
+	public void writeReadCycle() throws OskException {
+		final StateSegmentReader reader = new StateSegmentReader(file);
+		assertArrayEquals(CHANNELS, reader.getChannels());
+		final double[] values = new double[CHANNELS.length];
+		assertFalse("nothing published yet", reader.read(values));
+
+		for (long step = 1; step <= 3; step++) {
+			segment.begin(step * 0.5, step);
+			for (int i = 0; i < CHANNELS.length; i++) {
+				segment.set(i, 10 * step + i);
+			}
+			segment.end();
+			assertTrue(reader.read(values));
+			assertEquals(step * 0.5, reader.getTime(), 0.0);
+			assertEquals(step, reader.getStep());
+			for (int i = 0; i < CHANNELS.length; i++) {
+				assertEquals(10 * step + i, values[i], 0.0);
+			}
+		}
+		assertEquals(3, segment.getSequence());
+		assertEquals(3, segment.channel("thrust"));
+		assertEquals(-1, segment.channel("none"));
+	}
+
+	@Test
+	public void unfinishedWriteIsNotSeen() throws OskException {
+		segment.begin(1.0, 1);
+		segment.set(0, 1.0);
+		segment.end();
+		segment.begin(2.0, 2);
+		segment.set(0, 2.0);
+		final StateSegmentReader reader = new StateSegmentReader(file);
+		final double[] values = new double[CHANNELS.length];
+		assertTrue(reader.read(values));
+		assertEquals(1, reader.getStep());
+		assertEquals(1.0, values[0], 0.0);
+	}
+
+	@Test
+	public void readerNeverSeesTornValues() throws Exception {
+		final long steps = 200000;
+		final Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for (long step = 1; step <= steps; step++) {
+					segment.begin(step, step);
+					for (int i = 0; i < CHANNELS.length; i++) {
+						segment.set(i, step);
+					}
+					segment.end();
+				}
+			}
+		};
+		final StateSegmentReader reader = new StateSegmentReader(file);
+		final double[] values = new double[CHANNELS.length];
+		writer.start();
+		long reads = 0;
+		long last = 0;
+		while (writer.isAlive() || last < steps) {
+			if (!reader.read(values)) {
+				continue;
+			}
+			final long step = reader.getStep();
+			if (reader.getTime() != step) {
+				fail("time " + reader.getTime() + " with step " + step);
+			}
+			for (int i = 0; i < CHANNELS.length; i++) {
+				if (values[i] != step) {
+					fail("channel " + i + " is " + values[i] + " in step " + step);
+				}
+			}
+			assertTrue("steps go backwards", step >= last);
+			last = step;
+			reads++;
+		}
+		writer.join();
+		assertEquals(steps, last);
+		assertTrue(reads > 0);
+	}
+
+	@Test
+	public void sequenceIsStoredLittleEndian() throws IOException {
+		for (long step = 1; step <= 3; step++) {
+			segment.begin(step, step);
+			segment.end();
+		}
+		segment.close();
+		final RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			raf.seek(StateSegment.SEQUENCE_OFFSET);
+			assertEquals(3L, Long.reverseBytes(raf.readLong()));
+		} finally {
+			raf.close();
+		}
+	}
+
+	@Test(expected = OskException.class)
+	public void rejectsLongNames() throws IOException, OskException {
+		final File other = File.createTempFile("osk-state", ".seg");
+		try {
+			new StateSegment(other, "a.channel.name.longer.than.32.characters");
+		} finally {
+			other.delete();
+		}
+	}
+}
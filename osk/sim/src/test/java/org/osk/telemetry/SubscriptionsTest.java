@@ -0,0 +1,153 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.gescobar.jmx.annotation.ManagedAttribute;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.osk.errors.OskException;
+import org.osk.events.StepCompleted;
+import org.osk.telemetry.Subscription.Aggregation;
+import org.osk.time.TimeHandler;
+
+public class SubscriptionsTest {
+
+	/** Model whose values follow the step number. */
+	public static class Model {
+		long step;
+		int calls;
+
+		@ManagedAttribute
+		public double getStep() {
+			calls++;
+			return step;
+		}
+
+		@ManagedAttribute
+		public double getSquare() {
+			return step * step;
+		}
+	}
+
+	/** Keeps every delivered window. */
+	static class Windows implements Subscription.Listener {
+		final List<Double> times = new ArrayList<Double>();
+		final List<double[]> values = new ArrayList<double[]>();
+
+		public void window(final double time, final Subscription subscription, final double[] v) {
+			times.add(time);
+			values.add(v.clone());
+		}
+	}
+
+	private static final double STEP_SIZE = 0.1;
+
+	private final Model model = new Model();
+	private Subscriptions subscriptions;
+
+	@Before
+	public void setUp() {
+		subscriptions = new Subscriptions();
+		subscriptions.registry = new ModelRegistry();
+		subscriptions.registry.register("M", model);
+		subscriptions.timeHandler = new TimeHandler();
+		subscriptions.timeHandler.setStepSize((int) Math.round(STEP_SIZE * 1000));
+	}
+
+	/** Runs the steps from 1 to last, mission time accumulated like the solver's. */
+	private void run(final int last) {
+		double time = 0.0;
+		for (int step = 1; step <= last; step++) {
+			time = time + STEP_SIZE;
+			model.step = step;
+			subscriptions.update(new StepCompleted(time, step));
+		}
+	}
+
+	@Test
+	public void decimatedWindowsAreEqual() throws OskException {
+		final Windows windows = new Windows();
+		subscriptions.subscribe(Subscription.decimated(new String[] {"M.step"}, 3, windows));
+		run(10);
+		assertEquals(3, windows.values.size());
+		assertEquals(3.0, windows.values.get(0)[0], 0.0);
+		assertEquals(6.0, windows.values.get(1)[0], 0.0);
+		assertEquals(9.0, windows.values.get(2)[0], 0.0);
+	}
+
+	@Test
+	public void periodicWindowsDoNotDrift() throws OskException {
+		final Windows windows = new Windows();
+		// 0.3 s is not exact in binary, nor are the accumulated step times
+		final Subscription subscription = Subscription.periodic(new String[] {"M.step"}, 0.3,
+				Aggregation.SAMPLE, windows);
+		subscriptions.subscribe(subscription);
+		assertEquals(3, subscription.getStepsPerWindow());
+		run(3000);
+		assertEquals(1000, windows.values.size());
+		for (int i = 0; i < windows.values.size(); i++) {
+			assertEquals(3.0 * (i + 1), windows.values.get(i)[0], 0.0);
+		}
+	}
+
+	@Test
+	public void aggregatesOverTheWindow() throws OskException {
+		final Windows windows = new Windows();
+		subscriptions.subscribe(new Subscription(new String[] {"M.step", "M.step", "M.step", "M.square"},
+				new Aggregation[] {Aggregation.MIN, Aggregation.MAX, Aggregation.MEAN, Aggregation.SAMPLE},
+				4, 0.0, windows));
+		run(8);
+		assertEquals(2, windows.values.size());
+		final double[] first = windows.values.get(0);
+		assertEquals(1.0, first[0], 0.0);
+		assertEquals(4.0, first[1], 0.0);
+		assertEquals(2.5, first[2], 1e-12);
+		assertEquals(16.0, first[3], 0.0);
+		final double[] second = windows.values.get(1);
+		assertEquals(5.0, second[0], 0.0);
+		assertEquals(8.0, second[1], 0.0);
+		assertEquals(6.5, second[2], 1e-12);
+		assertEquals(64.0, second[3], 0.0);
+	}
+
+	@Test
+	public void sharedSignalsAreReadOnce() throws OskException {
+		final Windows a = new Windows();
+		final Windows b = new Windows();
+		final Subscription first = subscriptions.subscribe(
+				Subscription.decimated(new String[] {"M.step"}, 1, a));
+		subscriptions.subscribe(Subscription.decimated(new String[] {"M.step", "M.square"}, 1, b));
+		assertEquals(2, subscriptions.getSignalCount());
+		model.calls = 0;
+		run(5);
+		assertEquals(5, model.calls);
+		assertEquals(5, a.values.size());
+		assertEquals(25.0, b.values.get(4)[1], 0.0);
+
+		subscriptions.unsubscribe(first);
+		assertEquals(1, subscriptions.getSubscriptionCount());
+		assertEquals(2, subscriptions.getSignalCount());
+	}
+
+	@Test
+	public void signalsAreOnlyReadWhenNeeded() throws OskException {
+		subscriptions.subscribe(Subscription.decimated(new String[] {"M.step"}, 5, new Windows()));
+		model.calls = 0;
+		run(20);
+		assertEquals(4, model.calls);
+	}
+
+	@Test(expected = OskException.class)
+	public void unknownSignal() throws OskException {
+		subscriptions.subscribe(Subscription.decimated(new String[] {"M.none"}, 1, new Windows()));
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import net.gescobar.jmx.annotation.ManagedAttribute;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osk.errors.OskException;
+
+public class TelemetryRecorderTest {
+
+	/** Model with one attribute of every signal type. */
+	public static class Model {
+		double pressure;
+		boolean open;
+		Vector3D position = Vector3D.ZERO;
+		double[] temperatures = new double[2];
+		int positionCalls;
+
+		@ManagedAttribute
+		public double getPressure() {
+			return pressure;
+		}
+
+		@ManagedAttribute
+		public boolean isOpen() {
+			return open;
+		}
+
+		@ManagedAttribute
+		public Vector3D getPosition() {
+			positionCalls++;
+			return position;
+		}
+
+		@ManagedAttribute
+		public double[] getTemperatures() {
+			return temperatures;
+		}
+
+		void step(final int i) {
+			pressure = 1e5 + i;
+			open = i % 2 == 1;
+			position = new Vector3D(i, 2 * i, 3 * i);
+			temperatures[0] = 300 + i;
+			temperatures[1] = 310 + i;
+		}
+	}
+
+	private final Model model = new Model();
+	private File file;
+
+	@Before
+	public void createFile() throws IOException {
+		file = File.createTempFile("osk-telemetry", ".tlm");
+	}
+
+	@After
+	public void deleteFile() {
+		file.delete();
+	}
+
+	private Signal[] signals() {
+		final List<Signal> signals = ModelRegistry.signals("M", model);
+		return signals.toArray(new Signal[signals.size()]);
+	}
+
+	@Test
+	public void signalsPerAttribute() {
+		final Signal[] signals = signals();
+		assertEquals(7, signals.length);
+		model.step(3);
+		for (Signal signal : signals) {
+			if (signal.getName().equals("M.position.y")) {
+				assertEquals(6.0, signal.value(), 0.0);
+			} else if (signal.getName().equals("M.temperatures.1")) {
+				assertEquals(313.0, signal.value(), 0.0);
+			} else if (signal.getName().equals("M.open")) {
+				assertEquals(1.0, signal.value(), 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void samplerCallsEveryGetterOnce() {
+		final Signal[] signals = signals();
+		final SignalSampler sampler = new SignalSampler(signals);
+		final double[] values = new double[signals.length];
+		model.step(1);
+		model.positionCalls = 0;
+		sampler.sample(values);
+		assertEquals(1, model.positionCalls);
+	}
+
+	@Test
+	public void nullGivesNaN() {
+		model.position = null;
+		for (Signal signal : signals()) {
+			if (signal.getName().startsWith("M.position.")) {
+				assertTrue(Double.isNaN(signal.value()));
+			}
+		}
+	}
+
+	@Test
+	public void recordAndReadBack() throws OskException {
+		final Signal[] signals = signals();
+		final int rows = 10;
+		// blocks of 4 rows, the last one partly filled
+		final TelemetryRecorder recorder = new TelemetryRecorder(file, signals, 4);
+		for (int i = 0; i < rows; i++) {
+			model.step(i);
+			recorder.record(0.5 * i);
+		}
+		recorder.close();
+		assertEquals(rows, recorder.getRows());
+
+		final TelemetryReader reader = new TelemetryReader(file);
+		assertEquals(rows, reader.getRows());
+		assertEquals(TelemetryRecorder.TIME_COLUMN, reader.getColumns()[0]);
+		assertEquals(signals.length + 1, reader.getColumns().length);
+		final double[] time = new double[rows];
+		final double[] pressure = new double[rows];
+		final double[] z = new double[rows];
+		final double[] temperature = new double[rows];
+		for (int i = 0; i < rows; i++) {
+			time[i] = 0.5 * i;
+			pressure[i] = 1e5 + i;
+			z[i] = 3 * i;
+			temperature[i] = 310 + i;
+		}
+		assertArrayEquals(time, reader.column(TelemetryRecorder.TIME_COLUMN), 0.0);
+		assertArrayEquals(pressure, reader.column("M.pressure"), 0.0);
+		assertArrayEquals(z, reader.column("M.position.z"), 0.0);
+		assertArrayEquals(temperature, reader.column("M.temperatures.1"), 0.0);
+	}
+
+	@Test(expected = OskException.class)
+	public void unknownColumn() throws OskException {
+		new TelemetryRecorder(file, signals(), 4).close();
+		new TelemetryReader(file).column("M.none");
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ *      File under GPL  see OpenSimKit Documentation.
+ *
+ *      No warranty and liability for correctness by author.
+ */
+package org.osk.telemetry;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
+import org.junit.After;
+import org.junit.Test;
+import org.osk.errors.OskException;
+import org.osk.telemetry.TelemetryStream.Transport;
+
+public class TelemetryStreamTest {
+
+	private TelemetryStream stream;
+	private TelemetryStreamClient client;
+	private Thread producer;
+
+	@After
+	public void stop() throws Exception {
+		if (producer != null) {
+			producer.interrupt();
+			producer.join();
+		}
+		if (stream != null) {
+			stream.stop();
+		}
+		if (client != null) {
+			client.close();
+		}
+	}
+
+	private static String[] names(final int count) {
+		final String[] names = new String[count];
+		for (int i = 0; i < count; i++) {
+			names[i] = "M.signal" + i;
+		}
+		return names;
+	}
+
+	private static InetSocketAddress freeAddress(final Transport transport) throws IOException {
+		final int port;
+		if (transport == Transport.TCP) {
+			final ServerSocket socket = new ServerSocket(0);
+			port = socket.getLocalPort();
+			socket.close();
+		} else {
+			final DatagramSocket socket = new DatagramSocket(0);
+			port = socket.getLocalPort();
+			socket.close();
+		}
+		return new InetSocketAddress("127.0.0.1", port);
+	}
+
+	/**
+	 * Feeds rows with value i of row t equal to t * (i + 1) until
+	 * interrupted, a little slower than the sender so no frame is dropped.
+	 */
+	private void produce(final int signals) {
+		producer = new Thread() {
+			@Override
+			public void run() {
+				final double[] values = new double[signals];
+				long row = 0;
+				while (!isInterrupted()) {
+					row++;
+					for (int i = 0; i < signals; i++) {
+						values[i] = row * (i + 1);
+					}
+					stream.window(row, null, values);
+					if (row % 10 == 0) {
+						try {
+							Thread.sleep(5);
+						} catch (InterruptedException e) {
+							return;
+						}
+					}
+				}
+			}
+		};
+		producer.setDaemon(true);
+		producer.start();
+	}
+
+	/** Receives frames and checks names, frame size and the row contents. */
+	private void receiveFrames(final String[] names, final int rowsPerFrame, final int frames)
+			throws IOException {
+		long last = -1;
+		for (int f = 0; f < frames; f++) {
+			assertEquals(rowsPerFrame, client.receive());
+			assertArrayEquals(names, client.getNames());
+			assertTrue("sequence goes backwards", client.getSequence() > last);
+			last = client.getSequence();
+			for (int r = 0; r < rowsPerFrame; r++) {
+				final double time = client.getTime(r);
+				for (int i = 0; i < names.length; i++) {
+					assertEquals(time * (i + 1), client.getValue(r, i), 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void udpRoundTrip() throws Exception {
+		final InetSocketAddress address = freeAddress(Transport.UDP);
+		final String[] names = names(4);
+		client = TelemetryStreamClient.listen(address);
+		stream = new TelemetryStream(Transport.UDP, address, names, 10, 64);
+		stream.start();
+		produce(names.length);
+		receiveFrames(names, 10, 20);
+	}
+
+	@Test
+	public void tcpRoundTrip() throws Exception {
+		final InetSocketAddress address = freeAddress(Transport.TCP);
+		final String[] names = names(4);
+		stream = new TelemetryStream(Transport.TCP, address, names, 10, 64);
+		stream.start();
+		client = TelemetryStreamClient.connect(address);
+		produce(names.length);
+		receiveFrames(names, 10, 20);
+	}
+
+	@Test
+	public void tcpFramesLargerThanADatagram() throws Exception {
+		final InetSocketAddress address = freeAddress(Transport.TCP);
+		final String[] names = names(12);
+		// 1000 rows of 13 doubles, about 104 kB per frame
+		final int rowsPerFrame = 1000;
+		stream = new TelemetryStream(Transport.TCP, address, names, rowsPerFrame, 8);
+		stream.start();
+		client = TelemetryStreamClient.connect(address);
+		produce(names.length);
+		receiveFrames(names, rowsPerFrame, 5);
+	}
+
+	@Test(expected = OskException.class)
+	public void udpFramesMustFitADatagram() throws OskException {
+		new TelemetryStream(Transport.UDP, new InetSocketAddress("127.0.0.1", 0), names(12), 1000, 8);
+	}
+
+	@Test(expected = OskException.class)
+	public void tcpFramesAreCapped() throws OskException {
+		new TelemetryStream(Transport.TCP, new InetSocketAddress("127.0.0.1", 0), names(1),
+				TelemetryStream.MAX_FRAME / 16, 8);
+	}
+}